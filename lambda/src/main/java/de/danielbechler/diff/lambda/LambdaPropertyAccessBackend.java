@@ -0,0 +1,292 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.lambda;
+
+import de.danielbechler.diff.introspection.PropertyAccessBackend;
+import de.danielbechler.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A {@link PropertyAccessBackend} that invokes getters and setters without reflection. Whenever possible it uses the
+ * {@link LambdaMetafactory} to create a dedicated {@link Function} or {@link BiConsumer} per property, which the JIT
+ * can inline just like a hand-written accessor. Methods that can't be bound that way, because they or their types
+ * aren't public or visible to the class loader of this backend, are invoked via a plain {@link MethodHandle} instead.
+ * <p/>
+ * Just like with reflection, exceptions thrown by the getters and setters are wrapped in an {@link
+ * InvocationTargetException}.
+ * <p/>
+ * Register it via {@link de.danielbechler.diff.introspection.IntrospectionConfigurer#setPropertyAccessBackend(PropertyAccessBackend)}.
+ *
+ * @author Daniel Bechler
+ */
+public class LambdaPropertyAccessBackend implements PropertyAccessBackend
+{
+	private static final Logger logger = LoggerFactory.getLogger(LambdaPropertyAccessBackend.class);
+	private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	/**
+	 * @return A reader invoking the given getter or <code>null</code> if it can't be accessed via method handles.
+	 */
+	public PropertyReader createReader(final Method readMethod)
+	{
+		Assert.notNull(readMethod, "readMethod");
+		final MethodHandle handle = unreflect(readMethod);
+		if (handle == null)
+		{
+			return null;
+		}
+		if (canBeBoundToLambda(readMethod))
+		{
+			final Function<Object, Object> function = bindFunction(readMethod, handle);
+			if (function != null)
+			{
+				return new FunctionPropertyReader(function);
+			}
+		}
+		return new MethodHandlePropertyReader(handle.asType(READER_TYPE));
+	}
+
+	/**
+	 * @return A writer invoking the given setter or <code>null</code> if it can't be accessed via method handles.
+	 */
+	public PropertyWriter createWriter(final Method writeMethod)
+	{
+		Assert.notNull(writeMethod, "writeMethod");
+		final MethodHandle handle = unreflect(writeMethod);
+		if (handle == null)
+		{
+			return null;
+		}
+		if (canBeBoundToLambda(writeMethod))
+		{
+			final BiConsumer<Object, Object> consumer = bindConsumer(writeMethod, handle);
+			if (consumer != null)
+			{
+				return new ConsumerPropertyWriter(consumer);
+			}
+		}
+		return new MethodHandlePropertyWriter(handle.asType(WRITER_TYPE));
+	}
+
+	private MethodHandle unreflect(final Method method)
+	{
+		try
+		{
+			return lookup.unreflect(method);
+		}
+		catch (final IllegalAccessException e)
+		{
+			logger.debug("Couldn't create method handle for method: {}", method, e);
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Function<Object, Object> bindFunction(final Method readMethod, final MethodHandle handle)
+	{
+		final MethodType instantiatedType = MethodType.methodType(boxed(readMethod.getReturnType()),
+				readMethod.getDeclaringClass());
+		try
+		{
+			final CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class),
+					READER_TYPE,
+					handle,
+					instantiatedType);
+			return (Function<Object, Object>) callSite.getTarget().invoke();
+		}
+		catch (final Throwable e)
+		{
+			logger.debug("Couldn't bind method to lambda: {}", readMethod, e);
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private BiConsumer<Object, Object> bindConsumer(final Method writeMethod, final MethodHandle handle)
+	{
+		final MethodType instantiatedType = MethodType.methodType(void.class,
+				writeMethod.getDeclaringClass(),
+				boxed(writeMethod.getParameterTypes()[0]));
+		try
+		{
+			final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+					MethodType.methodType(BiConsumer.class),
+					WRITER_TYPE,
+					handle,
+					instantiatedType);
+			return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+		}
+		catch (final Throwable e)
+		{
+			logger.debug("Couldn't bind method to lambda: {}", writeMethod, e);
+			return null;
+		}
+	}
+
+	private static Class<?> boxed(final Class<?> type)
+	{
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+	/**
+	 * The generated lambda classes get defined next to this backend, so they can only call public methods of types
+	 * that are visible to its class loader.
+	 */
+	private static boolean canBeBoundToLambda(final Method method)
+	{
+		if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+		{
+			return false;
+		}
+		if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType()))
+		{
+			return false;
+		}
+		for (final Class<?> parameterType : method.getParameterTypes())
+		{
+			if (!isVisible(parameterType))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVisible(final Class<?> type)
+	{
+		if (type.isPrimitive())
+		{
+			return true;
+		}
+		if (type.isArray())
+		{
+			return isVisible(type.getComponentType());
+		}
+		try
+		{
+			return Class.forName(type.getName(), false, LambdaPropertyAccessBackend.class.getClassLoader()) == type;
+		}
+		catch (final ClassNotFoundException e)
+		{
+			return false;
+		}
+	}
+
+	private static final class FunctionPropertyReader implements PropertyReader
+	{
+		private final Function<Object, Object> function;
+
+		private FunctionPropertyReader(final Function<Object, Object> function)
+		{
+			this.function = function;
+		}
+
+		public Object read(final Object target) throws Exception
+		{
+			try
+			{
+				return function.apply(target);
+			}
+			catch (final Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	private static final class ConsumerPropertyWriter implements PropertyWriter
+	{
+		private final BiConsumer<Object, Object> consumer;
+
+		private ConsumerPropertyWriter(final BiConsumer<Object, Object> consumer)
+		{
+			this.consumer = consumer;
+		}
+
+		public void write(final Object target, final Object value) throws Exception
+		{
+			try
+			{
+				consumer.accept(target, value);
+			}
+			catch (final Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	private static final class MethodHandlePropertyReader implements PropertyReader
+	{
+		private final MethodHandle handle;
+
+		private MethodHandlePropertyReader(final MethodHandle handle)
+		{
+			this.handle = handle;
+		}
+
+		public Object read(final Object target) throws Exception
+		{
+			try
+			{
+				return (Object) handle.invokeExact(target);
+			}
+			catch (final Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	private static final class MethodHandlePropertyWriter implements PropertyWriter
+	{
+		private final MethodHandle handle;
+
+		private MethodHandlePropertyWriter(final MethodHandle handle)
+		{
+			this.handle = handle;
+		}
+
+		public void write(final Object target, final Object value) throws Exception
+		{
+			try
+			{
+				handle.invokeExact(target, value);
+			}
+			catch (final Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+}
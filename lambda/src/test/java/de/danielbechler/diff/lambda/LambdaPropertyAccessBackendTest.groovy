@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.lambda
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.introspection.PropertyReadException
+import groovy.transform.PackageScope
+import spock.lang.Specification
+
+import java.lang.reflect.InvocationTargetException
+
+class LambdaPropertyAccessBackendTest extends Specification {
+
+	def backend = new LambdaPropertyAccessBackend()
+
+	def 'createReader: binds public getters to lambdas'() {
+		given:
+		  def reader = backend.createReader(Person.getMethod('getName'))
+		expect:
+		  reader.class.simpleName == 'FunctionPropertyReader'
+		  reader.read(new Person(name: 'foo')) == 'foo'
+	}
+
+	def 'createReader: boxes primitive return values'() {
+		expect:
+		  backend.createReader(Person.getMethod('getAge')).read(new Person(age: 42)) == 42
+	}
+
+	def 'createWriter: binds public setters to lambdas'() {
+		given:
+		  def person = new Person()
+		  def writer = backend.createWriter(Person.getMethod('setName', String))
+		when:
+		  writer.write(person, 'foo')
+		then:
+		  writer.class.simpleName == 'ConsumerPropertyWriter'
+		  person.name == 'foo'
+	}
+
+	def 'createWriter: unboxes primitive values'() {
+		given:
+		  def person = new Person()
+		when:
+		  backend.createWriter(Person.getMethod('setAge', int)).write(person, 42)
+		then:
+		  person.age == 42
+	}
+
+	def 'falls back to method handles for methods of non-public types'() {
+		given:
+		  def readMethod = Hidden.getMethod('getValue')
+		  def writeMethod = Hidden.getMethod('setValue', String)
+		  [readMethod, writeMethod]*.accessible = true
+		  def hidden = new Hidden()
+		and:
+		  def reader = backend.createReader(readMethod)
+		  def writer = backend.createWriter(writeMethod)
+		when:
+		  writer.write(hidden, 'foo')
+		then:
+		  reader.class.simpleName == 'MethodHandlePropertyReader'
+		  writer.class.simpleName == 'MethodHandlePropertyWriter'
+		  reader.read(hidden) == 'foo'
+	}
+
+	def 'wraps exceptions thrown by #type getters like reflection does'() {
+		given:
+		  def readMethod = beanType.getMethod('getFailure')
+		  readMethod.accessible = true
+		when:
+		  backend.createReader(readMethod).read(beanType.newInstance())
+		then:
+		  def e = thrown(InvocationTargetException)
+		  e.cause instanceof UnsupportedOperationException
+		where:
+		  type         | beanType
+		  'public'     | Failing
+		  'non-public' | Hidden
+	}
+
+	def 'can be used by the ObjectDiffer'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .introspection().setPropertyAccessBackend(backend).and()
+				  .build()
+		when:
+		  def node = objectDiffer.compare(new Person(name: 'foo', age: 1), new Person(name: 'bar', age: 1))
+		then:
+		  node.getChild('name').changed
+		  node.getChild('age') == null
+	}
+
+	def 'exceptions thrown by getters are reported by the ObjectDiffer just like with reflection'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .introspection().setPropertyAccessBackend(backend).and()
+				  .build()
+		when:
+		  objectDiffer.compare(new Failing(), new Failing())
+		then:
+		  def e = thrown(PropertyReadException)
+		  e.cause instanceof InvocationTargetException
+		  e.cause.cause instanceof UnsupportedOperationException
+	}
+
+	static class Person {
+		String name
+		int age
+	}
+
+	static class Failing {
+		String getFailure() {
+			throw new UnsupportedOperationException()
+		}
+	}
+
+	@PackageScope
+	static class Hidden {
+		String value
+
+		String getFailure() {
+			throw new UnsupportedOperationException()
+		}
+	}
+}
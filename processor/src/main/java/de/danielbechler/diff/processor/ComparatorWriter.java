@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.danielbechler.diff.processor.IntrospectorWriter.literal;
+
+/**
+ * Writes the source code of the {@link de.danielbechler.diff.differ.CompiledBeanComparator} generated for a {@link
+ * de.danielbechler.diff.introspection.Diffable} type. It compares all primitive properties by calling their getters
+ * directly, so the values never get boxed. Just like the {@link de.danielbechler.diff.differ.PrimitiveDiffer}, which
+ * compares the boxed values via <code>equals</code>, it compares floating point values by their bits.
+ *
+ * @author Daniel Bechler
+ */
+final class ComparatorWriter
+{
+	private static final String COMPILED_BEAN_COMPARATOR = "de.danielbechler.diff.differ.CompiledBeanComparator";
+
+	private final Writer writer;
+
+	ComparatorWriter(final Writer writer)
+	{
+		this.writer = writer;
+	}
+
+	void write(final String packageName,
+			   final String comparatorName,
+			   final TypeElement type,
+			   final List<DiffableProperty> properties) throws IOException
+	{
+		final String typeName = type.getQualifiedName().toString();
+		final List<DiffableProperty> primitiveProperties = primitivePropertiesOf(properties);
+		if (packageName.length() > 0)
+		{
+			line("package " + packageName + ";");
+			line("");
+		}
+		line("/**");
+		line(" * Compares the primitive properties of {@link " + typeName + "}.");
+		line(" * <p/>");
+		line(" * Generated by " + DiffableProcessor.class.getName() + ". Do not edit.");
+		line(" */");
+		line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+		line("public final class " + comparatorName + " extends " + COMPILED_BEAN_COMPARATOR + "<" + typeName + ">");
+		line("{");
+		line("\tpublic " + comparatorName + "()");
+		line("\t{");
+		line("\t\tsuper(" + typeName + ".class);");
+		line("\t}");
+		line("");
+		line("\tprotected int indexOf(final String propertyName, final Class<?> propertyType)");
+		line("\t{");
+		for (int i = 0; i < primitiveProperties.size(); i++)
+		{
+			final DiffableProperty property = primitiveProperties.get(i);
+			line("\t\tif (" + literal(property.getName()) + ".equals(propertyName) && propertyType == "
+					+ property.getDeclaredType() + ".class)");
+			line("\t\t{");
+			line("\t\t\treturn " + i + ";");
+			line("\t\t}");
+		}
+		line("\t\treturn -1;");
+		line("\t}");
+		line("");
+		line("\tprotected boolean isEqual(final int index, final " + typeName + " working, final " + typeName + " base)");
+		line("\t{");
+		line("\t\tswitch (index)");
+		line("\t\t{");
+		for (int i = 0; i < primitiveProperties.size(); i++)
+		{
+			final DiffableProperty property = primitiveProperties.get(i);
+			final String readMethodName = property.getReadMethod().getSimpleName().toString();
+			line("\t\t\tcase " + i + ":");
+			line("\t\t\t\treturn " + comparisonOf(property.getDeclaredType(), "working." + readMethodName + "()",
+					"base." + readMethodName + "()") + ";");
+		}
+		line("\t\t\tdefault:");
+		line("\t\t\t\tthrow new IllegalArgumentException(\"Unknown property index: \" + index);");
+		line("\t\t}");
+		line("\t}");
+		line("}");
+	}
+
+	private static List<DiffableProperty> primitivePropertiesOf(final List<DiffableProperty> properties)
+	{
+		final List<DiffableProperty> primitiveProperties = new ArrayList<DiffableProperty>();
+		for (final DiffableProperty property : properties)
+		{
+			if (property.getDeclaredType().getKind().isPrimitive())
+			{
+				primitiveProperties.add(property);
+			}
+		}
+		return primitiveProperties;
+	}
+
+	/**
+	 * Same as <code>Double#equals</code> and <code>Float#equals</code>, which treat <code>NaN</code> as equal to
+	 * itself, but <code>0.0</code> and <code>-0.0</code> as different.
+	 */
+	private static String comparisonOf(final TypeMirror type, final String working, final String base)
+	{
+		if (type.getKind() == TypeKind.DOUBLE)
+		{
+			return "Double.doubleToLongBits(" + working + ") == Double.doubleToLongBits(" + base + ")";
+		}
+		if (type.getKind() == TypeKind.FLOAT)
+		{
+			return "Float.floatToIntBits(" + working + ") == Float.floatToIntBits(" + base + ")";
+		}
+		return working + " == " + base;
+	}
+
+	private void line(final String line) throws IOException
+	{
+		writer.write(line);
+		writer.write('\n');
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.processor;
+
+import de.danielbechler.diff.introspection.Diffable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates an {@link de.danielbechler.diff.introspection.Introspector} for every type annotated with {@link
+ * Diffable}. The properties are resolved the same way the {@link de.danielbechler.diff.introspection.StandardIntrospector}
+ * resolves them at runtime: every public getter of the type and its super types makes a property, which is writable
+ * when there is a public setter accepting the return type of the getter.
+ * <p/>
+ * Along with the introspector it generates a {@link de.danielbechler.diff.differ.CompiledBeanComparator}, which
+ * compares the primitive properties of the type via plain getter calls.
+ *
+ * @author Daniel Bechler
+ */
+@SupportedAnnotationTypes("de.danielbechler.diff.introspection.Diffable")
+public class DiffableProcessor extends AbstractProcessor
+{
+	static final String INTROSPECTOR_SUFFIX = "_DiffIntrospector";
+	static final String COMPARATOR_SUFFIX = "_DiffComparator";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+	{
+		for (final Element element : roundEnv.getElementsAnnotatedWith(Diffable.class))
+		{
+			if (element.getKind() != ElementKind.CLASS)
+			{
+				error(element, "@Diffable can only be applied to classes");
+				continue;
+			}
+			final TypeElement type = (TypeElement) element;
+			if (!isAccessibleFromPackage(type))
+			{
+				error(type, "@Diffable types must not be private, local or non-static inner classes");
+				continue;
+			}
+			final List<DiffableProperty> properties = new ArrayList<DiffableProperty>(propertiesOf(type));
+			try
+			{
+				writeIntrospector(type, properties);
+				writeComparator(type, properties);
+			}
+			catch (final IOException e)
+			{
+				error(type, "Failed to generate introspector: " + e.getMessage());
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessibleFromPackage(final TypeElement type)
+	{
+		if (type.getModifiers().contains(Modifier.PRIVATE))
+		{
+			return false;
+		}
+		if (type.getNestingKind() == NestingKind.TOP_LEVEL)
+		{
+			return true;
+		}
+		if (type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC))
+		{
+			return isAccessibleFromPackage((TypeElement) type.getEnclosingElement());
+		}
+		return false;
+	}
+
+	private Collection<DiffableProperty> propertiesOf(final TypeElement type)
+	{
+		final Types types = processingEnv.getTypeUtils();
+		final Elements elements = processingEnv.getElementUtils();
+		final DeclaredType declaredType = (DeclaredType) type.asType();
+		final List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(type));
+		final Map<String, DiffableProperty> properties = new TreeMap<String, DiffableProperty>();
+		for (final ExecutableElement method : methods)
+		{
+			final String propertyName = readPropertyNameOf(method);
+			if (propertyName == null || propertyName.equals("class") || propertyName.equals("metaClass"))
+			{
+				continue;
+			}
+			final DiffableProperty knownProperty = properties.get(propertyName);
+			if (knownProperty != null && knownProperty.getReadMethod().getSimpleName().toString().startsWith("is"))
+			{
+				// just like java.beans.Introspector: boolean is-getters take precedence over get-getters
+				continue;
+			}
+			final ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+			final TypeMirror valueType = types.erasure(methodType.getReturnType());
+			final ExecutableElement writeMethod = findWriteMethod(methods, declaredType, propertyName, valueType);
+			properties.put(propertyName, new DiffableProperty(propertyName, method, writeMethod,
+					types.erasure(method.getReturnType()), valueType));
+		}
+		return properties.values();
+	}
+
+	private static String readPropertyNameOf(final ExecutableElement method)
+	{
+		if (!isPublicInstanceMethod(method) || !method.getParameters().isEmpty())
+		{
+			return null;
+		}
+		final String methodName = method.getSimpleName().toString();
+		final TypeKind returnTypeKind = method.getReturnType().getKind();
+		if (methodName.startsWith("get") && methodName.length() > 3 && returnTypeKind != TypeKind.VOID)
+		{
+			return decapitalize(methodName.substring(3));
+		}
+		if (methodName.startsWith("is") && methodName.length() > 2 && returnTypeKind == TypeKind.BOOLEAN)
+		{
+			return decapitalize(methodName.substring(2));
+		}
+		return null;
+	}
+
+	private ExecutableElement findWriteMethod(final List<ExecutableElement> methods,
+											  final DeclaredType declaredType,
+											  final String propertyName,
+											  final TypeMirror valueType)
+	{
+		final Types types = processingEnv.getTypeUtils();
+		for (final ExecutableElement method : methods)
+		{
+			final String methodName = method.getSimpleName().toString();
+			if (isPublicInstanceMethod(method)
+					&& method.getParameters().size() == 1
+					&& method.getReturnType().getKind() == TypeKind.VOID
+					&& methodName.startsWith("set")
+					&& methodName.length() > 3
+					&& decapitalize(methodName.substring(3)).equals(propertyName))
+			{
+				final ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+				if (types.isSameType(types.erasure(methodType.getParameterTypes().get(0)), valueType))
+				{
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isPublicInstanceMethod(final ExecutableElement method)
+	{
+		final Set<Modifier> modifiers = method.getModifiers();
+		return modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC);
+	}
+
+	/**
+	 * Same as {@link java.beans.Introspector#decapitalize(String)}.
+	 */
+	static String decapitalize(final String name)
+	{
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1)))
+		{
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private void writeIntrospector(final TypeElement type, final List<DiffableProperty> properties) throws IOException
+	{
+		final String packageName = packageNameOf(type);
+		final String introspectorName = introspectorNameOf(type);
+		final Writer writer = openSourceFile(type, packageName, introspectorName);
+		try
+		{
+			final IntrospectorWriter introspectorWriter = new IntrospectorWriter(writer, processingEnv.getTypeUtils());
+			introspectorWriter.write(packageName, introspectorName, comparatorNameOf(type), type, properties);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	private void writeComparator(final TypeElement type, final List<DiffableProperty> properties) throws IOException
+	{
+		final String packageName = packageNameOf(type);
+		final String comparatorName = comparatorNameOf(type);
+		final Writer writer = openSourceFile(type, packageName, comparatorName);
+		try
+		{
+			new ComparatorWriter(writer).write(packageName, comparatorName, type, properties);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	private String packageNameOf(final TypeElement type)
+	{
+		final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+	}
+
+	private Writer openSourceFile(final TypeElement type, final String packageName, final String simpleName) throws IOException
+	{
+		final String qualifiedName = packageName.length() == 0 ? simpleName : packageName + '.' + simpleName;
+		final JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+		return sourceFile.openWriter();
+	}
+
+	/**
+	 * @return The simple name of the generated introspector. For nested types the names of the enclosing types are
+	 * prepended, so <code>Outer.Inner</code> becomes <code>Outer_Inner_DiffIntrospector</code>.
+	 */
+	static String introspectorNameOf(final TypeElement type)
+	{
+		return generatedNameOf(type, INTROSPECTOR_SUFFIX);
+	}
+
+	/**
+	 * @return The simple name of the generated comparator, e.g. <code>Outer_Inner_DiffComparator</code>.
+	 */
+	static String comparatorNameOf(final TypeElement type)
+	{
+		return generatedNameOf(type, COMPARATOR_SUFFIX);
+	}
+
+	private static String generatedNameOf(final TypeElement type, final String suffix)
+	{
+		final StringBuilder sb = new StringBuilder(type.getSimpleName());
+		Element enclosingElement = type.getEnclosingElement();
+		while (enclosingElement instanceof TypeElement)
+		{
+			sb.insert(0, '_').insert(0, enclosingElement.getSimpleName());
+			enclosingElement = enclosingElement.getEnclosingElement();
+		}
+		return sb.append(suffix).toString();
+	}
+
+	private void error(final Element element, final String message)
+	{
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.processor;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A bean property as found by the {@link DiffableProcessor}.
+ *
+ * @author Daniel Bechler
+ */
+final class DiffableProperty
+{
+	private final String name;
+	private final ExecutableElement readMethod;
+	private final ExecutableElement writeMethod;
+	private final TypeMirror declaredType;
+	private final TypeMirror valueType;
+
+	/**
+	 * @param declaredType The erased return type of the getter, as reported by reflection.
+	 * @param valueType    The erased type of the property values, with all type variables of super types resolved.
+	 */
+	DiffableProperty(final String name,
+					 final ExecutableElement readMethod,
+					 final ExecutableElement writeMethod,
+					 final TypeMirror declaredType,
+					 final TypeMirror valueType)
+	{
+		this.name = name;
+		this.readMethod = readMethod;
+		this.writeMethod = writeMethod;
+		this.declaredType = declaredType;
+		this.valueType = valueType;
+	}
+
+	String getName()
+	{
+		return name;
+	}
+
+	ExecutableElement getReadMethod()
+	{
+		return readMethod;
+	}
+
+	/**
+	 * @return The setter of the property or <code>null</code> if it is read-only.
+	 */
+	ExecutableElement getWriteMethod()
+	{
+		return writeMethod;
+	}
+
+	TypeMirror getDeclaredType()
+	{
+		return declaredType;
+	}
+
+	TypeMirror getValueType()
+	{
+		return valueType;
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.processor;
+
+import de.danielbechler.diff.introspection.ObjectDiffProperty;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the source code of the introspector generated for a {@link de.danielbechler.diff.introspection.Diffable}
+ * type. All referenced types are fully qualified, so the generated code can't clash with the names of other types in
+ * the same package.
+ *
+ * @author Daniel Bechler
+ */
+final class IntrospectorWriter
+{
+	private static final String OBJECT_DIFFER_BUILDER = "de.danielbechler.diff.ObjectDifferBuilder";
+	private static final String TYPE_INFO = "de.danielbechler.diff.instantiation.TypeInfo";
+	private static final String INTROSPECTOR = "de.danielbechler.diff.introspection.Introspector";
+	private static final String COMPILED_PROPERTY_ACCESSOR = "de.danielbechler.diff.introspection.CompiledPropertyAccessor";
+	private static final String INCLUSION = "de.danielbechler.diff.inclusion.Inclusion";
+
+	private final Writer writer;
+	private final Types types;
+
+	IntrospectorWriter(final Writer writer, final Types types)
+	{
+		this.writer = writer;
+		this.types = types;
+	}
+
+	void write(final String packageName,
+			   final String introspectorName,
+			   final String comparatorName,
+			   final TypeElement type,
+			   final List<DiffableProperty> properties) throws IOException
+	{
+		final String typeName = type.getQualifiedName().toString();
+		if (packageName.length() > 0)
+		{
+			line("package " + packageName + ";");
+			line("");
+		}
+		line("/**");
+		line(" * Introspector for {@link " + typeName + "}.");
+		line(" * <p/>");
+		line(" * Generated by " + DiffableProcessor.class.getName() + ". Do not edit.");
+		line(" */");
+		line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+		line("public final class " + introspectorName + " implements " + INTROSPECTOR);
+		line("{");
+		line("\tpublic " + TYPE_INFO + " introspect(final Class<?> type)");
+		line("\t{");
+		line("\t\tfinal " + TYPE_INFO + " typeInfo = new " + TYPE_INFO + "(type);");
+		for (final DiffableProperty property : properties)
+		{
+			writeAccessor(typeName, property);
+		}
+		line("\t\treturn typeInfo;");
+		line("\t}");
+		line("");
+		line("\t/**");
+		line("\t * Registers this introspector for {@link " + typeName + "} and marks the type for specialized");
+		line("\t * comparison via {@link " + comparatorName + "}.");
+		line("\t */");
+		line("\tpublic static " + OBJECT_DIFFER_BUILDER + " configure(final " + OBJECT_DIFFER_BUILDER + " builder)");
+		line("\t{");
+		line("\t\tbuilder.introspection().ofType(" + typeName + ".class).toUse(new " + introspectorName + "());");
+		line("\t\tbuilder.differs().specialize(new " + comparatorName + "());");
+		line("\t\treturn builder;");
+		line("\t}");
+		line("}");
+	}
+
+	private void writeAccessor(final String typeName, final DiffableProperty property) throws IOException
+	{
+		final String readMethodName = property.getReadMethod().getSimpleName().toString();
+		final boolean writable = property.getWriteMethod() != null;
+		line("\t\ttypeInfo.addPropertyAccessor(new " + COMPILED_PROPERTY_ACCESSOR + "(");
+		line("\t\t\t\t" + typeName + ".class,");
+		line("\t\t\t\t" + literal(property.getName()) + ",");
+		line("\t\t\t\t" + literal(readMethodName) + ",");
+		line("\t\t\t\t" + property.getDeclaredType() + ".class,");
+		line("\t\t\t\t" + writable + ",");
+		line("\t\t\t\t" + objectDiffPropertyOf(property) + ")");
+		line("\t\t{");
+		line("\t\t\tprotected Object read(final Object target)");
+		line("\t\t\t{");
+		line("\t\t\t\treturn ((" + typeName + ") target)." + readMethodName + "();");
+		line("\t\t\t}");
+		if (writable)
+		{
+			line("");
+			line("\t\t\tprotected void write(final Object target, final Object value)");
+			line("\t\t\t{");
+			line("\t\t\t\t((" + typeName + ") target)." + property.getWriteMethod().getSimpleName()
+					+ "((" + castTypeOf(property.getValueType()) + ") value);");
+			line("\t\t\t}");
+		}
+		line("\t\t});");
+	}
+
+	@SuppressWarnings("deprecation")
+	private String objectDiffPropertyOf(final DiffableProperty property)
+	{
+		final ObjectDiffProperty annotation = property.getReadMethod().getAnnotation(ObjectDiffProperty.class);
+		if (annotation == null)
+		{
+			return "null";
+		}
+		final StringBuilder categories = new StringBuilder("new String[]{");
+		final String[] categoryNames = annotation.categories();
+		for (int i = 0; i < categoryNames.length; i++)
+		{
+			categories.append(i > 0 ? ", " : "").append(literal(categoryNames[i]));
+		}
+		categories.append('}');
+		return COMPILED_PROPERTY_ACCESSOR + ".objectDiffProperty("
+				+ annotation.excluded() + ", "
+				+ INCLUSION + "." + annotation.inclusion().name() + ", "
+				+ annotation.equalsOnly() + ", "
+				+ categories + ", "
+				+ literal(annotation.equalsOnlyValueProviderMethod()) + ")";
+	}
+
+	/**
+	 * Values of primitive properties arrive boxed, so they need to be cast to their wrapper type.
+	 */
+	private String castTypeOf(final TypeMirror valueType)
+	{
+		if (valueType.getKind().isPrimitive())
+		{
+			return types.boxedClass((PrimitiveType) valueType).getQualifiedName().toString();
+		}
+		return valueType.toString();
+	}
+
+	static String literal(final String value)
+	{
+		final StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++)
+		{
+			final char c = value.charAt(i);
+			switch (c)
+			{
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20 || c > 0x7e)
+					{
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else
+					{
+						sb.append(c);
+					}
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	private void line(final String line) throws IOException
+	{
+		writer.write(line);
+		writer.write('\n');
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.processor
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.inclusion.Inclusion
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.introspection.CompiledPropertyAccessor
+import de.danielbechler.diff.introspection.Introspector
+import de.danielbechler.diff.introspection.ObjectDiffProperty
+import de.danielbechler.diff.node.DiffNode
+import spock.lang.Specification
+
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.ToolProvider
+
+class DiffableProcessorTest extends Specification {
+
+	File sourceDirectory
+	File classesDirectory
+	DiagnosticCollector<JavaFileObject> diagnostics
+
+	def setup() {
+		sourceDirectory = File.createTempDir()
+		classesDirectory = File.createTempDir()
+		diagnostics = new DiagnosticCollector<JavaFileObject>()
+	}
+
+	def cleanup() {
+		sourceDirectory.deleteDir()
+		classesDirectory.deleteDir()
+	}
+
+	def 'generates accessors for all public getters'() {
+		given:
+		  source 'example/Person.java', '''
+			package example;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Person extends Named<String> {
+				private int age;
+				private boolean active;
+				private final java.util.List<String> tags = new java.util.ArrayList<String>();
+
+				public int getAge() { return age; }
+				public void setAge(int age) { this.age = age; }
+				public boolean isActive() { return active; }
+				public void setActive(boolean active) { this.active = active; }
+				public java.util.List<String> getTags() { return tags; }
+				public static String getIgnoredBecauseStatic() { return null; }
+				String getIgnoredBecauseNotPublic() { return null; }
+			}
+			'''
+		  source 'example/Named.java', '''
+			package example;
+
+			public abstract class Named<T> {
+				private T name;
+
+				public T getName() { return name; }
+				public void setName(T name) { this.name = name; }
+			}
+			'''
+		when:
+		  def typeInfo = introspect('example.Person')
+		then:
+		  typeInfo.accessors.collect { it.propertyName } == ['active', 'age', 'name', 'tags']
+		  typeInfo.accessors.every { it instanceof CompiledPropertyAccessor }
+		  accessorOf(typeInfo, 'age').type == int
+		  accessorOf(typeInfo, 'active').type == boolean
+		  accessorOf(typeInfo, 'name').type == Object
+		  accessorOf(typeInfo, 'tags').type == List
+	}
+
+	def 'generated accessors read and write properties'() {
+		given:
+		  source 'example/Person.java', '''
+			package example;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Person {
+				private int age;
+				private String name;
+
+				public int getAge() { return age; }
+				public void setAge(int age) { this.age = age; }
+				public String getName() { return name; }
+			}
+			'''
+		  def typeInfo = introspect('example.Person')
+		  def person = loadClass('example.Person').newInstance()
+		when:
+		  accessorOf(typeInfo, 'age').set(person, 42)
+		  accessorOf(typeInfo, 'name').set(person, 'foo')
+		then:
+		  accessorOf(typeInfo, 'age').get(person) == 42
+		  accessorOf(typeInfo, 'name').get(person) == null
+	}
+
+	def 'passes the ObjectDiffProperty annotation on to the accessor'() {
+		given:
+		  source 'example/Person.java', '''
+			package example;
+
+			import de.danielbechler.diff.inclusion.Inclusion;
+			import de.danielbechler.diff.introspection.ObjectDiffProperty;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Person {
+				@ObjectDiffProperty(inclusion = Inclusion.EXCLUDED, categories = {"a", "b\\"c"})
+				public String getName() { return null; }
+			}
+			'''
+		when:
+		  def accessor = accessorOf(introspect('example.Person'), 'name')
+		then:
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty).inclusion() == Inclusion.EXCLUDED
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty) == accessor.getReadMethodAnnotations().first()
+		  accessor.categoriesFromAnnotation == ['a', 'b"c'] as Set
+	}
+
+	def 'generates introspectors for static nested classes'() {
+		given:
+		  source 'example/Outer.java', '''
+			package example;
+
+			public class Outer {
+				@de.danielbechler.diff.introspection.Diffable
+				public static class Inner {
+					public String getValue() { return null; }
+				}
+			}
+			'''
+		expect:
+		  introspect('example.Outer$Inner', 'example.Outer_Inner_DiffIntrospector').accessors.size() == 1
+	}
+
+	def 'rejects types that are not accessible from their package'() {
+		given:
+		  source 'example/Outer.java', '''
+			package example;
+
+			public class Outer {
+				@de.danielbechler.diff.introspection.Diffable
+				class Inner {
+				}
+			}
+			'''
+		expect:
+		  !compile()
+		  diagnostics.diagnostics*.getMessage(null).any { it.contains('non-static inner classes') }
+	}
+
+	def 'configures the ObjectDifferBuilder for the diffable type'() {
+		given:
+		  source 'example/Person.java', '''
+			package example;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Person {
+				private String name;
+
+				public Person(String name) { this.name = name; }
+				public String getName() { return name; }
+			}
+			'''
+		  compile()
+		  def personType = loadClass('example.Person')
+		  def objectDifferBuilder = ObjectDifferBuilder.startBuilding()
+		when:
+		  loadClass('example.Person_DiffIntrospector').configure(objectDifferBuilder)
+		  def node = objectDifferBuilder.build().compare(personType.newInstance('foo'), personType.newInstance('bar'))
+		then:
+		  node.getChild('name').state == DiffNode.State.CHANGED
+	}
+
+	def 'generates a comparator for the primitive properties'() {
+		given:
+		  source 'example/Point.java', '''
+			package example;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Point {
+				private final int x;
+				private final double y;
+
+				public Point(int x, double y) { this.x = x; this.y = y; }
+				public int getX() { return x; }
+				public double getY() { return y; }
+				public String getLabel() { return null; }
+			}
+			'''
+		  assert compile(), diagnostics.diagnostics.join('\n')
+		  def pointType = loadClass('example.Point')
+		  def comparator = loadClass('example.Point' + DiffableProcessor.COMPARATOR_SUFFIX).newInstance()
+		expect:
+		  comparator.beanType == pointType
+		  comparator.indexOf('x', int) == 0
+		  comparator.indexOf('y', double) == 1
+		  comparator.indexOf('x', long) == -1
+		  comparator.indexOf('label', String) == -1
+		and:
+		  comparator.isEqual(0, pointType.newInstance(1, 0d), pointType.newInstance(1, 0d))
+		  !comparator.isEqual(0, pointType.newInstance(1, 0d), pointType.newInstance(2, 0d))
+		  comparator.isEqual(1, pointType.newInstance(1, Double.NaN), pointType.newInstance(1, Double.NaN))
+		  !comparator.isEqual(1, pointType.newInstance(1, 0d), pointType.newInstance(1, 0d * -1))
+	}
+
+	def 'compares diffable types via the generated comparator'() {
+		given:
+		  source 'example/Point.java', '''
+			package example;
+
+			@de.danielbechler.diff.introspection.Diffable
+			public class Point {
+				private final int x;
+				private final int y;
+
+				public Point(int x, int y) { this.x = x; this.y = y; }
+				public int getX() { return x; }
+				public int getY() { return y; }
+			}
+			'''
+		  compile()
+		  def pointType = loadClass('example.Point')
+		  def objectDifferBuilder = ObjectDifferBuilder.startBuilding()
+		  loadClass('example.Point_DiffIntrospector').configure(objectDifferBuilder)
+		when:
+		  def node = objectDifferBuilder.build().compare(pointType.newInstance(1, 2), pointType.newInstance(1, 3))
+		then:
+		  node.getChild('x') == null
+		  node.getChild('y').state == DiffNode.State.CHANGED
+	}
+
+	def 'decapitalizes property names like java.beans.Introspector'() {
+		expect:
+		  DiffableProcessor.decapitalize(name) == java.beans.Introspector.decapitalize(name)
+		where:
+		  name << ['Foo', 'FOO', 'F', 'fOO', 'URL', 'Url']
+	}
+
+	private void source(String path, String code) {
+		def file = new File(sourceDirectory, path)
+		file.parentFile.mkdirs()
+		file.text = code.stripIndent()
+	}
+
+	private boolean compile() {
+		def compiler = ToolProvider.systemJavaCompiler
+		def fileManager = compiler.getStandardFileManager(diagnostics, null, null)
+		def sourceFiles = []
+		sourceDirectory.eachFileRecurse { if (it.name.endsWith('.java')) sourceFiles << it }
+		def options = ['-d', classesDirectory.path, '-s', classesDirectory.path,
+					   '-classpath', System.getProperty('java.class.path'),
+					   '-processor', DiffableProcessor.name]
+		def task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(sourceFiles))
+		def successful = task.call()
+		fileManager.close()
+		return successful
+	}
+
+	private ClassLoader classLoader
+
+	private Class<?> loadClass(String name) {
+		if (classLoader == null) {
+			classLoader = new URLClassLoader([classesDirectory.toURI().toURL()] as URL[], getClass().classLoader)
+		}
+		return classLoader.loadClass(name)
+	}
+
+	private TypeInfo introspect(String typeName, String introspectorName = typeName + DiffableProcessor.INTROSPECTOR_SUFFIX) {
+		assert compile(), diagnostics.diagnostics.join('\n')
+		def introspector = loadClass(introspectorName).newInstance() as Introspector
+		return introspector.introspect(loadClass(typeName))
+	}
+
+	private static PropertyAwareAccessor accessorOf(TypeInfo typeInfo, String propertyName) {
+		return typeInfo.accessors.find { it.propertyName == propertyName }
+	}
+}
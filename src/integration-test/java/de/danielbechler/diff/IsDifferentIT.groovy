@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff
+
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class IsDifferentIT extends Specification {
+
+	def objectDiffer = ObjectDifferBuilder.buildDefault()
+
+	@Unroll
+	def 'returns #expected for #description'() {
+		expect:
+		  objectDiffer.isDifferent(working, base) == expected
+		and:
+		  objectDiffer.compare(working, base).hasChanges() == expected
+		where:
+		  description            | working                                 | base                                    || expected
+		  'equal beans'          | new Item(id: 1, value: 'a')             | new Item(id: 1, value: 'a')             || false
+		  'changed properties'   | new Item(id: 1, value: 'a')             | new Item(id: 1, value: 'b')             || true
+		  'added properties'     | new Item(id: 1, value: 'a')             | new Item(id: 1)                         || true
+		  'removed properties'   | new Item(id: 1)                         | new Item(id: 1, value: 'a')             || true
+		  'changed nested beans' | new Item(parent: new Item(value: 'a'))  | new Item(parent: new Item(value: 'b'))  || true
+		  'equal collections'    | ['a', 'b']                              | ['a', 'b']                              || false
+		  'added items'          | ['a', 'b']                              | ['a']                                   || true
+		  'changed map entries'  | [a: 1]                                  | [a: 2]                                  || true
+		  'changed root values'  | 'foo'                                   | 'bar'                                   || true
+		  'null values'          | null                                    | null                                    || false
+	}
+
+	def 'ignores circular references'() {
+		given:
+		  def working = new Item(id: 1)
+		  working.parent = working
+		  def base = new Item(id: 1)
+		  base.parent = base
+		expect:
+		  !objectDiffer.isDifferent(working, base)
+	}
+
+	def 'stops comparing at the first difference'() {
+		given:
+		  def working = new ItemWithTrackedProperty(id: 1)
+		  def base = new ItemWithTrackedProperty(id: 2)
+		when:
+		  def different = objectDiffer.isDifferent(working, base)
+		then:
+		  different
+		  working.trackedPropertyReads == 0
+	}
+
+	def 'honors the inclusion configuration'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .inclusion().exclude().propertyName('value').and()
+				  .build()
+		expect:
+		  !objectDiffer.isDifferent(new Item(id: 1, value: 'a'), new Item(id: 1, value: 'b'))
+	}
+
+	def 'honors the comparison configuration'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .comparison().ofType(Item).toUseEqualsMethodOfValueProvidedByMethod('getId').and()
+				  .build()
+		expect:
+		  !objectDiffer.isDifferent(new Item(id: 1, value: 'a'), new Item(id: 1, value: 'b'))
+	}
+
+	def 'honors the identity configuration'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .identity().ofCollectionItems(NodePath.withRoot()).via(new IdIdentityStrategy()).and()
+				  .build()
+		expect:
+		  !objectDiffer.isDifferent([new Item(id: 1, value: 'a')], [new Item(id: 1, value: 'a')])
+		  ObjectDifferBuilder.buildDefault().isDifferent([new Item(id: 1, value: 'a')], [new Item(id: 1, value: 'a')])
+	}
+
+	def 'works with parallel comparison'() {
+		given:
+		  ExecutorService executor = Executors.newFixedThreadPool(2)
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .parallelism().enableUsing(executor).setThreshold(1).and()
+				  .build()
+		expect:
+		  objectDiffer.isDifferent(new Item(id: 1, value: 'a'), new Item(id: 1, value: 'b'))
+		  !objectDiffer.isDifferent(new Item(id: 1, value: 'a'), new Item(id: 1, value: 'a'))
+		cleanup:
+		  executor.shutdown()
+	}
+
+	static class Item {
+		int id
+		String value
+		Item parent
+	}
+
+	static class ItemWithTrackedProperty {
+		int id
+		int trackedPropertyReads
+
+		// comes after 'id' in alphabetical order, so it only gets compared when 'id' didn't change
+		String getTracked() {
+			trackedPropertyReads++
+			return null
+		}
+	}
+
+	static class IdIdentityStrategy implements IdentityStrategy {
+		boolean equals(Object working, Object base) {
+			return ((Item) working).id == ((Item) base).id
+		}
+	}
+}
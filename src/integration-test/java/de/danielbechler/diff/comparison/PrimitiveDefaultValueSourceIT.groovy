@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PrimitiveDefaultValueSourceIT extends Specification {
+
+	@Unroll
+	def 'treats changes from the default value of the root object as additions when reading from #source'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .comparison().ofPrimitiveTypes().toReadDefaultValuesFrom(source)
+				  .and().build()
+		when:
+		  def node = objectDiffer.compare(new Counter(count: 3), new Counter())
+		then:
+		  node.getChild('count').state == DiffNode.State.ADDED
+		where:
+		  source << PrimitiveDefaultValueSource.values()
+	}
+
+	@Unroll
+	def 'treats changes of nested objects as #expectedState when reading from #source'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .comparison().ofPrimitiveTypes().toReadDefaultValuesFrom(source)
+				  .and().build()
+		when:
+		  def node = objectDiffer.compare(new Counter(nested: new Nested(value: 3)), new Counter(nested: new Nested()))
+		then:
+		  node.getChild(NodePath.with('nested', 'value')).state == expectedState
+		where:
+		  source                                     || expectedState
+		  PrimitiveDefaultValueSource.FRESH_INSTANCE || DiffNode.State.CHANGED
+		  PrimitiveDefaultValueSource.TYPE_SNAPSHOT  || DiffNode.State.ADDED
+	}
+
+	static class Counter {
+		int count = 5
+		Nested nested
+	}
+
+	static class Nested {
+		int value = 7
+	}
+}
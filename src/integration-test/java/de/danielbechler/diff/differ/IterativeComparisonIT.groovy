@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.ObjectDiffer
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffListener
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.path.NodePath
+import groovy.transform.EqualsAndHashCode
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class IterativeComparisonIT extends Specification {
+
+	static final int CHAIN_LENGTH = 10000
+	static final long SMALL_STACK_SIZE = 256 * 1024
+
+	def 'compares object graphs of arbitrary depth on threads with small stacks'() {
+		given:
+		  def working = chainOf(CHAIN_LENGTH, 'working')
+		  def base = chainOf(CHAIN_LENGTH, 'base')
+		  def objectDiffer = ObjectDifferBuilder.startBuilding().differs().compareIteratively().build()
+		when:
+		  def changedNode = onSmallStack {
+			  def node = objectDiffer.compare(working, base)
+			  DiffNode deepestNode = null
+			  node.visit({ DiffNode visitedNode, Visit visit ->
+				  if (!visitedNode.hasChildren()) {
+					  deepestNode = visitedNode
+				  }
+			  } as DiffNode.Visitor)
+			  return [path: deepestNode.path, working: deepestNode.canonicalGet(working), base: deepestNode.canonicalGet(base)]
+		  }
+		then:
+		  changedNode.path.elementSelectors.size() == CHAIN_LENGTH + 1
+		  changedNode.path.lastElementSelector == NodePath.with('value').lastElementSelector
+		  changedNode.working == 'working'
+		  changedNode.base == 'base'
+	}
+
+	def 'recursive comparisons of the same graph exhaust the small stack'() {
+		given:
+		  def working = chainOf(CHAIN_LENGTH, 'working')
+		  def base = chainOf(CHAIN_LENGTH, 'base')
+		when:
+		  onSmallStack {
+			  ObjectDifferBuilder.buildDefault().compare(working, base)
+		  }
+		then:
+		  thrown StackOverflowError
+	}
+
+	@Unroll
+	def 'produces the same nodes as a recursive comparison (#description)'() {
+		given:
+		  def working = graphOf('working')
+		  def base = graphOf('base')
+		  def recursiveObjectDiffer = configure(ObjectDifferBuilder.startBuilding()).build()
+		  def iterativeObjectDiffer = configure(ObjectDifferBuilder.startBuilding().differs().compareIteratively()).build()
+		expect:
+		  def expectedNodes = nodesOf(recursiveObjectDiffer.compare(working, base))
+		  expectedNodes.size() > 10
+		  nodesOf(iterativeObjectDiffer.compare(working, base)) == expectedNodes
+		where:
+		  description         | configure
+		  'default'           | { ObjectDifferBuilder builder -> builder }
+		  'specialized beans' | { ObjectDifferBuilder builder -> builder.differs().specialize(Item) }
+		  'returning all'     | { ObjectDifferBuilder builder -> builder.filtering().returnNodesWithState(DiffNode.State.UNTOUCHED).and() }
+	}
+
+	def 'reports the same changes as a recursive streaming comparison'() {
+		given:
+		  def working = graphOf('working')
+		  def base = graphOf('base')
+		  def recursiveObjectDiffer = ObjectDifferBuilder.buildDefault()
+		  def iterativeObjectDiffer = ObjectDifferBuilder.startBuilding().differs().compareIteratively().build()
+		expect:
+		  def expectedChanges = streamedChangesOf(recursiveObjectDiffer, working, base)
+		  !expectedChanges.isEmpty()
+		  streamedChangesOf(iterativeObjectDiffer, working, base) == expectedChanges
+	}
+
+	def 'ignores parallelism'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareIteratively()
+				  .parallelism().enableUsing({ Runnable runnable -> throw new AssertionError('forked') } as java.util.concurrent.Executor).setThreshold(1).and()
+				  .build()
+		expect:
+		  objectDiffer.compare(graphOf('working'), graphOf('base')).hasChanges()
+	}
+
+	private static List<String> nodesOf(DiffNode rootNode) {
+		def nodes = []
+		rootNode.visit({ DiffNode node, Visit visit ->
+			nodes << "${node.path} ${node.state} ${node.childCount()} ${node.categories}".toString()
+		} as DiffNode.Visitor)
+		return nodes
+	}
+
+	private static List<String> streamedChangesOf(ObjectDiffer objectDiffer, Object working, Object base) {
+		def changes = []
+		objectDiffer.compare(working, base, new DiffListener() {
+			void onAdded(NodePath path, Object value) {
+				changes << "added $path".toString()
+			}
+
+			void onRemoved(NodePath path, Object value) {
+				changes << "removed $path".toString()
+			}
+
+			void onChanged(NodePath path, Object workingValue, Object baseValue) {
+				changes << "changed $path".toString()
+			}
+
+			void onCircular(NodePath path, NodePath circleStartPath) {
+				changes << "circular $path -> $circleStartPath".toString()
+			}
+		})
+		return changes
+	}
+
+	private static <T> T onSmallStack(Closure<T> closure) {
+		T result = null
+		Throwable failure = null
+		def thread = new Thread(null, {
+			try {
+				result = closure.call()
+			} catch (Throwable throwable) {
+				failure = throwable
+			}
+		} as Runnable, 'small-stack', SMALL_STACK_SIZE)
+		thread.start()
+		thread.join()
+		if (failure != null) {
+			throw failure
+		}
+		return result
+	}
+
+	private static Link chainOf(int length, String lastValue) {
+		def first = new Link(value: lastValue)
+		for (int i = 1; i < length; i++) {
+			first = new Link(value: 'same', next: first)
+		}
+		return first
+	}
+
+	private static Item graphOf(String version) {
+		def root = new Item(name: 'root')
+		def unchanged = new Item(name: 'unchanged', parent: root)
+		def changed = new Item(name: 'changed', parent: root, description: version)
+		def nested = new Item(name: 'nested', children: [new Item(name: 'nested-child', description: version)])
+		root.children = [unchanged, changed, nested, new Item(name: "only-in-$version")]
+		root.attributes = [common: new Item(name: 'common', description: version), (version): new Item(name: version)]
+		changed.children = [new Item(name: 'grandchild', parent: changed, description: version)]
+		return root
+	}
+
+	static class Link {
+		String value
+		Link next
+	}
+
+	@EqualsAndHashCode(includes = 'name')
+	static class Item {
+		String name
+		String description
+		Item parent
+		List<Item> children = []
+		Map<String, Item> attributes = [:]
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.NodeQueryService
+import de.danielbechler.diff.ObjectDiffer
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.introspection.StandardIntrospector
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.selector.CollectionItemElementSelector
+import spock.lang.Specification
+
+class NestedComparisonIT extends Specification {
+
+	def 'custom differs can start nested comparisons without disturbing the outer one'() {
+		given:
+		  def nestedObjectDiffer = ObjectDifferBuilder.buildDefault()
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().register(new NestedComparisonDifferFactory(nestedObjectDiffer))
+				  .build()
+		and:
+		  def working = new Parent(children: [new Child(name: 'foo'), new Child(name: 'bar')])
+		  def base = new Parent(children: [new Child(name: 'foo'), new Child(name: 'baz')])
+		  working.children.each { it.parent = working }
+		  base.children.each { it.parent = base }
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  def childrenNode = node.getChild('children')
+		  childrenNode.getChild(item('foo')).changed
+		  childrenNode.getChild(item('bar')).added
+		and: 'the outer comparison still knows its ancestors after the nested comparison'
+		  childrenNode.getChild(item('foo')).getChild('parent').circular
+	}
+
+	private static CollectionItemElementSelector item(String name) {
+		return new CollectionItemElementSelector(new Child(name: name))
+	}
+
+	static class NestedComparisonDifferFactory implements DifferFactory {
+		private static final PARENT_ACCESSOR = new StandardIntrospector().introspect(Child).accessors.find {
+			it.propertyName == 'parent'
+		}
+		private final ObjectDiffer nestedObjectDiffer
+
+		NestedComparisonDifferFactory(ObjectDiffer nestedObjectDiffer) {
+			this.nestedObjectDiffer = nestedObjectDiffer
+		}
+
+		Differ createDiffer(DifferDispatcher differDispatcher, NodeQueryService nodeQueryService) {
+			return new Differ() {
+				boolean accepts(Class<?> type) {
+					return type == Child
+				}
+
+				DiffNode compare(DiffNode parentNode, Instances instances) {
+					def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+					if (instances.hasBeenAdded()) {
+						node.state = DiffNode.State.ADDED
+					} else if (nestedObjectDiffer.compare(instances.working, instances.base).changed) {
+						node.state = DiffNode.State.CHANGED
+					}
+					differDispatcher.dispatch(node, instances, PARENT_ACCESSOR)
+					return node
+				}
+			}
+		}
+	}
+
+	static class Parent {
+		List<Child> children = []
+	}
+
+	static class Child {
+		String name
+		Parent parent
+
+		@Override
+		boolean equals(Object o) {
+			return o instanceof Child && name == ((Child) o).name
+		}
+
+		@Override
+		int hashCode() {
+			return name.hashCode()
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class OrderedListDifferIT extends Specification {
+
+	def objectDiffer = ObjectDifferBuilder.startBuilding()
+			.differs().compareListsInOrder()
+			.build()
+
+	@Unroll
+	def 'reports #expected when comparing #working with #base'() {
+		expect:
+		  nodesOf(objectDiffer.compare(working, base)) == expected
+
+		where:
+		  working              | base                 || expected
+		  ['a', 'b']           | ['a', 'b']           || []
+		  ['a', 'x', 'b']      | ['a', 'b']           || ['/ CHANGED', '/[->1] ADDED']
+		  ['a']                | ['a', 'b']           || ['/ CHANGED', '/[1->] REMOVED']
+		  ['a', 'a', 'b']      | ['a', 'b']           || ['/ CHANGED', '/[->1] ADDED']
+		  ['a', 'b']           | ['a', 'a', 'b']      || ['/ CHANGED', '/[1->] REMOVED']
+		  ['b', 'c', 'a']      | ['a', 'b', 'c']      || ['/ CHANGED', '/[0->2] CHANGED']
+		  ['a', 'x', 'c']      | ['a', 'b', 'c']      || ['/ CHANGED', '/[1] CHANGED']
+		  ['a', null]          | ['a', 'b']           || ['/ CHANGED', '/[1] REMOVED']
+	}
+
+	def 'compares the items that have been changed in place'() {
+		given:
+		  def working = [[name: 'foo', value: 1], [name: 'bar', value: 2]]
+		  def base = [[name: 'foo', value: 1], [name: 'bar', value: 3]]
+
+		when:
+		  def node = objectDiffer.compare(working, base)
+
+		then:
+		  node.getChild(new ListItemElementSelector(1, 1)).changed
+		  node.getChild(NodePath.startBuilding().element(new ListItemElementSelector(1, 1)).mapKey('value').build()).changed
+	}
+
+	def 'reports the whole list as added or removed'() {
+		expect:
+		  nodesOf(objectDiffer.compare(['a'], null)) == ['/ ADDED', '/[->0] ADDED']
+		  nodesOf(objectDiffer.compare(null, ['a'])) == ['/ REMOVED', '/[0->] REMOVED']
+	}
+
+	def 'still compares other collections regardless of their order'() {
+		expect:
+		  nodesOf(objectDiffer.compare(['b', 'a'] as LinkedHashSet, ['a', 'b'] as LinkedHashSet)) == []
+	}
+
+	def 'ignores the order of lists unless configured otherwise'() {
+		expect:
+		  ObjectDifferBuilder.buildDefault().compare(['b', 'a'], ['a', 'b']).untouched
+	}
+
+	def 'the merged nodes can be used to turn the base list into the working list'() {
+		given:
+		  def working = ['a', 'x', 'c', 'd']
+		  def base = ['a', 'b', 'c']
+		  def node = objectDiffer.compare(working, base)
+		  def result = new ArrayList(base)
+
+		when:
+		  node.visitChildren(new DiffNode.Visitor() {
+			  void node(DiffNode child, Visit visit) {
+				  child.canonicalSet(result, child.canonicalGet(working))
+			  }
+		  })
+
+		then:
+		  result == working
+	}
+
+	@Timeout(10)
+	def 'compares very long lists with only a few differences'() {
+		given:
+		  def base = (0..<100000).collect { it }
+		  def working = new ArrayList(base)
+		  working.remove(50000)
+		  working.add(70000, -1)
+		  working.set(90000, -2)
+
+		when:
+		  def node = objectDiffer.compare(working, base)
+
+		then:
+		  nodesOf(node) == ['/ CHANGED', '/[->70000] ADDED', '/[90000] CHANGED', '/[50000->] REMOVED']
+	}
+
+	def 'returns the same nodes when comparing iteratively'() {
+		given:
+		  def iterativeObjectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareListsInOrder()
+				  .differs().compareIteratively()
+				  .build()
+		  def working = [['a', 'b'], ['c'], ['d', 'e', 'f']]
+		  def base = [['a'], ['d', 'f'], ['c']]
+
+		expect:
+		  nodesOf(iterativeObjectDiffer.compare(working, base)) == nodesOf(objectDiffer.compare(working, base))
+	}
+
+	def 'reports null items that have been inserted or removed'() {
+		when:
+		  def insertion = objectDiffer.compare(['a', null, 'b'], ['a', 'b'])
+		  def removal = objectDiffer.compare(['a', 'b'], ['a', null, 'b'])
+
+		then:
+		  insertion.hasChanges()
+		  insertion.getChild(new ListItemElementSelector(1, NO_INDEX)).added
+		  nodesOf(insertion) == ['/ CHANGED', '/[->1] ADDED']
+		and:
+		  removal.hasChanges()
+		  removal.getChild(new ListItemElementSelector(NO_INDEX, 1)).removed
+		  nodesOf(removal) == ['/ CHANGED', '/[1->] REMOVED']
+	}
+
+	def 'NO_INDEX marks items that only exist on one side'() {
+		expect:
+		  objectDiffer.compare(['a', 'b'], ['a']).getChild(new ListItemElementSelector(1, NO_INDEX)).added
+	}
+
+	/**
+	 * Returns the paths and states of all nodes except the untouched ones in the order they have been visited.
+	 */
+	private static List<String> nodesOf(DiffNode rootNode) {
+		def nodes = []
+		rootNode.visit(new DiffNode.Visitor() {
+			void node(DiffNode node, Visit visit) {
+				if (node.hasChanges()) {
+					nodes << "${node.path} ${node.state}".toString()
+				}
+			}
+		})
+		return nodes
+	}
+}
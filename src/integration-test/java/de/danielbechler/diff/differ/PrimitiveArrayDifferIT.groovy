@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffListener
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+import spock.lang.Timeout
+
+class PrimitiveArrayDifferIT extends Specification {
+
+	def objectDiffer = ObjectDifferBuilder.buildDefault()
+
+	static class Payload {
+		double[] samples
+		byte[] checksum
+	}
+
+	def 'reports ranges of changed elements of array properties'() {
+		given:
+		  def working = new Payload(samples: [1, 2, 3, 4, 5, 6] as double[], checksum: [1, 2] as byte[])
+		  def base = new Payload(samples: [1, 0, 3, 0, 0] as double[], checksum: [1, 2] as byte[])
+		expect:
+		  nodesOf(objectDiffer.compare(working, base)) == [
+				  '/ CHANGED',
+				  '/samples CHANGED',
+				  '/samples/[1] CHANGED',
+				  '/samples/[3..4] CHANGED',
+				  '/samples/[5] ADDED'
+		  ]
+	}
+
+	def 'the range nodes provide access to the affected elements'() {
+		given:
+		  def working = new Payload(samples: [1, 2, 3, 4] as double[])
+		  def base = new Payload(samples: [1, 0, 0, 4] as double[])
+		when:
+		  def node = objectDiffer.compare(working, base)
+		  def rangeNode = node.getChild(NodePath.with('samples').append(new ArrayRangeElementSelector(1, 3)))
+		then:
+		  rangeNode.canonicalGet(working) == [2, 3] as double[]
+		  rangeNode.canonicalGet(base) == [0, 0] as double[]
+		when:
+		  rangeNode.canonicalSet(base, rangeNode.canonicalGet(working))
+		then:
+		  base.samples == working.samples
+	}
+
+	def 'reports the ranges with their elements to listeners'() {
+		given:
+		  def changes = []
+		when:
+		  objectDiffer.compare([1, 2, 3] as int[], [0, 2] as int[], new DiffListener() {
+			  void onAdded(NodePath path, Object working) {
+				  changes << "${path} added ${working}".toString()
+			  }
+
+			  void onRemoved(NodePath path, Object base) {
+				  changes << "${path} removed ${base}".toString()
+			  }
+
+			  void onChanged(NodePath path, Object working, Object base) {
+				  changes << "${path} changed ${base} => ${working}".toString()
+			  }
+
+			  void onCircular(NodePath path, NodePath circleStartPath) {
+			  }
+		  })
+		then:
+		  changes == ['/[0] changed [0] => [1]', '/[2] added [3]']
+	}
+
+	def 'returns the same nodes when comparing iteratively'() {
+		given:
+		  def iterativeObjectDiffer = ObjectDifferBuilder.startBuilding().differs().compareIteratively().build()
+		  def working = [[1, 2, 3] as long[], [4] as long[]]
+		  def base = [[1, 5, 3, 6] as long[], [4] as long[]]
+		expect:
+		  nodesOf(iterativeObjectDiffer.compare(working, base)) == nodesOf(objectDiffer.compare(working, base))
+	}
+
+	def 'custom differs still take precedence'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().register(new DifferFactory() {
+			  Differ createDiffer(DifferDispatcher differDispatcher, de.danielbechler.diff.NodeQueryService nodeQueryService) {
+				  return new de.danielbechler.diff.example.ByteArrayDiffer()
+			  }
+		  })
+				  .build()
+		expect:
+		  !objectDiffer.compare([1, 2] as byte[], [1, 3] as byte[]).hasChildren()
+	}
+
+	@Timeout(10)
+	def 'compares very large arrays'() {
+		given:
+		  def base = new double[1000000]
+		  for (int i = 0; i < base.length; i++) {
+			  base[i] = Math.sin(i)
+		  }
+		  def working = base.clone()
+		  working[10] = 0
+		  for (int i = 500000; i < 600000; i++) {
+			  working[i] = -working[i]
+		  }
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  node.childCount() == 2
+		  node.getChild(new ArrayRangeElementSelector(10, 11)).changed
+		  node.getChild(new ArrayRangeElementSelector(500000, 600000)).changed
+	}
+
+	/**
+	 * Returns the paths and states of all nodes except the untouched ones in the order they have been visited.
+	 */
+	private static List<String> nodesOf(DiffNode rootNode) {
+		def nodes = []
+		rootNode.visit(new DiffNode.Visitor() {
+			void node(DiffNode node, Visit visit) {
+				if (node.hasChanges()) {
+					nodes << "${node.path} ${node.state}".toString()
+				}
+			}
+		})
+		return nodes
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.selector.CollectionItemElementSelector
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SortedDifferIT extends Specification {
+
+	def objectDiffer = ObjectDifferBuilder.startBuilding()
+			.filtering().returnNodesWithState(DiffNode.State.UNTOUCHED).and()
+			.build()
+
+	@Unroll
+	def 'returns the same nodes as the CollectionDiffer for #description'() {
+		expect:
+		  nodesOf(objectDiffer.compare(new TreeSet(working), new TreeSet(base))) == nodesOf(genericComparisonOf(working, base))
+		where:
+		  description         | working                    | base
+		  'equal sets'        | ['a', 'b', 'c']            | ['a', 'b', 'c']
+		  'added items'       | ['a', 'b', 'c', 'd']       | ['b', 'c']
+		  'removed items'     | ['b']                      | ['a', 'b', 'c']
+		  'interleaved items' | ['a', 'c', 'e', 'g', 'h']  | ['b', 'c', 'd', 'g']
+		  'empty working set' | []                         | ['a', 'b']
+		  'empty base set'    | ['a', 'b']                 | []
+	}
+
+	@Unroll
+	def 'returns the same nodes as the MapDiffer for #description'() {
+		expect:
+		  nodesOf(objectDiffer.compare(new TreeMap(working), new TreeMap(base))) == nodesOf(genericComparisonOf(working, base))
+		where:
+		  description         | working                            | base
+		  'equal maps'        | [a: 1, b: 2]                       | [a: 1, b: 2]
+		  'changed values'    | [a: 1, b: 2]                       | [a: 1, b: 3]
+		  'added entries'     | [a: 1, b: 2, c: 3]                 | [b: 2]
+		  'removed entries'   | [b: 2]                             | [a: 1, b: 2, c: 3]
+		  'interleaved keys'  | [a: 1, c: 3, e: 5, g: 7]           | [b: 2, c: 4, d: 4, g: 7, h: 8]
+		  'null values'       | [a: null, b: 2]                    | [a: 1, b: null]
+	}
+
+	def 'matches the items of sorted sets via equals even if their comparator considers them the same'() {
+		given:
+		  def working = new TreeSet(String.CASE_INSENSITIVE_ORDER)
+		  working.add('A')
+		  def base = new TreeSet(String.CASE_INSENSITIVE_ORDER)
+		  base.add('a')
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  nodesOf(node) == ['/ CHANGED', '/[A] ADDED', '/[a] REMOVED']
+		  node.getChild(new CollectionItemElementSelector('A')).canonicalGet(working) == 'A'
+	}
+
+	def 'matches the keys of sorted maps like the MapDiffer even if their natural order is not consistent with equals'() {
+		given:
+		  def working = [(new BigDecimal('1.00')): 'x', (new BigDecimal('2')): 'y']
+		  def base = [(new BigDecimal('1.0')): 'x', (new BigDecimal('2.0')): 'z']
+		expect:
+		  nodesOf(objectDiffer.compare(new TreeMap(working), new TreeMap(base))) == nodesOf(genericComparisonOf(working, base))
+	}
+
+	def 'matches the items of sorted sets via equals even if their natural order considers them the same'() {
+		expect:
+		  nodesOf(objectDiffer.compare(new TreeSet([new BigDecimal('1.00')]), new TreeSet([new BigDecimal('1.0')]))) ==
+				  ['/ CHANGED', '/[1.00] ADDED', '/[1.0] REMOVED']
+	}
+
+	def 'uses the comparator of the maps to walk them in the right order'() {
+		given:
+		  def working = new TreeMap(Collections.reverseOrder())
+		  working.putAll([a: 1, b: 2, c: 3])
+		  def base = new TreeMap(Collections.reverseOrder())
+		  base.putAll([b: 2, c: 4, d: 5])
+		expect:
+		  nodesOf(objectDiffer.compare(working, base)) == ['/ CHANGED', '/{a} ADDED', '/{d} REMOVED', '/{c} CHANGED', '/{b} UNTOUCHED']
+	}
+
+	def 'falls back to the generic differs for differently sorted instances'() {
+		given:
+		  def working = new TreeMap(Collections.reverseOrder())
+		  working.putAll([a: 1, b: 2])
+		  def base = new TreeMap([b: 3, c: 4])
+		expect:
+		  nodesOf(objectDiffer.compare(working, base)) == nodesOf(genericComparisonOf(working, base))
+	}
+
+	def 'compares very large sorted maps'() {
+		given:
+		  def working = new TreeMap<Integer, Integer>()
+		  def base = new TreeMap<Integer, Integer>()
+		  for (int i = 0; i < 200000; i++) {
+			  working.put(i * 2, i)
+			  base.put(i * 3, i)
+		  }
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  node.changed
+		  node.childCount() == 333332
+	}
+
+	/**
+	 * Compares the given values as TreeSets or TreeMaps that are sorted by the same order, but via different
+	 * comparator instances, so the sorted differs have to hand the comparison over to the generic ones.
+	 */
+	private DiffNode genericComparisonOf(working, base) {
+		if (working instanceof Map) {
+			return objectDiffer.compare(treeMapOf(working), treeMapOf(base))
+		}
+		return objectDiffer.compare(treeSetOf(working), treeSetOf(base))
+	}
+
+	private static TreeSet treeSetOf(Collection items) {
+		def set = new TreeSet(new NaturalOrder())
+		set.addAll(items)
+		return set
+	}
+
+	private static TreeMap treeMapOf(Map entries) {
+		def map = new TreeMap(new NaturalOrder())
+		map.putAll(entries)
+		return map
+	}
+
+	/**
+	 * Returns the paths and states of all nodes in the order they have been visited, so the order of the nodes matters
+	 * when comparing the results.
+	 */
+	private static List<String> nodesOf(DiffNode rootNode) {
+		def nodes = []
+		rootNode.visit(new DiffNode.Visitor() {
+			void node(DiffNode node, Visit visit) {
+				nodes << "${node.path} ${node.state}".toString()
+			}
+		})
+		return nodes
+	}
+
+	static class NaturalOrder implements Comparator<Comparable> {
+		int compare(Comparable o1, Comparable o2) {
+			return o1 <=> o2
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SpecializedBeanDifferIT extends Specification {
+
+	@Unroll
+	def 'returns the same nodes as the BeanDiffer for #description'() {
+		given:
+		  def genericObjectDiffer = configure(ObjectDifferBuilder.startBuilding(), returnUntouched).build()
+		  def specializedObjectDiffer = configure(ObjectDifferBuilder.startBuilding(), returnUntouched)
+				  .differs().specialize(Order, Item)
+				  .build()
+		expect:
+		  nodesOf(specializedObjectDiffer.compare(working, base)) == nodesOf(genericObjectDiffer.compare(working, base))
+		where:
+		  description                    | returnUntouched | working                                                     | base
+		  'unchanged beans'              | false           | new Order(id: 1, customer: 'foo')                           | new Order(id: 1, customer: 'foo')
+		  'changed primitives'           | false           | new Order(id: 1, customer: 'foo')                           | new Order(id: 2, customer: 'foo')
+		  'changed strings'              | false           | new Order(id: 1, customer: 'foo')                           | new Order(id: 1, customer: 'bar')
+		  'added strings'                | false           | new Order(id: 1, customer: 'foo')                           | new Order(id: 1)
+		  'changed nested beans'         | false           | new Order(item: new Item(name: 'a', quantity: 1))           | new Order(item: new Item(name: 'a', quantity: 2))
+		  'changed collections'          | false           | new Order(tags: ['a', 'b'])                                 | new Order(tags: ['a'])
+		  'unchanged beans (untouched)'  | true            | new Order(id: 1, customer: 'foo')                           | new Order(id: 1, customer: 'foo')
+		  'changed beans (untouched)'    | true            | new Order(id: 1, item: new Item(name: 'a'), customer: 'foo') | new Order(id: 2, item: new Item(name: 'b'), customer: 'foo')
+	}
+
+	def 'does not read excluded properties'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .inclusion().exclude().propertyName('secret').and()
+				  .differs().specialize(Account)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(new Account(id: 1), new Account(id: 2))
+		then:
+		  node.getChild('id').changed
+		  node.getChild('secret') == null
+	}
+
+	private static ObjectDifferBuilder configure(ObjectDifferBuilder builder, boolean returnUntouched) {
+		if (returnUntouched) {
+			builder.filtering().returnNodesWithState(DiffNode.State.UNTOUCHED)
+		}
+		return builder
+	}
+
+	private static Map<String, DiffNode.State> nodesOf(DiffNode rootNode) {
+		def nodes = [:]
+		rootNode.visit(new DiffNode.Visitor() {
+			void node(DiffNode node, Visit visit) {
+				nodes[node.path.toString()] = node.state
+			}
+		})
+		return nodes
+	}
+
+	static class Order {
+		int id
+		String customer
+		Item item
+		List<String> tags
+	}
+
+	static class Account {
+		int id
+
+		String getSecret() {
+			throw new UnsupportedOperationException()
+		}
+	}
+
+	static class Item {
+		String name
+		long quantity
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class DiffListenerIT extends Specification {
+
+	def 'reports changes of nested beans'() {
+		given:
+		  def working = new Person(name: 'foo', age: 2, address: new Address(city: 'Berlin'))
+		  def base = new Person(name: 'foo', age: 1, address: new Address(city: 'Hamburg'))
+		expect:
+		  streamedChangesOf(ObjectDifferBuilder.buildDefault(), working, base) == [
+				  'changed /address/city Berlin <- Hamburg',
+				  'changed /age 2 <- 1'
+		  ] as Set
+	}
+
+	def 'reports added and removed values'() {
+		given:
+		  def working = new Person(name: 'foo', nicknames: ['a', 'b'])
+		  def base = new Person(nicknames: ['a', 'c'])
+		expect:
+		  streamedChangesOf(ObjectDifferBuilder.buildDefault(), working, base) == [
+				  'added /name foo',
+				  'added /nicknames[b] b',
+				  'removed /nicknames[c] c'
+		  ] as Set
+	}
+
+	def 'reports changed map entries'() {
+		expect:
+		  streamedChangesOf(ObjectDifferBuilder.buildDefault(), [a: 1, b: 2], [a: 1, b: 3]) == ['changed /{b} 2 <- 3'] as Set
+	}
+
+	def 'reports changed root values'() {
+		expect:
+		  streamedChangesOf(ObjectDifferBuilder.buildDefault(), 'foo', 'bar') == ['changed / foo <- bar'] as Set
+	}
+
+	def 'reports circular references'() {
+		given:
+		  def working = new Person(name: 'foo')
+		  working.friend = working
+		  def base = new Person(name: 'foo')
+		  base.friend = base
+		expect:
+		  streamedChangesOf(ObjectDifferBuilder.buildDefault(), working, base) == ['circular /friend /'] as Set
+	}
+
+	def 'reports children before their parents'() {
+		given:
+		  def events = []
+		  def listener = recordingListener(events)
+		when:
+		  ObjectDifferBuilder.buildDefault().compare(new Person(address: new Address(city: 'Berlin')), new Person(), listener)
+		then:
+		  events == ['added /address/city Berlin', 'added /address Address']
+	}
+
+	def 'reports the same changes as the regular comparison contains'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.buildDefault()
+		  def working = new Person(name: 'foo', age: 2, nicknames: ['a'], address: new Address(city: 'Berlin'))
+		  def base = new Person(name: 'bar', age: 1, nicknames: ['b'], address: new Address(city: 'Hamburg'))
+		when:
+		  def streamedPaths = streamedChangesOf(objectDiffer, working, base).collect { it.split(' ')[1] } as Set
+		then:
+		  streamedPaths == changedLeafPathsOf(objectDiffer.compare(working, base))
+	}
+
+	def 'reports the same changes when comparing in parallel'() {
+		given:
+		  ExecutorService executor = Executors.newFixedThreadPool(2)
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .parallelism().enableUsing(executor).setThreshold(1).and()
+				  .build()
+		  def working = new Person(name: 'foo', age: 2, nicknames: ['a'], address: new Address(city: 'Berlin'))
+		  def base = new Person(name: 'bar', age: 1, nicknames: ['b'], address: new Address(city: 'Hamburg'))
+		expect:
+		  streamedChangesOf(objectDiffer, working, base) == streamedChangesOf(ObjectDifferBuilder.buildDefault(), working, base)
+		cleanup:
+		  executor.shutdown()
+	}
+
+	private static Set<String> streamedChangesOf(def objectDiffer, Object working, Object base) {
+		def events = Collections.synchronizedList([])
+		objectDiffer.compare(working, base, recordingListener(events))
+		return events as Set
+	}
+
+	private static Set<String> changedLeafPathsOf(DiffNode rootNode) {
+		def paths = [] as Set
+		rootNode.visit(new DiffNode.Visitor() {
+			void node(DiffNode node, Visit visit) {
+				if (node.hasChanges() && !node.hasChildren()) {
+					paths << node.path.toString()
+				}
+			}
+		})
+		return paths
+	}
+
+	private static DiffListener recordingListener(List<String> events) {
+		return new DiffListener() {
+			void onAdded(NodePath path, Object working) {
+				events << "added $path ${describe(working)}".toString()
+			}
+
+			void onRemoved(NodePath path, Object base) {
+				events << "removed $path ${describe(base)}".toString()
+			}
+
+			void onChanged(NodePath path, Object working, Object base) {
+				events << "changed $path ${describe(working)} <- ${describe(base)}".toString()
+			}
+
+			void onCircular(NodePath path, NodePath circleStartPath) {
+				events << "circular $path $circleStartPath".toString()
+			}
+		}
+	}
+
+	private static String describe(Object value) {
+		return value instanceof Address ? 'Address' : String.valueOf(value)
+	}
+
+	static class Person {
+		String name
+		int age
+		List<String> nicknames
+		Address address
+		Person friend
+	}
+
+	static class Address {
+		String city
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.parallel
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+
+class ParallelDiffingIT extends Specification {
+
+	def executor = Executors.newFixedThreadPool(4)
+
+	def cleanup() {
+		executor.shutdownNow()
+	}
+
+	def 'parallel comparison yields the same nodes in the same order as sequential comparison'() {
+		given:
+		  def working = portfolio('working', 20)
+		  def base = portfolio('base', 25)
+		when:
+		  def sequentialNode = ObjectDifferBuilder.buildDefault().compare(working, base)
+		  def parallelNode = ObjectDifferBuilder.startBuilding()
+				  .parallelism().enableUsing(executor).setThreshold(2).and()
+				  .build()
+				  .compare(working, base)
+		then:
+		  describe(parallelNode) == describe(sequentialNode)
+		  describe(sequentialNode).size() > 100
+	}
+
+	def 'circular references are detected independently in every parallel branch'() {
+		given:
+		  def working = portfolio('working', 4)
+		  def base = portfolio('base', 4)
+		  [working, base].each { portfolio -> portfolio.positions.each { it.portfolio = portfolio } }
+		when:
+		  def node = ObjectDifferBuilder.startBuilding()
+				  .parallelism().enableUsing(executor).setThreshold(1).and()
+				  .build()
+				  .compare(working, base)
+		then:
+		  def circularNodes = describe(node).findAll { it.endsWith('CIRCULAR') }
+		  circularNodes.size() == 4
+		  circularNodes.every { it.contains('/portfolio') }
+	}
+
+	def 'comparison still works when the executor rejects tasks'() {
+		given:
+		  executor.shutdown()
+		  def working = portfolio('working', 10)
+		  def base = portfolio('base', 10)
+		when:
+		  def node = ObjectDifferBuilder.startBuilding()
+				  .parallelism().enableUsing(executor).setThreshold(1).and()
+				  .build()
+				  .compare(working, base)
+		then:
+		  describe(node) == describe(ObjectDifferBuilder.buildDefault().compare(working, base))
+	}
+
+	private static List<String> describe(DiffNode node) {
+		def lines = []
+		node.visit({ DiffNode visitedNode, Visit visit ->
+			lines << "${visitedNode.path} ${visitedNode.state}".toString()
+		} as DiffNode.Visitor)
+		return lines
+	}
+
+	private static Portfolio portfolio(String name, int numberOfPositions) {
+		def portfolio = new Portfolio(name: name)
+		(0..<numberOfPositions).each {
+			portfolio.positions << new Position(
+					id: "position-$it".toString(),
+					amount: it % 3 == 0 ? it : it * (name.length()),
+					tags: ["tag-${it % 4}".toString(), "${name}-$it".toString()] as Set,
+					attributes: [currency: it % 2 ? 'EUR' : name, desk: "desk-${it % 5}".toString()])
+		}
+		return portfolio
+	}
+
+	static class Portfolio {
+		String name
+		List<Position> positions = []
+	}
+
+	static class Position {
+		String id
+		int amount
+		Set<String> tags
+		Map<String, String> attributes
+		Portfolio portfolio
+
+		@Override
+		boolean equals(Object o) {
+			return o instanceof Position && id == ((Position) o).id
+		}
+
+		@Override
+		int hashCode() {
+			return id.hashCode()
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares beans via {@link de.danielbechler.diff.differ.BeanDiffer}: a flat bean with a single changed property and
+ * a deeply nested bean that only differs at the very bottom.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BeanDifferBenchmark
+{
+	@Param({"10", "100"})
+	public int depth;
+
+	private ObjectDiffer objectDiffer;
+	private FlatBean workingFlatBean;
+	private FlatBean baseFlatBean;
+	private DeepBean workingDeepBean;
+	private DeepBean baseDeepBean;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		workingFlatBean = FlatBean.newInstance(1);
+		baseFlatBean = FlatBean.newInstance(1);
+		baseFlatBean.setEmail("changed@example.com");
+		workingDeepBean = DeepBean.newInstance(depth, 1);
+		baseDeepBean = DeepBean.newInstance(depth, 2);
+	}
+
+	@Benchmark
+	public DiffNode flatBean()
+	{
+		return objectDiffer.compare(workingFlatBean, baseFlatBean);
+	}
+
+	@Benchmark
+	public DiffNode deepBean()
+	{
+		return objectDiffer.compare(workingDeepBean, baseDeepBean);
+	}
+}
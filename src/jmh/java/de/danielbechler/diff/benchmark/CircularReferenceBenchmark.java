@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.circular.CircularReferenceMatchingMode;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares trees of {@link GraphNode GraphNodes}, whose parent references cause a circular reference for every
+ * single node, using both matching modes of the circular reference detection.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CircularReferenceBenchmark
+{
+	@Param({"2", "4"})
+	public int depth;
+
+	@Param({"EQUALITY_OPERATOR", "EQUALS_METHOD"})
+	public CircularReferenceMatchingMode matchingMode;
+
+	private ObjectDiffer objectDiffer;
+	private GraphNode working;
+	private GraphNode base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.startBuilding()
+				.circularReferenceHandling().matchCircularReferencesUsing(matchingMode).and()
+				.build();
+		working = GraphNode.newTree(10, depth, "working");
+		base = GraphNode.newTree(10, depth, "base");
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+}
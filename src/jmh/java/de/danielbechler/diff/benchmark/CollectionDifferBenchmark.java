@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.identity.HashAwareIdentityStrategy;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lists and sets of {@link Item Items} via {@link de.danielbechler.diff.differ.CollectionDiffer}. A tenth
+ * of the items has been changed, another tenth replaced by new ones. The items are either matched via their
+ * <code>equals</code> method or via a custom {@link de.danielbechler.diff.identity.IdentityStrategy}.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectionDifferBenchmark
+{
+	@Param({"10", "1000", "100000"})
+	public int size;
+
+	@Param({"LIST", "SET"})
+	public CollectionType collectionType;
+
+	@Param({"EQUALS", "IDENTITY_STRATEGY"})
+	public ItemIdentity itemIdentity;
+
+	private ObjectDiffer objectDiffer;
+	private Collection<Item> working;
+	private Collection<Item> base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = itemIdentity.newObjectDiffer();
+		working = collectionType.newCollection(size);
+		base = collectionType.newCollection(size);
+		for (int i = 0; i < size; i++)
+		{
+			base.add(new Item(i, "item-" + i, i));
+			if (i % 10 == 0)
+			{
+				working.add(new Item(i, "item-" + i, -i));
+			}
+			else if (i % 10 == 1)
+			{
+				working.add(new Item(size + i, "item-" + (size + i), i));
+			}
+			else
+			{
+				working.add(new Item(i, "item-" + i, i));
+			}
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public enum CollectionType
+	{
+		LIST
+				{
+					@Override
+					Collection<Item> newCollection(final int size)
+					{
+						return new ArrayList<Item>(size);
+					}
+				},
+		SET
+				{
+					@Override
+					Collection<Item> newCollection(final int size)
+					{
+						return new LinkedHashSet<Item>(size * 2);
+					}
+				};
+
+		abstract Collection<Item> newCollection(int size);
+	}
+
+	public enum ItemIdentity
+	{
+		EQUALS
+				{
+					@Override
+					ObjectDiffer newObjectDiffer()
+					{
+						return ObjectDifferBuilder.buildDefault();
+					}
+				},
+		IDENTITY_STRATEGY
+				{
+					@Override
+					ObjectDiffer newObjectDiffer()
+					{
+						return ObjectDifferBuilder.startBuilding()
+								.identity().setDefaultCollectionItemIdentityStrategy(new ItemNameIdentityStrategy()).and()
+								.build();
+					}
+				};
+
+		abstract ObjectDiffer newObjectDiffer();
+	}
+
+	private static final class ItemNameIdentityStrategy implements HashAwareIdentityStrategy
+	{
+		public boolean equals(final Object working, final Object base)
+		{
+			return ((Item) working).getName().equals(((Item) base).getName());
+		}
+
+		public int hashCode(final Object item)
+		{
+			return ((Item) item).getName().hashCode();
+		}
+	}
+}
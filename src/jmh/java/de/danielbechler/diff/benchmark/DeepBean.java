@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+/**
+ * A bean that nests beans of its own type, along with a flat bean on every level.
+ *
+ * @author Daniel Bechler
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class DeepBean
+{
+	private String name;
+	private FlatBean details;
+	private DeepBean child;
+
+	/**
+	 * @param depth The number of nested beans, including the returned one.
+	 * @param seed  Gets used for the deepest level only, so beans with different seeds only differ at the bottom.
+	 */
+	public static DeepBean newInstance(final int depth, final int seed)
+	{
+		DeepBean bean = null;
+		for (int level = depth; level > 0; level--)
+		{
+			final DeepBean parent = new DeepBean();
+			parent.name = "level-" + level;
+			parent.details = FlatBean.newInstance(level == depth ? seed : level);
+			parent.child = bean;
+			bean = parent;
+		}
+		return bean;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(final String name)
+	{
+		this.name = name;
+	}
+
+	public FlatBean getDetails()
+	{
+		return details;
+	}
+
+	public void setDetails(final FlatBean details)
+	{
+		this.details = details;
+	}
+
+	public DeepBean getChild()
+	{
+		return child;
+	}
+
+	public void setChild(final DeepBean child)
+	{
+		this.child = child;
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.node.Visit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained by the {@link DiffNode} tree of a large comparison of {@link FlatBean FlatBeans} and
+ * reports it in bytes per node via the <code>bytesPerNode</code> counter. The numbers are only an approximation,
+ * since they are derived from the used heap before and after the comparison, but they are accurate enough to spot
+ * changes to the memory layout of the nodes. The timings of this benchmark are meaningless, as every comparison
+ * includes several garbage collections.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DiffNodeFootprintBenchmark
+{
+	@Param({"50000"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private Map<String, FlatBean> working;
+	private Map<String, FlatBean> base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = new HashMap<String, FlatBean>(size * 2);
+		base = new HashMap<String, FlatBean>(size * 2);
+		for (int i = 0; i < size; i++)
+		{
+			final String key = String.valueOf(i);
+			working.put(key, FlatBean.newInstance(i));
+			base.put(key, FlatBean.newInstance(i + 1));
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare(final Footprint footprint) throws InterruptedException
+	{
+		final long usedHeapBefore = usedHeap();
+		final DiffNode node = objectDiffer.compare(working, base);
+		final long usedHeapAfter = usedHeap();
+		footprint.record(node, usedHeapAfter - usedHeapBefore);
+		return node;
+	}
+
+	private static long usedHeap() throws InterruptedException
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		long usedHeap = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++)
+		{
+			System.gc();
+			Thread.sleep(100);
+			usedHeap = Math.min(usedHeap, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return usedHeap;
+	}
+
+	/**
+	 * The secondary results reported by JMH for every iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint
+	{
+		public long nodes;
+		public long retainedBytes;
+		public long bytesPerNode;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			nodes = 0;
+			retainedBytes = 0;
+			bytesPerNode = 0;
+		}
+
+		private void record(final DiffNode node, final long retainedBytes)
+		{
+			final NodeCounter nodeCounter = new NodeCounter();
+			node.visit(nodeCounter);
+			this.nodes = nodeCounter.count;
+			this.retainedBytes = retainedBytes;
+			this.bytesPerNode = retainedBytes / nodeCounter.count;
+		}
+	}
+
+	private static final class NodeCounter implements DiffNode.Visitor
+	{
+		private long count;
+
+		public void node(final DiffNode node, final Visit visit)
+		{
+			count++;
+		}
+	}
+}
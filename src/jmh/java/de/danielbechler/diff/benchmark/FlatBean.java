@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import java.util.Date;
+
+/**
+ * A bean with a bunch of simple properties and no nested beans.
+ *
+ * @author Daniel Bechler
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class FlatBean
+{
+	private String firstName;
+	private String lastName;
+	private String email;
+	private int age;
+	private long accountNumber;
+	private double balance;
+	private boolean active;
+	private Integer score;
+	private Date lastLogin;
+	private Status status;
+
+	public static FlatBean newInstance(final int seed)
+	{
+		final FlatBean bean = new FlatBean();
+		bean.firstName = "first-" + seed;
+		bean.lastName = "last-" + seed;
+		bean.email = "mail-" + seed + "@example.com";
+		bean.age = seed % 100;
+		bean.accountNumber = 1000000L + seed;
+		bean.balance = seed * 1.5;
+		bean.active = seed % 2 == 0;
+		bean.score = seed;
+		bean.lastLogin = new Date(1000L * seed);
+		bean.status = Status.values()[seed % Status.values().length];
+		return bean;
+	}
+
+	public String getFirstName()
+	{
+		return firstName;
+	}
+
+	public void setFirstName(final String firstName)
+	{
+		this.firstName = firstName;
+	}
+
+	public String getLastName()
+	{
+		return lastName;
+	}
+
+	public void setLastName(final String lastName)
+	{
+		this.lastName = lastName;
+	}
+
+	public String getEmail()
+	{
+		return email;
+	}
+
+	public void setEmail(final String email)
+	{
+		this.email = email;
+	}
+
+	public int getAge()
+	{
+		return age;
+	}
+
+	public void setAge(final int age)
+	{
+		this.age = age;
+	}
+
+	public long getAccountNumber()
+	{
+		return accountNumber;
+	}
+
+	public void setAccountNumber(final long accountNumber)
+	{
+		this.accountNumber = accountNumber;
+	}
+
+	public double getBalance()
+	{
+		return balance;
+	}
+
+	public void setBalance(final double balance)
+	{
+		this.balance = balance;
+	}
+
+	public boolean isActive()
+	{
+		return active;
+	}
+
+	public void setActive(final boolean active)
+	{
+		this.active = active;
+	}
+
+	public Integer getScore()
+	{
+		return score;
+	}
+
+	public void setScore(final Integer score)
+	{
+		this.score = score;
+	}
+
+	public Date getLastLogin()
+	{
+		return lastLogin;
+	}
+
+	public void setLastLogin(final Date lastLogin)
+	{
+		this.lastLogin = lastLogin;
+	}
+
+	public Status getStatus()
+	{
+		return status;
+	}
+
+	public void setStatus(final Status status)
+	{
+		this.status = status;
+	}
+
+	public enum Status
+	{
+		NEW,
+		ACTIVE,
+		SUSPENDED,
+		CLOSED
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tree node that knows its parent, so every node of a tree is part of a circular reference. Its identity is
+ * defined by its <code>name</code>, which reflects its position in the tree.
+ *
+ * @author Daniel Bechler
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class GraphNode
+{
+	private String name;
+	private String value;
+	private GraphNode parent;
+	private List<GraphNode> children = new ArrayList<GraphNode>();
+
+	/**
+	 * @param breadth   The number of children of every node above the leaves.
+	 * @param depth     The number of levels below the returned node.
+	 * @param leafValue The value of all leaves, so trees with different leaf values differ at every leaf.
+	 */
+	public static GraphNode newTree(final int breadth, final int depth, final String leafValue)
+	{
+		return newTree("root", breadth, depth, leafValue);
+	}
+
+	private static GraphNode newTree(final String name, final int breadth, final int depth, final String leafValue)
+	{
+		final GraphNode node = new GraphNode();
+		node.name = name;
+		node.value = depth == 0 ? leafValue : null;
+		for (int i = 0; i < breadth && depth > 0; i++)
+		{
+			final GraphNode child = newTree(name + '.' + i, breadth, depth - 1, leafValue);
+			child.parent = node;
+			node.children.add(child);
+		}
+		return node;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(final String name)
+	{
+		this.name = name;
+	}
+
+	public String getValue()
+	{
+		return value;
+	}
+
+	public void setValue(final String value)
+	{
+		this.value = value;
+	}
+
+	public GraphNode getParent()
+	{
+		return parent;
+	}
+
+	public void setParent(final GraphNode parent)
+	{
+		this.parent = parent;
+	}
+
+	public List<GraphNode> getChildren()
+	{
+		return children;
+	}
+
+	public void setChildren(final List<GraphNode> children)
+	{
+		this.children = children;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		return name.equals(((GraphNode) o).name);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return name.hashCode();
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+/**
+ * A small bean that is used as collection item and map value. Its identity is defined by its <code>id</code>, so
+ * items with the same id get compared property by property.
+ *
+ * @author Daniel Bechler
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class Item
+{
+	private int id;
+	private String name;
+	private long value;
+
+	public Item()
+	{
+	}
+
+	public Item(final int id, final String name, final long value)
+	{
+		this.id = id;
+		this.name = name;
+		this.value = value;
+	}
+
+	public int getId()
+	{
+		return id;
+	}
+
+	public void setId(final int id)
+	{
+		this.id = id;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(final String name)
+	{
+		this.name = name;
+	}
+
+	public long getValue()
+	{
+		return value;
+	}
+
+	public void setValue(final long value)
+	{
+		this.value = value;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		return id == ((Item) o).id;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return id;
+	}
+}
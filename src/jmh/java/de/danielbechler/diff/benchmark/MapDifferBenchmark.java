@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares large maps of {@link Item Items} via {@link de.danielbechler.diff.differ.MapDiffer}. A tenth of the
+ * entries has been changed, another tenth replaced by entries with different keys.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapDifferBenchmark
+{
+	@Param({"1000", "100000"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private Map<String, Item> working;
+	private Map<String, Item> base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = new HashMap<String, Item>(size * 2);
+		base = new HashMap<String, Item>(size * 2);
+		for (int i = 0; i < size; i++)
+		{
+			base.put("key-" + i, new Item(i, "item-" + i, i));
+			if (i % 10 == 0)
+			{
+				working.put("key-" + i, new Item(i, "item-" + i, -i));
+			}
+			else if (i % 10 == 1)
+			{
+				working.put("key-" + (size + i), new Item(i, "item-" + i, i));
+			}
+			else
+			{
+				working.put("key-" + i, new Item(i, "item-" + i, i));
+			}
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the changes between a modified and a base bean into a head bean via {@link ObjectMerger}. The head beans
+ * are created anew for every invocation, since merging modifies them.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectMergerBenchmark
+{
+	private static final int DEPTH = 10;
+
+	private ObjectMerger objectMerger;
+	private FlatBean modifiedFlatBean;
+	private FlatBean baseFlatBean;
+	private DeepBean modifiedDeepBean;
+	private DeepBean baseDeepBean;
+
+	@Setup
+	public void setUp()
+	{
+		objectMerger = new ObjectMerger();
+		modifiedFlatBean = FlatBean.newInstance(2);
+		baseFlatBean = FlatBean.newInstance(1);
+		modifiedDeepBean = DeepBean.newInstance(DEPTH, 2);
+		baseDeepBean = DeepBean.newInstance(DEPTH, 1);
+	}
+
+	@Benchmark
+	public FlatBean flatBean()
+	{
+		return objectMerger.merge(modifiedFlatBean, baseFlatBean, FlatBean.newInstance(1));
+	}
+
+	@Benchmark
+	public DeepBean deepBean()
+	{
+		return objectMerger.merge(modifiedDeepBean, baseDeepBean, DeepBean.newInstance(DEPTH, 1));
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares large <code>double</code> arrays via {@link de.danielbechler.diff.differ.PrimitiveArrayDiffer}. Every
+ * thousandth element and one contiguous block of a hundredth of the elements have been changed.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrimitiveArrayDifferBenchmark
+{
+	@Param({"1000", "1000000"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private double[] working;
+	private double[] base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = new double[size];
+		base = new double[size];
+		for (int i = 0; i < size; i++)
+		{
+			base[i] = Math.sin(i);
+			working[i] = i % 1000 == 0 || i >= size / 2 && i < size / 2 + size / 100 ? -base[i] : base[i];
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+}
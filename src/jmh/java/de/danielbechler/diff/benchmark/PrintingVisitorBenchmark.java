@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.benchmark;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.node.PrintingVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a precomputed diff via {@link PrintingVisitor}. The rendered text ends up in a {@link Blackhole} instead of
+ * the console, so only the cost of building the text is measured.
+ *
+ * @author Daniel Bechler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrintingVisitorBenchmark
+{
+	@Param({"100", "10000"})
+	public int size;
+
+	private Map<String, FlatBean> working;
+	private Map<String, FlatBean> base;
+	private DiffNode node;
+
+	@Setup
+	public void setUp()
+	{
+		working = new HashMap<String, FlatBean>(size * 2);
+		base = new HashMap<String, FlatBean>(size * 2);
+		for (int i = 0; i < size; i++)
+		{
+			working.put("key-" + i, FlatBean.newInstance(i + 1));
+			base.put("key-" + i, FlatBean.newInstance(i));
+		}
+		node = ObjectDifferBuilder.buildDefault().compare(working, base);
+	}
+
+	@Benchmark
+	public void print(final Blackhole blackhole)
+	{
+		node.visit(new BlackholePrintingVisitor(working, base, blackhole));
+	}
+
+	private static final class BlackholePrintingVisitor extends PrintingVisitor
+	{
+		private final Blackhole blackhole;
+
+		private BlackholePrintingVisitor(final Object working, final Object base, final Blackhole blackhole)
+		{
+			super(working, base);
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		protected void print(final String text)
+		{
+			blackhole.consume(text);
+		}
+	}
+}
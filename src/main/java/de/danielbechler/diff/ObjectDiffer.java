@@ -16,10 +16,14 @@
 
 package de.danielbechler.diff;
 
+import de.danielbechler.diff.access.DefaultValueSnapshots;
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.access.RootAccessor;
 import de.danielbechler.diff.differ.DifferDispatcher;
+import de.danielbechler.diff.node.DiffListener;
 import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.util.Assert;
 
 /**
  * This is the entry point for all comparisons. It determines the type of the given objects and passes them to
@@ -30,10 +34,21 @@ import de.danielbechler.diff.node.DiffNode;
 public class ObjectDiffer
 {
 	private final DifferDispatcher dispatcher;
+	private final DefaultValueSnapshots defaultValueSnapshots;
 
 	public ObjectDiffer(final DifferDispatcher differDispatcher)
+	{
+		this(differDispatcher, null);
+	}
+
+	/**
+	 * @param defaultValueSnapshots Source of the default values of primitive properties or <code>null</code> to read
+	 *                              them from a fresh instance of the compared objects.
+	 */
+	public ObjectDiffer(final DifferDispatcher differDispatcher, final DefaultValueSnapshots defaultValueSnapshots)
 	{
 		this.dispatcher = differDispatcher;
+		this.defaultValueSnapshots = defaultValueSnapshots;
 	}
 
 	/**
@@ -46,14 +61,88 @@ public class ObjectDiffer
 	 */
 	public <T> DiffNode compare(final T working, final T base)
 	{
-		dispatcher.resetInstanceMemory();
+		final Instances instances = Instances.of(working, base).withDefaultValueSnapshots(defaultValueSnapshots);
+		return dispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.getInstance());
+	}
+
+	/**
+	 * Recursively inspects the given objects just like {@link #compare(Object, Object)}, but instead of building a
+	 * tree of nodes, every change gets reported to the given listener as soon as it has been found. Nodes are
+	 * released as soon as their comparison is complete, which makes this the way to go for large object graphs, when
+	 * the changes don't need to be kept around.
+	 *
+	 * @param working  This object will be treated as the successor of the `base` object.
+	 * @param base     This object will be treated as the predecessor of the <code>working</code> object.
+	 * @param listener The listener to report all changes to.
+	 */
+	public <T> void compare(final T working, final T base, final DiffListener listener)
+	{
+		Assert.notNull(listener, "listener");
+		final Instances instances = Instances.of(working, base).withDefaultValueSnapshots(defaultValueSnapshots);
+		dispatcher.dispatch(instances, listener);
+	}
+
+	/**
+	 * Checks whether the given objects differ in any way, just like <code>compare(working, base).hasChanges()</code>
+	 * would, while honoring the exact same configuration. The comparison stops as soon as the first added, removed or
+	 * changed value has been found and no tree of nodes gets built along the way, which makes this the cheapest way
+	 * to perform dirty checks.
+	 *
+	 * @param working This object will be treated as the successor of the `base` object.
+	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
+	 * @return <code>true</code> if there is at least one added, removed or changed value.
+	 */
+	public <T> boolean isDifferent(final T working, final T base)
+	{
 		try
 		{
-			return dispatcher.dispatch(DiffNode.ROOT, Instances.of(working, base), RootAccessor.getInstance());
+			compare(working, base, new DifferenceDetector());
+			return false;
 		}
-		finally
+		catch (final DifferenceFoundException e)
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * Aborts the comparison on the first reported change. Circular references aren't changes by themselves, so they
+	 * are ignored.
+	 */
+	private static final class DifferenceDetector implements DiffListener
+	{
+		public void onAdded(final NodePath path, final Object working)
+		{
+			throw new DifferenceFoundException();
+		}
+
+		public void onRemoved(final NodePath path, final Object base)
+		{
+			throw new DifferenceFoundException();
+		}
+
+		public void onChanged(final NodePath path, final Object working, final Object base)
+		{
+			throw new DifferenceFoundException();
+		}
+
+		public void onCircular(final NodePath path, final NodePath circleStartPath)
+		{
+		}
+	}
+
+	/**
+	 * Unwinds the comparison once a difference has been found. As it is only used for control flow, it doesn't
+	 * capture a stack trace.
+	 */
+	private static final class DifferenceFoundException extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public synchronized Throwable fillInStackTrace()
 		{
-			dispatcher.clearInstanceMemory();
+			return this;
 		}
 	}
 }
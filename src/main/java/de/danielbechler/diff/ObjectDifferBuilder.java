@@ -16,22 +16,30 @@
 
 package de.danielbechler.diff;
 
+import de.danielbechler.diff.access.DefaultValueSnapshots;
 import de.danielbechler.diff.category.CategoryConfigurer;
 import de.danielbechler.diff.category.CategoryService;
 import de.danielbechler.diff.circular.CircularReferenceConfigurer;
 import de.danielbechler.diff.circular.CircularReferenceService;
 import de.danielbechler.diff.comparison.ComparisonConfigurer;
 import de.danielbechler.diff.comparison.ComparisonService;
+import de.danielbechler.diff.comparison.PrimitiveDefaultValueSource;
 import de.danielbechler.diff.differ.BeanDiffer;
 import de.danielbechler.diff.differ.CollectionDiffer;
 import de.danielbechler.diff.differ.Differ;
+import de.danielbechler.diff.differ.DiffPlanCompiler;
 import de.danielbechler.diff.differ.DifferConfigurer;
 import de.danielbechler.diff.differ.DifferDispatcher;
 import de.danielbechler.diff.differ.DifferFactory;
 import de.danielbechler.diff.differ.DifferProvider;
 import de.danielbechler.diff.differ.DifferService;
 import de.danielbechler.diff.differ.MapDiffer;
+import de.danielbechler.diff.differ.OrderedListDiffer;
+import de.danielbechler.diff.differ.PrimitiveArrayDiffer;
 import de.danielbechler.diff.differ.PrimitiveDiffer;
+import de.danielbechler.diff.differ.SortedMapDiffer;
+import de.danielbechler.diff.differ.SortedSetDiffer;
+import de.danielbechler.diff.differ.SpecializedBeanDiffer;
 import de.danielbechler.diff.filtering.FilteringConfigurer;
 import de.danielbechler.diff.filtering.ReturnableNodeService;
 import de.danielbechler.diff.identity.IdentityService;
@@ -39,6 +47,8 @@ import de.danielbechler.diff.inclusion.InclusionConfigurer;
 import de.danielbechler.diff.inclusion.InclusionService;
 import de.danielbechler.diff.introspection.IntrospectionConfigurer;
 import de.danielbechler.diff.introspection.IntrospectionService;
+import de.danielbechler.diff.parallel.ParallelismConfigurer;
+import de.danielbechler.diff.parallel.ParallelismService;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -60,6 +70,7 @@ public class ObjectDifferBuilder
 	private final ReturnableNodeService returnableNodeService = new ReturnableNodeService(this);
 	private final CircularReferenceService circularReferenceService = new CircularReferenceService(this);
 	private final DifferService differService = new DifferService(this);
+	private final ParallelismService parallelismService = new ParallelismService(this);
 	private final NodeQueryService nodeQueryService;
 
 	private ObjectDifferBuilder()
@@ -149,6 +160,14 @@ public class ObjectDifferBuilder
 		return differService;
 	}
 
+	/**
+	 * Allows to compare independent parts of the object graph in parallel.
+	 */
+	public ParallelismConfigurer parallelism()
+	{
+		return parallelismService;
+	}
+
 	public static ObjectDiffer buildDefault()
 	{
 		return startBuilding().build();
@@ -163,12 +182,36 @@ public class ObjectDifferBuilder
 	{
 		final DifferProvider differProvider = new DifferProvider();
 		final DifferDispatcher differDispatcher = newDifferDispatcher(differProvider);
-		differProvider.push(newBeanDiffer(differDispatcher));
-		differProvider.push(newCollectionDiffer(differDispatcher));
-		differProvider.push(newMapDiffer(differDispatcher));
+		final DiffPlanCompiler diffPlanCompiler = new DiffPlanCompiler(inclusionService);
+		final BeanDiffer beanDiffer = newBeanDiffer(differDispatcher, diffPlanCompiler);
+		differProvider.push(beanDiffer);
+		if (!differService.getSpecializedTypes().isEmpty())
+		{
+			differProvider.push(newSpecializedBeanDiffer(beanDiffer, differDispatcher, differProvider, diffPlanCompiler));
+		}
+		final CollectionDiffer collectionDiffer = newCollectionDiffer(differDispatcher);
+		differProvider.push(collectionDiffer);
+		final MapDiffer mapDiffer = newMapDiffer(differDispatcher);
+		differProvider.push(mapDiffer);
+		differProvider.push(new SortedSetDiffer(collectionDiffer, differDispatcher, comparisonService, identityService));
+		differProvider.push(new SortedMapDiffer(mapDiffer, differDispatcher, comparisonService));
+		if (differService.isComparingListsInOrder())
+		{
+			differProvider.push(new OrderedListDiffer(collectionDiffer, differDispatcher, comparisonService, identityService));
+		}
 		differProvider.push(newPrimitiveDiffer());
+		differProvider.push(new PrimitiveArrayDiffer(differDispatcher, comparisonService));
 		differProvider.pushAll(createCustomDiffers(differDispatcher));
-		return new ObjectDiffer(differDispatcher);
+		return new ObjectDiffer(differDispatcher, newDefaultValueSnapshots());
+	}
+
+	private DefaultValueSnapshots newDefaultValueSnapshots()
+	{
+		if (comparisonService.getPrimitiveDefaultValueSource() == PrimitiveDefaultValueSource.TYPE_SNAPSHOT)
+		{
+			return new DefaultValueSnapshots();
+		}
+		return null;
 	}
 
 	private DifferDispatcher newDifferDispatcher(final DifferProvider differProvider)
@@ -178,27 +221,49 @@ public class ObjectDifferBuilder
 				circularReferenceService,
 				circularReferenceService,
 				inclusionService,
+				inclusionService,
 				returnableNodeService,
 				introspectionService,
-				categoryService);
+				categoryService,
+				parallelismService,
+				differService.isIterative());
 	}
 
-	private Differ newBeanDiffer(final DifferDispatcher differDispatcher)
+	private BeanDiffer newBeanDiffer(final DifferDispatcher differDispatcher, final DiffPlanCompiler diffPlanCompiler)
 	{
 		return new BeanDiffer(
 				differDispatcher,
 				introspectionService,
 				returnableNodeService,
 				comparisonService,
-				introspectionService);
+				introspectionService,
+				diffPlanCompiler);
+	}
+
+	private Differ newSpecializedBeanDiffer(final BeanDiffer beanDiffer,
+											final DifferDispatcher differDispatcher,
+											final DifferProvider differProvider,
+											final DiffPlanCompiler diffPlanCompiler)
+	{
+		return new SpecializedBeanDiffer(
+				beanDiffer,
+				differDispatcher,
+				differProvider,
+				introspectionService,
+				returnableNodeService,
+				comparisonService,
+				introspectionService,
+				diffPlanCompiler,
+				differService.getSpecializedTypes(),
+				differService.getCompiledBeanComparators());
 	}
 
-	private Differ newCollectionDiffer(final DifferDispatcher differDispatcher)
+	private CollectionDiffer newCollectionDiffer(final DifferDispatcher differDispatcher)
 	{
 		return new CollectionDiffer(differDispatcher, comparisonService, identityService);
 	}
 
-	private Differ newMapDiffer(final DifferDispatcher differDispatcher)
+	private MapDiffer newMapDiffer(final DifferDispatcher differDispatcher)
 	{
 		return new MapDiffer(differDispatcher, comparisonService);
 	}
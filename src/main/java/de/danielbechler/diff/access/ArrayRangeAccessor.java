@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.selector.ArrayRangeElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+
+import java.lang.reflect.Array;
+
+/**
+ * Accesses a contiguous range of elements of an array. Reading returns a copy of the elements within the range
+ * (truncated to the length of the target array), writing copies the elements of the given array into the range.
+ * Since arrays can't change their length, elements beyond the end of the target array are ignored and unsetting a
+ * range resets its elements to their default values.
+ *
+ * @author Daniel Bechler
+ */
+public final class ArrayRangeAccessor implements Accessor
+{
+	private final int from;
+	private final int to;
+
+	/**
+	 * @param from The index of the first element of the range.
+	 * @param to   The index after the last element of the range.
+	 */
+	public ArrayRangeAccessor(final int from, final int to)
+	{
+		this.from = from;
+		this.to = to;
+	}
+
+	public ElementSelector getElementSelector()
+	{
+		return new ArrayRangeElementSelector(from, to);
+	}
+
+	public Object get(final Object target)
+	{
+		final int length = lengthWithin(target);
+		if (length <= 0)
+		{
+			return null;
+		}
+		final Object range = Array.newInstance(target.getClass().getComponentType(), length);
+		System.arraycopy(target, from, range, 0, length);
+		return range;
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		final int length = Math.min(lengthWithin(target), value != null ? Array.getLength(objectAsArray(value)) : 0);
+		if (length > 0)
+		{
+			System.arraycopy(value, 0, target, from, length);
+		}
+	}
+
+	public void unset(final Object target)
+	{
+		final int length = lengthWithin(target);
+		if (length > 0)
+		{
+			System.arraycopy(Array.newInstance(target.getClass().getComponentType(), length), 0, target, from, length);
+		}
+	}
+
+	/**
+	 * @return The number of elements of the range that exist in the given array.
+	 */
+	private int lengthWithin(final Object target)
+	{
+		if (target == null)
+		{
+			return 0;
+		}
+		return Math.min(to, Array.getLength(objectAsArray(target))) - from;
+	}
+
+	private static Object objectAsArray(final Object object)
+	{
+		if (object.getClass().isArray())
+		{
+			return object;
+		}
+		throw new IllegalArgumentException(object.getClass().toString());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "array range " + getElementSelector();
+	}
+}
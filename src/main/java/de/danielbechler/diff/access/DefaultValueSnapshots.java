@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.util.Classes;
+import de.danielbechler.util.WeakClassMap;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the default values of the properties of a type, as assigned by its default constructor. Every type gets
+ * instantiated only once and every property of it gets read only once, no matter how many objects of that type get
+ * compared. It is safe to be used by multiple threads concurrently.
+ * <p/>
+ * Types without default constructor have no snapshot, so all their properties are considered to be
+ * <code>null</code>, which in turn causes the JDK defaults to be used for primitive properties.
+ * <p/>
+ * Snapshots never keep their type (and therefore its class loader) alive. Since a snapshot strongly references its
+ * type via the default instance, it is only held softly if the type has been loaded by the class loader of this class
+ * or one of its parents. Snapshots of all other types are only held weakly and get recreated when needed again after
+ * they have been garbage collected.
+ *
+ * @author Daniel Bechler
+ */
+public class DefaultValueSnapshots
+{
+	private static final Object NULL = new Object();
+
+	private final WeakClassMap<Reference<Snapshot>> snapshots = new WeakClassMap<Reference<Snapshot>>();
+
+	/**
+	 * @return The shared default instance of the given type or <code>null</code> if it can't be instantiated via
+	 * default constructor. It must not be modified.
+	 */
+	public Object getDefaultInstance(final Class<?> type)
+	{
+		if (type == null)
+		{
+			return null;
+		}
+		return snapshotOf(type).instance;
+	}
+
+	/**
+	 * @return The value the given accessor returns for the default instance of the given type. Only the values of
+	 * {@link PropertyAwareAccessor PropertyAwareAccessors} get remembered, everything else is read directly from the
+	 * shared default instance.
+	 */
+	public Object getDefaultValue(final Class<?> type, final Accessor accessor)
+	{
+		if (type == null)
+		{
+			return null;
+		}
+		final Snapshot snapshot = snapshotOf(type);
+		if (snapshot.instance == null)
+		{
+			return null;
+		}
+		if (!(accessor instanceof PropertyAwareAccessor))
+		{
+			return accessor.get(snapshot.instance);
+		}
+		final ElementSelector elementSelector = accessor.getElementSelector();
+		final Object knownValue = snapshot.values.get(elementSelector);
+		if (knownValue != null)
+		{
+			return knownValue == NULL ? null : knownValue;
+		}
+		final Object value = accessor.get(snapshot.instance);
+		snapshot.values.putIfAbsent(elementSelector, value == null ? NULL : value);
+		return value;
+	}
+
+	private Snapshot snapshotOf(final Class<?> type)
+	{
+		final Reference<Snapshot> reference = snapshots.get(type);
+		final Snapshot snapshot = reference != null ? reference.get() : null;
+		if (snapshot != null)
+		{
+			return snapshot;
+		}
+		// concurrent threads may end up with different snapshots, but they all contain the same default values
+		final Snapshot newSnapshot = new Snapshot(Classes.freshInstanceOf(type));
+		if (Classes.outlivesClassLoader(type, DefaultValueSnapshots.class.getClassLoader()))
+		{
+			snapshots.put(type, new SoftReference<Snapshot>(newSnapshot));
+		}
+		else
+		{
+			snapshots.put(type, new WeakReference<Snapshot>(newSnapshot));
+		}
+		return newSnapshot;
+	}
+
+	private static final class Snapshot
+	{
+		private final Object instance;
+		private final ConcurrentMap<ElementSelector, Object> values = new ConcurrentHashMap<ElementSelector, Object>();
+
+		private Snapshot(final Object instance)
+		{
+			this.instance = instance;
+		}
+	}
+}
@@ -16,13 +16,16 @@
 
 package de.danielbechler.diff.access;
 
+import de.danielbechler.diff.differ.DiffContext;
 import de.danielbechler.util.Assert;
 import de.danielbechler.util.Classes;
 import de.danielbechler.util.Collections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,21 +34,42 @@ import static de.danielbechler.util.Objects.isEqual;
 public class Instances
 {
 	private static final Logger logger = LoggerFactory.getLogger(Instances.class);
+	private static final Object UNRESOLVED = new Object();
+	private static final Class<?> UNRESOLVED_TYPE = Unresolved.class;
+
 	private final Accessor sourceAccessor;
 	private final Object working;
 	private final Object base;
-	private final Object fresh;
+	private final Instances parent;
+	private final DefaultValueSnapshots defaultValueSnapshots;
+	private final DiffContext context;
+	private volatile Object fresh;
+	private volatile Class<?> type = UNRESOLVED_TYPE;
 
 	Instances(final Accessor sourceAccessor,
 			  final Object working,
 			  final Object base,
 			  final Object fresh)
+	{
+		this(sourceAccessor, working, base, fresh, null, null, null);
+	}
+
+	private Instances(final Accessor sourceAccessor,
+					  final Object working,
+					  final Object base,
+					  final Object fresh,
+					  final Instances parent,
+					  final DefaultValueSnapshots defaultValueSnapshots,
+					  final DiffContext context)
 	{
 		Assert.notNull(sourceAccessor, "sourceAccessor");
 		this.sourceAccessor = sourceAccessor;
 		this.working = working;
 		this.base = base;
 		this.fresh = fresh;
+		this.parent = parent;
+		this.defaultValueSnapshots = defaultValueSnapshots;
+		this.context = context;
 	}
 
 	public static <T> Instances of(final Accessor sourceAccessor,
@@ -58,14 +82,12 @@ public class Instances
 
 	public static <T> Instances of(final Accessor sourceAccessor, final T working, final T base)
 	{
-		final Object fresh = (working != null) ? Classes.freshInstanceOf(working.getClass()) : null;
-		return new Instances(sourceAccessor, working, base, fresh);
+		return new Instances(sourceAccessor, working, base, UNRESOLVED);
 	}
 
 	public static <T> Instances of(final T working, final T base)
 	{
-		final Object fresh = (working != null) ? Classes.freshInstanceOf(working.getClass()) : null;
-		return new Instances(RootAccessor.getInstance(), working, base, fresh);
+		return new Instances(RootAccessor.getInstance(), working, base, UNRESOLVED);
 	}
 
 	/**
@@ -79,7 +101,56 @@ public class Instances
 	public Instances access(final Accessor accessor)
 	{
 		Assert.notNull(accessor, "accessor");
-		return new Instances(accessor, accessor.get(working), accessor.get(base), accessor.get(fresh));
+		return access(accessor, accessor.get(working), accessor.get(base));
+	}
+
+	/**
+	 * Same as {@link #access(Accessor)}, but uses the given working and base values instead of reading them via
+	 * accessor. This is meant for callers that already resolved the values on their own in a more efficient way.
+	 */
+	public Instances access(final Accessor accessor, final Object working, final Object base)
+	{
+		Assert.notNull(accessor, "accessor");
+		return new Instances(accessor, working, base, UNRESOLVED, this, defaultValueSnapshots, context);
+	}
+
+	/**
+	 * @return The same instances, but bound to the given {@link DiffContext}. The context gets passed on to all
+	 * instances accessed from the returned ones.
+	 */
+	public Instances withContext(final DiffContext context)
+	{
+		if (this.context == context)
+		{
+			return this;
+		}
+		final Instances instances = new Instances(sourceAccessor, working, base, fresh, parent, defaultValueSnapshots, context);
+		instances.type = type;
+		return instances;
+	}
+
+	/**
+	 * @return The same instances, but with the default values of primitive properties taken from the given
+	 * snapshots instead of a fresh instance of the root object. The snapshots get passed on to all instances
+	 * accessed from the returned ones. Passing <code>null</code> switches back to the fresh instance.
+	 */
+	public Instances withDefaultValueSnapshots(final DefaultValueSnapshots defaultValueSnapshots)
+	{
+		if (this.defaultValueSnapshots == defaultValueSnapshots)
+		{
+			return this;
+		}
+		final Object fresh = parent == null ? this.fresh : UNRESOLVED;
+		return new Instances(sourceAccessor, working, base, fresh, parent, defaultValueSnapshots, context);
+	}
+
+	/**
+	 * @return The context of the comparison these instances are part of or <code>null</code> if they haven't been
+	 * bound to one yet.
+	 */
+	public DiffContext getContext()
+	{
+		return context;
 	}
 
 	public Object getWorking()
@@ -104,6 +175,7 @@ public class Instances
 
 	public Object getFresh()
 	{
+		final Object fresh = getFreshInstance();
 		if (fresh == null)
 		{
 			if (isPrimitiveNumericType())
@@ -162,14 +234,102 @@ public class Instances
 		return Classes.isPrimitiveWrapperType(getType());
 	}
 
+	/**
+	 * The fresh instance is only resolved when it is actually needed, as it usually involves reading the
+	 * corresponding property of the fresh instance of the parent object. Unresolved fresh instances of the parents
+	 * are resolved from the outside in, so deeply nested instances don't exhaust the stack.
+	 */
+	private Object getFreshInstance()
+	{
+		if (fresh == UNRESOLVED)
+		{
+			if (defaultValueSnapshots != null)
+			{
+				fresh = resolveFreshInstance();
+			}
+			else
+			{
+				final List<Instances> unresolvedInstances = new ArrayList<Instances>();
+				for (Instances instances = this; instances != null && instances.fresh == UNRESOLVED; instances = instances.parent)
+				{
+					unresolvedInstances.add(instances);
+				}
+				for (int i = unresolvedInstances.size() - 1; i >= 0; i--)
+				{
+					final Instances instances = unresolvedInstances.get(i);
+					instances.fresh = instances.resolveFreshInstance();
+				}
+			}
+		}
+		return fresh;
+	}
+
+	private Object resolveFreshInstance()
+	{
+		if (parent == null)
+		{
+			if (working == null)
+			{
+				return null;
+			}
+			if (defaultValueSnapshots != null)
+			{
+				return defaultValueSnapshots.getDefaultInstance(working.getClass());
+			}
+			return Classes.freshInstanceOf(working.getClass());
+		}
+		if (defaultValueSnapshots != null)
+		{
+			return defaultValueSnapshots.getDefaultValue(parent.getHolderType(), sourceAccessor);
+		}
+		return sourceAccessor.get(parent.getFreshInstance());
+	}
+
+	private Class<?> getHolderType()
+	{
+		if (working != null)
+		{
+			return working.getClass();
+		}
+		if (base != null)
+		{
+			return base.getClass();
+		}
+		return null;
+	}
+
+	/**
+	 * @return The type of the instances. It is only determined once, so calling this method repeatedly is cheap.
+	 */
 	public Class<?> getType()
 	{
-		final Set<Class<?>> types = Classes.typesOf(working, base, fresh);
+		Class<?> type = this.type;
+		if (type == UNRESOLVED_TYPE)
+		{
+			type = resolveType();
+			this.type = type;
+		}
+		return type;
+	}
+
+	private Class<?> resolveType()
+	{
 		final Class<?> sourceAccessorType = tryToGetTypeFromSourceAccessor();
 		if (Classes.isPrimitiveType(sourceAccessorType))
 		{
 			return sourceAccessorType;
 		}
+		// the fresh instance is only needed when there is nothing else to look at, so it doesn't get created for
+		// every single node
+		final Set<Class<?>> types;
+		if (working != null || base != null)
+		{
+			types = Classes.typesOf(working, base);
+		}
+		else
+		{
+			types = Classes.typesOf(getFreshInstance());
+		}
 		if (types.isEmpty())
 		{
 			return null;
@@ -268,4 +428,7 @@ public class Instances
 		return working == null && base == null;
 	}
 
+	private static final class Unresolved
+	{
+	}
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.diff.selector.ListItemElementSelector;
+
+import java.util.List;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * Accesses an item of a {@link List} by its position, as determined by an ordered comparison of two lists. Reading
+ * and writing always refers to the position of the item in the working list or, for removed items, to its position
+ * in the base list.
+ *
+ * @author Daniel Bechler
+ */
+public final class ListItemAccessor implements Accessor
+{
+	private final int workingIndex;
+	private final int baseIndex;
+	private final boolean moved;
+
+	/**
+	 * @param workingIndex The position of the item in the working list or {@link ListItemElementSelector#NO_INDEX}
+	 *                     for removed items.
+	 * @param baseIndex    The position of the item in the base list or {@link ListItemElementSelector#NO_INDEX} for
+	 *                     added items.
+	 * @param moved        Whether the item changed its position relative to the other items of the list.
+	 */
+	public ListItemAccessor(final int workingIndex, final int baseIndex, final boolean moved)
+	{
+		this.workingIndex = workingIndex;
+		this.baseIndex = baseIndex;
+		this.moved = moved;
+	}
+
+	/**
+	 * @return <code>true</code> if the item changed its position relative to the other items of the list. Items
+	 * that have only been shifted by other items being added or removed haven't been moved.
+	 */
+	public boolean isMoved()
+	{
+		return moved;
+	}
+
+	/**
+	 * @return <code>true</code> if the item only exists in the working list.
+	 */
+	public boolean isAdded()
+	{
+		return baseIndex == NO_INDEX;
+	}
+
+	/**
+	 * @return <code>true</code> if the item only exists in the base list.
+	 */
+	public boolean isRemoved()
+	{
+		return workingIndex == NO_INDEX;
+	}
+
+	public ElementSelector getElementSelector()
+	{
+		return new ListItemElementSelector(workingIndex, baseIndex);
+	}
+
+	public Object get(final Object target)
+	{
+		final List<?> targetList = objectAsList(target);
+		final int index = index();
+		if (targetList == null || index >= targetList.size())
+		{
+			return null;
+		}
+		return targetList.get(index);
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		final List<Object> targetList = objectAsList(target);
+		if (targetList == null)
+		{
+			return;
+		}
+		final int index = index();
+		if (index < targetList.size())
+		{
+			targetList.set(index, value);
+		}
+		else
+		{
+			targetList.add(value);
+		}
+	}
+
+	public void unset(final Object target)
+	{
+		final List<?> targetList = objectAsList(target);
+		final int index = index();
+		if (targetList != null && index < targetList.size())
+		{
+			targetList.remove(index);
+		}
+	}
+
+	private int index()
+	{
+		return workingIndex != NO_INDEX ? workingIndex : baseIndex;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> objectAsList(final Object object)
+	{
+		if (object == null)
+		{
+			return null;
+		}
+		else if (object instanceof List)
+		{
+			return (List<Object>) object;
+		}
+		throw new IllegalArgumentException(object.getClass().toString());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "list item " + getElementSelector();
+	}
+}
@@ -35,10 +35,15 @@ public final class MapEntryAccessor implements Accessor
 		this.referenceKey = referenceKey;
 	}
 
+	/**
+	 * @return The key instance of the given map, that is equal to the reference key of this accessor or
+	 * <code>null</code> if the map doesn't contain such a key. Only maps that actually contain the key need to be
+	 * searched for the matching instance.
+	 */
 	public Object getKey(final Map<?, ?> target)
 	{
 		final Map<Object, Object> map = objectToMap(target);
-		if (map == null)
+		if (map == null || !map.containsKey(referenceKey))
 		{
 			return null;
 		}
@@ -36,6 +36,12 @@ public interface CircularReferenceConfigurer
 {
 	CircularReferenceConfigurer matchCircularReferencesUsing(CircularReferenceMatchingMode matchingMode);
 
+	/**
+	 * Allows to switch to a faster way of looking up instances along the current path. See {@link
+	 * CircularReferenceLookupMode} for details.
+	 */
+	CircularReferenceConfigurer lookupCircularReferencesUsing(CircularReferenceLookupMode lookupMode);
+
 	CircularReferenceConfigurer handleCircularReferenceExceptionsUsing(CircularReferenceExceptionHandler exceptionHandler);
 
 	ObjectDifferBuilder and();
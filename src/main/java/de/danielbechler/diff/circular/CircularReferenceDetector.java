@@ -16,7 +16,9 @@
 
 package de.danielbechler.diff.circular;
 
+import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.util.Assert;
 
 import java.util.LinkedList;
@@ -57,6 +59,31 @@ public class CircularReferenceDetector
 		stack.addLast(entry);
 	}
 
+	/**
+	 * Same as {@link #push(Object, NodePath)}, but leaves it up to the detector when to build the node path of the
+	 * given instance.
+	 *
+	 * @param parentNode      The parent of the node representing the instance or <code>null</code> for the root
+	 * @param elementSelector The element selector of the node representing the instance
+	 */
+	public void push(final Object instance, final DiffNode parentNode, final ElementSelector elementSelector)
+	{
+		if (instance == null)
+		{
+			return;
+		}
+		push(instance, nodePathOf(parentNode, elementSelector));
+	}
+
+	protected static NodePath nodePathOf(final DiffNode parentNode, final ElementSelector elementSelector)
+	{
+		if (parentNode == null)
+		{
+			return NodePath.withRoot();
+		}
+		return parentNode.getPath().append(elementSelector);
+	}
+
 	public boolean knows(final Object needle)
 	{
 		for (final Entry entry : stack)
@@ -114,6 +141,16 @@ public class CircularReferenceDetector
 		}
 	}
 
+	/**
+	 * @return A new detector that knows the same instances as this one, but can be modified independently.
+	 */
+	public CircularReferenceDetector copy()
+	{
+		final CircularReferenceDetector copy = new CircularReferenceDetector(referenceMatchingMode);
+		copy.stack.addAll(stack);
+		return copy;
+	}
+
 	public int size()
 	{
 		return stack.size();
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular;
+
+/**
+ * Defines how the circular reference detection looks up the instances along the current path. The default is
+ * {@link #LINEAR_SCAN}, which works with every kind of object, but gets slower with every level of depth. For deeply
+ * nested object graphs {@link #HASH_LOOKUP} will perform much better.
+ */
+public enum CircularReferenceLookupMode
+{
+	/**
+	 * Compares every new instance with all the instances along the current path.
+	 */
+	LINEAR_SCAN,
+
+	/**
+	 * Keeps an index of the instances along the current path, so each lookup takes constant time. In combination with
+	 * {@link CircularReferenceMatchingMode#EQUALS_METHOD} this requires the compared objects to implement a
+	 * <code>hashCode</code> method that is consistent with their <code>equals</code> method.
+	 */
+	HASH_LOOKUP
+}
@@ -18,6 +18,7 @@ package de.danielbechler.diff.circular;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
 import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +31,7 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 	private final ObjectDifferBuilder objectDifferBuilder;
 
 	private CircularReferenceMatchingMode circularReferenceMatchingMode = CircularReferenceMatchingMode.EQUALITY_OPERATOR;
+	private CircularReferenceLookupMode circularReferenceLookupMode = CircularReferenceLookupMode.LINEAR_SCAN;
 	private CircularReferenceExceptionHandler circularReferenceExceptionHandler = new CircularReferenceExceptionHandler()
 	{
 		public void onCircularReferenceException(final DiffNode node)
@@ -52,6 +54,13 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 		return this;
 	}
 
+	public CircularReferenceConfigurer lookupCircularReferencesUsing(final CircularReferenceLookupMode lookupMode)
+	{
+		Assert.notNull(lookupMode, "lookupMode");
+		this.circularReferenceLookupMode = lookupMode;
+		return this;
+	}
+
 	public CircularReferenceConfigurer handleCircularReferenceExceptionsUsing(final CircularReferenceExceptionHandler exceptionHandler)
 	{
 		this.circularReferenceExceptionHandler = exceptionHandler;
@@ -64,14 +73,24 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 	}
 
 	public CircularReferenceDetector createCircularReferenceDetector()
+	{
+		final CircularReferenceDetector.ReferenceMatchingMode referenceMatchingMode = referenceMatchingMode();
+		if (circularReferenceLookupMode == CircularReferenceLookupMode.HASH_LOOKUP)
+		{
+			return new IndexedCircularReferenceDetector(referenceMatchingMode);
+		}
+		return new CircularReferenceDetector(referenceMatchingMode);
+	}
+
+	private CircularReferenceDetector.ReferenceMatchingMode referenceMatchingMode()
 	{
 		if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALS_METHOD)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD);
+			return CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD;
 		}
 		else if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALITY_OPERATOR)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
+			return CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR;
 		}
 		throw new IllegalStateException();
 	}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular;
+
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.selector.ElementSelector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link CircularReferenceDetector} that keeps an index of all known instances next to the stack, so it doesn't
+ * need to scan the entire stack on every push. Depending on the {@link ReferenceMatchingMode} the index is either an
+ * {@link IdentityHashMap} or a {@link HashMap}. The latter relies on the known instances to implement a
+ * <code>hashCode</code> method that is consistent with their <code>equals</code> method.
+ * <p/>
+ * When pushed via {@link #push(Object, DiffNode, ElementSelector)}, the node path of an instance is only built when
+ * it is actually needed to report a circular reference.
+ *
+ * @author Daniel Bechler
+ */
+public class IndexedCircularReferenceDetector extends CircularReferenceDetector
+{
+	private final ReferenceMatchingMode referenceMatchingMode;
+	private final List<Entry> stack;
+	private final Map<Object, Entry> index;
+
+	public IndexedCircularReferenceDetector(final ReferenceMatchingMode referenceMatchingMode)
+	{
+		this(referenceMatchingMode, new ArrayList<Entry>());
+	}
+
+	private IndexedCircularReferenceDetector(final ReferenceMatchingMode referenceMatchingMode,
+											 final List<Entry> entries)
+	{
+		super(referenceMatchingMode);
+		this.referenceMatchingMode = referenceMatchingMode;
+		this.stack = new ArrayList<Entry>(entries);
+		this.index = newIndex(referenceMatchingMode);
+		for (final Entry entry : entries)
+		{
+			index.put(entry.instance, entry);
+		}
+	}
+
+	private static Map<Object, Entry> newIndex(final ReferenceMatchingMode referenceMatchingMode)
+	{
+		if (referenceMatchingMode == ReferenceMatchingMode.EQUALS_METHOD)
+		{
+			return new HashMap<Object, Entry>();
+		}
+		return new IdentityHashMap<Object, Entry>();
+	}
+
+	@Override
+	public void push(final Object instance, final NodePath nodePath)
+	{
+		pushEntry(instance, new Entry(instance, nodePath, null, null));
+	}
+
+	@Override
+	public void push(final Object instance, final DiffNode parentNode, final ElementSelector elementSelector)
+	{
+		pushEntry(instance, new Entry(instance, null, parentNode, elementSelector));
+	}
+
+	private void pushEntry(final Object instance, final Entry entry)
+	{
+		if (instance == null)
+		{
+			return;
+		}
+		final Entry knownEntry = index.get(instance);
+		if (knownEntry != null)
+		{
+			throw new CircularReferenceException(knownEntry.getNodePath());
+		}
+		index.put(instance, entry);
+		stack.add(entry);
+	}
+
+	@Override
+	public boolean knows(final Object needle)
+	{
+		return needle != null && index.containsKey(needle);
+	}
+
+	@Override
+	public void remove(final Object instance)
+	{
+		if (instance == null)
+		{
+			return;
+		}
+		if (!stack.isEmpty() && isMatch(instance, stack.get(stack.size() - 1).instance))
+		{
+			final Entry entry = stack.remove(stack.size() - 1);
+			index.remove(entry.instance);
+		}
+		else
+		{
+			throw new IllegalArgumentException("Detected inconsistency in enter/leave sequence. Must always be LIFO.");
+		}
+	}
+
+	@Override
+	public CircularReferenceDetector copy()
+	{
+		return new IndexedCircularReferenceDetector(referenceMatchingMode, stack);
+	}
+
+	@Override
+	public int size()
+	{
+		return stack.size();
+	}
+
+	private static final class Entry
+	{
+		private final Object instance;
+		private final DiffNode parentNode;
+		private final ElementSelector elementSelector;
+		private NodePath nodePath;
+
+		private Entry(final Object instance,
+					  final NodePath nodePath,
+					  final DiffNode parentNode,
+					  final ElementSelector elementSelector)
+		{
+			this.instance = instance;
+			this.nodePath = nodePath;
+			this.parentNode = parentNode;
+			this.elementSelector = elementSelector;
+		}
+
+		private NodePath getNodePath()
+		{
+			if (nodePath == null)
+			{
+				nodePath = nodePathOf(parentNode, elementSelector);
+			}
+			return nodePath;
+		}
+	}
+}
@@ -51,5 +51,10 @@ public interface ComparisonConfigurer
 	interface OfPrimitiveTypes
 	{
 		ComparisonConfigurer toTreatDefaultValuesAs(PrimitiveDefaultValueMode primitiveDefaultValueMode);
+
+		/**
+		 * Defines where the default values come from. See {@link PrimitiveDefaultValueSource} for details.
+		 */
+		ComparisonConfigurer toReadDefaultValuesFrom(PrimitiveDefaultValueSource primitiveDefaultValueSource);
 	}
 }
@@ -22,6 +22,7 @@ import de.danielbechler.diff.introspection.ObjectDiffProperty;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.path.NodePathValueHolder;
+import de.danielbechler.util.Assert;
 import de.danielbechler.util.Classes;
 
 import java.util.HashMap;
@@ -37,6 +38,7 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 	private final ObjectDifferBuilder objectDifferBuilder;
 
 	private PrimitiveDefaultValueMode primitiveDefaultValueMode = PrimitiveDefaultValueMode.UNASSIGNED;
+	private PrimitiveDefaultValueSource primitiveDefaultValueSource = PrimitiveDefaultValueSource.FRESH_INSTANCE;
 
 	public ComparisonService(final ObjectDifferBuilder objectDifferBuilder)
 	{
@@ -103,6 +105,11 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 		return primitiveDefaultValueMode;
 	}
 
+	public PrimitiveDefaultValueSource getPrimitiveDefaultValueSource()
+	{
+		return primitiveDefaultValueSource;
+	}
+
 	public Of ofNode(final NodePath nodePath)
 	{
 		return new OfNodePath(nodePath);
@@ -180,5 +187,12 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 			primitiveDefaultValueMode = mode;
 			return ComparisonService.this;
 		}
+
+		public ComparisonConfigurer toReadDefaultValuesFrom(final PrimitiveDefaultValueSource source)
+		{
+			Assert.notNull(source, "source");
+			primitiveDefaultValueSource = source;
+			return ComparisonService.this;
+		}
 	}
 }
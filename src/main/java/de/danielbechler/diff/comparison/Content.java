@@ -0,0 +1,227 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison;
+
+/**
+ * Uniform access to the values of <code>byte[]</code> and {@link CharSequence} instances, as needed to split them into
+ * chunks. Every method has a specialized implementation per value type, so the elements are read directly without
+ * boxing them.
+ *
+ * @author Daniel Bechler
+ */
+abstract class Content
+{
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	/**
+	 * Random values the Gear hash adds for every element. They are derived from a fixed seed, so the chunk boundaries
+	 * of the same content are the same in every JVM.
+	 */
+	private static final long[] GEAR = new long[256];
+
+	static
+	{
+		long seed = 0x5deece66dL;
+		for (int i = 0; i < GEAR.length; i++)
+		{
+			// SplitMix64
+			seed += 0x9e3779b97f4a7c15L;
+			long value = seed;
+			value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+			value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+			GEAR[i] = value ^ (value >>> 31);
+		}
+	}
+
+	/**
+	 * @return The content of the given value or <code>null</code> if it's neither a <code>byte[]</code> nor a {@link
+	 * CharSequence}.
+	 */
+	static Content of(final Object value)
+	{
+		if (value instanceof byte[])
+		{
+			return new ByteArrayContent((byte[]) value);
+		}
+		else if (value instanceof CharSequence)
+		{
+			return new StringContent(value.toString());
+		}
+		return null;
+	}
+
+	abstract int length();
+
+	/**
+	 * Finds the end of the chunk starting at the given offset via Gear hash: the chunk ends right after the first
+	 * element, for which none of the bits of the given mask are set in the hash of the preceding elements. Chunks are
+	 * never shorter than the given minimum size (unless the content ends before) and never longer than the given
+	 * maximum size.
+	 *
+	 * @return The offset after the last element of the chunk.
+	 */
+	abstract int nextChunkBoundary(int offset, int minimumSize, int maximumSize, long mask);
+
+	/**
+	 * @return A 64-bit FNV-1a hash of the given range.
+	 */
+	abstract long fingerprint(int offset, int length);
+
+	/**
+	 * @return <code>true</code> if the given range of this content equals the given range of the other content.
+	 */
+	abstract boolean regionMatches(int offset, Content other, int otherOffset, int length);
+
+	/**
+	 * @return A copy of the given range in the representation of the original value.
+	 */
+	abstract Object slice(int offset, int length);
+
+	/**
+	 * @return <code>true</code> if both contents are of the same type and contain the same elements.
+	 */
+	boolean contentEquals(final Content other)
+	{
+		return length() == other.length() && regionMatches(0, other, 0, length());
+	}
+
+	private static final class ByteArrayContent extends Content
+	{
+		private final byte[] bytes;
+
+		private ByteArrayContent(final byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		@Override
+		int length()
+		{
+			return bytes.length;
+		}
+
+		@Override
+		int nextChunkBoundary(final int offset, final int minimumSize, final int maximumSize, final long mask)
+		{
+			final int end = (int) Math.min(bytes.length, (long) offset + maximumSize);
+			long hash = 0;
+			for (int i = offset; i < end; i++)
+			{
+				hash = (hash << 1) + GEAR[bytes[i] & 0xff];
+				if ((hash & mask) == 0 && i - offset + 1 >= minimumSize)
+				{
+					return i + 1;
+				}
+			}
+			return end;
+		}
+
+		@Override
+		long fingerprint(final int offset, final int length)
+		{
+			long hash = FNV_OFFSET_BASIS;
+			for (int i = offset; i < offset + length; i++)
+			{
+				hash = (hash ^ (bytes[i] & 0xff)) * FNV_PRIME;
+			}
+			return hash;
+		}
+
+		@Override
+		boolean regionMatches(final int offset, final Content other, final int otherOffset, final int length)
+		{
+			if (!(other instanceof ByteArrayContent))
+			{
+				return false;
+			}
+			final byte[] otherBytes = ((ByteArrayContent) other).bytes;
+			for (int i = 0; i < length; i++)
+			{
+				if (bytes[offset + i] != otherBytes[otherOffset + i])
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		Object slice(final int offset, final int length)
+		{
+			final byte[] slice = new byte[length];
+			System.arraycopy(bytes, offset, slice, 0, length);
+			return slice;
+		}
+	}
+
+	private static final class StringContent extends Content
+	{
+		private final String string;
+
+		private StringContent(final String string)
+		{
+			this.string = string;
+		}
+
+		@Override
+		int length()
+		{
+			return string.length();
+		}
+
+		@Override
+		int nextChunkBoundary(final int offset, final int minimumSize, final int maximumSize, final long mask)
+		{
+			final int end = (int) Math.min(string.length(), (long) offset + maximumSize);
+			long hash = 0;
+			for (int i = offset; i < end; i++)
+			{
+				final char c = string.charAt(i);
+				hash = (hash << 1) + GEAR[(c ^ (c >>> 8)) & 0xff];
+				if ((hash & mask) == 0 && i - offset + 1 >= minimumSize)
+				{
+					return i + 1;
+				}
+			}
+			return end;
+		}
+
+		@Override
+		long fingerprint(final int offset, final int length)
+		{
+			long hash = FNV_OFFSET_BASIS;
+			for (int i = offset; i < offset + length; i++)
+			{
+				hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+			}
+			return hash;
+		}
+
+		@Override
+		boolean regionMatches(final int offset, final Content other, final int otherOffset, final int length)
+		{
+			return other instanceof StringContent
+					&& string.regionMatches(offset, ((StringContent) other).string, otherOffset, length);
+		}
+
+		@Override
+		Object slice(final int offset, final int length)
+		{
+			return string.substring(offset, offset + length);
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison;
+
+import de.danielbechler.diff.node.DiffNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.danielbechler.util.Objects.isEqual;
+
+/**
+ * Compares large <code>byte[]</code> and {@link CharSequence} values (like attachments or long texts) by splitting
+ * them into chunks. The chunk boundaries are derived from the content itself via Gear rolling hash, so inserting or
+ * removing some bytes only affects the chunks around the modification, while all other chunks stay the same.
+ * <p/>
+ * Chunks that exist in both values (in the same order) are identified by their fingerprints. Every region in between
+ * them is reported as child node of the compared value. Such a node is added or removed if the region only exists in
+ * one of the values, otherwise it has changed. The nodes don't keep any copies of the content, but their {@link
+ * de.danielbechler.diff.selector.ContentRangeElementSelector} tells the offsets and lengths of the region in both
+ * values. Reading them yields the content of the region, writing them is not supported, so changes to such values
+ * can't be merged region by region.
+ * <p/>
+ * When the values don't share any chunk, the node is simply marked as changed without any children. Values of any
+ * other type are compared via {@link Object#equals(Object)}.
+ *
+ * @author Daniel Bechler
+ */
+public class ContentDefinedChunkingComparisonStrategy implements ComparisonStrategy
+{
+	public static final int DEFAULT_MINIMUM_CHUNK_SIZE = 2 * 1024;
+	public static final int DEFAULT_AVERAGE_CHUNK_SIZE = 8 * 1024;
+	public static final int DEFAULT_MAXIMUM_CHUNK_SIZE = 64 * 1024;
+
+	private final int minimumChunkSize;
+	private final int maximumChunkSize;
+	private final long mask;
+
+	public ContentDefinedChunkingComparisonStrategy()
+	{
+		this(DEFAULT_MINIMUM_CHUNK_SIZE, DEFAULT_AVERAGE_CHUNK_SIZE, DEFAULT_MAXIMUM_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param minimumChunkSize The minimum number of elements (bytes or characters) per chunk.
+	 * @param averageChunkSize The approximate average number of elements per chunk.
+	 * @param maximumChunkSize The maximum number of elements per chunk.
+	 */
+	public ContentDefinedChunkingComparisonStrategy(final int minimumChunkSize,
+													final int averageChunkSize,
+													final int maximumChunkSize)
+	{
+		if (minimumChunkSize <= 0 || averageChunkSize < minimumChunkSize || maximumChunkSize < averageChunkSize)
+		{
+			throw new IllegalArgumentException("The chunk sizes must be positive and satisfy: minimum <= average <= maximum");
+		}
+		this.minimumChunkSize = minimumChunkSize;
+		this.maximumChunkSize = maximumChunkSize;
+		this.mask = maskFor(averageChunkSize - minimumChunkSize);
+	}
+
+	/**
+	 * Beyond the minimum chunk size, every element ends a chunk with a probability of <code>1 / 2^bits</code>, where
+	 * <code>bits</code> is the number of bits set in the mask. The highest bits of the hash are used, since they
+	 * depend on the most elements.
+	 */
+	private static long maskFor(final int expectedSizeBeyondMinimum)
+	{
+		final int bits = 31 - Integer.numberOfLeadingZeros(Math.max(expectedSizeBeyondMinimum, 1));
+		return bits == 0 ? 0 : -1L << (64 - bits);
+	}
+
+	public void compare(final DiffNode node, final Class<?> type, final Object working, final Object base)
+	{
+		final Content workingContent = Content.of(working);
+		final Content baseContent = Content.of(base);
+		if (workingContent == null || baseContent == null)
+		{
+			node.setState(isEqual(working, base) ? DiffNode.State.UNTOUCHED : DiffNode.State.CHANGED);
+		}
+		else if (workingContent.contentEquals(baseContent))
+		{
+			node.setState(DiffNode.State.UNTOUCHED);
+		}
+		else
+		{
+			node.setState(DiffNode.State.CHANGED);
+			compareChunks(node, workingContent, baseContent);
+		}
+	}
+
+	private void compareChunks(final DiffNode node, final Content workingContent, final Content baseContent)
+	{
+		final List<Chunk> workingChunks = chunksOf(workingContent);
+		final List<Chunk> baseChunks = chunksOf(baseContent);
+		final Map<Long, Occurrences> baseChunkOccurrences = occurrencesOf(baseChunks);
+		final List<ContentRangeAccessor> regions = new ArrayList<ContentRangeAccessor>();
+		int nextWorkingChunk = 0;
+		int nextBaseChunk = 0;
+		for (int workingChunk = 0; workingChunk < workingChunks.size(); workingChunk++)
+		{
+			final Chunk chunk = workingChunks.get(workingChunk);
+			final Occurrences occurrences = baseChunkOccurrences.get(chunk.fingerprint);
+			final int baseChunk = occurrences != null
+					? occurrences.find(chunk, workingContent, baseChunks, baseContent, nextBaseChunk)
+					: -1;
+			if (baseChunk != -1)
+			{
+				addRegion(regions, workingContent, workingChunks, nextWorkingChunk, workingChunk,
+						baseContent, baseChunks, nextBaseChunk, baseChunk);
+				nextWorkingChunk = workingChunk + 1;
+				nextBaseChunk = baseChunk + 1;
+			}
+		}
+		if (nextWorkingChunk == 0 && nextBaseChunk == 0)
+		{
+			// without any common chunk the whole value has changed
+			return;
+		}
+		addRegion(regions, workingContent, workingChunks, nextWorkingChunk, workingChunks.size(),
+				baseContent, baseChunks, nextBaseChunk, baseChunks.size());
+		for (final ContentRangeAccessor region : regions)
+		{
+			addRegionNode(node, region);
+		}
+	}
+
+	private List<Chunk> chunksOf(final Content content)
+	{
+		final List<Chunk> chunks = new ArrayList<Chunk>();
+		int offset = 0;
+		while (offset < content.length())
+		{
+			final int end = content.nextChunkBoundary(offset, minimumChunkSize, maximumChunkSize, mask);
+			chunks.add(new Chunk(offset, end - offset, content.fingerprint(offset, end - offset)));
+			offset = end;
+		}
+		return chunks;
+	}
+
+	private static Map<Long, Occurrences> occurrencesOf(final List<Chunk> chunks)
+	{
+		final Map<Long, Occurrences> occurrences = new HashMap<Long, Occurrences>(chunks.size() * 2);
+		for (int i = 0; i < chunks.size(); i++)
+		{
+			final Long fingerprint = chunks.get(i).fingerprint;
+			Occurrences chunkOccurrences = occurrences.get(fingerprint);
+			if (chunkOccurrences == null)
+			{
+				chunkOccurrences = new Occurrences();
+				occurrences.put(fingerprint, chunkOccurrences);
+			}
+			chunkOccurrences.indexes.add(i);
+		}
+		return occurrences;
+	}
+
+	/**
+	 * Adds the region between the given ranges of chunks, unless both ranges are empty.
+	 */
+	private static void addRegion(final List<ContentRangeAccessor> regions,
+								  final Content workingContent,
+								  final List<Chunk> workingChunks,
+								  final int workingFrom,
+								  final int workingTo,
+								  final Content baseContent,
+								  final List<Chunk> baseChunks,
+								  final int baseFrom,
+								  final int baseTo)
+	{
+		if (workingFrom == workingTo && baseFrom == baseTo)
+		{
+			return;
+		}
+		final int workingOffset = offsetOf(workingChunks, workingFrom, workingContent);
+		final int baseOffset = offsetOf(baseChunks, baseFrom, baseContent);
+		regions.add(new ContentRangeAccessor(
+				workingContent, workingOffset, offsetOf(workingChunks, workingTo, workingContent) - workingOffset,
+				baseContent, baseOffset, offsetOf(baseChunks, baseTo, baseContent) - baseOffset));
+	}
+
+	private static int offsetOf(final List<Chunk> chunks, final int chunkIndex, final Content content)
+	{
+		return chunkIndex < chunks.size() ? chunks.get(chunkIndex).offset : content.length();
+	}
+
+	private static void addRegionNode(final DiffNode node, final ContentRangeAccessor region)
+	{
+		final DiffNode regionNode = new DiffNode(node, region, node.getValueType());
+		if (region.getBaseLength() == 0)
+		{
+			regionNode.setState(DiffNode.State.ADDED);
+		}
+		else if (region.getWorkingLength() == 0)
+		{
+			regionNode.setState(DiffNode.State.REMOVED);
+		}
+		else
+		{
+			regionNode.setState(DiffNode.State.CHANGED);
+		}
+		node.addChild(regionNode);
+	}
+
+	private static final class Chunk
+	{
+		private final int offset;
+		private final int length;
+		private final long fingerprint;
+
+		private Chunk(final int offset, final int length, final long fingerprint)
+		{
+			this.offset = offset;
+			this.length = length;
+			this.fingerprint = fingerprint;
+		}
+	}
+
+	/**
+	 * The positions of all base chunks sharing the same fingerprint in ascending order.
+	 */
+	private static final class Occurrences
+	{
+		private final List<Integer> indexes = new ArrayList<Integer>(1);
+		private int cursor;
+
+		/**
+		 * @return The position of the first base chunk at or after the given position, that has the same content as
+		 * the given working chunk or <code>-1</code> if there is none.
+		 */
+		private int find(final Chunk workingChunk,
+						 final Content workingContent,
+						 final List<Chunk> baseChunks,
+						 final Content baseContent,
+						 final int fromIndex)
+		{
+			// the lookups happen in ascending order, so earlier base chunks will never be of interest again
+			while (cursor < indexes.size() && indexes.get(cursor) < fromIndex)
+			{
+				cursor++;
+			}
+			for (int i = cursor; i < indexes.size(); i++)
+			{
+				final int index = indexes.get(i);
+				final Chunk baseChunk = baseChunks.get(index);
+				if (baseChunk.length == workingChunk.length
+						&& workingContent.regionMatches(workingChunk.offset, baseContent, baseChunk.offset, baseChunk.length))
+				{
+					return index;
+				}
+			}
+			return -1;
+		}
+	}
+}
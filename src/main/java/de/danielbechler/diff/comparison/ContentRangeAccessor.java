@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison;
+
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.selector.ContentRangeElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+
+/**
+ * Accesses a changed region of a large value, as determined by the {@link ContentDefinedChunkingComparisonStrategy}.
+ * Instead of copies of the region, only the fingerprints of its working and base range are kept. When reading the
+ * region from a value, they decide which of both ranges it refers to. Values that contain neither of them yield
+ * <code>null</code>.
+ * <p/>
+ * Since replacing a region would change the length of the value it belongs to, regions can't be written.
+ *
+ * @author Daniel Bechler
+ */
+final class ContentRangeAccessor implements Accessor
+{
+	private final int workingOffset;
+	private final int workingLength;
+	private final long workingFingerprint;
+	private final int baseOffset;
+	private final int baseLength;
+	private final long baseFingerprint;
+
+	ContentRangeAccessor(final Content working, final int workingOffset, final int workingLength,
+						 final Content base, final int baseOffset, final int baseLength)
+	{
+		this.workingOffset = workingOffset;
+		this.workingLength = workingLength;
+		this.workingFingerprint = working.fingerprint(workingOffset, workingLength);
+		this.baseOffset = baseOffset;
+		this.baseLength = baseLength;
+		this.baseFingerprint = base.fingerprint(baseOffset, baseLength);
+	}
+
+	int getWorkingLength()
+	{
+		return workingLength;
+	}
+
+	int getBaseLength()
+	{
+		return baseLength;
+	}
+
+	public ElementSelector getElementSelector()
+	{
+		return new ContentRangeElementSelector(workingOffset, workingLength, baseOffset, baseLength);
+	}
+
+	public Object get(final Object target)
+	{
+		final Content content = Content.of(target);
+		if (content == null)
+		{
+			return null;
+		}
+		else if (contains(content, workingOffset, workingLength, workingFingerprint))
+		{
+			return content.slice(workingOffset, workingLength);
+		}
+		else if (contains(content, baseOffset, baseLength, baseFingerprint))
+		{
+			return content.slice(baseOffset, baseLength);
+		}
+		return null;
+	}
+
+	private static boolean contains(final Content content, final int offset, final int length, final long fingerprint)
+	{
+		return length > 0 && offset + length <= content.length() && content.fingerprint(offset, length) == fingerprint;
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		throw new UnsupportedOperationException("Regions of content can't be written");
+	}
+
+	public void unset(final Object target)
+	{
+		throw new UnsupportedOperationException("Regions of content can't be written");
+	}
+
+	@Override
+	public String toString()
+	{
+		return "content range " + getElementSelector();
+	}
+}
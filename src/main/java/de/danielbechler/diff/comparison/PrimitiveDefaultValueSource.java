@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison;
+
+/**
+ * Defines where the default values of primitive properties come from, when they are treated as {@linkplain
+ * PrimitiveDefaultValueMode#UNASSIGNED unassigned}.
+ */
+public enum PrimitiveDefaultValueSource
+{
+	/**
+	 * A fresh instance of the root object gets created for every comparison and all default values are read from the
+	 * corresponding properties of its object graph, alongside the working and base objects.
+	 */
+	FRESH_INSTANCE,
+
+	/**
+	 * The default values are read from a default instance of the type holding the property. The default instance of
+	 * each type gets created only once and each of its properties gets read only once per {@linkplain
+	 * de.danielbechler.diff.ObjectDiffer ObjectDiffer}, which saves a lot of reflective calls when comparing many
+	 * objects of the same type. As opposed to {@link #FRESH_INSTANCE}, the default values of nested objects are also
+	 * taken from default instances of their own type.
+	 */
+	TYPE_SNAPSHOT
+}
@@ -17,7 +17,6 @@
 package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.access.Instances;
-import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.comparison.ComparisonStrategy;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
 import de.danielbechler.diff.filtering.IsReturnableResolver;
@@ -27,6 +26,9 @@ import de.danielbechler.diff.introspection.TypeInfoResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Used to find differences between objects that were not handled by one of the other (specialized) {@link
  * Differ Differs}.
@@ -40,12 +42,28 @@ public final class BeanDiffer implements Differ
 	private final ComparisonStrategyResolver comparisonStrategyResolver;
 	private final DifferDispatcher differDispatcher;
 	private final TypeInfoResolver typeInfoResolver;
+	private final DiffPlanCompiler diffPlanCompiler;
 
 	public BeanDiffer(final DifferDispatcher differDispatcher,
 					  final IsIntrospectableResolver introspectableResolver,
 					  final IsReturnableResolver returnableResolver,
 					  final ComparisonStrategyResolver comparisonStrategyResolver,
 					  final TypeInfoResolver typeInfoResolver)
+	{
+		this(differDispatcher,
+				introspectableResolver,
+				returnableResolver,
+				comparisonStrategyResolver,
+				typeInfoResolver,
+				new DiffPlanCompiler(null));
+	}
+
+	public BeanDiffer(final DifferDispatcher differDispatcher,
+					  final IsIntrospectableResolver introspectableResolver,
+					  final IsReturnableResolver returnableResolver,
+					  final ComparisonStrategyResolver comparisonStrategyResolver,
+					  final TypeInfoResolver typeInfoResolver,
+					  final DiffPlanCompiler diffPlanCompiler)
 	{
 		Assert.notNull(differDispatcher, "differDispatcher");
 		this.differDispatcher = differDispatcher;
@@ -61,6 +79,9 @@ public final class BeanDiffer implements Differ
 
 		Assert.notNull(typeInfoResolver, "typeInfoResolver");
 		this.typeInfoResolver = typeInfoResolver;
+
+		Assert.notNull(diffPlanCompiler, "diffPlanCompiler");
+		this.diffPlanCompiler = diffPlanCompiler;
 	}
 
 	public boolean accepts(final Class<?> type)
@@ -109,13 +130,46 @@ public final class BeanDiffer implements Differ
 	{
 		final TypeInfo typeInfo = typeInfoResolver.typeInfoForNode(beanNode);
 		beanNode.setValueTypeInfo(typeInfo);
-		for (final PropertyAwareAccessor propertyAccessor : typeInfo.getAccessors())
+		final DiffPlan plan = diffPlanCompiler.planFor(typeInfo);
+		if (differDispatcher.isForkable(beanNode, plan.size()))
+		{
+			compareInParallel(beanNode, beanInstances, plan);
+		}
+		else
 		{
-			final DiffNode propertyNode = differDispatcher.dispatch(beanNode, beanInstances, propertyAccessor);
-			if (isReturnableResolver.isReturnable(propertyNode))
+			for (int i = 0; i < plan.size(); i++)
 			{
-				beanNode.addChild(propertyNode);
+				differDispatcher.schedule(beanNode, beanInstances, plan.getStep(i));
 			}
 		}
 	}
+
+	private void compareInParallel(final DiffNode beanNode, final Instances beanInstances, final DiffPlan plan)
+	{
+		final List<ForkedComparison> forkedComparisons = new ArrayList<ForkedComparison>(plan.size());
+		for (int i = 0; i < plan.size(); i++)
+		{
+			forkedComparisons.add(differDispatcher.fork(beanNode, beanInstances, plan.getStep(i)));
+		}
+		for (final ForkedComparison forkedComparison : forkedComparisons)
+		{
+			addChildIfReturnable(beanNode, beanInstances, forkedComparison.join());
+		}
+	}
+
+	private void addChildIfReturnable(final DiffNode beanNode,
+									  final Instances beanInstances,
+									  final DiffNode propertyNode)
+	{
+		final DiffContext context = beanInstances.getContext();
+		if (context != null && context.isStreaming())
+		{
+			// streaming comparisons report their nodes instead of retaining them
+			return;
+		}
+		if (isReturnableResolver.isReturnable(propertyNode))
+		{
+			beanNode.addChild(propertyNode);
+		}
+	}
 }
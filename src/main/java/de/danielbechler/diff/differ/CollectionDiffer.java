@@ -26,9 +26,9 @@ import de.danielbechler.diff.identity.IdentityStrategyResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Used to find differences between {@link Collection Collections}.
@@ -70,14 +70,14 @@ public final class CollectionDiffer implements Differ
 		}
 		if (collectionInstances.hasBeenAdded())
 		{
-			final Collection addedItems = collectionInstances.getWorking(Collection.class);
-			compareItems(collectionNode, collectionInstances, addedItems, identityStrategy);
+			final Collection<?> addedItems = collectionInstances.getWorking(Collection.class);
+			compareItems(collectionNode, collectionInstances, addedItems, null, identityStrategy);
 			collectionNode.setState(DiffNode.State.ADDED);
 		}
 		else if (collectionInstances.hasBeenRemoved())
 		{
 			final Collection<?> removedItems = collectionInstances.getBase(Collection.class);
-			compareItems(collectionNode, collectionInstances, removedItems, identityStrategy);
+			compareItems(collectionNode, collectionInstances, null, removedItems, identityStrategy);
 			collectionNode.setState(DiffNode.State.REMOVED);
 		}
 		else if (collectionInstances.areSame())
@@ -109,13 +109,53 @@ public final class CollectionDiffer implements Differ
 
 	private void compareItems(final DiffNode collectionNode,
 							  final Instances collectionInstances,
-							  final Iterable<?> items,
+							  final Collection<?> working,
+							  final Collection<?> base,
 							  final IdentityStrategy identityStrategy)
 	{
-		for (final Object item : items)
+		final CollectionItemMatcher matcher = new CollectionItemMatcher(working, base, identityStrategy);
+		final int numberOfItems = matcher.getAdded().size() + matcher.getRemoved().size() + matcher.getKnown().size();
+		if (differDispatcher.isForkable(collectionNode, numberOfItems))
 		{
-			final Accessor itemAccessor = new CollectionItemAccessor(item, identityStrategy);
-			differDispatcher.dispatch(collectionNode, collectionInstances, itemAccessor);
+			final List<ForkedComparison> forkedComparisons = new ArrayList<ForkedComparison>(numberOfItems);
+			forkItems(collectionNode, collectionInstances, matcher.getAdded(), identityStrategy, forkedComparisons);
+			forkItems(collectionNode, collectionInstances, matcher.getRemoved(), identityStrategy, forkedComparisons);
+			forkItems(collectionNode, collectionInstances, matcher.getKnown(), identityStrategy, forkedComparisons);
+			for (final ForkedComparison forkedComparison : forkedComparisons)
+			{
+				forkedComparison.join();
+			}
+		}
+		else
+		{
+			compareItems(collectionNode, collectionInstances, matcher.getAdded(), identityStrategy);
+			compareItems(collectionNode, collectionInstances, matcher.getRemoved(), identityStrategy);
+			compareItems(collectionNode, collectionInstances, matcher.getKnown(), identityStrategy);
+		}
+	}
+
+	private void forkItems(final DiffNode collectionNode,
+						   final Instances collectionInstances,
+						   final Iterable<CollectionItemMatcher.Match> matches,
+						   final IdentityStrategy identityStrategy,
+						   final List<ForkedComparison> forkedComparisons)
+	{
+		for (final CollectionItemMatcher.Match match : matches)
+		{
+			final Accessor itemAccessor = new CollectionItemAccessor(match.getReferenceItem(), identityStrategy);
+			forkedComparisons.add(differDispatcher.fork(collectionNode, collectionInstances, itemAccessor, match.getWorking(), match.getBase()));
+		}
+	}
+
+	private void compareItems(final DiffNode collectionNode,
+							  final Instances collectionInstances,
+							  final Iterable<CollectionItemMatcher.Match> matches,
+							  final IdentityStrategy identityStrategy)
+	{
+		for (final CollectionItemMatcher.Match match : matches)
+		{
+			final Accessor itemAccessor = new CollectionItemAccessor(match.getReferenceItem(), identityStrategy);
+			differDispatcher.schedule(collectionNode, collectionInstances, itemAccessor, match.getWorking(), match.getBase());
 		}
 	}
 
@@ -125,19 +165,7 @@ public final class CollectionDiffer implements Differ
 	{
 		final Collection<?> working = collectionInstances.getWorking(Collection.class);
 		final Collection<?> base = collectionInstances.getBase(Collection.class);
-
-		final Iterable<?> added = new LinkedList<Object>(working);
-		final Iterable<?> removed = new LinkedList<Object>(base);
-		final Iterable<?> known = new LinkedList<Object>(base);
-
-		remove(added, base, identityStrategy);
-		remove(removed, working, identityStrategy);
-		remove(known, added, identityStrategy);
-		remove(known, removed, identityStrategy);
-
-		compareItems(collectionNode, collectionInstances, added, identityStrategy);
-		compareItems(collectionNode, collectionInstances, removed, identityStrategy);
-		compareItems(collectionNode, collectionInstances, known, identityStrategy);
+		compareItems(collectionNode, collectionInstances, working, base, identityStrategy);
 	}
 
 	private static void compareUsingComparisonStrategy(final DiffNode collectionNode,
@@ -149,29 +177,4 @@ public final class CollectionDiffer implements Differ
 				collectionInstances.getWorking(Collection.class),
 				collectionInstances.getBase(Collection.class));
 	}
-
-	private void remove(final Iterable<?> from, final Iterable<?> these, final IdentityStrategy identityStrategy)
-	{
-		final Iterator<?> iterator = from.iterator();
-		while (iterator.hasNext())
-		{
-			final Object item = iterator.next();
-			if (contains(these, item, identityStrategy))
-			{
-				iterator.remove();
-			}
-		}
-	}
-
-	private boolean contains(final Iterable<?> haystack, final Object needle, final IdentityStrategy identityStrategy)
-	{
-		for (final Object item : haystack)
-		{
-			if (identityStrategy.equals(needle, item))
-			{
-				return true;
-			}
-		}
-		return false;
-	}
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.identity.HashAwareIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Establishes the relationship between the items of two collections based on a given {@link IdentityStrategy}.
+ * Items are grouped into hash buckets, so each item only needs to be compared with the items sharing its identity
+ * hash code. When the {@link IdentityStrategy} isn't a {@link HashAwareIdentityStrategy}, all items end up in the same
+ * bucket and matching falls back to comparing every item with every other item.
+ * <p/>
+ * Duplicates (according to the identity strategy) are only reported once and always resolve to their first
+ * occurrence in the respective collection.
+ *
+ * @author Daniel Bechler
+ */
+final class CollectionItemMatcher
+{
+	private final List<Match> added = new ArrayList<Match>();
+	private final List<Match> removed = new ArrayList<Match>();
+	private final List<Match> known = new ArrayList<Match>();
+
+	CollectionItemMatcher(final Collection<?> working,
+						  final Collection<?> base,
+						  final IdentityStrategy identityStrategy)
+	{
+		Assert.notNull(identityStrategy, "identityStrategy");
+		final Map<IdentityKey, WorkingItem> workingItems = indexOf(working, identityStrategy);
+		if (base != null)
+		{
+			final Set<IdentityKey> visitedBaseItems = new HashSet<IdentityKey>(base.size());
+			for (final Object baseItem : base)
+			{
+				final IdentityKey key = new IdentityKey(baseItem, identityStrategy);
+				if (!visitedBaseItems.add(key))
+				{
+					continue;
+				}
+				final WorkingItem workingItem = workingItems.get(key);
+				if (workingItem == null)
+				{
+					removed.add(new Match(baseItem, null, baseItem));
+				}
+				else
+				{
+					workingItem.matched = true;
+					known.add(new Match(baseItem, workingItem.item, baseItem));
+				}
+			}
+		}
+		for (final WorkingItem workingItem : workingItems.values())
+		{
+			if (!workingItem.matched)
+			{
+				added.add(new Match(workingItem.item, workingItem.item, null));
+			}
+		}
+	}
+
+	private static Map<IdentityKey, WorkingItem> indexOf(final Collection<?> items,
+														 final IdentityStrategy identityStrategy)
+	{
+		if (items == null)
+		{
+			return Collections.emptyMap();
+		}
+		final Map<IdentityKey, WorkingItem> index = new LinkedHashMap<IdentityKey, WorkingItem>(items.size());
+		for (final Object item : items)
+		{
+			final IdentityKey key = new IdentityKey(item, identityStrategy);
+			if (!index.containsKey(key))
+			{
+				index.put(key, new WorkingItem(item));
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @return Items that only exist in the working collection (in the order of the working collection).
+	 */
+	List<Match> getAdded()
+	{
+		return added;
+	}
+
+	/**
+	 * @return Items that only exist in the base collection (in the order of the base collection).
+	 */
+	List<Match> getRemoved()
+	{
+		return removed;
+	}
+
+	/**
+	 * @return Items that exist in both collections (in the order of the base collection).
+	 */
+	List<Match> getKnown()
+	{
+		return known;
+	}
+
+	/**
+	 * A resolved pair of collection items. The reference item is the one the identity of the pair is derived from.
+	 * Working and base item are <code>null</code> when the item doesn't exist in the respective collection.
+	 */
+	static final class Match
+	{
+		private final Object referenceItem;
+		private final Object working;
+		private final Object base;
+
+		Match(final Object referenceItem, final Object working, final Object base)
+		{
+			this.referenceItem = referenceItem;
+			this.working = working;
+			this.base = base;
+		}
+
+		Object getReferenceItem()
+		{
+			return referenceItem;
+		}
+
+		Object getWorking()
+		{
+			return working;
+		}
+
+		Object getBase()
+		{
+			return base;
+		}
+	}
+
+	private static final class WorkingItem
+	{
+		private final Object item;
+		private boolean matched;
+
+		private WorkingItem(final Object item)
+		{
+			this.item = item;
+		}
+	}
+
+	private static final class IdentityKey
+	{
+		private static final int CONSTANT_HASH_CODE = 31;
+
+		private final Object item;
+		private final IdentityStrategy identityStrategy;
+		private final int hashCode;
+
+		private IdentityKey(final Object item, final IdentityStrategy identityStrategy)
+		{
+			this.item = item;
+			this.identityStrategy = identityStrategy;
+			this.hashCode = hashCodeOf(item, identityStrategy);
+		}
+
+		private static int hashCodeOf(final Object item, final IdentityStrategy identityStrategy)
+		{
+			if (item == null)
+			{
+				return 0;
+			}
+			if (identityStrategy instanceof HashAwareIdentityStrategy)
+			{
+				return ((HashAwareIdentityStrategy) identityStrategy).hashCode(item);
+			}
+			return CONSTANT_HASH_CODE;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			final IdentityKey that = (IdentityKey) o;
+			if (hashCode != that.hashCode)
+			{
+				return false;
+			}
+			if (item == null || that.item == null)
+			{
+				return item == that.item;
+			}
+			// same argument order as used by the CollectionItemAccessor: item of the collection first, reference second
+			return identityStrategy.equals(that.item, item);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.util.Assert;
+
+/**
+ * The part of a {@link SpecializedBeanDiffer} that is specific to a single bean type. Implementations read the
+ * primitive properties of both beans via plain getter calls and compare them without boxing the values, so equal
+ * properties can be skipped without going through any {@link de.danielbechler.diff.access.PropertyAwareAccessor}.
+ * They are usually generated at compile time for types annotated with {@link
+ * de.danielbechler.diff.introspection.Diffable}.
+ * <p/>
+ * Properties are identified by an index, that gets resolved only once per property via {@link #indexOf(String,
+ * Class)}. Properties the comparator doesn't know are compared the regular way.
+ *
+ * @param <T> The compared bean type.
+ * @author Daniel Bechler
+ * @see DifferConfigurer#specialize(CompiledBeanComparator)
+ */
+public abstract class CompiledBeanComparator<T>
+{
+	private final Class<T> beanType;
+
+	protected CompiledBeanComparator(final Class<T> beanType)
+	{
+		Assert.notNull(beanType, "beanType");
+		this.beanType = beanType;
+	}
+
+	public final Class<T> getBeanType()
+	{
+		return beanType;
+	}
+
+	/**
+	 * @param propertyName The name of the property.
+	 * @param propertyType The primitive type of the property.
+	 * @return The index of the property or <code>-1</code>, if the comparator doesn't know a property with the given
+	 * name and type.
+	 */
+	protected abstract int indexOf(String propertyName, Class<?> propertyType);
+
+	/**
+	 * Compares the values of a property the same way the {@link PrimitiveDiffer} does.
+	 *
+	 * @param index   The index of the property as returned by {@link #indexOf(String, Class)}.
+	 * @param working The working version of the bean. Never <code>null</code>.
+	 * @param base    The base version of the bean. Never <code>null</code>.
+	 * @return <code>true</code> if the property has the same value in both beans.
+	 */
+	protected abstract boolean isEqual(int index, T working, T base);
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.circular.CircularReferenceDetector;
+import de.danielbechler.diff.node.DiffListener;
+import de.danielbechler.util.Assert;
+
+/**
+ * Holds the state of a single comparison, that needs to be shared between all the {@link Differ Differs} involved
+ * in it. Currently that's the instances that are being compared along the current path, which are needed to detect
+ * circular references.
+ * <p/>
+ * A new context is created by the {@link DifferDispatcher} for every root comparison and travels along with the
+ * {@link de.danielbechler.diff.access.Instances} down to every child node. That way each comparison has its own
+ * state, no matter how many comparisons run on the same thread or how many differs call back into each other.
+ * Streaming comparisons additionally carry the {@link DiffListener} all changes get reported to and iterative
+ * comparisons keep track of the {@link PendingComparison} whose differ is currently running.
+ *
+ * @author Daniel Bechler
+ */
+public final class DiffContext
+{
+	private final CircularReferenceDetector workingCircularReferenceDetector;
+	private final CircularReferenceDetector baseCircularReferenceDetector;
+	private final DiffListener listener;
+	private PendingComparison currentComparison;
+
+	public DiffContext(final CircularReferenceDetector workingCircularReferenceDetector,
+					   final CircularReferenceDetector baseCircularReferenceDetector)
+	{
+		this(workingCircularReferenceDetector, baseCircularReferenceDetector, null);
+	}
+
+	/**
+	 * @param listener The listener to report all changes to instead of building a tree of {@link
+	 *                 de.danielbechler.diff.node.DiffNode DiffNodes} or <code>null</code>.
+	 */
+	public DiffContext(final CircularReferenceDetector workingCircularReferenceDetector,
+					   final CircularReferenceDetector baseCircularReferenceDetector,
+					   final DiffListener listener)
+	{
+		Assert.notNull(workingCircularReferenceDetector, "workingCircularReferenceDetector");
+		Assert.notNull(baseCircularReferenceDetector, "baseCircularReferenceDetector");
+		this.workingCircularReferenceDetector = workingCircularReferenceDetector;
+		this.baseCircularReferenceDetector = baseCircularReferenceDetector;
+		this.listener = listener;
+	}
+
+	public CircularReferenceDetector getWorkingCircularReferenceDetector()
+	{
+		return workingCircularReferenceDetector;
+	}
+
+	public CircularReferenceDetector getBaseCircularReferenceDetector()
+	{
+		return baseCircularReferenceDetector;
+	}
+
+	/**
+	 * @return The listener all changes get reported to or <code>null</code>, if this isn't a streaming comparison.
+	 */
+	public DiffListener getListener()
+	{
+		return listener;
+	}
+
+	/**
+	 * @return <code>true</code> if changes get reported to a {@link DiffListener}. In that case child nodes must not be
+	 * added to their parents, so they can be garbage collected as soon as their comparison is complete.
+	 */
+	public boolean isStreaming()
+	{
+		return listener != null;
+	}
+
+	/**
+	 * @return The comparison whose differ is currently running or <code>null</code>, if this context doesn't belong
+	 * to an iterative comparison (or none of its differs is running).
+	 */
+	PendingComparison getCurrentComparison()
+	{
+		return currentComparison;
+	}
+
+	void setCurrentComparison(final PendingComparison currentComparison)
+	{
+		this.currentComparison = currentComparison;
+	}
+
+	/**
+	 * @return A new context for a branch of the comparison, that may run in parallel with its siblings. It knows
+	 * about the same instances as this one, but can be modified independently.
+	 */
+	public DiffContext fork()
+	{
+		return new DiffContext(workingCircularReferenceDetector.copy(), baseCircularReferenceDetector.copy(), listener);
+	}
+}
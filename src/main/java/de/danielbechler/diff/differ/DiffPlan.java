@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.inclusion.Inclusion;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The precompiled steps needed to compare two beans of the same type. It consists of one {@link PropertyStep} per
+ * property, in the order the properties have been returned by the introspector. Everything a step knows only depends
+ * on the type and the property, so a plan can be reused for every comparison of that type.
+ *
+ * @author Daniel Bechler
+ * @see DiffPlanCompiler
+ */
+public final class DiffPlan
+{
+	private final DiffPlanCompiler compiler;
+	private final TypeInfo typeInfo;
+	private final PropertyStep[] steps;
+	private volatile SpecializedBeanDiffer.Specialization specialization;
+
+	DiffPlan(final DiffPlanCompiler compiler, final TypeInfo typeInfo, final PropertyStep[] steps)
+	{
+		Assert.notNull(compiler, "compiler");
+		Assert.notNull(typeInfo, "typeInfo");
+		Assert.notNull(steps, "steps");
+		this.compiler = compiler;
+		this.typeInfo = typeInfo;
+		this.steps = steps;
+	}
+
+	DiffPlanCompiler getCompiler()
+	{
+		return compiler;
+	}
+
+	public TypeInfo getTypeInfo()
+	{
+		return typeInfo;
+	}
+
+	public List<PropertyStep> getSteps()
+	{
+		return Collections.unmodifiableList(Arrays.asList(steps));
+	}
+
+	/**
+	 * @return The state the {@link SpecializedBeanDiffer} keeps for this plan or <code>null</code>.
+	 */
+	SpecializedBeanDiffer.Specialization getSpecialization()
+	{
+		return specialization;
+	}
+
+	void setSpecialization(final SpecializedBeanDiffer.Specialization specialization)
+	{
+		this.specialization = specialization;
+	}
+
+	int size()
+	{
+		return steps.length;
+	}
+
+	PropertyStep getStep(final int index)
+	{
+		return steps[index];
+	}
+
+	/**
+	 * The comparison of a single property.
+	 */
+	public static final class PropertyStep
+	{
+		private final PropertyAwareAccessor accessor;
+		private final Inclusion inclusion;
+
+		PropertyStep(final PropertyAwareAccessor accessor, final Inclusion inclusion)
+		{
+			Assert.notNull(accessor, "accessor");
+			this.accessor = accessor;
+			this.inclusion = inclusion;
+		}
+
+		public PropertyAwareAccessor getAccessor()
+		{
+			return accessor;
+		}
+
+		/**
+		 * @return The inclusion of the property as far as it can be determined by its metadata alone or
+		 * <code>null</code> if it needs to be resolved for every node.
+		 */
+		public Inclusion getInclusion()
+		{
+			return inclusion;
+		}
+
+		/**
+		 * @return <code>true</code> if the property is excluded no matter where it appears in the object graph.
+		 */
+		public boolean isExcluded()
+		{
+			return inclusion == Inclusion.EXCLUDED;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "PropertyStep{accessor=" + accessor + ", inclusion=" + inclusion + '}';
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.inclusion.Inclusion;
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.Assert;
+
+import java.util.Collection;
+
+/**
+ * Compiles and remembers the {@link DiffPlan} for every bean type, so the questions that only depend on the type and
+ * its properties need to be answered once instead of for every single node. Rules that depend on the location of a
+ * node in the object graph or on the actual values are still resolved whenever a property gets compared.
+ * <p/>
+ * The plan is stored on the {@link TypeInfo} it has been compiled for, so it is only reused as long as the type gets
+ * introspected to the very same type info and never keeps a type (or its class loader) alive on its own. It is safe to
+ * be used by multiple threads concurrently.
+ *
+ * @author Daniel Bechler
+ */
+public class DiffPlanCompiler
+{
+	private final PropertyInclusionResolver propertyInclusionResolver;
+
+	/**
+	 * @param propertyInclusionResolver Used to resolve the inclusion of properties up front. May be
+	 *                                  <code>null</code>, in which case it gets resolved for every node.
+	 */
+	public DiffPlanCompiler(final PropertyInclusionResolver propertyInclusionResolver)
+	{
+		this.propertyInclusionResolver = propertyInclusionResolver;
+	}
+
+	public DiffPlan planFor(final TypeInfo typeInfo)
+	{
+		Assert.notNull(typeInfo, "typeInfo");
+		final DiffPlan knownPlan = typeInfo.getDiffPlan();
+		if (knownPlan != null && knownPlan.getCompiler() == this)
+		{
+			return knownPlan;
+		}
+		final DiffPlan plan = compile(typeInfo);
+		typeInfo.setDiffPlan(plan);
+		return plan;
+	}
+
+	private DiffPlan compile(final TypeInfo typeInfo)
+	{
+		final Collection<PropertyAwareAccessor> accessors = typeInfo.getAccessors();
+		final DiffPlan.PropertyStep[] steps = new DiffPlan.PropertyStep[accessors.size()];
+		int index = 0;
+		for (final PropertyAwareAccessor accessor : accessors)
+		{
+			steps[index++] = new DiffPlan.PropertyStep(accessor, resolveInclusion(typeInfo, accessor));
+		}
+		return new DiffPlan(this, typeInfo, steps);
+	}
+
+	private Inclusion resolveInclusion(final TypeInfo typeInfo, final PropertyAwareAccessor accessor)
+	{
+		if (propertyInclusionResolver == null)
+		{
+			return null;
+		}
+		return propertyInclusionResolver.resolvePropertyInclusion(typeInfo, accessor);
+	}
+}
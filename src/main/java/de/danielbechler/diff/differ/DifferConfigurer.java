@@ -27,10 +27,59 @@ public interface DifferConfigurer
 	 * Registers a new Differ to be used when comparing objects. Differs that have been registered later always win
 	 * over earlier Differs. This way it is easily possible to override the default behavior, without actually removing
 	 * the standard differs.
+	 * <p/>
+	 * The Differ responsible for a given type is only resolved once and then reused for all objects of that type. If
+	 * the decision of a Differ depends on anything else than the type, it should implement {@link TypeUnstableDiffer}.
 	 *
 	 * @param differFactory Factory that creates a new Differ. Will be called exactly once and the resulting Differ
 	 *                      will be pushed to the underlying {@link de.danielbechler.diff.differ.DifferProvider}.
 	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
 	 */
 	ObjectDifferBuilder register(DifferFactory differFactory);
+
+	/**
+	 * Compares the given bean types via {@link SpecializedBeanDiffer}, which takes some shortcuts to speed up the
+	 * comparison of frequently compared types. The result is the same as if they were compared via {@link
+	 * BeanDiffer}, which also remains the fallback for everything the specialized differ can't handle.
+	 *
+	 * @param beanTypes The bean types to specialize.
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder specialize(Class<?>... beanTypes);
+
+	/**
+	 * Same as {@link #specialize(Class[])} for the bean type of the given comparator, which additionally compares the
+	 * primitive properties of the beans directly. Comparators are usually generated at compile time for types
+	 * annotated with {@link de.danielbechler.diff.introspection.Diffable}.
+	 *
+	 * @param comparator The comparator for the bean type to specialize.
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder specialize(CompiledBeanComparator<?> comparator);
+
+	/**
+	 * By default the differs call each other recursively, so the depth of the compared object graphs is limited by
+	 * the stack size of the comparing thread. Iterative comparisons schedule the children of a node on an explicit
+	 * work stack instead, which allows to compare graphs of arbitrary depth (like long chains of linked objects) on
+	 * threads with regular stack sizes. The result is exactly the same, but all nodes of an iterative comparison
+	 * are compared one after another, even if {@link ObjectDifferBuilder#parallelism() parallelism} has been enabled.
+	 * <p/>
+	 * Custom {@link Differ Differs} work with iterative comparisons as well, but the nodes they {@linkplain
+	 * DifferDispatcher#dispatch dispatch} themselves are still compared recursively. To avoid that, they need to
+	 * {@linkplain DifferDispatcher#schedule schedule} the comparisons of their children.
+	 *
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder compareIteratively();
+
+	/**
+	 * By default lists are compared just like any other collection: their items are matched regardless of their
+	 * positions, so changes in their order go unnoticed and duplicates are only reported once. When lists are compared
+	 * in order, the {@link OrderedListDiffer} determines a minimal edit script between them instead and addresses their
+	 * items by position via {@link de.danielbechler.diff.selector.ListItemElementSelector}. Added, removed and
+	 * changed items are reported as usual. Items that have been moved to another position are reported as changed.
+	 *
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder compareListsInOrder();
 }
@@ -18,23 +18,36 @@ package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.ListItemAccessor;
 import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.access.RootAccessor;
 import de.danielbechler.diff.category.CategoryResolver;
 import de.danielbechler.diff.introspection.PropertyReadException;
 import de.danielbechler.diff.circular.CircularReferenceDetector;
 import de.danielbechler.diff.circular.CircularReferenceDetectorFactory;
 import de.danielbechler.diff.circular.CircularReferenceExceptionHandler;
 import de.danielbechler.diff.filtering.IsReturnableResolver;
+import de.danielbechler.diff.inclusion.Inclusion;
 import de.danielbechler.diff.inclusion.IsIgnoredResolver;
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver;
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler;
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver;
+import de.danielbechler.diff.node.DiffListener;
 import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.parallel.ParallelismResolver;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.util.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
 import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException;
 
 /**
@@ -47,11 +60,12 @@ public class DifferDispatcher
 	private final CircularReferenceDetectorFactory circularReferenceDetectorFactory;
 	private final CircularReferenceExceptionHandler circularReferenceExceptionHandler;
 	private final IsIgnoredResolver isIgnoredResolver;
+	private final PropertyInclusionResolver propertyInclusionResolver;
 	private final CategoryResolver categoryResolver;
 	private final IsReturnableResolver isReturnableResolver;
 	private final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver;
-	private static final ThreadLocal<CircularReferenceDetector> workingThreadLocal = new ThreadLocal<CircularReferenceDetector>();
-	private static final ThreadLocal<CircularReferenceDetector> baseThreadLocal = new ThreadLocal<CircularReferenceDetector>();
+	private final ParallelismResolver parallelismResolver;
+	private final boolean iterative;
 
 	public DifferDispatcher(final DifferProvider differProvider,
 							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
@@ -60,12 +74,91 @@ public class DifferDispatcher
 							final IsReturnableResolver returnableResolver,
 							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
 							final CategoryResolver categoryResolver)
+	{
+		this(differProvider,
+				circularReferenceDetectorFactory,
+				circularReferenceExceptionHandler,
+				ignoredResolver,
+				returnableResolver,
+				propertyAccessExceptionHandlerResolver,
+				categoryResolver,
+				null,
+				false);
+	}
+
+	/**
+	 * @param parallelismResolver Decides whether child nodes get {@linkplain #fork forked}. May be <code>null</code>,
+	 *                            in which case all comparisons run sequentially.
+	 */
+	public DifferDispatcher(final DifferProvider differProvider,
+							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
+							final IsIgnoredResolver ignoredResolver,
+							final IsReturnableResolver returnableResolver,
+							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
+							final CategoryResolver categoryResolver,
+							final ParallelismResolver parallelismResolver)
+	{
+		this(differProvider,
+				circularReferenceDetectorFactory,
+				circularReferenceExceptionHandler,
+				ignoredResolver,
+				returnableResolver,
+				propertyAccessExceptionHandlerResolver,
+				categoryResolver,
+				parallelismResolver,
+				false);
+	}
+
+	/**
+	 * @param iterative Whether comparisons should be driven by an explicit work stack instead of letting the differs
+	 *                  call each other recursively. See {@link #isIterative()}.
+	 */
+	public DifferDispatcher(final DifferProvider differProvider,
+							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
+							final IsIgnoredResolver ignoredResolver,
+							final IsReturnableResolver returnableResolver,
+							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
+							final CategoryResolver categoryResolver,
+							final ParallelismResolver parallelismResolver,
+							final boolean iterative)
+	{
+		this(differProvider,
+				circularReferenceDetectorFactory,
+				circularReferenceExceptionHandler,
+				ignoredResolver,
+				null,
+				returnableResolver,
+				propertyAccessExceptionHandlerResolver,
+				categoryResolver,
+				parallelismResolver,
+				iterative);
+	}
+
+	/**
+	 * @param propertyInclusionResolver Decides whether the properties of {@linkplain DiffPlan compiled plans} are
+	 *                                  ignored, based on the inclusion that has been resolved up front. May be
+	 *                                  <code>null</code>, in which case the given {@link IsIgnoredResolver} decides
+	 *                                  about all nodes.
+	 */
+	public DifferDispatcher(final DifferProvider differProvider,
+							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
+							final IsIgnoredResolver ignoredResolver,
+							final PropertyInclusionResolver propertyInclusionResolver,
+							final IsReturnableResolver returnableResolver,
+							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
+							final CategoryResolver categoryResolver,
+							final ParallelismResolver parallelismResolver,
+							final boolean iterative)
 	{
 		Assert.notNull(differProvider, "differFactory");
 		this.differProvider = differProvider;
 
 		Assert.notNull(ignoredResolver, "ignoredResolver");
 		this.isIgnoredResolver = ignoredResolver;
+		this.propertyInclusionResolver = propertyInclusionResolver;
 
 		Assert.notNull(categoryResolver, "categoryResolver");
 		this.categoryResolver = categoryResolver;
@@ -74,24 +167,42 @@ public class DifferDispatcher
 		this.circularReferenceExceptionHandler = circularReferenceExceptionHandler;
 		this.isReturnableResolver = returnableResolver;
 		this.propertyAccessExceptionHandlerResolver = propertyAccessExceptionHandlerResolver;
+		this.parallelismResolver = parallelismResolver;
+		this.iterative = iterative;
+	}
 
-		resetInstanceMemory();
+	/**
+	 * @return <code>true</code> if comparisons are driven by an explicit work stack instead of recursion. In that case
+	 * the comparisons {@linkplain #schedule scheduled} by {@link Differ Differs} run once the differ returned. That way
+	 * the depth of the compared object graph isn't limited by the size of the stack.
+	 */
+	public boolean isIterative()
+	{
+		return iterative;
 	}
 
+	/**
+	 * @deprecated The circular reference detectors aren't kept in thread locals anymore. Every comparison gets its
+	 * own {@link DiffContext}, which is discarded once the comparison is done, so there is nothing left to reset.
+	 * This method does nothing and will be removed in future versions.
+	 */
+	@Deprecated
 	public final void resetInstanceMemory()
 	{
-		workingThreadLocal.set(circularReferenceDetectorFactory.createCircularReferenceDetector());
-		baseThreadLocal.set(circularReferenceDetectorFactory.createCircularReferenceDetector());
 	}
 
+	/**
+	 * @deprecated The circular reference detectors aren't kept in thread locals anymore, so there is nothing left to
+	 * clear. This method does nothing and will be removed in future versions.
+	 */
+	@Deprecated
 	public final void clearInstanceMemory()
 	{
-		workingThreadLocal.remove();
-		baseThreadLocal.remove();
 	}
 
 	/**
-	 * Delegates the call to an appropriate {@link Differ}.
+	 * Delegates the call to an appropriate {@link Differ}. When the given parent instances aren't bound to a {@link
+	 * DiffContext} yet, this call is considered to be the start of a new comparison and gets a fresh context.
 	 *
 	 * @return A node representing the difference between the given {@link Instances}.
 	 */
@@ -102,7 +213,368 @@ public class DifferDispatcher
 		Assert.notNull(parentInstances, "parentInstances");
 		Assert.notNull(accessor, "accessor");
 
-		final DiffNode node = compare(parentNode, parentInstances, accessor);
+		final DiffContext context = contextOf(parentInstances);
+		if (iterative)
+		{
+			return compareIteratively(context, pendingComparison(context, parentNode, parentInstances, accessor));
+		}
+		final DiffNode node = compare(context, parentNode, parentInstances, accessor, null);
+		return attachToParent(context, parentNode, node);
+	}
+
+	/**
+	 * Starts a new streaming comparison of the given root instances. Instead of building a tree of {@link DiffNode
+	 * DiffNodes}, every change gets reported to the given listener as soon as it has been found.
+	 */
+	public void dispatch(final Instances rootInstances, final DiffListener listener)
+	{
+		Assert.notNull(rootInstances, "rootInstances");
+		Assert.notNull(listener, "listener");
+
+		final DiffContext context = new DiffContext(circularReferenceDetectorFactory.createCircularReferenceDetector(),
+				circularReferenceDetectorFactory.createCircularReferenceDetector(),
+				listener);
+		dispatch(DiffNode.ROOT, rootInstances.withContext(context), RootAccessor.getInstance());
+	}
+
+	/**
+	 * Delegates the call to an appropriate {@link Differ}, just like {@link #dispatch(DiffNode, Instances, Accessor)}.
+	 * The only difference is, that the working and base values don't need to be read via accessor, because the
+	 * caller already resolved them.
+	 *
+	 * @return A node representing the difference between the given working and base values.
+	 */
+	public DiffNode dispatch(final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor,
+							 final Object working,
+							 final Object base)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = contextOf(parentInstances);
+		if (iterative)
+		{
+			return compareIteratively(context,
+					pendingComparison(context, parentNode, parentInstances, accessor, working, base));
+		}
+		final DiffNode node = compare(context, parentNode, parentInstances, accessor, working, base);
+		return attachToParent(context, parentNode, node);
+	}
+
+	/**
+	 * Same as {@link #dispatch(DiffNode, Instances, Accessor)}, but for a property of a compiled {@link DiffPlan}.
+	 * Whatever the step already knows about the property doesn't need to be resolved again.
+	 */
+	public DiffNode dispatch(final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final DiffPlan.PropertyStep propertyStep)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(propertyStep, "propertyStep");
+
+		final DiffContext context = contextOf(parentInstances);
+		if (iterative)
+		{
+			return compareIteratively(context, pendingComparison(context, parentNode, parentInstances, propertyStep));
+		}
+		final DiffNode node = compare(context, parentNode, parentInstances,
+				propertyStep.getAccessor(), propertyStep.getInclusion());
+		return attachToParent(context, parentNode, node);
+	}
+
+	/**
+	 * Same as {@link #dispatch(DiffNode, Instances, Accessor)}, but during {@linkplain #isIterative() iterative}
+	 * comparisons the comparison only gets scheduled and runs after the calling differ returned. Otherwise it gets
+	 * dispatched right away, so differs should always use this method for the comparisons of their children. Either
+	 * way the resulting node gets attached to the given parent node (if it is returnable), but callers must not rely
+	 * on that having happened before they return.
+	 */
+	public void schedule(final DiffNode parentNode,
+						 final Instances parentInstances,
+						 final Accessor accessor)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = contextOf(parentInstances);
+		final PendingComparison currentComparison = context.getCurrentComparison();
+		if (currentComparison != null)
+		{
+			currentComparison.schedule(pendingComparison(context, parentNode, parentInstances, accessor));
+		}
+		else
+		{
+			dispatch(parentNode, parentInstances, accessor);
+		}
+	}
+
+	/**
+	 * Same as {@link #schedule(DiffNode, Instances, Accessor)}, but with working and base values that have already
+	 * been resolved by the caller.
+	 */
+	public void schedule(final DiffNode parentNode,
+						 final Instances parentInstances,
+						 final Accessor accessor,
+						 final Object working,
+						 final Object base)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = contextOf(parentInstances);
+		final PendingComparison currentComparison = context.getCurrentComparison();
+		if (currentComparison != null)
+		{
+			currentComparison.schedule(pendingComparison(context, parentNode, parentInstances, accessor, working, base));
+		}
+		else
+		{
+			dispatch(parentNode, parentInstances, accessor, working, base);
+		}
+	}
+
+	/**
+	 * Same as {@link #schedule(DiffNode, Instances, Accessor)}, but for a property of a compiled {@link DiffPlan}.
+	 */
+	public void schedule(final DiffNode parentNode,
+						 final Instances parentInstances,
+						 final DiffPlan.PropertyStep propertyStep)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(propertyStep, "propertyStep");
+
+		final DiffContext context = contextOf(parentInstances);
+		final PendingComparison currentComparison = context.getCurrentComparison();
+		if (currentComparison != null)
+		{
+			currentComparison.schedule(pendingComparison(context, parentNode, parentInstances, propertyStep));
+		}
+		else
+		{
+			dispatch(parentNode, parentInstances, propertyStep);
+		}
+	}
+
+	private PendingComparison pendingComparison(final DiffContext context,
+												final DiffNode parentNode,
+												final Instances parentInstances,
+												final Accessor accessor)
+	{
+		return new PendingComparison(parentNode)
+		{
+			@Override
+			protected DiffNode compare()
+			{
+				return DifferDispatcher.this.compare(context, parentNode, parentInstances, accessor, null);
+			}
+		};
+	}
+
+	private PendingComparison pendingComparison(final DiffContext context,
+												final DiffNode parentNode,
+												final Instances parentInstances,
+												final Accessor accessor,
+												final Object working,
+												final Object base)
+	{
+		return new PendingComparison(parentNode)
+		{
+			@Override
+			protected DiffNode compare()
+			{
+				return DifferDispatcher.this.compare(context, parentNode, parentInstances, accessor, working, base);
+			}
+		};
+	}
+
+	private PendingComparison pendingComparison(final DiffContext context,
+												final DiffNode parentNode,
+												final Instances parentInstances,
+												final DiffPlan.PropertyStep propertyStep)
+	{
+		return new PendingComparison(parentNode)
+		{
+			@Override
+			protected DiffNode compare()
+			{
+				return DifferDispatcher.this.compare(context, parentNode, parentInstances,
+						propertyStep.getAccessor(), propertyStep.getInclusion());
+			}
+		};
+	}
+
+	/**
+	 * Runs the given comparison and all comparisons scheduled by the differs involved in it, depth-first and in the
+	 * order they have been scheduled. A comparison gets completed after all of its children, so the nodes get
+	 * attached to their parents in exactly the same order as during a recursive comparison.
+	 */
+	private DiffNode compareIteratively(final DiffContext context, final PendingComparison rootComparison)
+	{
+		// differs may still dispatch synchronously, which runs a nested loop for the dispatched node
+		final PendingComparison previousComparison = context.getCurrentComparison();
+		final List<PendingComparison> stack = new ArrayList<PendingComparison>();
+		stack.add(rootComparison);
+		try
+		{
+			while (!stack.isEmpty())
+			{
+				final PendingComparison comparison = stack.get(stack.size() - 1);
+				if (comparison.isStarted())
+				{
+					stack.remove(stack.size() - 1);
+					complete(context, comparison);
+				}
+				else
+				{
+					context.setCurrentComparison(comparison);
+					comparison.start();
+					final List<PendingComparison> scheduledComparisons = comparison.takeScheduledComparisons();
+					for (int i = scheduledComparisons.size() - 1; i >= 0; i--)
+					{
+						stack.add(scheduledComparisons.get(i));
+					}
+				}
+			}
+		}
+		finally
+		{
+			context.setCurrentComparison(previousComparison);
+		}
+		return rootComparison.getNode();
+	}
+
+	private void complete(final DiffContext context, final PendingComparison comparison)
+	{
+		final DiffNode node = comparison.getNode();
+		final Instances trackedInstances = comparison.getTrackedInstances();
+		if (trackedInstances != null)
+		{
+			forgetInstances(context, comparison.getParentNode(), trackedInstances);
+		}
+		final Instances reportedInstances = comparison.getReportedInstances();
+		if (reportedInstances != null)
+		{
+			report(context.getListener(), node, reportedInstances);
+		}
+		attachToParent(context, comparison.getParentNode(), node);
+	}
+
+	/**
+	 * @return <code>true</code> if the comparison of the given number of children of the given node should be
+	 * {@linkplain #fork forked} instead of {@linkplain #dispatch dispatched} one after another. Never the case for
+	 * {@linkplain #isIterative() iterative} comparisons.
+	 */
+	public boolean isForkable(final DiffNode parentNode, final int numberOfChildren)
+	{
+		return !iterative
+				&& parallelismResolver != null && parallelismResolver.isParallel(parentNode, numberOfChildren);
+	}
+
+	/**
+	 * Starts the same comparison as {@link #dispatch(DiffNode, Instances, Accessor)}, but (if possible) on a
+	 * different thread. The result becomes available via {@link ForkedComparison#join()}.
+	 */
+	public ForkedComparison fork(final DiffNode parentNode,
+								 final Instances parentInstances,
+								 final Accessor accessor)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = contextOf(parentInstances).fork();
+		return fork(context, parentNode, new Callable<DiffNode>()
+		{
+			public DiffNode call() throws Exception
+			{
+				return compare(context, parentNode, parentInstances, accessor, null);
+			}
+		});
+	}
+
+	/**
+	 * Starts the same comparison as {@link #dispatch(DiffNode, Instances, Accessor, Object, Object)}, but (if
+	 * possible) on a different thread. The result becomes available via {@link ForkedComparison#join()}.
+	 */
+	public ForkedComparison fork(final DiffNode parentNode,
+								 final Instances parentInstances,
+								 final Accessor accessor,
+								 final Object working,
+								 final Object base)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = contextOf(parentInstances).fork();
+		return fork(context, parentNode, new Callable<DiffNode>()
+		{
+			public DiffNode call() throws Exception
+			{
+				return compare(context, parentNode, parentInstances, accessor, working, base);
+			}
+		});
+	}
+
+	/**
+	 * Starts the same comparison as {@link #dispatch(DiffNode, Instances, DiffPlan.PropertyStep)}, but (if possible)
+	 * on a different thread. The result becomes available via {@link ForkedComparison#join()}.
+	 */
+	public ForkedComparison fork(final DiffNode parentNode,
+								 final Instances parentInstances,
+								 final DiffPlan.PropertyStep propertyStep)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(propertyStep, "propertyStep");
+
+		final DiffContext context = contextOf(parentInstances).fork();
+		return fork(context, parentNode, new Callable<DiffNode>()
+		{
+			public DiffNode call() throws Exception
+			{
+				return compare(context, parentNode, parentInstances, propertyStep.getAccessor(), propertyStep.getInclusion());
+			}
+		});
+	}
+
+	private ForkedComparison fork(final DiffContext context,
+								  final DiffNode parentNode,
+								  final Callable<DiffNode> comparison)
+	{
+		final FutureTask<DiffNode> task = new FutureTask<DiffNode>(comparison);
+		final Executor executor = parallelismResolver != null ? parallelismResolver.getExecutor() : null;
+		if (executor != null)
+		{
+			try
+			{
+				executor.execute(task);
+			}
+			catch (final RejectedExecutionException e)
+			{
+				logger.debug("Executor rejected comparison, it will be run by the joining thread instead", e);
+			}
+		}
+		return new ForkedComparison(this, context, parentNode, task);
+	}
+
+	private DiffContext contextOf(final Instances instances)
+	{
+		final DiffContext context = instances.getContext();
+		if (context != null)
+		{
+			return context;
+		}
+		return new DiffContext(circularReferenceDetectorFactory.createCircularReferenceDetector(),
+				circularReferenceDetectorFactory.createCircularReferenceDetector());
+	}
+
+	DiffNode attachToParent(final DiffContext context, final DiffNode parentNode, final DiffNode node)
+	{
+		if (context.isStreaming())
+		{
+			// the node has already been reported and must not be retained
+			return node;
+		}
 		if (parentNode != null && isReturnableResolver.isReturnable(node))
 		{
 			parentNode.addChild(node);
@@ -114,7 +586,12 @@ public class DifferDispatcher
 		return node;
 	}
 
-	private DiffNode compare(final DiffNode parentNode, final Instances parentInstances, final Accessor accessor)
+	private DiffNode compare(final DiffContext context,
+							 final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor,
+							 final Object working,
+							 final Object base)
 	{
 		final DiffNode node = new DiffNode(parentNode, accessor, null);
 		if (isIgnoredResolver.isIgnored(node))
@@ -122,6 +599,22 @@ public class DifferDispatcher
 			node.setState(DiffNode.State.IGNORED);
 			return node;
 		}
+		final Instances accessedInstances = parentInstances.access(accessor, working, base);
+		return compareAccessedInstances(context, parentNode, accessedInstances);
+	}
+
+	private DiffNode compare(final DiffContext context,
+							 final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor,
+							 final Inclusion propertyInclusion)
+	{
+		final DiffNode node = new DiffNode(parentNode, accessor, null);
+		if (isIgnored(node, propertyInclusion))
+		{
+			node.setState(DiffNode.State.IGNORED);
+			return node;
+		}
 
 		final Instances accessedInstances;
 		if (accessor instanceof PropertyAwareAccessor)
@@ -149,24 +642,108 @@ public class DifferDispatcher
 		{
 			accessedInstances = parentInstances.access(accessor);
 		}
+		return compareAccessedInstances(context, parentNode, accessedInstances);
+	}
 
+	boolean isIgnored(final DiffNode node, final Inclusion propertyInclusion)
+	{
+		if (propertyInclusion != null && propertyInclusionResolver != null)
+		{
+			return propertyInclusionResolver.isIgnored(node, propertyInclusion);
+		}
+		return isIgnoredResolver.isIgnored(node);
+	}
+
+	private DiffNode compareAccessedInstances(final DiffContext context,
+											  final DiffNode parentNode,
+											  final Instances accessedInstances)
+	{
+		final DiffNode node;
 		if (accessedInstances.areNull())
 		{
-			return new DiffNode(parentNode, accessedInstances.getSourceAccessor(), accessedInstances.getType());
+			node = new DiffNode(parentNode, accessedInstances.getSourceAccessor(), accessedInstances.getType());
 		}
 		else
 		{
-			return compareWithCircularReferenceTracking(parentNode, accessedInstances);
+			node = compareWithCircularReferenceTracking(parentNode, accessedInstances.withContext(context));
+		}
+		markListItem(node, accessedInstances);
+		if (node != null && context.isStreaming())
+		{
+			final PendingComparison pendingComparison = context.getCurrentComparison();
+			if (pendingComparison != null)
+			{
+				// parents get reported after their children, which may not have been compared yet
+				pendingComparison.setReportedInstances(accessedInstances);
+			}
+			else
+			{
+				report(context.getListener(), node, accessedInstances);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * The state of list items compared in order is determined by the edit script of the {@link OrderedListDiffer}:
+	 * items that only exist in one of the lists have been added or removed (even if they are <code>null</code>) and
+	 * items that have been moved to another position are changed, even if their values are equal.
+	 */
+	private static void markListItem(final DiffNode node, final Instances instances)
+	{
+		final Accessor accessor = instances.getSourceAccessor();
+		if (node == null || !(accessor instanceof ListItemAccessor))
+		{
+			return;
+		}
+		final ListItemAccessor itemAccessor = (ListItemAccessor) accessor;
+		final boolean comparable = node.isUntouched() || node.isChanged();
+		if (comparable && itemAccessor.isAdded())
+		{
+			node.setState(DiffNode.State.ADDED);
+		}
+		else if (comparable && itemAccessor.isRemoved())
+		{
+			node.setState(DiffNode.State.REMOVED);
+		}
+		else if (node.isUntouched() && itemAccessor.isMoved())
+		{
+			node.setState(DiffNode.State.CHANGED);
+		}
+	}
+
+	private void report(final DiffListener listener, final DiffNode node, final Instances instances)
+	{
+		if (!isReturnableResolver.isReturnable(node))
+		{
+			return;
+		}
+		switch (node.getState())
+		{
+			case ADDED:
+				listener.onAdded(node.getPath(), instances.getWorking());
+				break;
+			case REMOVED:
+				listener.onRemoved(node.getPath(), instances.getBase());
+				break;
+			case CHANGED:
+				listener.onChanged(node.getPath(), instances.getWorking(), instances.getBase());
+				break;
+			case CIRCULAR:
+				listener.onCircular(node.getPath(), node.getCircleStartPath());
+				break;
 		}
 	}
 
 	private DiffNode compareWithCircularReferenceTracking(final DiffNode parentNode,
 														  final Instances instances)
 	{
+		final DiffContext context = instances.getContext();
+		final PendingComparison pendingComparison = context.getCurrentComparison();
 		DiffNode node = null;
 		try
 		{
-			rememberInstances(parentNode, instances);
+			rememberInstances(context, parentNode, instances);
 			try
 			{
 				node = compare(parentNode, instances);
@@ -175,7 +752,15 @@ public class DifferDispatcher
 			{
 				if (node != null)
 				{
-					forgetInstances(parentNode, instances);
+					if (pendingComparison != null)
+					{
+						// the instances need to stay known until the scheduled children have been compared
+						pendingComparison.setTrackedInstances(instances);
+					}
+					else
+					{
+						forgetInstances(context, parentNode, instances);
+					}
 				}
 			}
 		}
@@ -184,10 +769,6 @@ public class DifferDispatcher
 			node = newCircularNode(parentNode, instances, e.getNodePath());
 			circularReferenceExceptionHandler.onCircularReferenceException(node);
 		}
-		if (parentNode == null)
-		{
-			resetInstanceMemory();
-		}
 		return node;
 	}
 
@@ -202,12 +783,29 @@ public class DifferDispatcher
 		return differ.compare(parentNode, instances);
 	}
 
+	/**
+	 * @deprecated Instances are tracked by the {@link DiffContext} they are bound to. Instances that aren't bound to
+	 * any context are ignored. This method will be removed in future versions.
+	 */
+	@Deprecated
 	protected static void forgetInstances(final DiffNode parentNode, final Instances instances)
 	{
-		final NodePath nodePath = getNodePath(parentNode, instances);
-		logger.debug("[ {} ] Forgetting --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
-		workingThreadLocal.get().remove(instances.getWorking());
-		baseThreadLocal.get().remove(instances.getBase());
+		final DiffContext context = instances.getContext();
+		if (context != null)
+		{
+			forgetInstances(context, parentNode, instances);
+		}
+	}
+
+	private static void forgetInstances(final DiffContext context, final DiffNode parentNode, final Instances instances)
+	{
+		if (logger.isDebugEnabled())
+		{
+			final NodePath nodePath = getNodePath(parentNode, instances);
+			logger.debug("[ {} ] Forgetting --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+		}
+		context.getWorkingCircularReferenceDetector().remove(instances.getWorking());
+		context.getBaseCircularReferenceDetector().remove(instances.getBase());
 	}
 
 	private static NodePath getNodePath(final DiffNode parentNode, final Instances instances)
@@ -220,45 +818,63 @@ public class DifferDispatcher
 		{
 			final NodePath parentPath = parentNode.getPath();
 			final ElementSelector elementSelector = instances.getSourceAccessor().getElementSelector();
-			return NodePath.startBuildingFrom(parentPath).element(elementSelector).build();
+			return parentPath.append(elementSelector);
 		}
 	}
 
+	/**
+	 * @deprecated Instances are tracked by the {@link DiffContext} they are bound to. Instances that aren't bound to
+	 * any context are ignored. This method will be removed in future versions.
+	 */
+	@Deprecated
 	protected static void rememberInstances(final DiffNode parentNode, final Instances instances)
 	{
-		final NodePath nodePath = getNodePath(parentNode, instances);
-		logger.debug("[ {} ] Remembering --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
-		transactionalPushToCircularReferenceDetectors(nodePath, instances);
+		final DiffContext context = instances.getContext();
+		if (context != null)
+		{
+			rememberInstances(context, parentNode, instances);
+		}
 	}
 
-	private static void transactionalPushToCircularReferenceDetectors(final NodePath nodePath, final Instances instances)
+	private static void rememberInstances(final DiffContext context, final DiffNode parentNode, final Instances instances)
 	{
-		workingThreadLocal.get().push(instances.getWorking(), nodePath);
+		if (logger.isDebugEnabled())
+		{
+			final NodePath nodePath = getNodePath(parentNode, instances);
+			logger.debug("[ {} ] Remembering --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+		}
+		transactionalPushToCircularReferenceDetectors(context, parentNode, instances);
+	}
+
+	private static void transactionalPushToCircularReferenceDetectors(final DiffContext context,
+																	  final DiffNode parentNode,
+																	  final Instances instances)
+	{
+		final ElementSelector elementSelector = instances.getSourceAccessor().getElementSelector();
+		final CircularReferenceDetector workingDetector = context.getWorkingCircularReferenceDetector();
+		workingDetector.push(instances.getWorking(), parentNode, elementSelector);
 
 		// TODO This needs to be solved more elegantly. If the push for one of these detectors fails,
 		// we need to make sure to revert the push to the other one, if it already happened.
 		try
 		{
-			baseThreadLocal.get().push(instances.getBase(), nodePath);
+			context.getBaseCircularReferenceDetector().push(instances.getBase(), parentNode, elementSelector);
 		}
 		catch (final CircularReferenceException e)
 		{
-			workingThreadLocal.get().remove(instances.getWorking()); // rollback
+			workingDetector.remove(instances.getWorking()); // rollback
 			throw e;
 		}
 	}
 
 	private static DiffNode findNodeMatchingPropertyPath(final DiffNode node, final NodePath nodePath)
 	{
-		if (node == null)
-		{
-			return null;
-		}
-		if (node.matches(nodePath))
+		DiffNode candidate = node;
+		while (candidate != null && !candidate.matches(nodePath))
 		{
-			return node;
+			candidate = candidate.getParentNode();
 		}
-		return findNodeMatchingPropertyPath(node.getParentNode(), nodePath);
+		return candidate;
 	}
 
 	private static DiffNode newCircularNode(final DiffNode parentNode,
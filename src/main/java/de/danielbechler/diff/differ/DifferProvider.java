@@ -16,19 +16,28 @@
 
 package de.danielbechler.diff.differ;
 
+import de.danielbechler.util.WeakClassMap;
+
 import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * Resolves the {@link Differ} responsible for a given type. The most recently pushed differ that accepts the type
+ * wins. Once resolved, the differ is remembered for the type, unless its resolution involved a {@link
+ * TypeUnstableDiffer}. The types are only referenced weakly, so they can still be garbage collected along with their
+ * class loader.
+ *
  * @author Daniel Bechler
  */
 public class DifferProvider
 {
 	private final List<Differ> differs = new LinkedList<Differ>();
+	private final WeakClassMap<Differ> differsByType = new WeakClassMap<Differ>();
 
 	public void push(final Differ differ)
 	{
 		differs.add(0, differ);
+		differsByType.clear();
 	}
 
 	public void pushAll(final Iterable<Differ> differs)
@@ -45,10 +54,24 @@ public class DifferProvider
 		{
 			throw new IllegalArgumentException("Missing 'type'");
 		}
+		final Differ cachedDiffer = differsByType.get(type);
+		if (cachedDiffer != null)
+		{
+			return cachedDiffer;
+		}
+		boolean typeStable = true;
 		for (final Differ differ : differs)
 		{
+			if (differ instanceof TypeUnstableDiffer)
+			{
+				typeStable = false;
+			}
 			if (differ.accepts(type))
 			{
+				if (typeStable)
+				{
+					differsByType.put(type, differ);
+				}
 				return differ;
 			}
 		}
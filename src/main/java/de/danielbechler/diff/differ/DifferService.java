@@ -22,11 +22,18 @@ import de.danielbechler.util.Assert;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
 public class DifferService implements DifferConfigurer
 {
 	private final ObjectDifferBuilder objectDifferBuilder;
 	private final Collection<DifferFactory> differFactories = new ArrayList<DifferFactory>();
+	private final Collection<Class<?>> specializedTypes = new LinkedHashSet<Class<?>>();
+	private final Map<Class<?>, CompiledBeanComparator<?>> compiledBeanComparators = new HashMap<Class<?>, CompiledBeanComparator<?>>();
+	private boolean iterative;
+	private boolean comparingListsInOrder;
 
 	public DifferService(final ObjectDifferBuilder objectDifferBuilder)
 	{
@@ -41,6 +48,56 @@ public class DifferService implements DifferConfigurer
 		return objectDifferBuilder;
 	}
 
+	public ObjectDifferBuilder specialize(final Class<?>... beanTypes)
+	{
+		for (final Class<?> beanType : beanTypes)
+		{
+			Assert.notNull(beanType, "beanType");
+			specializedTypes.add(beanType);
+		}
+		return objectDifferBuilder;
+	}
+
+	public ObjectDifferBuilder specialize(final CompiledBeanComparator<?> comparator)
+	{
+		Assert.notNull(comparator, "comparator");
+		specializedTypes.add(comparator.getBeanType());
+		compiledBeanComparators.put(comparator.getBeanType(), comparator);
+		return objectDifferBuilder;
+	}
+
+	public ObjectDifferBuilder compareIteratively()
+	{
+		iterative = true;
+		return objectDifferBuilder;
+	}
+
+	public boolean isIterative()
+	{
+		return iterative;
+	}
+
+	public ObjectDifferBuilder compareListsInOrder()
+	{
+		comparingListsInOrder = true;
+		return objectDifferBuilder;
+	}
+
+	public boolean isComparingListsInOrder()
+	{
+		return comparingListsInOrder;
+	}
+
+	public Collection<Class<?>> getSpecializedTypes()
+	{
+		return Collections.unmodifiableCollection(specializedTypes);
+	}
+
+	public Collection<CompiledBeanComparator<?>> getCompiledBeanComparators()
+	{
+		return Collections.unmodifiableCollection(compiledBeanComparators.values());
+	}
+
 	public Collection<DifferFactory> getDifferFactories()
 	{
 		return Collections.unmodifiableCollection(differFactories);
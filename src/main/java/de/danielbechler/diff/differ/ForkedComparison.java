@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Exceptions;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The pending comparison of a child node, that has been started via {@link DifferDispatcher#fork}. It may already be
+ * running on a different thread or still be waiting for the {@link #join()}, which will then run it on the calling
+ * thread.
+ *
+ * @author Daniel Bechler
+ */
+public final class ForkedComparison
+{
+	private final DifferDispatcher differDispatcher;
+	private final DiffContext context;
+	private final DiffNode parentNode;
+	private final FutureTask<DiffNode> task;
+
+	ForkedComparison(final DifferDispatcher differDispatcher,
+					 final DiffContext context,
+					 final DiffNode parentNode,
+					 final FutureTask<DiffNode> task)
+	{
+		this.differDispatcher = differDispatcher;
+		this.context = context;
+		this.parentNode = parentNode;
+		this.task = task;
+	}
+
+	/**
+	 * Waits for the comparison to finish (or runs it, if it hasn't been started yet) and attaches the resulting node
+	 * to its parent, just like {@link DifferDispatcher#dispatch} does. Must be called exactly once and from the thread
+	 * that forked the comparison. Joining the comparisons in the order they have been forked, adds the resulting
+	 * nodes to their parent in exactly that order.
+	 *
+	 * @return A node representing the difference between the compared instances.
+	 */
+	public DiffNode join()
+	{
+		// no-op if the executor already started the task
+		task.run();
+		final DiffNode node;
+		try
+		{
+			node = task.get();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw Exceptions.escalate(e);
+		}
+		catch (final ExecutionException e)
+		{
+			throw escalate(e.getCause());
+		}
+		return differDispatcher.attachToParent(context, parentNode, node);
+	}
+
+	private static RuntimeException escalate(final Throwable cause)
+	{
+		if (cause instanceof Error)
+		{
+			throw (Error) cause;
+		}
+		if (cause instanceof Exception)
+		{
+			return Exceptions.escalate((Exception) cause);
+		}
+		return new RuntimeException(cause);
+	}
+}
@@ -0,0 +1,517 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.identity.HashAwareIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * Establishes the relationship between the items of two lists based on their order. Items are considered the same,
+ * when the given {@link IdentityStrategy} says so.
+ * <p/>
+ * First a longest common subsequence of both lists is determined via the O(ND) algorithm of Eugene W. Myers (where N
+ * is the total number of items and D the number of inserted and deleted items), after trimming the common prefix and
+ * suffix of both lists. As long as D is small, a trace of the search is kept to reconstruct the subsequence, which
+ * needs O(D&sup2;) memory. Once D exceeds {@link #MAXIMUM_TRACED_EDIT_DISTANCE}, the linear space variant of the
+ * algorithm takes over, which finds the subsequence recursively via the middle snakes of the remaining edit graph.
+ * <p/>
+ * Items that are only part of one of the lists are then matched in two more steps: an item that has been removed at
+ * one position and added at another one counts as moved. The items that remain within the same gap of the common
+ * subsequence are paired up in order and count as changed in place. Everything else has been added or removed.
+ *
+ * @author Daniel Bechler
+ */
+final class ListItemMatcher
+{
+	/**
+	 * The maximum number of inserted and deleted items the traced variant of the algorithm looks for, before it gives
+	 * up in favor of the linear space variant.
+	 */
+	static final int MAXIMUM_TRACED_EDIT_DISTANCE = 512;
+
+	private static final int INVALID = -1;
+	private static final int CONSTANT_HASH_CODE = 31;
+
+	private final Object[] working;
+	private final Object[] base;
+	private final IdentityStrategy identityStrategy;
+	private final int[] baseIndexOfWorkingItem;
+	private final int[] workingIndexOfBaseItem;
+	private final boolean[] moved;
+	private int[] forward;
+	private int[] backward;
+
+	ListItemMatcher(final List<?> working, final List<?> base, final IdentityStrategy identityStrategy)
+	{
+		this(working, base, identityStrategy, MAXIMUM_TRACED_EDIT_DISTANCE);
+	}
+
+	ListItemMatcher(final List<?> working,
+					final List<?> base,
+					final IdentityStrategy identityStrategy,
+					final int maximumTracedEditDistance)
+	{
+		Assert.notNull(working, "working");
+		Assert.notNull(base, "base");
+		Assert.notNull(identityStrategy, "identityStrategy");
+		this.working = working.toArray();
+		this.base = base.toArray();
+		this.identityStrategy = identityStrategy;
+		this.baseIndexOfWorkingItem = new int[this.working.length];
+		this.workingIndexOfBaseItem = new int[this.base.length];
+		this.moved = new boolean[this.working.length];
+		Arrays.fill(baseIndexOfWorkingItem, NO_INDEX);
+		Arrays.fill(workingIndexOfBaseItem, NO_INDEX);
+		matchCommonSubsequence(maximumTracedEditDistance);
+		matchMovedItems();
+		matchChangedItems();
+	}
+
+	int getWorkingSize()
+	{
+		return working.length;
+	}
+
+	int getBaseSize()
+	{
+		return base.length;
+	}
+
+	Object getWorkingItem(final int workingIndex)
+	{
+		return working[workingIndex];
+	}
+
+	Object getBaseItem(final int baseIndex)
+	{
+		return base[baseIndex];
+	}
+
+	/**
+	 * @return The position of the matching item in the base list or {@link
+	 * de.danielbechler.diff.selector.ListItemElementSelector#NO_INDEX} if the item has been added.
+	 */
+	int getBaseIndex(final int workingIndex)
+	{
+		return baseIndexOfWorkingItem[workingIndex];
+	}
+
+	/**
+	 * @return The position of the matching item in the working list or {@link
+	 * de.danielbechler.diff.selector.ListItemElementSelector#NO_INDEX} if the item has been removed.
+	 */
+	int getWorkingIndex(final int baseIndex)
+	{
+		return workingIndexOfBaseItem[baseIndex];
+	}
+
+	/**
+	 * @return <code>true</code> if the item at the given position of the working list has been moved there from
+	 * another position of the base list.
+	 */
+	boolean isMoved(final int workingIndex)
+	{
+		return moved[workingIndex];
+	}
+
+	private void matchCommonSubsequence(final int maximumTracedEditDistance)
+	{
+		int start = 0;
+		int baseEnd = base.length;
+		int workingEnd = working.length;
+		while (start < baseEnd && start < workingEnd && isSame(start, start))
+		{
+			match(start, start);
+			start++;
+		}
+		while (start < baseEnd && start < workingEnd && isSame(baseEnd - 1, workingEnd - 1))
+		{
+			baseEnd--;
+			workingEnd--;
+			match(baseEnd, workingEnd);
+		}
+		if (start == baseEnd || start == workingEnd)
+		{
+			return;
+		}
+		if (!matchWithTrace(start, baseEnd, start, workingEnd, maximumTracedEditDistance))
+		{
+			matchInLinearSpace(start, baseEnd, start, workingEnd);
+		}
+	}
+
+	/**
+	 * Walks the edit graph between the given ranges of the base list (x-axis) and the working list (y-axis) with
+	 * increasing numbers of edits and remembers the furthest reaching point of every diagonal for each of them.
+	 *
+	 * @return <code>false</code> if the end couldn't be reached within the given maximum number of edits.
+	 */
+	private boolean matchWithTrace(final int baseStart,
+								   final int baseEnd,
+								   final int workingStart,
+								   final int workingEnd,
+								   final int maximumEditDistance)
+	{
+		final int n = baseEnd - baseStart;
+		final int m = workingEnd - workingStart;
+		final int maximumD = Math.min(n + m, maximumEditDistance);
+		final int offset = maximumD + 1;
+		final int[] v = new int[2 * maximumD + 3];
+		final List<int[]> trace = new ArrayList<int[]>();
+		for (int d = 0; d <= maximumD; d++)
+		{
+			for (int k = -d; k <= d; k += 2)
+			{
+				int x = furthestStart(v, offset, d, k, n, m);
+				if (x == INVALID)
+				{
+					v[offset + k] = INVALID;
+					continue;
+				}
+				int y = x - k;
+				while (x < n && y < m && isSame(baseStart + x, workingStart + y))
+				{
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if (x == n && y == m)
+				{
+					backtrack(trace, d, n, m, baseStart, workingStart);
+					return true;
+				}
+			}
+			final int[] snapshot = new int[2 * d + 1];
+			System.arraycopy(v, offset - d, snapshot, 0, snapshot.length);
+			trace.add(snapshot);
+		}
+		return false;
+	}
+
+	private void backtrack(final List<int[]> trace,
+						   final int editDistance,
+						   final int n,
+						   final int m,
+						   final int baseStart,
+						   final int workingStart)
+	{
+		int x = n;
+		int y = m;
+		for (int d = editDistance; d > 0; d--)
+		{
+			final int k = x - y;
+			final int[] previous = trace.get(d - 1);
+			final int previousOffset = d - 1;
+			final boolean down = isDown(previous, previousOffset, d, k, n, m);
+			final int previousK = down ? k + 1 : k - 1;
+			final int previousX = previous[previousOffset + previousK];
+			final int snakeStart = down ? previousX : previousX + 1;
+			while (x > snakeStart)
+			{
+				x--;
+				y--;
+				match(baseStart + x, workingStart + y);
+			}
+			x = previousX;
+			y = previousX - previousK;
+		}
+		while (x > 0)
+		{
+			x--;
+			y--;
+			match(baseStart + x, workingStart + y);
+		}
+	}
+
+	/**
+	 * Finds the longest common subsequence of the given ranges recursively: the middle snake of the edit graph splits
+	 * it into two smaller problems, which only requires memory linear to the number of items.
+	 */
+	private void matchInLinearSpace(int baseStart, int baseEnd, int workingStart, int workingEnd)
+	{
+		while (baseStart < baseEnd && workingStart < workingEnd && isSame(baseStart, workingStart))
+		{
+			match(baseStart, workingStart);
+			baseStart++;
+			workingStart++;
+		}
+		while (baseStart < baseEnd && workingStart < workingEnd && isSame(baseEnd - 1, workingEnd - 1))
+		{
+			baseEnd--;
+			workingEnd--;
+			match(baseEnd, workingEnd);
+		}
+		if (baseStart == baseEnd || workingStart == workingEnd)
+		{
+			return;
+		}
+		final int[] snake = findMiddleSnake(baseStart, baseEnd, workingStart, workingEnd);
+		matchInLinearSpace(baseStart, snake[0], workingStart, snake[1]);
+		for (int x = snake[0], y = snake[1]; x < snake[2]; x++, y++)
+		{
+			match(x, y);
+		}
+		matchInLinearSpace(snake[2], baseEnd, snake[3], workingEnd);
+	}
+
+	/**
+	 * Walks the edit graph from both ends at the same time until the furthest reaching paths overlap.
+	 *
+	 * @return The start and end point of the overlapping snake as <code>{baseStart, workingStart, baseEnd,
+	 * workingEnd}</code>.
+	 */
+	private int[] findMiddleSnake(final int baseStart, final int baseEnd, final int workingStart, final int workingEnd)
+	{
+		final int n = baseEnd - baseStart;
+		final int m = workingEnd - workingStart;
+		final int delta = n - m;
+		final boolean odd = (delta & 1) != 0;
+		final int maximumD = (n + m + 1) / 2;
+		final int offset = maximumD + 1;
+		if (forward == null)
+		{
+			// the first call covers the largest range, so the arrays are large enough for all subsequent calls
+			forward = new int[2 * maximumD + 3];
+			backward = new int[2 * maximumD + 3];
+		}
+		for (int d = 0; d <= maximumD; d++)
+		{
+			for (int k = -d; k <= d; k += 2)
+			{
+				int x = furthestStart(forward, offset, d, k, n, m);
+				forward[offset + k] = x;
+				if (x == INVALID)
+				{
+					continue;
+				}
+				final int snakeStartX = x;
+				int y = x - k;
+				while (x < n && y < m && isSame(baseStart + x, workingStart + y))
+				{
+					x++;
+					y++;
+				}
+				forward[offset + k] = x;
+				final int c = delta - k;
+				if (odd && c >= -(d - 1) && c <= d - 1 && backward[offset + c] != INVALID && x + backward[offset + c] >= n)
+				{
+					return new int[]{
+							baseStart + snakeStartX, workingStart + snakeStartX - k,
+							baseStart + x, workingStart + y};
+				}
+			}
+			for (int c = -d; c <= d; c += 2)
+			{
+				int x = furthestStart(backward, offset, d, c, n, m);
+				backward[offset + c] = x;
+				if (x == INVALID)
+				{
+					continue;
+				}
+				final int snakeStartX = x;
+				int y = x - c;
+				while (x < n && y < m && isSame(baseEnd - 1 - x, workingEnd - 1 - y))
+				{
+					x++;
+					y++;
+				}
+				backward[offset + c] = x;
+				final int k = delta - c;
+				if (!odd && k >= -d && k <= d && forward[offset + k] != INVALID && x + forward[offset + k] >= n)
+				{
+					return new int[]{
+							baseEnd - x, workingEnd - y,
+							baseEnd - snakeStartX, workingEnd - (snakeStartX - c)};
+				}
+			}
+		}
+		throw new IllegalStateException("The paths through the edit graph didn't overlap. This is a bug.");
+	}
+
+	/**
+	 * @return The x-coordinate of the furthest point on diagonal <code>k</code> that can be reached with
+	 * <code>d</code> edits before following the diagonal, based on the furthest points of the neighboring
+	 * diagonals reached with <code>d - 1</code> edits. {@link #INVALID} if no point on the diagonal can be reached
+	 * without leaving the edit graph.
+	 */
+	private static int furthestStart(final int[] v, final int offset, final int d, final int k, final int n, final int m)
+	{
+		if (d == 0)
+		{
+			return 0;
+		}
+		final int fromAbove = k < d ? v[offset + k + 1] : INVALID;
+		final int fromLeft = k > -d ? v[offset + k - 1] : INVALID;
+		final boolean canMoveDown = fromAbove != INVALID && fromAbove - (k + 1) < m;
+		final boolean canMoveRight = fromLeft != INVALID && fromLeft < n;
+		if (canMoveDown && (!canMoveRight || fromAbove > fromLeft))
+		{
+			return fromAbove;
+		}
+		else if (canMoveRight)
+		{
+			return fromLeft + 1;
+		}
+		return INVALID;
+	}
+
+	/**
+	 * @return <code>true</code> if the furthest point on diagonal <code>k</code> has been reached by an insertion
+	 * (coming from diagonal <code>k + 1</code>), <code>false</code> if by a deletion. Makes the same decision as
+	 * {@link #furthestStart(int[], int, int, int, int, int)}.
+	 */
+	private static boolean isDown(final int[] previous, final int offset, final int d, final int k, final int n, final int m)
+	{
+		final int fromAbove = k < d ? previous[offset + k + 1] : INVALID;
+		final int fromLeft = k > -d ? previous[offset + k - 1] : INVALID;
+		final boolean canMoveDown = fromAbove != INVALID && fromAbove - (k + 1) < m;
+		final boolean canMoveRight = fromLeft != INVALID && fromLeft < n;
+		return canMoveDown && (!canMoveRight || fromAbove > fromLeft);
+	}
+
+	/**
+	 * Matches items that have been removed from one position and added at another one.
+	 */
+	private void matchMovedItems()
+	{
+		final Map<Integer, List<Integer>> addedItemsByHashCode = new HashMap<Integer, List<Integer>>();
+		for (int y = 0; y < working.length; y++)
+		{
+			if (baseIndexOfWorkingItem[y] == NO_INDEX)
+			{
+				final Integer hashCode = hashCodeOf(working[y]);
+				List<Integer> addedItems = addedItemsByHashCode.get(hashCode);
+				if (addedItems == null)
+				{
+					addedItems = new LinkedList<Integer>();
+					addedItemsByHashCode.put(hashCode, addedItems);
+				}
+				addedItems.add(y);
+			}
+		}
+		if (addedItemsByHashCode.isEmpty())
+		{
+			return;
+		}
+		for (int x = 0; x < base.length; x++)
+		{
+			if (workingIndexOfBaseItem[x] != NO_INDEX)
+			{
+				continue;
+			}
+			final List<Integer> addedItems = addedItemsByHashCode.get(hashCodeOf(base[x]));
+			if (addedItems == null)
+			{
+				continue;
+			}
+			final Iterator<Integer> iterator = addedItems.iterator();
+			while (iterator.hasNext())
+			{
+				final int y = iterator.next();
+				if (isSame(x, y))
+				{
+					match(x, y);
+					moved[y] = true;
+					iterator.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Pairs up the remaining removed and added items within each gap of the common subsequence.
+	 */
+	private void matchChangedItems()
+	{
+		int x = 0;
+		int y = 0;
+		while (x < base.length || y < working.length)
+		{
+			int nextY = y;
+			while (nextY < working.length && (baseIndexOfWorkingItem[nextY] == NO_INDEX || moved[nextY]))
+			{
+				nextY++;
+			}
+			final int nextX = nextY < working.length ? baseIndexOfWorkingItem[nextY] : base.length;
+			int removedX = x;
+			int addedY = y;
+			while (true)
+			{
+				while (removedX < nextX && workingIndexOfBaseItem[removedX] != NO_INDEX)
+				{
+					removedX++;
+				}
+				while (addedY < nextY && baseIndexOfWorkingItem[addedY] != NO_INDEX)
+				{
+					addedY++;
+				}
+				if (removedX == nextX || addedY == nextY)
+				{
+					break;
+				}
+				match(removedX, addedY);
+				removedX++;
+				addedY++;
+			}
+			x = nextX + 1;
+			y = nextY + 1;
+		}
+	}
+
+	private boolean isSame(final int baseIndex, final int workingIndex)
+	{
+		final Object workingItem = working[workingIndex];
+		final Object baseItem = base[baseIndex];
+		if (workingItem == null || baseItem == null)
+		{
+			return workingItem == baseItem;
+		}
+		// same argument order as used by the CollectionItemMatcher: working item first, base item second
+		return identityStrategy.equals(workingItem, baseItem);
+	}
+
+	private int hashCodeOf(final Object item)
+	{
+		if (item == null)
+		{
+			return 0;
+		}
+		if (identityStrategy instanceof HashAwareIdentityStrategy)
+		{
+			return ((HashAwareIdentityStrategy) identityStrategy).hashCode(item);
+		}
+		return CONSTANT_HASH_CODE;
+	}
+
+	private void match(final int baseIndex, final int workingIndex)
+	{
+		workingIndexOfBaseItem[baseIndex] = workingIndex;
+		baseIndexOfWorkingItem[workingIndex] = baseIndex;
+	}
+}
@@ -18,17 +18,19 @@ package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.access.MapEntryAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
-import de.danielbechler.util.Collections;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * Used to find differences between {@link Map Maps}
+ * Used to find differences between {@link Map Maps}. The entries of both maps are classified in a single pass,
+ * using the maps' own lookup methods, and their values are handed to the {@link DifferDispatcher} right away, so
+ * they don't need to be looked up again via {@link MapEntryAccessor}.
  *
  * @author Daniel Bechler
  */
@@ -44,29 +46,6 @@ public final class MapDiffer implements Differ
 		this.comparisonStrategyResolver = comparisonStrategyResolver;
 	}
 
-	private static Collection<?> findAddedKeys(final Instances instances)
-	{
-		final Set<?> source = instances.getWorking(Map.class).keySet();
-		final Set<?> filter = instances.getBase(Map.class).keySet();
-		return Collections.filteredCopyOf(source, filter);
-	}
-
-	private static Collection<?> findRemovedKeys(final Instances instances)
-	{
-		final Set<?> source = instances.getBase(Map.class).keySet();
-		final Set<?> filter = instances.getWorking(Map.class).keySet();
-		return Collections.filteredCopyOf(source, filter);
-	}
-
-	private static Iterable<?> findKnownKeys(final Instances instances)
-	{
-		final Set<?> keys = instances.getWorking(Map.class).keySet();
-		final Collection<?> changed = Collections.setOf(keys);
-		changed.removeAll(findAddedKeys(instances));
-		changed.removeAll(findRemovedKeys(instances));
-		return changed;
-	}
-
 	public boolean accepts(final Class<?> type)
 	{
 		if (type != null)
@@ -81,36 +60,100 @@ public final class MapDiffer implements Differ
 		final DiffNode mapNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
 		if (instances.hasBeenAdded())
 		{
-			compareEntries(mapNode, instances, instances.getWorking(Map.class).keySet());
+			compareAddedEntries(mapNode, instances, instances.getWorking(Map.class), null);
 			mapNode.setState(DiffNode.State.ADDED);
 		}
 		else if (instances.hasBeenRemoved())
 		{
-			compareEntries(mapNode, instances, instances.getBase(Map.class).keySet());
+			compareRemovedEntries(mapNode, instances, instances.getBase(Map.class), null);
 			mapNode.setState(DiffNode.State.REMOVED);
 		}
 		else if (instances.areSame())
 		{
 			mapNode.setState(DiffNode.State.UNTOUCHED);
 		}
-		else if (comparisonStrategyResolver.resolveComparisonStrategy(mapNode) != null)
-		{
-			comparisonStrategyResolver.resolveComparisonStrategy(mapNode).compare(mapNode, instances.getType(), instances.getWorking(Map.class), instances.getBase(Map.class));
-		}
 		else
 		{
-			compareEntries(mapNode, instances, findAddedKeys(instances));
-			compareEntries(mapNode, instances, findRemovedKeys(instances));
-			compareEntries(mapNode, instances, findKnownKeys(instances));
+			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(mapNode);
+			if (comparisonStrategy != null)
+			{
+				comparisonStrategy.compare(mapNode, instances.getType(), instances.getWorking(Map.class), instances.getBase(Map.class));
+			}
+			else
+			{
+				compareEntries(mapNode, instances);
+			}
 		}
 		return mapNode;
 	}
 
-	private void compareEntries(final DiffNode mapNode, final Instances mapInstances, final Iterable<?> keys)
+	/**
+	 * Compares added entries first, followed by removed entries and finally the entries that exist in both maps.
+	 */
+	private void compareEntries(final DiffNode mapNode, final Instances mapInstances)
+	{
+		final Map<?, ?> working = mapInstances.getWorking(Map.class);
+		final Map<?, ?> base = mapInstances.getBase(Map.class);
+		final List<Map.Entry<?, ?>> knownEntries = compareAddedEntries(mapNode, mapInstances, working, base);
+		compareRemovedEntries(mapNode, mapInstances, base, working);
+		for (final Map.Entry<?, ?> knownEntry : knownEntries)
+		{
+			final Object key = knownEntry.getKey();
+			compareEntry(mapNode, mapInstances, key, knownEntry.getValue(), base.get(key));
+		}
+	}
+
+	/**
+	 * Compares all entries of the working map whose key doesn't exist in the given base map (if any).
+	 *
+	 * @return The remaining entries of the working map, whose keys also exist in the base map.
+	 */
+	private List<Map.Entry<?, ?>> compareAddedEntries(final DiffNode mapNode,
+													  final Instances mapInstances,
+													  final Map<?, ?> working,
+													  final Map<?, ?> base)
+	{
+		final List<Map.Entry<?, ?>> knownEntries = new ArrayList<Map.Entry<?, ?>>(base != null ? working.size() : 0);
+		for (final Map.Entry<?, ?> workingEntry : working.entrySet())
+		{
+			final Object key = workingEntry.getKey();
+			if (base != null && base.containsKey(key))
+			{
+				knownEntries.add(workingEntry);
+			}
+			else
+			{
+				compareEntry(mapNode, mapInstances, key, workingEntry.getValue(), null);
+			}
+		}
+		return knownEntries;
+	}
+
+	/**
+	 * Compares all entries of the base map whose key doesn't exist in the given working map (if any).
+	 */
+	private void compareRemovedEntries(final DiffNode mapNode,
+									   final Instances mapInstances,
+									   final Map<?, ?> base,
+									   final Map<?, ?> working)
 	{
-		for (final Object key : keys)
+		for (final Map.Entry<?, ?> baseEntry : base.entrySet())
 		{
-			differDispatcher.dispatch(mapNode, mapInstances, new MapEntryAccessor(key));
+			final Object key = baseEntry.getKey();
+			if (working == null || !working.containsKey(key))
+			{
+				compareEntry(mapNode, mapInstances, key, null, baseEntry.getValue());
+			}
 		}
 	}
+
+	private void compareEntry(final DiffNode mapNode,
+							  final Instances mapInstances,
+							  final Object key,
+							  final Object working,
+							  final Object base)
+	{
+		final MapEntryAccessor accessor = new MapEntryAccessor(key);
+		differDispatcher.schedule(mapNode, mapInstances, accessor, working, base);
+	}
 }
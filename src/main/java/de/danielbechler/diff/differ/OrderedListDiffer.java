@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.ListItemAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.Collections;
+import java.util.List;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * A {@link Differ} for {@link List Lists}, that takes the order of their items into account. While the {@link
+ * CollectionDiffer} treats lists like bags of items, this one determines a minimal edit script to turn the base list
+ * into the working list (see {@link ListItemMatcher}) and addresses the items by their positions via {@link
+ * ListItemAccessor}. That way duplicate items are reported individually and items that have been moved to another
+ * position are reported as changed, even if their values are equal.
+ * <p/>
+ * The child nodes are created in the order of the working list, followed by the removed items in the order of the
+ * base list. Whenever the lists can't be compared this way (e.g. because one of them isn't a list at all or they are
+ * compared via {@link de.danielbechler.diff.comparison.ComparisonStrategy}), the comparison is transparently handed
+ * over to the given {@link CollectionDiffer}. The items are always compared one after another, even if parallelism has
+ * been enabled.
+ *
+ * @author Daniel Bechler
+ */
+public final class OrderedListDiffer implements Differ
+{
+	private final CollectionDiffer collectionDiffer;
+	private final DifferDispatcher differDispatcher;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final IdentityStrategyResolver identityStrategyResolver;
+
+	public OrderedListDiffer(final CollectionDiffer collectionDiffer,
+							 final DifferDispatcher differDispatcher,
+							 final ComparisonStrategyResolver comparisonStrategyResolver,
+							 final IdentityStrategyResolver identityStrategyResolver)
+	{
+		Assert.notNull(collectionDiffer, "collectionDiffer");
+		this.collectionDiffer = collectionDiffer;
+
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+
+		Assert.notNull(identityStrategyResolver, "identityStrategyResolver");
+		this.identityStrategyResolver = identityStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return List.class.isAssignableFrom(type);
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		final Object working = instances.getWorking();
+		final Object base = instances.getBase();
+		if (working != null && !(working instanceof List) || base != null && !(base instanceof List)
+				|| instances.areSame())
+		{
+			return collectionDiffer.compare(parentNode, instances);
+		}
+		final DiffNode listNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (comparisonStrategyResolver.resolveComparisonStrategy(listNode) != null)
+		{
+			return collectionDiffer.compare(parentNode, instances);
+		}
+		final ListItemMatcher matcher = new ListItemMatcher(listOrEmpty(working), listOrEmpty(base), identityStrategyFor(listNode));
+		for (int workingIndex = 0; workingIndex < matcher.getWorkingSize(); workingIndex++)
+		{
+			final int baseIndex = matcher.getBaseIndex(workingIndex);
+			final Object baseItem = baseIndex != NO_INDEX ? matcher.getBaseItem(baseIndex) : null;
+			final ListItemAccessor itemAccessor = new ListItemAccessor(workingIndex, baseIndex, matcher.isMoved(workingIndex));
+			compareItem(listNode, instances, itemAccessor, matcher.getWorkingItem(workingIndex), baseItem);
+		}
+		for (int baseIndex = 0; baseIndex < matcher.getBaseSize(); baseIndex++)
+		{
+			if (matcher.getWorkingIndex(baseIndex) == NO_INDEX)
+			{
+				final ListItemAccessor itemAccessor = new ListItemAccessor(NO_INDEX, baseIndex, false);
+				compareItem(listNode, instances, itemAccessor, null, matcher.getBaseItem(baseIndex));
+			}
+		}
+		if (instances.hasBeenAdded())
+		{
+			listNode.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			listNode.setState(DiffNode.State.REMOVED);
+		}
+		return listNode;
+	}
+
+	private IdentityStrategy identityStrategyFor(final DiffNode listNode)
+	{
+		final IdentityStrategy identityStrategy = identityStrategyResolver.resolveIdentityStrategy(listNode);
+		return identityStrategy != null ? identityStrategy : EqualsIdentityStrategy.getInstance();
+	}
+
+	private static List<?> listOrEmpty(final Object list)
+	{
+		return list != null ? (List<?>) list : Collections.emptyList();
+	}
+
+	private void compareItem(final DiffNode listNode,
+							 final Instances listInstances,
+							 final ListItemAccessor itemAccessor,
+							 final Object workingItem,
+							 final Object baseItem)
+	{
+		differDispatcher.schedule(listNode, listInstances, itemAccessor, workingItem, baseItem);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.node.DiffNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A comparison that is part of an {@linkplain DifferDispatcher#isIterative() iterative} comparison. It runs in two
+ * steps: first the responsible {@link Differ} creates the node and {@linkplain DifferDispatcher#schedule schedules}
+ * the comparisons of its children instead of running them right away. Once all of them are complete, the node gets
+ * completed as well. That's when its instances are removed from the circular reference detectors, the node gets
+ * reported (when streaming) and finally attached to its parent. Everything a recursive comparison does after a
+ * differ returned is therefore postponed until after the children, so both produce exactly the same result.
+ *
+ * @author Daniel Bechler
+ */
+abstract class PendingComparison
+{
+	private final DiffNode parentNode;
+	private List<PendingComparison> scheduledComparisons;
+	private boolean started;
+	private DiffNode node;
+	private Instances trackedInstances;
+	private Instances reportedInstances;
+
+	PendingComparison(final DiffNode parentNode)
+	{
+		this.parentNode = parentNode;
+	}
+
+	/**
+	 * Runs the first step of the comparison.
+	 *
+	 * @return The node representing the difference between the compared instances. Its children may not have been
+	 * compared yet.
+	 */
+	protected abstract DiffNode compare();
+
+	final void start()
+	{
+		started = true;
+		node = compare();
+	}
+
+	final boolean isStarted()
+	{
+		return started;
+	}
+
+	final void schedule(final PendingComparison comparison)
+	{
+		if (scheduledComparisons == null)
+		{
+			scheduledComparisons = new ArrayList<PendingComparison>();
+		}
+		scheduledComparisons.add(comparison);
+	}
+
+	/**
+	 * @return The comparisons of the children, in the order they have been scheduled. They are only handed out once,
+	 * so completed children don't stick around until their parent is complete as well.
+	 */
+	final List<PendingComparison> takeScheduledComparisons()
+	{
+		final List<PendingComparison> comparisons = scheduledComparisons;
+		scheduledComparisons = null;
+		if (comparisons == null)
+		{
+			return Collections.emptyList();
+		}
+		return comparisons;
+	}
+
+	/**
+	 * @param instances The instances that need to be removed from the circular reference detectors, once the
+	 *                  comparison is complete.
+	 */
+	final void setTrackedInstances(final Instances instances)
+	{
+		this.trackedInstances = instances;
+	}
+
+	final Instances getTrackedInstances()
+	{
+		return trackedInstances;
+	}
+
+	/**
+	 * @param instances The instances to report to the listener of a streaming comparison, once the comparison is
+	 *                  complete.
+	 */
+	final void setReportedInstances(final Instances instances)
+	{
+		this.reportedInstances = instances;
+	}
+
+	final Instances getReportedInstances()
+	{
+		return reportedInstances;
+	}
+
+	final DiffNode getParentNode()
+	{
+		return parentNode;
+	}
+
+	final DiffNode getNode()
+	{
+		return node;
+	}
+}
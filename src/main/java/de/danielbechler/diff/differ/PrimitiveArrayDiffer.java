@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.ArrayRangeAccessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Array;
+
+/**
+ * A {@link Differ} for arrays of primitives (e.g. <code>int[]</code> or <code>double[]</code>). Instead of creating
+ * one node per element, every contiguous range of differing elements is reported as a single child node, that can be
+ * accessed via {@link ArrayRangeAccessor}. When the arrays differ in length, the excess elements of the longer one
+ * form an additional range, which is reported as added or removed.
+ * <p/>
+ * The elements are compared via a {@link PrimitiveArrayScanner} specialized for the component type of the arrays, so
+ * even very large arrays can be compared without boxing a single element. The values of the range nodes are copies of
+ * the affected elements. Since those elements are already known to differ, range nodes don't get scanned again.
+ *
+ * @author Daniel Bechler
+ */
+public final class PrimitiveArrayDiffer implements Differ
+{
+	private final DifferDispatcher differDispatcher;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+
+	public PrimitiveArrayDiffer(final DifferDispatcher differDispatcher,
+								final ComparisonStrategyResolver comparisonStrategyResolver)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return PrimitiveArrayScanner.forType(type) != null;
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		final DiffNode arrayNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (instances.areNull() || instances.areSame())
+		{
+			arrayNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else if (instances.hasBeenAdded())
+		{
+			arrayNode.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			arrayNode.setState(DiffNode.State.REMOVED);
+		}
+		else if (instances.getSourceAccessor() instanceof ArrayRangeAccessor)
+		{
+			arrayNode.setState(DiffNode.State.CHANGED);
+		}
+		else
+		{
+			compareUsingAppropriateMethod(arrayNode, instances);
+		}
+		return arrayNode;
+	}
+
+	private void compareUsingAppropriateMethod(final DiffNode arrayNode, final Instances instances)
+	{
+		final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(arrayNode);
+		if (comparisonStrategy != null)
+		{
+			comparisonStrategy.compare(arrayNode, instances.getType(), instances.getWorking(), instances.getBase());
+		}
+		else
+		{
+			compareRanges(arrayNode, instances);
+		}
+	}
+
+	private void compareRanges(final DiffNode arrayNode, final Instances instances)
+	{
+		final PrimitiveArrayScanner scanner = PrimitiveArrayScanner.forType(instances.getType());
+		final Object working = instances.getWorking();
+		final Object base = instances.getBase();
+		final int workingLength = Array.getLength(working);
+		final int baseLength = Array.getLength(base);
+		final int commonLength = Math.min(workingLength, baseLength);
+		int from = scanner.mismatch(working, base, 0, commonLength);
+		while (from < commonLength)
+		{
+			final int to = scanner.match(working, base, from + 1, commonLength);
+			compareRange(arrayNode, instances, new ArrayRangeAccessor(from, to));
+			from = scanner.mismatch(working, base, to, commonLength);
+		}
+		if (workingLength != baseLength)
+		{
+			compareRange(arrayNode, instances, new ArrayRangeAccessor(commonLength, Math.max(workingLength, baseLength)));
+		}
+	}
+
+	private void compareRange(final DiffNode arrayNode,
+							  final Instances arrayInstances,
+							  final ArrayRangeAccessor rangeAccessor)
+	{
+		final Object workingRange = rangeAccessor.get(arrayInstances.getWorking());
+		final Object baseRange = rangeAccessor.get(arrayInstances.getBase());
+		differDispatcher.schedule(arrayNode, arrayInstances, rangeAccessor, workingRange, baseRange);
+	}
+}
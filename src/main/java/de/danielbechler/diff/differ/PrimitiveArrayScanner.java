@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+/**
+ * Scans two arrays of the same primitive component type for ranges of differing elements. There is one constant per
+ * component type, so the elements are compared directly, without any reflection or boxing. Floating point numbers are
+ * compared by their bit patterns, just like {@link java.util.Arrays#equals(double[], double[])} does.
+ *
+ * @author Daniel Bechler
+ */
+enum PrimitiveArrayScanner
+{
+	BOOLEAN(boolean[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final boolean[] working = (boolean[]) workingArray;
+			final boolean[] base = (boolean[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final boolean[] working = (boolean[]) workingArray;
+			final boolean[] base = (boolean[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	BYTE(byte[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final byte[] working = (byte[]) workingArray;
+			final byte[] base = (byte[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final byte[] working = (byte[]) workingArray;
+			final byte[] base = (byte[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	CHAR(char[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final char[] working = (char[]) workingArray;
+			final char[] base = (char[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final char[] working = (char[]) workingArray;
+			final char[] base = (char[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	SHORT(short[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final short[] working = (short[]) workingArray;
+			final short[] base = (short[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final short[] working = (short[]) workingArray;
+			final short[] base = (short[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	INT(int[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final int[] working = (int[]) workingArray;
+			final int[] base = (int[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final int[] working = (int[]) workingArray;
+			final int[] base = (int[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	LONG(long[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final long[] working = (long[]) workingArray;
+			final long[] base = (long[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] != base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final long[] working = (long[]) workingArray;
+			final long[] base = (long[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (working[i] == base[i])
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	FLOAT(float[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final float[] working = (float[]) workingArray;
+			final float[] base = (float[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (Float.floatToIntBits(working[i]) != Float.floatToIntBits(base[i]))
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final float[] working = (float[]) workingArray;
+			final float[] base = (float[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (Float.floatToIntBits(working[i]) == Float.floatToIntBits(base[i]))
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	},
+	DOUBLE(double[].class)
+	{
+		@Override
+		int mismatch(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final double[] working = (double[]) workingArray;
+			final double[] base = (double[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (Double.doubleToLongBits(working[i]) != Double.doubleToLongBits(base[i]))
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+
+		@Override
+		int match(final Object workingArray, final Object baseArray, final int from, final int to)
+		{
+			final double[] working = (double[]) workingArray;
+			final double[] base = (double[]) baseArray;
+			for (int i = from; i < to; i++)
+			{
+				if (Double.doubleToLongBits(working[i]) == Double.doubleToLongBits(base[i]))
+				{
+					return i;
+				}
+			}
+			return to;
+		}
+	};
+
+	private final Class<?> arrayType;
+
+	PrimitiveArrayScanner(final Class<?> arrayType)
+	{
+		this.arrayType = arrayType;
+	}
+
+	/**
+	 * @return The scanner for the given array type or <code>null</code> if it isn't an array of primitives.
+	 */
+	static PrimitiveArrayScanner forType(final Class<?> type)
+	{
+		for (final PrimitiveArrayScanner scanner : values())
+		{
+			if (scanner.arrayType == type)
+			{
+				return scanner;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The index of the first element within the given range that differs between both arrays or
+	 * <code>to</code> if there is none.
+	 */
+	abstract int mismatch(Object workingArray, Object baseArray, int from, int to);
+
+	/**
+	 * @return The index of the first element within the given range that is equal in both arrays or <code>to</code>
+	 * if there is none.
+	 */
+	abstract int match(Object workingArray, Object baseArray, int from, int to);
+}
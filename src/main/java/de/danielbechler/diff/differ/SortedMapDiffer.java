@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.MapEntryAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * A {@link Differ} for {@link SortedMap SortedMaps}. When both maps are sorted by the same comparator, their entries
+ * don't need to be looked up in the other map like the {@link MapDiffer} does. Instead the entries of both maps get
+ * walked side by side in a linear merge, which doesn't need any memory beyond the resulting nodes. The resulting
+ * nodes are created in the same order as the ones of the {@link MapDiffer}: added entries first, followed by removed
+ * entries and finally the entries that exist in both maps.
+ * <p/>
+ * Whenever the maps can't be compared this way (e.g. because one of them is <code>null</code>, they are sorted
+ * differently, their order isn't known to be consistent with equals or they are compared via
+ * {@link de.danielbechler.diff.comparison.ComparisonStrategy}), the comparison is transparently handed over to the given
+ * {@link MapDiffer}.
+ *
+ * @author Daniel Bechler
+ */
+public final class SortedMapDiffer implements Differ
+{
+	private final MapDiffer mapDiffer;
+	private final DifferDispatcher differDispatcher;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+
+	public SortedMapDiffer(final MapDiffer mapDiffer,
+						   final DifferDispatcher differDispatcher,
+						   final ComparisonStrategyResolver comparisonStrategyResolver)
+	{
+		Assert.notNull(mapDiffer, "mapDiffer");
+		this.mapDiffer = mapDiffer;
+
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return SortedMap.class.isAssignableFrom(type);
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		if (!(instances.getWorking() instanceof SortedMap) || !(instances.getBase() instanceof SortedMap)
+				|| instances.areSame())
+		{
+			return mapDiffer.compare(parentNode, instances);
+		}
+		final SortedMap<?, ?> working = instances.getWorking(SortedMap.class);
+		final SortedMap<?, ?> base = instances.getBase(SortedMap.class);
+		if (!SortedMergeJoin.haveSameOrder(working.comparator(), base.comparator())
+				|| !SortedMergeJoin.isConsistentWithEquals(working.comparator(), working.keySet(), base.keySet()))
+		{
+			return mapDiffer.compare(parentNode, instances);
+		}
+		final DiffNode mapNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (comparisonStrategyResolver.resolveComparisonStrategy(mapNode) != null)
+		{
+			return mapDiffer.compare(parentNode, instances);
+		}
+		compareEntries(mapNode, instances, working, base);
+		return mapNode;
+	}
+
+	private void compareEntries(final DiffNode mapNode,
+								final Instances mapInstances,
+								final SortedMap<?, ?> working,
+								final SortedMap<?, ?> base)
+	{
+		new EntryMergeJoin(working)
+		{
+			@Override
+			protected void onlyInFirst(final Object addedEntry)
+			{
+				final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) addedEntry;
+				compareEntry(mapNode, mapInstances, entry.getKey(), entry.getValue(), null);
+			}
+		}.join(working.entrySet().iterator(), base.entrySet().iterator());
+		new EntryMergeJoin(working)
+		{
+			@Override
+			protected void onlyInSecond(final Object removedEntry)
+			{
+				final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) removedEntry;
+				compareEntry(mapNode, mapInstances, entry.getKey(), null, entry.getValue());
+			}
+		}.join(working.entrySet().iterator(), base.entrySet().iterator());
+		new EntryMergeJoin(working)
+		{
+			@Override
+			protected void inBoth(final Object workingEntry, final Object baseEntry)
+			{
+				final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) workingEntry;
+				compareEntry(mapNode, mapInstances, entry.getKey(), entry.getValue(), ((Map.Entry<?, ?>) baseEntry).getValue());
+			}
+		}.join(working.entrySet().iterator(), base.entrySet().iterator());
+	}
+
+	private void compareEntry(final DiffNode mapNode,
+							  final Instances mapInstances,
+							  final Object key,
+							  final Object working,
+							  final Object base)
+	{
+		final MapEntryAccessor accessor = new MapEntryAccessor(key);
+		differDispatcher.schedule(mapNode, mapInstances, accessor, working, base);
+	}
+
+	private static class EntryMergeJoin extends SortedMergeJoin
+	{
+		EntryMergeJoin(final SortedMap<?, ?> map)
+		{
+			super(map.comparator());
+		}
+
+		@Override
+		protected Object keyOf(final Object entry)
+		{
+			return ((Map.Entry<?, ?>) entry).getKey();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Walks two sequences that are sorted in ascending order of the same {@link Comparator} side by side and reports
+ * every element to one of the callback methods, depending on whether its key exists in the first sequence only, the
+ * second sequence only or in both of them. Each sequence is only traversed once and nothing gets buffered, so the
+ * walk takes linear time and constant memory.
+ *
+ * @author Daniel Bechler
+ */
+abstract class SortedMergeJoin
+{
+	private final Comparator<Object> comparator;
+
+	/**
+	 * @param comparator The comparator both sequences are sorted by or <code>null</code> if they are sorted by the
+	 *                   natural ordering of their keys.
+	 */
+	@SuppressWarnings("unchecked")
+	SortedMergeJoin(final Comparator<?> comparator)
+	{
+		this.comparator = (Comparator<Object>) comparator;
+	}
+
+	/**
+	 * @return <code>true</code> if both comparators are known to define the same order. <code>null</code> stands for
+	 * the natural ordering.
+	 */
+	static boolean haveSameOrder(final Comparator<?> comparator, final Comparator<?> otherComparator)
+	{
+		if (comparator == null)
+		{
+			return otherComparator == null;
+		}
+		return comparator == otherComparator || comparator.equals(otherComparator);
+	}
+
+	/**
+	 * The differs identify items and map entries via {@link Object#equals(Object)}, so matching them via their order
+	 * is only safe as long as the order is consistent with equals. Since there is no way to tell for arbitrary
+	 * comparators, this is only assumed for the natural ordering (or its reverse) of JDK value types that are known to
+	 * honor this contract. Notably {@link java.math.BigDecimal} doesn't, as <code>1.0</code> and <code>1.00</code>
+	 * compare as equal without being equal.
+	 *
+	 * @return <code>true</code> if the given comparator is known to be consistent with equals for all given keys.
+	 */
+	static boolean isConsistentWithEquals(final Comparator<?> comparator,
+										  final Collection<?> keys,
+										  final Collection<?> otherKeys)
+	{
+		if (comparator != null && comparator != Collections.reverseOrder())
+		{
+			return false;
+		}
+		return haveConsistentNaturalOrder(keys) && haveConsistentNaturalOrder(otherKeys);
+	}
+
+	private static boolean haveConsistentNaturalOrder(final Collection<?> keys)
+	{
+		for (final Object key : keys)
+		{
+			if (!(key instanceof String
+					|| key instanceof Integer
+					|| key instanceof Long
+					|| key instanceof Short
+					|| key instanceof Byte
+					|| key instanceof Character
+					|| key instanceof Boolean
+					|| key instanceof Double
+					|| key instanceof Float
+					|| key instanceof Enum))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	final void join(final Iterator<?> first, final Iterator<?> second)
+	{
+		boolean hasFirst = first.hasNext();
+		boolean hasSecond = second.hasNext();
+		Object firstElement = hasFirst ? first.next() : null;
+		Object secondElement = hasSecond ? second.next() : null;
+		while (hasFirst || hasSecond)
+		{
+			final int comparison;
+			if (!hasSecond)
+			{
+				comparison = -1;
+			}
+			else if (!hasFirst)
+			{
+				comparison = 1;
+			}
+			else
+			{
+				comparison = compare(keyOf(firstElement), keyOf(secondElement));
+			}
+			if (comparison < 0)
+			{
+				onlyInFirst(firstElement);
+			}
+			else if (comparison > 0)
+			{
+				onlyInSecond(secondElement);
+			}
+			else
+			{
+				inBoth(firstElement, secondElement);
+			}
+			if (comparison <= 0)
+			{
+				hasFirst = first.hasNext();
+				firstElement = hasFirst ? first.next() : null;
+			}
+			if (comparison >= 0)
+			{
+				hasSecond = second.hasNext();
+				secondElement = hasSecond ? second.next() : null;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(final Object key, final Object otherKey)
+	{
+		if (comparator != null)
+		{
+			return comparator.compare(key, otherKey);
+		}
+		return ((Comparable<Object>) key).compareTo(otherKey);
+	}
+
+	/**
+	 * @return The key the given element is sorted by. Defaults to the element itself.
+	 */
+	protected Object keyOf(final Object element)
+	{
+		return element;
+	}
+
+	protected void onlyInFirst(final Object element)
+	{
+	}
+
+	protected void onlyInSecond(final Object element)
+	{
+	}
+
+	protected void inBoth(final Object firstElement, final Object secondElement)
+	{
+	}
+}
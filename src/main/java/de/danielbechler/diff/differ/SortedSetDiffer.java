@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.CollectionItemAccessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.SortedSet;
+
+/**
+ * A {@link Differ} for {@link SortedSet SortedSets}. When both sets are sorted by the same comparator, their items
+ * don't need to be matched via hash buckets like the {@link CollectionDiffer} does. Instead both sets get walked side
+ * by side in a linear merge, which doesn't need any memory beyond the resulting nodes. The resulting nodes are created
+ * in the same order as the ones of the {@link CollectionDiffer}: added items first, followed by removed items and
+ * finally the items that exist in both sets.
+ * <p/>
+ * Whenever the sets can't be compared this way (e.g. because one of them is <code>null</code>, they are sorted
+ * differently, their order isn't known to be consistent with equals, they are compared via
+ * {@link de.danielbechler.diff.comparison.ComparisonStrategy}, their items have a custom {@link IdentityStrategy} or get
+ * compared in parallel), the comparison is transparently handed over to the given {@link CollectionDiffer}. That way
+ * items are always matched via equals, even if the sets themselves consider them to be the same.
+ *
+ * @author Daniel Bechler
+ */
+public final class SortedSetDiffer implements Differ
+{
+	private final CollectionDiffer collectionDiffer;
+	private final DifferDispatcher differDispatcher;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final IdentityStrategyResolver identityStrategyResolver;
+
+	public SortedSetDiffer(final CollectionDiffer collectionDiffer,
+						   final DifferDispatcher differDispatcher,
+						   final ComparisonStrategyResolver comparisonStrategyResolver,
+						   final IdentityStrategyResolver identityStrategyResolver)
+	{
+		Assert.notNull(collectionDiffer, "collectionDiffer");
+		this.collectionDiffer = collectionDiffer;
+
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+
+		Assert.notNull(identityStrategyResolver, "identityStrategyResolver");
+		this.identityStrategyResolver = identityStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return SortedSet.class.isAssignableFrom(type);
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		if (!(instances.getWorking() instanceof SortedSet) || !(instances.getBase() instanceof SortedSet)
+				|| instances.areSame())
+		{
+			return collectionDiffer.compare(parentNode, instances);
+		}
+		final SortedSet<?> working = instances.getWorking(SortedSet.class);
+		final SortedSet<?> base = instances.getBase(SortedSet.class);
+		if (!SortedMergeJoin.haveSameOrder(working.comparator(), base.comparator())
+				|| !SortedMergeJoin.isConsistentWithEquals(working.comparator(), working, base))
+		{
+			return collectionDiffer.compare(parentNode, instances);
+		}
+		final DiffNode collectionNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		final IdentityStrategy identityStrategy = identityStrategyResolver.resolveIdentityStrategy(collectionNode);
+		if (!(identityStrategy == null || identityStrategy instanceof EqualsIdentityStrategy)
+				|| comparisonStrategyResolver.resolveComparisonStrategy(collectionNode) != null
+				|| differDispatcher.isForkable(collectionNode, working.size() + base.size()))
+		{
+			return collectionDiffer.compare(parentNode, instances);
+		}
+		if (identityStrategy != null)
+		{
+			collectionNode.setChildIdentityStrategy(identityStrategy);
+		}
+		compareItems(collectionNode, instances, working, base, identityStrategy);
+		return collectionNode;
+	}
+
+	private void compareItems(final DiffNode collectionNode,
+							  final Instances collectionInstances,
+							  final SortedSet<?> working,
+							  final SortedSet<?> base,
+							  final IdentityStrategy identityStrategy)
+	{
+		new SortedMergeJoin(working.comparator())
+		{
+			@Override
+			protected void onlyInFirst(final Object addedItem)
+			{
+				compareItem(collectionNode, collectionInstances, addedItem, addedItem, null, identityStrategy);
+			}
+		}.join(working.iterator(), base.iterator());
+		new SortedMergeJoin(working.comparator())
+		{
+			@Override
+			protected void onlyInSecond(final Object removedItem)
+			{
+				compareItem(collectionNode, collectionInstances, removedItem, null, removedItem, identityStrategy);
+			}
+		}.join(working.iterator(), base.iterator());
+		new SortedMergeJoin(working.comparator())
+		{
+			@Override
+			protected void inBoth(final Object workingItem, final Object baseItem)
+			{
+				compareItem(collectionNode, collectionInstances, baseItem, workingItem, baseItem, identityStrategy);
+			}
+		}.join(working.iterator(), base.iterator());
+	}
+
+	private void compareItem(final DiffNode collectionNode,
+							 final Instances collectionInstances,
+							 final Object referenceItem,
+							 final Object workingItem,
+							 final Object baseItem,
+							 final IdentityStrategy identityStrategy)
+	{
+		final CollectionItemAccessor itemAccessor = new CollectionItemAccessor(referenceItem, identityStrategy);
+		differDispatcher.schedule(collectionNode, collectionInstances, itemAccessor, workingItem, baseItem);
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.filtering.IsReturnableResolver;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.diff.introspection.IsIntrospectableResolver;
+import de.danielbechler.diff.introspection.PropertyReadException;
+import de.danielbechler.diff.introspection.TypeInfoResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link Differ} for a fixed set of bean types, that are compared so often that it's worth to take some shortcuts.
+ * Instead of dispatching every single property, it reads the values of properties with primitive or other simple
+ * types directly and skips the entire dispatching machinery, whenever it's obvious that the resulting node would be
+ * untouched and therefore not be returned anyway. Only properties that actually changed or need special treatment get
+ * dispatched. The result is exactly the same as the one of the {@link BeanDiffer}.
+ * <p/>
+ * Types that come with a {@link CompiledBeanComparator} (like the ones generated for {@link
+ * de.danielbechler.diff.introspection.Diffable} types) get their primitive properties compared by that comparator,
+ * which calls the getters directly and doesn't box any values. Only properties it reports as changed are read again
+ * via their accessors.
+ * <p/>
+ * Whenever a bean can't be compared this way (e.g. because it has been added or removed, is compared via {@link
+ * de.danielbechler.diff.comparison.ComparisonStrategy} or its properties get compared in parallel), the comparison is
+ * transparently handed over to the given {@link BeanDiffer}.
+ *
+ * @author Daniel Bechler
+ */
+public final class SpecializedBeanDiffer implements Differ
+{
+	private final BeanDiffer beanDiffer;
+	private final DifferDispatcher differDispatcher;
+	private final DifferProvider differProvider;
+	private final IsIntrospectableResolver isIntrospectableResolver;
+	private final IsReturnableResolver isReturnableResolver;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final TypeInfoResolver typeInfoResolver;
+	private final DiffPlanCompiler diffPlanCompiler;
+	private final Set<Class<?>> specializedTypes;
+	private final Map<Class<?>, CompiledBeanComparator<?>> compiledBeanComparators = new HashMap<Class<?>, CompiledBeanComparator<?>>();
+
+	public SpecializedBeanDiffer(final BeanDiffer beanDiffer,
+								 final DifferDispatcher differDispatcher,
+								 final DifferProvider differProvider,
+								 final IsIntrospectableResolver introspectableResolver,
+								 final IsReturnableResolver returnableResolver,
+								 final ComparisonStrategyResolver comparisonStrategyResolver,
+								 final TypeInfoResolver typeInfoResolver,
+								 final DiffPlanCompiler diffPlanCompiler,
+								 final Collection<Class<?>> specializedTypes,
+								 final Collection<? extends CompiledBeanComparator<?>> compiledBeanComparators)
+	{
+		Assert.notNull(beanDiffer, "beanDiffer");
+		this.beanDiffer = beanDiffer;
+
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(differProvider, "differProvider");
+		this.differProvider = differProvider;
+
+		Assert.notNull(introspectableResolver, "introspectableResolver");
+		this.isIntrospectableResolver = introspectableResolver;
+
+		Assert.notNull(returnableResolver, "returnableResolver");
+		this.isReturnableResolver = returnableResolver;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+
+		Assert.notNull(typeInfoResolver, "typeInfoResolver");
+		this.typeInfoResolver = typeInfoResolver;
+
+		Assert.notNull(diffPlanCompiler, "diffPlanCompiler");
+		this.diffPlanCompiler = diffPlanCompiler;
+
+		Assert.notNull(specializedTypes, "specializedTypes");
+		this.specializedTypes = new HashSet<Class<?>>(specializedTypes);
+
+		Assert.notNull(compiledBeanComparators, "compiledBeanComparators");
+		for (final CompiledBeanComparator<?> compiledBeanComparator : compiledBeanComparators)
+		{
+			this.specializedTypes.add(compiledBeanComparator.getBeanType());
+			this.compiledBeanComparators.put(compiledBeanComparator.getBeanType(), compiledBeanComparator);
+		}
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return specializedTypes.contains(type);
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		if (instances.getWorking() == null || instances.getBase() == null || instances.areSame())
+		{
+			return beanDiffer.compare(parentNode, instances);
+		}
+		final DiffNode beanNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (comparisonStrategyResolver.resolveComparisonStrategy(beanNode) != null
+				|| !isIntrospectableResolver.isIntrospectable(beanNode))
+		{
+			return beanDiffer.compare(parentNode, instances);
+		}
+		final TypeInfo typeInfo = typeInfoResolver.typeInfoForNode(beanNode);
+		final Specialization specialization = specializationFor(typeInfo);
+		if (differDispatcher.isForkable(beanNode, specialization.plan.size()))
+		{
+			return beanDiffer.compare(parentNode, instances);
+		}
+		beanNode.setValueTypeInfo(typeInfo);
+		final CompiledBeanComparator<Object> comparator = specialization.comparatorFor(instances);
+		for (int i = 0; i < specialization.plan.size(); i++)
+		{
+			compareProperty(beanNode, instances, specialization.plan.getStep(i), specialization.primitive[i],
+					comparator, specialization.compiledIndex[i]);
+		}
+		return beanNode;
+	}
+
+	private void compareProperty(final DiffNode beanNode,
+								 final Instances beanInstances,
+								 final DiffPlan.PropertyStep propertyStep,
+								 final boolean primitive,
+								 final CompiledBeanComparator<Object> comparator,
+								 final int compiledIndex)
+	{
+		final PropertyAwareAccessor accessor = propertyStep.getAccessor();
+		final DiffNode propertyNode = new DiffNode(beanNode, accessor, null);
+		if (differDispatcher.isIgnored(propertyNode, propertyStep.getInclusion()))
+		{
+			differDispatcher.schedule(beanNode, beanInstances, propertyStep);
+			return;
+		}
+		if (comparator != null && compiledIndex >= 0
+				&& isEqualAccordingTo(comparator, compiledIndex, beanInstances)
+				&& !isReturnableResolver.isReturnable(propertyNode))
+		{
+			return;
+		}
+		final Object working;
+		final Object base;
+		try
+		{
+			working = accessor.get(beanInstances.getWorking());
+			base = accessor.get(beanInstances.getBase());
+		}
+		catch (final PropertyReadException e)
+		{
+			// let the dispatcher deal with it, so the exception gets handled the usual way
+			differDispatcher.schedule(beanNode, beanInstances, propertyStep);
+			return;
+		}
+		if (isObviouslyUntouched(working, base, primitive) && !isReturnableResolver.isReturnable(propertyNode))
+		{
+			return;
+		}
+		differDispatcher.schedule(beanNode, beanInstances, accessor, working, base);
+	}
+
+	/**
+	 * Getters that fail are simply read again via their accessor, so the exception gets handled the usual way.
+	 */
+	private static boolean isEqualAccordingTo(final CompiledBeanComparator<Object> comparator,
+											  final int compiledIndex,
+											  final Instances beanInstances)
+	{
+		try
+		{
+			return comparator.isEqual(compiledIndex, beanInstances.getWorking(), beanInstances.getBase());
+		}
+		catch (final RuntimeException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Nodes for <code>null</code> values are untouched without asking any {@link Differ}. Equal primitives are
+	 * always untouched according to the {@link PrimitiveDiffer} and identical simple values are untouched according
+	 * to the {@link BeanDiffer}. Since simple values never have any children or circular references, the node can
+	 * be skipped entirely, as long as the differs responsible for these types haven't been replaced.
+	 */
+	private boolean isObviouslyUntouched(final Object working, final Object base, final boolean primitive)
+	{
+		if (working == null && base == null)
+		{
+			return true;
+		}
+		if (primitive)
+		{
+			return working != null && working.equals(base);
+		}
+		if (working == base && Classes.isSimpleType(working.getClass()))
+		{
+			final Differ differ = differProvider.retrieveDifferForType(working.getClass());
+			return differ instanceof BeanDiffer || differ == this;
+		}
+		return false;
+	}
+
+	private Specialization specializationFor(final TypeInfo typeInfo)
+	{
+		final DiffPlan plan = diffPlanCompiler.planFor(typeInfo);
+		final Specialization knownSpecialization = plan.getSpecialization();
+		if (knownSpecialization != null && knownSpecialization.differ == this)
+		{
+			return knownSpecialization;
+		}
+		final Specialization specialization = new Specialization(this, plan, differProvider,
+				compiledBeanComparators.get(typeInfo.getType()));
+		plan.setSpecialization(specialization);
+		return specialization;
+	}
+
+	/**
+	 * The per-type state of the differ. It is stored on the {@link DiffPlan} it belongs to, so it never keeps the type
+	 * alive on its own.
+	 */
+	static final class Specialization
+	{
+		private final SpecializedBeanDiffer differ;
+		private final DiffPlan plan;
+		private final boolean[] primitive;
+		private final CompiledBeanComparator<?> comparator;
+		private final int[] compiledIndex;
+
+		private Specialization(final SpecializedBeanDiffer differ,
+							   final DiffPlan plan,
+							   final DifferProvider differProvider,
+							   final CompiledBeanComparator<?> comparator)
+		{
+			this.differ = differ;
+			this.plan = plan;
+			this.primitive = new boolean[plan.size()];
+			this.comparator = comparator;
+			this.compiledIndex = new int[plan.size()];
+			for (int i = 0; i < plan.size(); i++)
+			{
+				final PropertyAwareAccessor accessor = plan.getStep(i).getAccessor();
+				final Class<?> propertyType = accessor.getType();
+				primitive[i] = Classes.isPrimitiveType(propertyType)
+						&& differProvider.retrieveDifferForType(propertyType) instanceof PrimitiveDiffer;
+				compiledIndex[i] = primitive[i] && comparator != null
+						? comparator.indexOf(accessor.getPropertyName(), propertyType)
+						: -1;
+			}
+		}
+
+		/**
+		 * @return The comparator of the bean type or <code>null</code>, if there is none or the given instances
+		 * aren't of that type.
+		 */
+		@SuppressWarnings("unchecked")
+		private CompiledBeanComparator<Object> comparatorFor(final Instances instances)
+		{
+			if (comparator != null
+					&& comparator.getBeanType().isInstance(instances.getWorking())
+					&& comparator.getBeanType().isInstance(instances.getBase()))
+			{
+				return (CompiledBeanComparator<Object>) comparator;
+			}
+			return null;
+		}
+	}
+}
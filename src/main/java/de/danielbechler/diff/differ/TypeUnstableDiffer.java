@@ -0,0 +1,29 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+/**
+ * Marks a {@link Differ} whose {@link #accepts(Class)} method may return different results for the same type over
+ * time. The {@link DifferProvider} normally remembers which differ it resolved for a given type, so it doesn't need to
+ * ask every differ again on each comparison. That would break differs whose decision depends on anything else than
+ * the type itself, which is why types resolved via (or past) a differ implementing this interface are never cached.
+ *
+ * @author Daniel Bechler
+ */
+public interface TypeUnstableDiffer extends Differ
+{
+}
@@ -42,7 +42,7 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 		{
 			return identityStrategy;
 		}
-		identityStrategy = nodePathIdentityStrategies.getNodeForPath(node.getPath()).getValue();
+		identityStrategy = nodePathIdentityStrategies.findNodeForPath(node.getPath()).getValue();
 		if (identityStrategy != null)
 		{
 			return identityStrategy;
@@ -5,7 +5,7 @@ import de.danielbechler.util.Objects;
 /**
  * Default implementation that uses Object.equals.
  */
-public class EqualsIdentityStrategy implements IdentityStrategy
+public class EqualsIdentityStrategy implements HashAwareIdentityStrategy
 {
 	private static final EqualsIdentityStrategy instance = new EqualsIdentityStrategy();
 
@@ -14,6 +14,11 @@ public class EqualsIdentityStrategy implements IdentityStrategy
 		return Objects.isEqual(working, base);
 	}
 
+	public int hashCode(final Object item)
+	{
+		return item != null ? item.hashCode() : 0;
+	}
+
 	public static EqualsIdentityStrategy getInstance()
 	{
 		return instance;
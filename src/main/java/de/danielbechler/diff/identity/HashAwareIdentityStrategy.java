@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity;
+
+/**
+ * An {@link IdentityStrategy} that is also able to compute a hash code for the identity of an object. This allows
+ * the {@linkplain de.danielbechler.diff.differ.CollectionDiffer} to group collection items into hash buckets
+ * instead of comparing every item with every other item.
+ * <p/>
+ * Strategies that don't implement this interface still work, but large collections will be compared considerably
+ * slower.
+ */
+public interface HashAwareIdentityStrategy extends IdentityStrategy
+{
+	/**
+	 * Contract: whenever {@linkplain #equals(Object, Object)} returns <code>true</code> for two objects, this method
+	 * must return the same hash code for both of them. It will never be called with <code>null</code>.
+	 *
+	 * @param item The object to compute the identity hash code for.
+	 * @return The identity hash code of the given object.
+	 */
+	int hashCode(Object item);
+}
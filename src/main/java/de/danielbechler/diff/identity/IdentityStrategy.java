@@ -3,6 +3,9 @@ package de.danielbechler.diff.identity;
 /**
  * Allows to configure the way objects identities are established when comparing
  * collections via {@linkplain de.danielbechler.diff.differ.CollectionDiffer}.
+ * <p/>
+ * Implementations should also implement {@link HashAwareIdentityStrategy} whenever possible. Otherwise every
+ * collection item needs to be compared with every other item, which gets slow for large collections.
  */
 public interface IdentityStrategy
 {
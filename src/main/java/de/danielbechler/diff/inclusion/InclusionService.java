@@ -17,7 +17,9 @@
 package de.danielbechler.diff.inclusion;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.category.CategoryResolver;
+import de.danielbechler.diff.instantiation.TypeInfo;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.util.Assert;
@@ -30,11 +32,12 @@ import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
 
 @SuppressWarnings("OverlyComplexAnonymousInnerClass")
-public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
+public class InclusionService implements InclusionConfigurer, PropertyInclusionResolver
 {
 	private final ObjectDifferBuilder rootConfiguration;
 	private final CategoryResolver categoryResolver;
 	private final Collection<InclusionResolver> inclusionResolvers = new LinkedList<InclusionResolver>();
+	private final TypePropertyAnnotationInclusionResolver typePropertyAnnotationInclusionResolver = new TypePropertyAnnotationInclusionResolver();
 	private TypeInclusionResolver typeInclusionResolver;
 	private TypePropertyConfigInclusionResolver typePropertyConfigInclusionResolver;
 	private CategoryInclusionResolver categoryInclusionResolver;
@@ -52,7 +55,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 
 	private void addAlwaysOnInclusionResolvers()
 	{
-		inclusionResolvers.add(new TypePropertyAnnotationInclusionResolver());
+		inclusionResolvers.add(typePropertyAnnotationInclusionResolver);
 	}
 
 	Collection<InclusionResolver> getInclusionResolvers()
@@ -61,6 +64,18 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 	}
 
 	public boolean isIgnored(final DiffNode node)
+	{
+		return isIgnored(node, null);
+	}
+
+	public Inclusion resolvePropertyInclusion(final TypeInfo typeInfo, final PropertyAwareAccessor accessor)
+	{
+		Assert.notNull(typeInfo, "typeInfo");
+		Assert.notNull(accessor, "accessor");
+		return typePropertyAnnotationInclusionResolver.getInclusion(typeInfo, accessor);
+	}
+
+	public boolean isIgnored(final DiffNode node, final Inclusion propertyInclusion)
 	{
 		if (node.isRootNode())
 		{
@@ -74,7 +89,16 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			{
 				strictIncludeModeEnabled = true;
 			}
-			switch (getInclusion(node, inclusionResolver))
+			final Inclusion inclusion;
+			if (propertyInclusion != null && inclusionResolver == typePropertyAnnotationInclusionResolver)
+			{
+				inclusion = propertyInclusion;
+			}
+			else
+			{
+				inclusion = getInclusion(node, inclusionResolver);
+			}
+			switch (inclusion)
 			{
 				case EXCLUDED:
 					return true;
@@ -35,7 +35,7 @@ class NodePathInclusionResolver implements InclusionResolver
 		{
 			return DEFAULT;
 		}
-		return resolveInclusion(inclusions.getNodeForPath(node.getPath()));
+		return resolveInclusion(inclusions.findNodeForPath(node.getPath()));
 	}
 
 	public boolean enablesStrictIncludeMode()
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.inclusion;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.diff.node.DiffNode;
+
+/**
+ * An {@link IsIgnoredResolver} that allows to resolve the part of the inclusion that only depends on the metadata of
+ * a property (like its annotations) up front. This part never changes for a given type, so it only needs to be
+ * resolved once and can then be passed along whenever a node representing the property gets checked.
+ *
+ * @author Daniel Bechler
+ */
+public interface PropertyInclusionResolver extends IsIgnoredResolver
+{
+	/**
+	 * @return The inclusion of the given property of the given type, based on its metadata only.
+	 */
+	Inclusion resolvePropertyInclusion(TypeInfo typeInfo, PropertyAwareAccessor accessor);
+
+	/**
+	 * Same as {@link #isIgnored(DiffNode)}, but uses the given property inclusion instead of resolving it again.
+	 *
+	 * @param propertyInclusion The result of {@link #resolvePropertyInclusion(TypeInfo, PropertyAwareAccessor)} for
+	 *                          the type and property represented by the given node.
+	 */
+	boolean isIgnored(DiffNode node, Inclusion propertyInclusion);
+}
@@ -33,17 +33,21 @@ class PropertyNameInclusionResolver implements InclusionResolver
 
 	public Inclusion getInclusion(final DiffNode node)
 	{
-		if (node != null && !isInactive())
+		if (isInactive())
 		{
-			final Inclusion inclusion = propertyNameInclusions.get(node.getPropertyName());
-			if (inclusion == INCLUDED || inclusion == EXCLUDED)
+			return DEFAULT;
+		}
+		// explicitly included ancestors include their descendants, unless they have been excluded themselves
+		for (DiffNode currentNode = node; currentNode != null; currentNode = currentNode.getParentNode())
+		{
+			final Inclusion inclusion = propertyNameInclusions.get(currentNode.getPropertyName());
+			if (inclusion == INCLUDED)
 			{
-				return inclusion;
+				return INCLUDED;
 			}
-			final Inclusion parentNodeInclusion = getInclusion(node.getParentNode());
-			if (parentNodeInclusion == INCLUDED)
+			else if (inclusion == EXCLUDED)
 			{
-				return INCLUDED;
+				return currentNode == node ? EXCLUDED : DEFAULT;
 			}
 		}
 		return DEFAULT;
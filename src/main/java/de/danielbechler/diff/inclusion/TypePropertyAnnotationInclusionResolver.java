@@ -39,6 +39,22 @@ class TypePropertyAnnotationInclusionResolver implements InclusionResolver
 	public Inclusion getInclusion(final DiffNode node)
 	{
 		final ObjectDiffProperty propertyAnnotation = node.getPropertyAnnotation(ObjectDiffProperty.class);
+		return getInclusion(propertyAnnotation, getSiblingAccessors(node));
+	}
+
+	/**
+	 * Same as {@link #getInclusion(DiffNode)}, but for the given property of the given type. Since it only depends
+	 * on annotations, the result never changes.
+	 */
+	Inclusion getInclusion(final TypeInfo typeInfo, final PropertyAwareAccessor accessor)
+	{
+		final ObjectDiffProperty propertyAnnotation = accessor.getReadMethodAnnotation(ObjectDiffProperty.class);
+		return getInclusion(propertyAnnotation, typeInfo.getAccessors());
+	}
+
+	private static Inclusion getInclusion(final ObjectDiffProperty propertyAnnotation,
+										  final Iterable<PropertyAwareAccessor> siblingAccessors)
+	{
 		if (propertyAnnotation != null)
 		{
 			if (propertyAnnotation.inclusion() == INCLUDED || propertyAnnotation.inclusion() == EXCLUDED)
@@ -50,16 +66,16 @@ class TypePropertyAnnotationInclusionResolver implements InclusionResolver
 				return EXCLUDED;
 			}
 		}
-		else if (hasIncludedSibling(node))
+		else if (hasIncludedSibling(siblingAccessors))
 		{
 			return EXCLUDED;
 		}
 		return DEFAULT;
 	}
 
-	private static boolean hasIncludedSibling(final DiffNode node)
+	private static boolean hasIncludedSibling(final Iterable<PropertyAwareAccessor> siblingAccessors)
 	{
-		for (final PropertyAwareAccessor accessor : getSiblingAccessors(node))
+		for (final PropertyAwareAccessor accessor : siblingAccessors)
 		{
 			final ObjectDiffProperty annotation = accessor.getReadMethodAnnotation(ObjectDiffProperty.class);
 			if (annotation != null && annotation.inclusion() == INCLUDED)
@@ -69,6 +69,28 @@ public class ValueNode<V>
 		return parent.getNodeForPath(nodePath);
 	}
 
+	/**
+	 * Same as {@link #getNodeForPath(NodePath)}, but never modifies the tree. Missing nodes get created on the fly
+	 * without being attached to their parents, so lookups can safely happen concurrently, as long as the tree
+	 * itself isn't modified at the same time.
+	 */
+	public ValueNode<V> findNodeForPath(final NodePath nodePath)
+	{
+		if (parent == null)
+		{
+			final List<ElementSelector> elementSelectors = nodePath.getElementSelectors();
+			ValueNode<V> node = this;
+			for (int i = 1; i < elementSelectors.size(); i++)
+			{
+				final ElementSelector childSelector = elementSelectors.get(i);
+				final ValueNode<V> childNode = node.children.get(childSelector);
+				node = childNode != null ? childNode : node.newNode(childSelector);
+			}
+			return node;
+		}
+		return parent.findNodeForPath(nodePath);
+	}
+
 	public ValueNode<V> getChild(final ElementSelector childSelector)
 	{
 		if (childSelector == RootElementSelector.getInstance())
@@ -17,6 +17,7 @@
 package de.danielbechler.diff.instantiation;
 
 import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.differ.DiffPlan;
 import de.danielbechler.util.Assert;
 
 import java.util.Collection;
@@ -30,6 +31,7 @@ public class TypeInfo
 	private final Class<?> type;
 	private final Collection<PropertyAwareAccessor> accessors = new LinkedList<PropertyAwareAccessor>();
 	private InstanceFactory instanceFactory;
+	private volatile DiffPlan diffPlan;
 
 	public TypeInfo(final Class<?> type)
 	{
@@ -67,4 +69,21 @@ public class TypeInfo
 	{
 		this.instanceFactory = instanceFactory;
 	}
+
+	/**
+	 * @return The {@link DiffPlan} that has most recently been compiled for this type info or <code>null</code>.
+	 */
+	public DiffPlan getDiffPlan()
+	{
+		return diffPlan;
+	}
+
+	/**
+	 * Keeps the given plan along with the type info, so it gets garbage collected together with it, instead of
+	 * keeping the type alive on its own.
+	 */
+	public void setDiffPlan(final DiffPlan diffPlan)
+	{
+		this.diffPlan = diffPlan;
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Fallback for properties without setter, shared by {@link PropertyAccessor} and {@link CompiledPropertyAccessor}: if
+ * the property is a {@link Collection} or {@link Map}, the content of the current value gets replaced with the content
+ * of the new value instead.
+ *
+ * @author Daniel Bechler
+ */
+final class CollectionContentReplacer
+{
+	private static final Logger logger = LoggerFactory.getLogger(CollectionContentReplacer.class);
+
+	private CollectionContentReplacer()
+	{
+	}
+
+	@SuppressWarnings("unchecked")
+	static void replaceContent(final PropertyAwareAccessor accessor, final Object target, final Object value)
+	{
+		final Class<?> type = accessor.getType();
+		if (Collection.class.isAssignableFrom(type))
+		{
+			if (tryToReplaceCollectionContent((Collection<Object>) accessor.get(target), (Collection<Object>) value))
+			{
+				return;
+			}
+		}
+		if (Map.class.isAssignableFrom(type))
+		{
+			if (tryToReplaceMapContent((Map<Object, Object>) accessor.get(target), (Map<Object, Object>) value))
+			{
+				return;
+			}
+		}
+		logger.info("Couldn't set new value '{}' for property '{}'", value, accessor.getPropertyName());
+	}
+
+	private static boolean tryToReplaceCollectionContent(final Collection<Object> target,
+														 final Collection<Object> value)
+	{
+		if (target == null)
+		{
+			return false;
+		}
+		try
+		{
+			target.clear();
+			target.addAll(value);
+			return true;
+		}
+		catch (final Exception unmodifiable)
+		{
+			logger.debug("Failed to replace content of existing Collection", unmodifiable);
+			return false;
+		}
+	}
+
+	private static boolean tryToReplaceMapContent(final Map<Object, Object> target,
+												  final Map<Object, Object> value)
+	{
+		if (target == null)
+		{
+			return false;
+		}
+		try
+		{
+			target.clear();
+			target.putAll(value);
+			return true;
+		}
+		catch (final Exception unmodifiable)
+		{
+			logger.debug("Failed to replace content of existing Map", unmodifiable);
+			return false;
+		}
+	}
+}
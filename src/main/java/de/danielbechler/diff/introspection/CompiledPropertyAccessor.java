@@ -0,0 +1,379 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.inclusion.Inclusion;
+import de.danielbechler.diff.selector.BeanPropertyElementSelector;
+import de.danielbechler.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Base class for property accessors whose getters and setters are known at compile time, like the ones generated for
+ * types annotated with {@link Diffable}. Subclasses invoke the getter and setter directly, so reading and writing
+ * properties doesn't involve any reflection.
+ * <p/>
+ * The {@link ObjectDiffProperty} annotation of the getter is passed in as well, because it gets queried for every
+ * compared property. All other annotations of the getter and the field are only looked up via reflection on demand.
+ *
+ * @author Daniel Bechler
+ */
+public abstract class CompiledPropertyAccessor implements PropertyAwareAccessor
+{
+	private static final Logger logger = LoggerFactory.getLogger(CompiledPropertyAccessor.class);
+
+	private final Class<?> beanType;
+	private final String propertyName;
+	private final String readMethodName;
+	private final Class<?> type;
+	private final boolean writable;
+	private final ObjectDiffProperty propertyAnnotation;
+	private volatile Set<Annotation> readMethodAnnotations;
+	private volatile Set<Annotation> fieldAnnotations;
+
+	/**
+	 * @param beanType           The type the property belongs to.
+	 * @param propertyName       The name of the property.
+	 * @param readMethodName     The name of the public getter of the property.
+	 * @param type               The return type of the getter.
+	 * @param writable           Whether the property has a setter, that is invoked via {@link #write(Object,
+	 *                           Object)}.
+	 * @param propertyAnnotation The {@link ObjectDiffProperty} annotation of the getter or <code>null</code>.
+	 */
+	protected CompiledPropertyAccessor(final Class<?> beanType,
+									   final String propertyName,
+									   final String readMethodName,
+									   final Class<?> type,
+									   final boolean writable,
+									   final ObjectDiffProperty propertyAnnotation)
+	{
+		Assert.notNull(beanType, "beanType");
+		Assert.hasText(propertyName, "propertyName");
+		Assert.hasText(readMethodName, "readMethodName");
+		Assert.notNull(type, "type");
+		this.beanType = beanType;
+		this.propertyName = propertyName;
+		this.readMethodName = readMethodName;
+		this.type = type;
+		this.writable = writable;
+		this.propertyAnnotation = propertyAnnotation;
+	}
+
+	/**
+	 * Creates an {@link ObjectDiffProperty} annotation with the given values, so the annotation of a getter can be
+	 * passed to the constructor without looking it up via reflection.
+	 */
+	public static ObjectDiffProperty objectDiffProperty(final boolean excluded,
+														   final Inclusion inclusion,
+														   final boolean equalsOnly,
+														   final String[] categories,
+														   final String equalsOnlyValueProviderMethod)
+	{
+		return new CompiledObjectDiffProperty(excluded, inclusion, equalsOnly, categories, equalsOnlyValueProviderMethod);
+	}
+
+	/**
+	 * Invokes the getter of the property.
+	 *
+	 * @param target The bean to read from. Never <code>null</code>.
+	 */
+	protected abstract Object read(Object target) throws Exception;
+
+	/**
+	 * Invokes the setter of the property. Only called when the accessor has been created as writable.
+	 *
+	 * @param target The bean to write to. Never <code>null</code>.
+	 */
+	protected void write(final Object target, final Object value) throws Exception
+	{
+		throw new UnsupportedOperationException("Property '" + propertyName + "' is read-only");
+	}
+
+	public Set<String> getCategoriesFromAnnotation()
+	{
+		if (propertyAnnotation != null)
+		{
+			return new TreeSet<String>(asList(propertyAnnotation.categories()));
+		}
+		return Collections.emptySet();
+	}
+
+	public boolean isExcludedByAnnotation()
+	{
+		return propertyAnnotation != null && propertyAnnotation.excluded();
+	}
+
+	public String getPropertyName()
+	{
+		return propertyName;
+	}
+
+	/**
+	 * @return The annotations of the field, or an empty set if there is no field with the name of the property.
+	 */
+	public Set<Annotation> getFieldAnnotations()
+	{
+		if (fieldAnnotations == null)
+		{
+			fieldAnnotations = Collections.unmodifiableSet(findFieldAnnotations(beanType));
+		}
+		return fieldAnnotations;
+	}
+
+	private Set<Annotation> findFieldAnnotations(final Class<?> clazz)
+	{
+		try
+		{
+			return new LinkedHashSet<Annotation>(asList(clazz.getDeclaredField(propertyName).getAnnotations()));
+		}
+		catch (final NoSuchFieldException e)
+		{
+			if (clazz.getSuperclass() != null)
+			{
+				return findFieldAnnotations(clazz.getSuperclass());
+			}
+			logger.debug("Cannot find propertyName: {}, declaring class: {}", propertyName, beanType);
+			return new LinkedHashSet<Annotation>(0);
+		}
+	}
+
+	public <T extends Annotation> T getFieldAnnotation(final Class<T> annotationClass)
+	{
+		return findAnnotation(getFieldAnnotations(), annotationClass);
+	}
+
+	/**
+	 * @return The annotations of the getter used to access this property.
+	 */
+	public Set<Annotation> getReadMethodAnnotations()
+	{
+		if (readMethodAnnotations == null)
+		{
+			try
+			{
+				final Annotation[] annotations = beanType.getMethod(readMethodName).getAnnotations();
+				readMethodAnnotations = Collections.unmodifiableSet(new LinkedHashSet<Annotation>(asList(annotations)));
+			}
+			catch (final NoSuchMethodException e)
+			{
+				logger.debug("Cannot find read method: {}, declaring class: {}", readMethodName, beanType);
+				readMethodAnnotations = Collections.emptySet();
+			}
+		}
+		return readMethodAnnotations;
+	}
+
+	public <T extends Annotation> T getReadMethodAnnotation(final Class<T> annotationClass)
+	{
+		if (annotationClass == ObjectDiffProperty.class)
+		{
+			return annotationClass.cast(propertyAnnotation);
+		}
+		return findAnnotation(getReadMethodAnnotations(), annotationClass);
+	}
+
+	private static <T extends Annotation> T findAnnotation(final Set<Annotation> annotations,
+														   final Class<T> annotationClass)
+	{
+		for (final Annotation annotation : annotations)
+		{
+			if (annotationClass.isAssignableFrom(annotation.annotationType()))
+			{
+				return annotationClass.cast(annotation);
+			}
+		}
+		return null;
+	}
+
+	public BeanPropertyElementSelector getElementSelector()
+	{
+		return new BeanPropertyElementSelector(propertyName);
+	}
+
+	public Object get(final Object target)
+	{
+		if (target == null)
+		{
+			return null;
+		}
+		try
+		{
+			return read(target);
+		}
+		catch (final Exception cause)
+		{
+			throw new PropertyReadException(propertyName, target.getClass(), cause);
+		}
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		if (target == null)
+		{
+			logger.info("Couldn't set new value '{}' for property '{}' " +
+					"because the target object is null", value, propertyName);
+		}
+		else if (!writable)
+		{
+			logger.debug("No setter found for property '{}'", propertyName);
+			CollectionContentReplacer.replaceContent(this, target, value);
+		}
+		else
+		{
+			try
+			{
+				write(target, value);
+			}
+			catch (final Exception cause)
+			{
+				throw new PropertyWriteException(propertyName, target.getClass(), value, cause);
+			}
+		}
+	}
+
+	public void unset(final Object target)
+	{
+		set(target, null);
+	}
+
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder("CompiledPropertyAccessor{");
+		sb.append("propertyName='").append(propertyName).append('\'');
+		sb.append(", type=").append(type.getCanonicalName());
+		sb.append(", source=").append(beanType.getCanonicalName());
+		sb.append(", hasWriteMethod=").append(writable);
+		sb.append('}');
+		return sb.toString();
+	}
+
+	private static final class CompiledObjectDiffProperty implements ObjectDiffProperty
+	{
+		private final boolean excluded;
+		private final Inclusion inclusion;
+		private final boolean equalsOnly;
+		private final String[] categories;
+		private final String equalsOnlyValueProviderMethod;
+
+		private CompiledObjectDiffProperty(final boolean excluded,
+										   final Inclusion inclusion,
+										   final boolean equalsOnly,
+										   final String[] categories,
+										   final String equalsOnlyValueProviderMethod)
+		{
+			Assert.notNull(inclusion, "inclusion");
+			Assert.notNull(categories, "categories");
+			Assert.notNull(equalsOnlyValueProviderMethod, "equalsOnlyValueProviderMethod");
+			this.excluded = excluded;
+			this.inclusion = inclusion;
+			this.equalsOnly = equalsOnly;
+			this.categories = categories.clone();
+			this.equalsOnlyValueProviderMethod = equalsOnlyValueProviderMethod;
+		}
+
+		public boolean excluded()
+		{
+			return excluded;
+		}
+
+		public Inclusion inclusion()
+		{
+			return inclusion;
+		}
+
+		public boolean equalsOnly()
+		{
+			return equalsOnly;
+		}
+
+		public String[] categories()
+		{
+			return categories.clone();
+		}
+
+		public String equalsOnlyValueProviderMethod()
+		{
+			return equalsOnlyValueProviderMethod;
+		}
+
+		public Class<? extends Annotation> annotationType()
+		{
+			return ObjectDiffProperty.class;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof ObjectDiffProperty))
+			{
+				return false;
+			}
+			final ObjectDiffProperty that = (ObjectDiffProperty) o;
+			return excluded == that.excluded()
+					&& inclusion == that.inclusion()
+					&& equalsOnly == that.equalsOnly()
+					&& Arrays.equals(categories, that.categories())
+					&& equalsOnlyValueProviderMethod.equals(that.equalsOnlyValueProviderMethod());
+		}
+
+		/**
+		 * As defined by {@link Annotation#hashCode()}.
+		 */
+		@Override
+		public int hashCode()
+		{
+			return (127 * "excluded".hashCode() ^ Boolean.valueOf(excluded).hashCode())
+					+ (127 * "inclusion".hashCode() ^ inclusion.hashCode())
+					+ (127 * "equalsOnly".hashCode() ^ Boolean.valueOf(equalsOnly).hashCode())
+					+ (127 * "categories".hashCode() ^ Arrays.hashCode(categories))
+					+ (127 * "equalsOnlyValueProviderMethod".hashCode() ^ equalsOnlyValueProviderMethod.hashCode());
+		}
+
+		@Override
+		public String toString()
+		{
+			final StringBuilder sb = new StringBuilder("@").append(ObjectDiffProperty.class.getName()).append('(');
+			sb.append("excluded=").append(excluded);
+			sb.append(", inclusion=").append(inclusion);
+			sb.append(", equalsOnly=").append(equalsOnly);
+			sb.append(", categories=").append(Arrays.toString(categories));
+			sb.append(", equalsOnlyValueProviderMethod=").append(equalsOnlyValueProviderMethod);
+			sb.append(')');
+			return sb.toString();
+		}
+	}
+}
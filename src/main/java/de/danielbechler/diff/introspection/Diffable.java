@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean type for the <code>java-object-diff-processor</code>. The annotation processor generates an {@link
+ * Introspector} for every marked type, that knows its properties at compile time and accesses them via plain method
+ * calls instead of reflection. For a type <code>com.example.Person</code> it is called
+ * <code>com.example.Person_DiffIntrospector</code> and comes with a static <code>configure(ObjectDifferBuilder)</code>
+ * method, that registers it for the type. Additionally, a {@link
+ * de.danielbechler.diff.differ.CompiledBeanComparator} called <code>com.example.Person_DiffComparator</code> is
+ * generated, which compares the primitive properties of the type via plain getter calls. The <code>configure</code>
+ * method passes it on to {@link de.danielbechler.diff.differ.DifferConfigurer#specialize(de.danielbechler.diff.differ.CompiledBeanComparator)}.
+ * <p/>
+ * The generated introspector finds the same properties as the {@link StandardIntrospector}: all public getters of the
+ * type and its super types and their matching public setters. Therefore the marked type must neither be private nor
+ * a non-static inner class.
+ *
+ * @author Daniel Bechler
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Diffable
+{
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.selector.BeanPropertyElementSelector;
+import de.danielbechler.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Accesses a property directly via its field. As there is no getter involved, the annotations of the field also
+ * serve as the annotations of the property, so {@link ObjectDiffProperty} can be used just like on getters. Final
+ * fields are treated as read-only.
+ *
+ * @author Daniel Bechler
+ */
+public class FieldAccessor implements PropertyAwareAccessor
+{
+	private static final Logger logger = LoggerFactory.getLogger(FieldAccessor.class);
+
+	private final Field field;
+	private final boolean readOnly;
+
+	public FieldAccessor(final Field field)
+	{
+		Assert.notNull(field, "field");
+		this.field = makeAccessible(field);
+		this.readOnly = Modifier.isFinal(field.getModifiers());
+	}
+
+	private static Field makeAccessible(final Field field)
+	{
+		if (!field.isAccessible())
+		{
+			logger.debug("Making field accessible: {}", field.toString());
+			field.setAccessible(true);
+		}
+		return field;
+	}
+
+	public Set<String> getCategoriesFromAnnotation()
+	{
+		final ObjectDiffProperty annotation = field.getAnnotation(ObjectDiffProperty.class);
+		if (annotation != null)
+		{
+			return new TreeSet<String>(asList(annotation.categories()));
+		}
+		return Collections.emptySet();
+	}
+
+	public boolean isExcludedByAnnotation()
+	{
+		final ObjectDiffProperty annotation = field.getAnnotation(ObjectDiffProperty.class);
+		return annotation != null && annotation.excluded();
+	}
+
+	public String getPropertyName()
+	{
+		return field.getName();
+	}
+
+	public Set<Annotation> getFieldAnnotations()
+	{
+		return new LinkedHashSet<Annotation>(asList(field.getAnnotations()));
+	}
+
+	public <T extends Annotation> T getFieldAnnotation(final Class<T> annotationClass)
+	{
+		return field.getAnnotation(annotationClass);
+	}
+
+	/**
+	 * @return The annotations of the field, as there is no getter.
+	 */
+	public Set<Annotation> getReadMethodAnnotations()
+	{
+		return getFieldAnnotations();
+	}
+
+	/**
+	 * @return The given annotation of the field, as there is no getter.
+	 */
+	public <T extends Annotation> T getReadMethodAnnotation(final Class<T> annotationClass)
+	{
+		return getFieldAnnotation(annotationClass);
+	}
+
+	public BeanPropertyElementSelector getElementSelector()
+	{
+		return new BeanPropertyElementSelector(field.getName());
+	}
+
+	public Object get(final Object target)
+	{
+		if (target == null)
+		{
+			return null;
+		}
+		try
+		{
+			return field.get(target);
+		}
+		catch (final Exception cause)
+		{
+			throw new PropertyReadException(field.getName(), target.getClass(), cause);
+		}
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		if (target == null)
+		{
+			logger.info("Couldn't set new value '{}' for property '{}' " +
+					"because the target object is null", value, field.getName());
+		}
+		else if (readOnly)
+		{
+			logger.info("Couldn't set new value '{}' for property '{}' " +
+					"because the field is final", value, field.getName());
+		}
+		else
+		{
+			try
+			{
+				field.set(target, value);
+			}
+			catch (final Exception cause)
+			{
+				throw new PropertyWriteException(field.getName(), target.getClass(), value, cause);
+			}
+		}
+	}
+
+	public void unset(final Object target)
+	{
+		set(target, null);
+	}
+
+	public Class<?> getType()
+	{
+		return field.getType();
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder("FieldAccessor{");
+		sb.append("propertyName='").append(field.getName()).append('\'');
+		sb.append(", type=").append(field.getType().getCanonicalName());
+		sb.append(", source=").append(field.getDeclaringClass().getCanonicalName());
+		sb.append(", readOnly=").append(readOnly);
+		sb.append('}');
+		return sb.toString();
+	}
+}
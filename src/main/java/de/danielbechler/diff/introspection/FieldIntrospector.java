@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the accessors of a given type by looking at its declared fields (including the ones declared by its
+ * superclasses) instead of its getters and setters. This makes it possible to compare objects that don't follow the
+ * JavaBeans conventions and avoids the rather expensive initialization of the standard {@link java.beans.Introspector}.
+ * <p/>
+ * Static, transient and synthetic fields are ignored. When a subclass declares a field with the same name as one of
+ * its superclasses, the field of the subclass wins.
+ *
+ * @author Daniel Bechler
+ */
+public class FieldIntrospector implements Introspector
+{
+	public TypeInfo introspect(final Class<?> type)
+	{
+		Assert.notNull(type, "type");
+		final TypeInfo typeInfo = new TypeInfo(type);
+		for (final Field field : getFields(type))
+		{
+			typeInfo.addPropertyAccessor(new FieldAccessor(field));
+		}
+		return typeInfo;
+	}
+
+	private static Iterable<Field> getFields(final Class<?> type)
+	{
+		final List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass())
+		{
+			hierarchy.add(0, current);
+		}
+		final Map<String, Field> fields = new LinkedHashMap<String, Field>();
+		for (final Class<?> declaringClass : hierarchy)
+		{
+			for (final Field field : declaringClass.getDeclaredFields())
+			{
+				if (!shouldSkip(field))
+				{
+					fields.put(field.getName(), field);
+				}
+			}
+		}
+		return fields.values();
+	}
+
+	private static boolean shouldSkip(final Field field)
+	{
+		final int modifiers = field.getModifiers();
+		return Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic();
+	}
+}
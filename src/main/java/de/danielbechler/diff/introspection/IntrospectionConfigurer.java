@@ -23,10 +23,9 @@ import de.danielbechler.diff.path.NodePath;
 /**
  * Allows to replace the default bean introspector with a custom implementation. The default introspector internally
  * uses the `java.beans.Introspector` which has some limitations. The most important one being that it only operates on
- * getters and setters. In case field introspection is needed a custom introspector must be used. An introspector can
- * be
- * set as global default or on a per-property basis. It is also possible to turn off introspection for specific
- * properties in which case they will simply be compared via `equals` method.
+ * getters and setters. In case field introspection is needed the {@link FieldIntrospector} can be used instead. An
+ * introspector can be set as global default or on a per-property basis. It is also possible to turn off
+ * introspection for specific properties in which case they will simply be compared via `equals` method.
  *
  * @author Daniel Bechler
  */
@@ -50,6 +49,29 @@ public interface IntrospectionConfigurer
 
 	IntrospectionConfigurer setDefaultIntrospector(Introspector introspector);
 
+	/**
+	 * The results of the introspection are cached per introspector and type, so every type only needs to be
+	 * introspected once per {@link de.danielbechler.diff.ObjectDiffer}. By default the cache holds up to {@link
+	 * TypeInfoCache#DEFAULT_MAXIMUM_SIZE} entries. A custom cache can be used to change that limit or to keep an eye
+	 * on its hit and miss statistics. A cache with a maximum size of <code>0</code> disables caching completely, which
+	 * may come in handy for introspectors that don't always return the same result for the same type.
+	 *
+	 * @param typeInfoCache The cache to use
+	 * @throws java.lang.IllegalArgumentException when the typeInfoCache is null
+	 */
+	IntrospectionConfigurer setTypeInfoCache(TypeInfoCache typeInfoCache);
+
+	/**
+	 * Replaces the way the built-in default introspector invokes getters and setters. By default it uses plain
+	 * reflection, which can be replaced with something faster, like the <code>LambdaPropertyAccessBackend</code> of the
+	 * <code>java-object-diff-lambda</code> module when running on Java 8 or later. Methods the backend can't handle
+	 * will still be invoked via reflection. Has no effect on custom introspectors.
+	 *
+	 * @param propertyAccessBackend The backend to use
+	 * @throws java.lang.IllegalArgumentException when the propertyAccessBackend is null
+	 */
+	IntrospectionConfigurer setPropertyAccessBackend(PropertyAccessBackend propertyAccessBackend);
+
 	IntrospectionConfigurer handlePropertyAccessExceptionsUsing(PropertyAccessExceptionHandler exceptionHandler);
 
 	Of ofType(Class<?> type);
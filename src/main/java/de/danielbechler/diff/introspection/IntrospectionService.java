@@ -40,8 +40,11 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 	private final NodePathValueHolder<IntrospectionMode> nodePathIntrospectionModeHolder = new NodePathValueHolder<IntrospectionMode>();
 	private final ObjectDifferBuilder objectDifferBuilder;
 	private Introspector defaultIntrospector;
+	private Introspector standardIntrospector;
+	private PropertyAccessBackend propertyAccessBackend = new ReflectivePropertyAccessBackend();
 	private InstanceFactory instanceFactory = new PublicNoArgsConstructorInstanceFactory();
 	private PropertyAccessExceptionHandler defaultPropertyAccessExceptionHandler = new DefaultPropertyAccessExceptionHandler();
+	private TypeInfoCache typeInfoCache = new TypeInfoCache();
 
 	public IntrospectionService(final ObjectDifferBuilder objectDifferBuilder)
 	{
@@ -87,8 +90,14 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 	{
 		final Class<?> beanType = node.getValueType();
 		final Introspector introspector = introspectorForNode(node);
+		final TypeInfo cachedTypeInfo = typeInfoCache.get(introspector, beanType);
+		if (cachedTypeInfo != null)
+		{
+			return cachedTypeInfo;
+		}
 		final TypeInfo typeInfo = introspector.introspect(beanType);
 		typeInfo.setInstanceFactory(instanceFactory);
+		typeInfoCache.put(introspector, beanType, typeInfo);
 		return typeInfo;
 	}
 
@@ -106,17 +115,42 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 			return nodePathIntrospector;
 		}
 
-		if (defaultIntrospector == null)
+		if (defaultIntrospector != null)
+		{
+			return defaultIntrospector;
+		}
+		if (standardIntrospector == null)
 		{
-			defaultIntrospector = new StandardIntrospector();
+			standardIntrospector = new StandardIntrospector(propertyAccessBackend);
 		}
-		return defaultIntrospector;
+		return standardIntrospector;
 	}
 
 	public IntrospectionConfigurer setInstanceFactory(final InstanceFactory instanceFactory)
 	{
 		Assert.notNull(instanceFactory, "instanceFactory");
 		this.instanceFactory = new InstanceFactoryFallbackDecorator(instanceFactory);
+		typeInfoCache.clear();
+		return this;
+	}
+
+	public IntrospectionConfigurer setTypeInfoCache(final TypeInfoCache typeInfoCache)
+	{
+		Assert.notNull(typeInfoCache, "typeInfoCache");
+		this.typeInfoCache = typeInfoCache;
+		return this;
+	}
+
+	public TypeInfoCache getTypeInfoCache()
+	{
+		return typeInfoCache;
+	}
+
+	public IntrospectionConfigurer setPropertyAccessBackend(final PropertyAccessBackend propertyAccessBackend)
+	{
+		Assert.notNull(propertyAccessBackend, "propertyAccessBackend");
+		this.propertyAccessBackend = propertyAccessBackend;
+		this.standardIntrospector = null;
 		return this;
 	}
 
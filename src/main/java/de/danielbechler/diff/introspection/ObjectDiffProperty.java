@@ -26,12 +26,13 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation to be used on property getters in order to configure if and how they should be treated during
- * object comparison.
+ * object comparison. When properties are accessed via {@link FieldIntrospector}, it needs to be placed on the fields
+ * instead.
  *
  * @author Daniel Bechler
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.FIELD})
 @Inherited
 public @interface ObjectDiffProperty
 {
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the objects the {@link PropertyAccessor} uses to invoke the getter and setter of a property. They get
+ * created only once per property during introspection, so implementations are free to do expensive preparations
+ * upfront (like looking up a <code>java.lang.invoke.MethodHandle</code> or generating a dedicated accessor class), in
+ * order to make every subsequent property access as cheap as possible.
+ * <p/>
+ * Implementations may return <code>null</code> for methods they can't handle. In that case (and in case they throw
+ * an exception while creating the reader or writer) the {@link PropertyAccessor} falls back to plain reflection.
+ *
+ * @author Daniel Bechler
+ * @see ReflectivePropertyAccessBackend
+ */
+public interface PropertyAccessBackend
+{
+	/**
+	 * @param readMethod The getter of the property. Never <code>null</code>.
+	 * @return A reader invoking the given getter or <code>null</code> to fall back to reflection.
+	 */
+	PropertyReader createReader(Method readMethod);
+
+	/**
+	 * @param writeMethod The setter of the property. Never <code>null</code>.
+	 * @return A writer invoking the given setter or <code>null</code> to fall back to reflection.
+	 */
+	PropertyWriter createWriter(Method writeMethod);
+
+	public static interface PropertyReader
+	{
+		/**
+		 * @param target The object to read the property value from. Never <code>null</code>.
+		 */
+		Object read(Object target) throws Exception;
+	}
+
+	public static interface PropertyWriter
+	{
+		/**
+		 * @param target The object to assign the property value to. Never <code>null</code>.
+		 */
+		void write(Object target, Object value) throws Exception;
+	}
+}
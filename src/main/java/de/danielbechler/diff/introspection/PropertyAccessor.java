@@ -17,6 +17,8 @@
 package de.danielbechler.diff.introspection;
 
 import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.introspection.PropertyAccessBackend.PropertyReader;
+import de.danielbechler.diff.introspection.PropertyAccessBackend.PropertyWriter;
 import de.danielbechler.diff.selector.BeanPropertyElementSelector;
 import de.danielbechler.util.Assert;
 import org.slf4j.Logger;
@@ -24,10 +26,8 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -36,20 +36,38 @@ import static java.util.Arrays.asList;
 public class PropertyAccessor implements PropertyAwareAccessor
 {
 	private static final Logger logger = LoggerFactory.getLogger(PropertyAccessor.class);
+	private static final PropertyAccessBackend REFLECTIVE_BACKEND = new ReflectivePropertyAccessBackend();
 
 	private final String propertyName;
 	private final Class<?> type;
 	private final Method readMethod;
 	private final Method writeMethod;
+	private final PropertyReader reader;
+	private final PropertyWriter writer;
 
 	public PropertyAccessor(final String propertyName, final Method readMethod, final Method writeMethod)
+	{
+		this(propertyName, readMethod, writeMethod, REFLECTIVE_BACKEND);
+	}
+
+	/**
+	 * @param backend Creates the reader and writer used to invoke the getter and setter of the property. Falls back
+	 *                to reflection for methods the backend can't handle.
+	 */
+	public PropertyAccessor(final String propertyName,
+							final Method readMethod,
+							final Method writeMethod,
+							final PropertyAccessBackend backend)
 	{
 		Assert.notNull(propertyName, "propertyName");
 		Assert.notNull(readMethod, "readMethod");
+		Assert.notNull(backend, "backend");
 		this.propertyName = propertyName;
 		this.readMethod = makeAccessible(readMethod);
 		this.writeMethod = makeAccessible(writeMethod);
 		this.type = this.readMethod.getReturnType();
+		this.reader = createReader(backend, this.readMethod);
+		this.writer = this.writeMethod != null ? createWriter(backend, this.writeMethod) : null;
 	}
 
 	private static Method makeAccessible(final Method method)
@@ -62,6 +80,40 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		return method;
 	}
 
+	private static PropertyReader createReader(final PropertyAccessBackend backend, final Method readMethod)
+	{
+		try
+		{
+			final PropertyReader reader = backend.createReader(readMethod);
+			if (reader != null)
+			{
+				return reader;
+			}
+		}
+		catch (final RuntimeException e)
+		{
+			logger.debug("Backend failed to create reader for method: {}", readMethod, e);
+		}
+		return REFLECTIVE_BACKEND.createReader(readMethod);
+	}
+
+	private static PropertyWriter createWriter(final PropertyAccessBackend backend, final Method writeMethod)
+	{
+		try
+		{
+			final PropertyWriter writer = backend.createWriter(writeMethod);
+			if (writer != null)
+			{
+				return writer;
+			}
+		}
+		catch (final RuntimeException e)
+		{
+			logger.debug("Backend failed to create writer for method: {}", writeMethod, e);
+		}
+		return REFLECTIVE_BACKEND.createWriter(writeMethod);
+	}
+
 	public final Set<String> getCategoriesFromAnnotation()
 	{
 		final ObjectDiffProperty annotation = readMethod.getAnnotation(ObjectDiffProperty.class);
@@ -172,7 +224,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 		try
 		{
-			return readMethod.invoke(target);
+			return reader.read(target);
 		}
 		catch (final Exception cause)
 		{
@@ -187,10 +239,10 @@ public class PropertyAccessor implements PropertyAwareAccessor
 			logger.info("Couldn't set new value '{}' for property '{}' " +
 					"because the target object is null", value, propertyName);
 		}
-		else if (writeMethod == null)
+		else if (writer == null)
 		{
 			logger.debug("No setter found for property '{}'", propertyName);
-			tryToReplaceContentOfCollectionTypes(target, value);
+			CollectionContentReplacer.replaceContent(this, target, value);
 		}
 		else
 		{
@@ -203,31 +255,11 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		set(target, null);
 	}
 
-	@SuppressWarnings("unchecked")
-	private void tryToReplaceContentOfCollectionTypes(final Object target, final Object value)
-	{
-		if (Collection.class.isAssignableFrom(readMethod.getReturnType()))
-		{
-			if (tryToReplaceCollectionContent((Collection<Object>) get(target), (Collection<Object>) value))
-			{
-				return;
-			}
-		}
-		if (Map.class.isAssignableFrom(readMethod.getReturnType()))
-		{
-			if (tryToReplaceMapContent((Map<Object, Object>) get(target), (Map<Object, Object>) value))
-			{
-				return;
-			}
-		}
-		logger.info("Couldn't set new value '{}' for property '{}'", value, propertyName);
-	}
-
 	private void invokeWriteMethod(final Object target, final Object value)
 	{
 		try
 		{
-			writeMethod.invoke(target, value);
+			writer.write(target, value);
 		}
 		catch (final Exception cause)
 		{
@@ -235,46 +267,6 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 	}
 
-	private static boolean tryToReplaceCollectionContent(final Collection<Object> target,
-														 final Collection<Object> value)
-	{
-		if (target == null)
-		{
-			return false;
-		}
-		try
-		{
-			target.clear();
-			target.addAll(value);
-			return true;
-		}
-		catch (final Exception unmodifiable)
-		{
-			logger.debug("Failed to replace content of existing Collection", unmodifiable);
-			return false;
-		}
-	}
-
-	private static boolean tryToReplaceMapContent(final Map<Object, Object> target,
-												  final Map<Object, Object> value)
-	{
-		if (target == null)
-		{
-			return false;
-		}
-		try
-		{
-			target.clear();
-			target.putAll(value);
-			return true;
-		}
-		catch (final Exception unmodifiable)
-		{
-			logger.debug("Failed to replace content of existing Map", unmodifiable);
-			return false;
-		}
-	}
-
 	public Class<?> getType()
 	{
 		return this.type;
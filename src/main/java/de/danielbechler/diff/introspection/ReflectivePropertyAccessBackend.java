@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Method;
+
+/**
+ * The default {@link PropertyAccessBackend}, which simply invokes getters and setters via {@link
+ * Method#invoke(Object, Object...)}. It works for every method and is therefore also used as fallback whenever a
+ * custom backend can't handle a given method.
+ *
+ * @author Daniel Bechler
+ */
+public class ReflectivePropertyAccessBackend implements PropertyAccessBackend
+{
+	public PropertyReader createReader(final Method readMethod)
+	{
+		Assert.notNull(readMethod, "readMethod");
+		return new ReflectivePropertyReader(readMethod);
+	}
+
+	public PropertyWriter createWriter(final Method writeMethod)
+	{
+		Assert.notNull(writeMethod, "writeMethod");
+		return new ReflectivePropertyWriter(writeMethod);
+	}
+
+	private static final class ReflectivePropertyReader implements PropertyReader
+	{
+		private final Method readMethod;
+
+		private ReflectivePropertyReader(final Method readMethod)
+		{
+			this.readMethod = readMethod;
+		}
+
+		public Object read(final Object target) throws Exception
+		{
+			return readMethod.invoke(target);
+		}
+	}
+
+	private static final class ReflectivePropertyWriter implements PropertyWriter
+	{
+		private final Method writeMethod;
+
+		private ReflectivePropertyWriter(final Method writeMethod)
+		{
+			this.writeMethod = writeMethod;
+		}
+
+		public void write(final Object target, final Object value) throws Exception
+		{
+			writeMethod.invoke(target, value);
+		}
+	}
+}
@@ -34,6 +34,22 @@ import java.lang.reflect.Method;
  */
 public class StandardIntrospector implements de.danielbechler.diff.introspection.Introspector
 {
+	private final PropertyAccessBackend propertyAccessBackend;
+
+	public StandardIntrospector()
+	{
+		this(new ReflectivePropertyAccessBackend());
+	}
+
+	/**
+	 * @param propertyAccessBackend Used to create the readers and writers of the introspected properties.
+	 */
+	public StandardIntrospector(final PropertyAccessBackend propertyAccessBackend)
+	{
+		Assert.notNull(propertyAccessBackend, "propertyAccessBackend");
+		this.propertyAccessBackend = propertyAccessBackend;
+	}
+
 	public TypeInfo introspect(final Class<?> type)
 	{
 		Assert.notNull(type, "type");
@@ -60,7 +76,7 @@ public class StandardIntrospector implements de.danielbechler.diff.introspection
 			final String propertyName = descriptor.getName();
 			final Method readMethod = descriptor.getReadMethod();
 			final Method writeMethod = descriptor.getWriteMethod();
-			final PropertyAwareAccessor accessor = new PropertyAccessor(propertyName, readMethod, writeMethod);
+			final PropertyAwareAccessor accessor = new PropertyAccessor(propertyName, readMethod, writeMethod, propertyAccessBackend);
 			typeInfo.addPropertyAccessor(accessor);
 		}
 		return typeInfo;
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the {@link TypeInfo} returned by an {@link Introspector} for a given type, so each type only needs to be
+ * introspected once. It is safe to be used by multiple threads concurrently.
+ * <p/>
+ * The cache only holds weak references to the introspected types, so it never prevents classes (and therefore their
+ * class loaders) from being garbage collected. Since a type info strongly references its type (e.g. via the methods of
+ * its accessors), it can't be held softly, unless the type can't be unloaded before the cache itself anyway. That's
+ * the case for types loaded by the class loader of the cache or one of its parents. The type infos of all other types
+ * (e.g. those loaded by the class loader of a web application or plugin) are only held weakly, so they don't outlive
+ * the comparison that needed them.
+ * <p/>
+ * Additionally the number of entries is limited to the configured maximum size. Once the limit is exceeded, the
+ * oldest entries get evicted first. A maximum size of <code>0</code> disables caching completely.
+ *
+ * @author Daniel Bechler
+ */
+public class TypeInfoCache
+{
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private final int maximumSize;
+	private final ConcurrentMap<Key, Reference<TypeInfo>> entries = new ConcurrentHashMap<Key, Reference<TypeInfo>>();
+	private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<Key>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicInteger queuedKeyCount = new AtomicInteger();
+	private final AtomicBoolean droppingStaleKeys = new AtomicBoolean();
+	private final ReferenceQueue<Class<?>> collectedTypes = new ReferenceQueue<Class<?>>();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public TypeInfoCache()
+	{
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * @param maximumSize The maximum number of type infos to keep. <code>0</code> disables the cache.
+	 */
+	public TypeInfoCache(final int maximumSize)
+	{
+		if (maximumSize < 0)
+		{
+			throw new IllegalArgumentException("The maximum size must not be negative");
+		}
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * @return The cached {@link TypeInfo} created by the given introspector for the given type or <code>null</code>
+	 * if there is none.
+	 */
+	public TypeInfo get(final Introspector introspector, final Class<?> type)
+	{
+		Assert.notNull(introspector, "introspector");
+		Assert.notNull(type, "type");
+		final Reference<TypeInfo> reference = entries.get(new Key(introspector, type, null));
+		final TypeInfo typeInfo = reference != null ? reference.get() : null;
+		if (typeInfo != null)
+		{
+			hitCount.incrementAndGet();
+		}
+		else
+		{
+			missCount.incrementAndGet();
+		}
+		return typeInfo;
+	}
+
+	/**
+	 * Stores the given {@link TypeInfo} as result of the introspection of the given type via the given introspector.
+	 */
+	public void put(final Introspector introspector, final Class<?> type, final TypeInfo typeInfo)
+	{
+		Assert.notNull(introspector, "introspector");
+		Assert.notNull(type, "type");
+		Assert.notNull(typeInfo, "typeInfo");
+		if (maximumSize == 0)
+		{
+			return;
+		}
+		expungeCollectedTypes();
+		dropStaleKeys();
+		final Key key = new Key(introspector, type, collectedTypes);
+		final Reference<TypeInfo> reference;
+		if (outlivesCache(type))
+		{
+			reference = new SoftReference<TypeInfo>(typeInfo);
+		}
+		else
+		{
+			reference = new WeakReference<TypeInfo>(typeInfo);
+		}
+		final Reference<TypeInfo> previousReference = entries.putIfAbsent(key, reference);
+		if (previousReference == null)
+		{
+			size.incrementAndGet();
+			insertionOrder.add(key);
+			queuedKeyCount.incrementAndGet();
+			evictEldestEntries();
+		}
+		else
+		{
+			// the previous type info may have been garbage collected or replaced by a concurrent thread,
+			// either way the key is already known and keeps its position in the insertion order
+			entries.replace(key, previousReference, reference);
+		}
+	}
+
+	/**
+	 * Removes all entries. The statistics remain untouched.
+	 */
+	public void clear()
+	{
+		entries.clear();
+		insertionOrder.clear();
+		size.set(0);
+		queuedKeyCount.set(0);
+	}
+
+	/**
+	 * @return <code>true</code> if the given type has been loaded by the class loader of the cache or one of its
+	 * parents, so it can't be garbage collected before the cache.
+	 */
+	private static boolean outlivesCache(final Class<?> type)
+	{
+		return Classes.outlivesClassLoader(type, TypeInfoCache.class.getClassLoader());
+	}
+
+	/**
+	 * Keys whose entries have already been removed (because their type has been garbage collected) are simply
+	 * skipped.
+	 */
+	private void evictEldestEntries()
+	{
+		while (size.get() > maximumSize)
+		{
+			final Key eldestKey = insertionOrder.poll();
+			if (eldestKey == null)
+			{
+				return;
+			}
+			queuedKeyCount.decrementAndGet();
+			if (entries.remove(eldestKey) != null)
+			{
+				size.decrementAndGet();
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * The keys of collected types remain in the insertion order until they get polled for eviction. Caches that
+	 * never reach their maximum size would collect them forever, so they get dropped in one go once they make up
+	 * the majority of the insertion order.
+	 */
+	private void dropStaleKeys()
+	{
+		if (queuedKeyCount.get() <= 2 * size.get() + 1 || !droppingStaleKeys.compareAndSet(false, true))
+		{
+			return;
+		}
+		try
+		{
+			final Iterator<Key> iterator = insertionOrder.iterator();
+			while (iterator.hasNext())
+			{
+				if (!entries.containsKey(iterator.next()))
+				{
+					iterator.remove();
+					queuedKeyCount.decrementAndGet();
+				}
+			}
+		}
+		finally
+		{
+			droppingStaleKeys.set(false);
+		}
+	}
+
+	private void expungeCollectedTypes()
+	{
+		Reference<? extends Class<?>> reference;
+		while ((reference = collectedTypes.poll()) != null)
+		{
+			if (entries.remove(reference) != null)
+			{
+				size.decrementAndGet();
+			}
+		}
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	/**
+	 * @return The number of cached entries. May include entries whose type has already been garbage collected.
+	 */
+	public int size()
+	{
+		return size.get();
+	}
+
+	/**
+	 * @return The number of lookups that returned a cached type info.
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * @return The number of lookups that didn't return a cached type info.
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * @return The number of entries that have been removed to stay within the maximum size.
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder("TypeInfoCache{");
+		sb.append("size=").append(size());
+		sb.append(", maximumSize=").append(maximumSize);
+		sb.append(", hitCount=").append(getHitCount());
+		sb.append(", missCount=").append(getMissCount());
+		sb.append(", evictionCount=").append(getEvictionCount());
+		sb.append('}');
+		return sb.toString();
+	}
+
+	private static final class Key extends WeakReference<Class<?>>
+	{
+		private final Introspector introspector;
+		private final int hashCode;
+
+		private Key(final Introspector introspector, final Class<?> type, final ReferenceQueue<Class<?>> queue)
+		{
+			super(type, queue);
+			this.introspector = introspector;
+			this.hashCode = 31 * System.identityHashCode(type) + introspector.hashCode();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			final Key that = (Key) o;
+			final Class<?> type = get();
+			return type != null && type == that.get() && introspector.equals(that.introspector);
+		}
+	}
+}
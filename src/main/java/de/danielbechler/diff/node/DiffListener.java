@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.path.NodePath;
+
+/**
+ * Receives the changes found by {@link de.danielbechler.diff.ObjectDiffer#compare(Object, Object, DiffListener)} as
+ * soon as they are discovered. In contrast to the regular comparison no {@link DiffNode} tree gets built, so the
+ * memory needed for a comparison only depends on the depth of the compared object graph, not on its size.
+ * <p/>
+ * Only nodes that have been added, removed, changed or turned out to be circular are reported, as long as nodes with
+ * that state are {@linkplain de.danielbechler.diff.filtering.FilteringConfigurer returnable}. Nodes that would only be
+ * marked as changed because of changes of their children, are not reported themselves. Every node is reported once
+ * its comparison is complete, so children are always reported before their parents.
+ * <p/>
+ * When parallel comparison is enabled, the listener gets called from multiple threads and needs to be thread-safe.
+ *
+ * @author Daniel Bechler
+ */
+public interface DiffListener
+{
+	/**
+	 * @param path    The path of the added value.
+	 * @param working The added value.
+	 */
+	void onAdded(NodePath path, Object working);
+
+	/**
+	 * @param path The path of the removed value.
+	 * @param base The removed value.
+	 */
+	void onRemoved(NodePath path, Object base);
+
+	/**
+	 * @param path    The path of the changed value.
+	 * @param working The new value.
+	 * @param base    The previous value.
+	 */
+	void onChanged(NodePath path, Object working, Object base);
+
+	/**
+	 * @param path            The path at which the circular reference has been detected.
+	 * @param circleStartPath The path at which the referenced object has been encountered first.
+	 */
+	void onCircular(NodePath path, NodePath circleStartPath);
+}
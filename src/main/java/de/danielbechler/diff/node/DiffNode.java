@@ -32,14 +32,13 @@ import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.unmodifiableSet;
 
@@ -58,21 +57,38 @@ public class DiffNode
 {
 	public static final DiffNode ROOT = null;
 
-	private final Accessor accessor;
-	private final Map<ElementSelector, DiffNode> children = new LinkedHashMap<ElementSelector, DiffNode>(10);
+	private static final Collection<String> NO_CATEGORIES = Collections.emptySet();
 
+	/*
+	 * Large comparisons can easily produce millions of nodes, most of them leaves. To keep their footprint small,
+	 * everything that isn't needed by every node gets allocated lazily: the children (along with the summary of
+	 * their changes), the additional categories and the rarely used properties kept in the Extras.
+	 */
+	private final Accessor accessor;
+	private DiffNodeChildren children;
 	private State state = State.UNTOUCHED;
 	private DiffNode parentNode;
-	private NodePath circleStartPath;
-	private DiffNode circleStartNode;
+	private NodePath path;
 	private Class<?> valueType;
-	private TypeInfo valueTypeInfo;
-	private IdentityStrategy childIdentityStrategy;
-	private final Collection<String> additionalCategories = new TreeSet<String>();
+	private Collection<String> additionalCategories = NO_CATEGORIES;
+	private Extras extras;
+	private boolean attachedToParent;
 
 	public void setChildIdentityStrategy(final IdentityStrategy identityStrategy)
 	{
-		this.childIdentityStrategy = identityStrategy;
+		if (identityStrategy != null || extras != null)
+		{
+			extras().childIdentityStrategy = identityStrategy;
+		}
+	}
+
+	private Extras extras()
+	{
+		if (extras == null)
+		{
+			extras = new Extras();
+		}
+		return extras;
 	}
 
 	public static DiffNode newRootNode()
@@ -120,7 +136,20 @@ public class DiffNode
 	public void setState(final State state)
 	{
 		Assert.notNull(state, "state");
+		final State previousState = this.state;
 		this.state = state;
+		if (attachedToParent && previousState != state)
+		{
+			parentNode.addToDescendantCounts(
+					countOf(state, State.ADDED) - countOf(previousState, State.ADDED),
+					countOf(state, State.REMOVED) - countOf(previousState, State.REMOVED),
+					countOf(state, State.CHANGED) - countOf(previousState, State.CHANGED));
+		}
+	}
+
+	private static int countOf(final State state, final State countedState)
+	{
+		return state == countedState ? 1 : 0;
 	}
 
 	public boolean matches(final NodePath path)
@@ -128,25 +157,53 @@ public class DiffNode
 		return path.matches(getPath());
 	}
 
+	/**
+	 * @return <code>true</code> if this node or any of its descendants has been added, removed or changed.
+	 */
 	public boolean hasChanges()
 	{
 		if (isAdded() || isChanged() || isRemoved())
 		{
 			return true;
 		}
-		final AtomicBoolean result = new AtomicBoolean(false);
-		visitChildren(new Visitor()
-		{
-			public void node(final DiffNode node, final Visit visit)
-			{
-				if (node.hasChanges())
-				{
-					result.set(true);
-					visit.stop();
-				}
-			}
-		});
-		return result.get();
+		return children != null
+				&& (children.addedDescendantCount > 0
+				|| children.removedDescendantCount > 0
+				|| children.changedDescendantCount > 0);
+	}
+
+	/**
+	 * @return The number of descendants of this node in state {@link DiffNode.State#ADDED}.
+	 */
+	public int getAddedDescendantCount()
+	{
+		return children != null ? children.addedDescendantCount : 0;
+	}
+
+	/**
+	 * @return The number of descendants of this node in state {@link DiffNode.State#REMOVED}.
+	 */
+	public int getRemovedDescendantCount()
+	{
+		return children != null ? children.removedDescendantCount : 0;
+	}
+
+	/**
+	 * @return The number of descendants of this node in state {@link DiffNode.State#CHANGED}. This includes
+	 * descendants that are only marked as changed, because some of their own descendants have changed.
+	 */
+	public int getChangedDescendantCount()
+	{
+		return children != null ? children.changedDescendantCount : 0;
+	}
+
+	/**
+	 * @return The number of levels below this node, so <code>0</code> for nodes without children, <code>1</code> for
+	 * nodes that only have children without children of their own and so on.
+	 */
+	public int getMaximumDepth()
+	{
+		return children != null ? children.maximumDepth : 0;
 	}
 
 	/**
@@ -194,20 +251,37 @@ public class DiffNode
 	 */
 	public NodePath getPath()
 	{
-		if (parentNode != null)
+		NodePath nodePath = path;
+		if (nodePath == null)
 		{
-			return NodePath.startBuildingFrom(parentNode.getPath())
-					.element(accessor.getElementSelector())
-					.build();
-		}
-		else if (accessor instanceof RootAccessor)
-		{
-			return NodePath.withRoot();
-		}
-		else
-		{
-			return NodePath.startBuilding().element(accessor.getElementSelector()).build();
+			if (parentNode == null)
+			{
+				nodePath = accessor instanceof RootAccessor
+						? NodePath.withRoot()
+						: NodePath.startBuilding().element(accessor.getElementSelector()).build();
+				path = nodePath;
+			}
+			else
+			{
+				// walk up to the closest ancestor that knows its path (or has no parent) and then back down,
+				// instead of recursing through all ancestors
+				final List<DiffNode> nodesWithoutPath = new ArrayList<DiffNode>();
+				DiffNode node = this;
+				while (node.path == null && node.parentNode != null)
+				{
+					nodesWithoutPath.add(node);
+					node = node.parentNode;
+				}
+				nodePath = node.getPath();
+				for (int i = nodesWithoutPath.size() - 1; i >= 0; i--)
+				{
+					final DiffNode descendant = nodesWithoutPath.get(i);
+					nodePath = nodePath.append(descendant.accessor.getElementSelector());
+					descendant.path = nodePath;
+				}
+			}
 		}
+		return nodePath;
 	}
 
 	public ElementSelector getElementSelector()
@@ -224,6 +298,7 @@ public class DiffNode
 		{
 			return valueType;
 		}
+		final TypeInfo valueTypeInfo = getValueTypeInfo();
 		if (valueTypeInfo != null)
 		{
 			return valueTypeInfo.getType();
@@ -248,12 +323,15 @@ public class DiffNode
 
 	public TypeInfo getValueTypeInfo()
 	{
-		return valueTypeInfo;
+		return extras != null ? extras.valueTypeInfo : null;
 	}
 
 	public void setValueTypeInfo(final TypeInfo typeInfo)
 	{
-		this.valueTypeInfo = typeInfo;
+		if (typeInfo != null || extras != null)
+		{
+			extras().valueTypeInfo = typeInfo;
+		}
 	}
 
 	/**
@@ -261,12 +339,12 @@ public class DiffNode
 	 */
 	public boolean hasChildren()
 	{
-		return !children.isEmpty();
+		return children != null && children.size() > 0;
 	}
 
 	public int childCount()
 	{
-		return children.size();
+		return children != null ? children.size() : 0;
 	}
 
 	/**
@@ -288,6 +366,11 @@ public class DiffNode
 	 */
 	public DiffNode getChild(final ElementSelector elementSelector)
 	{
+		if (children == null)
+		{
+			return null;
+		}
+		final IdentityStrategy childIdentityStrategy = extras != null ? extras.childIdentityStrategy : null;
 		if (elementSelector instanceof CollectionItemElementSelector && childIdentityStrategy != null)
 		{
 			return children.get(((CollectionItemElementSelector) elementSelector).copyWithIdentityStrategy(childIdentityStrategy));
@@ -325,35 +408,20 @@ public class DiffNode
 	public DiffNode getChild(final List<ElementSelector> selectors)
 	{
 		Assert.notEmpty(selectors, "selectors");
-		final ElementSelector selector = selectors.get(0);
-		if (selectors.size() == 1)
+		DiffNode node = this;
+		for (int i = 0; i < selectors.size() && node != null; i++)
 		{
+			final ElementSelector selector = selectors.get(i);
 			if (selector == RootElementSelector.getInstance())
 			{
-				return isRootNode() ? this : null;
+				node = node.isRootNode() ? node : null;
 			}
 			else
 			{
-				return getChild(selector);
+				node = node.getChild(selector);
 			}
 		}
-		else if (selectors.size() > 1)
-		{
-			final DiffNode child;
-			if (selector == RootElementSelector.getInstance())
-			{
-				child = isRootNode() ? this : null;
-			}
-			else
-			{
-				child = getChild(selector);
-			}
-			if (child != null)
-			{
-				return child.getChild(selectors.subList(1, selectors.size()));
-			}
-		}
-		return null;
+		return node;
 	}
 
 	/**
@@ -383,10 +451,98 @@ public class DiffNode
 		{
 			node.setParentNode(this);
 		}
-		children.put(node.getElementSelector(), node);
+		if (children == null)
+		{
+			children = new DiffNodeChildren();
+		}
+		final DiffNode previousChild = children.put(node.getElementSelector(), node);
+		if (previousChild != node)
+		{
+			if (previousChild != null)
+			{
+				previousChild.attachedToParent = false;
+				addToDescendantCounts(-previousChild.getAddedCount(),
+						-previousChild.getRemovedCount(),
+						-previousChild.getChangedCount());
+			}
+			node.attachedToParent = true;
+			addToDescendantCounts(node.getAddedCount(), node.getRemovedCount(), node.getChangedCount());
+			if (previousChild != null && previousChild.getMaximumDepth() + 1 == children.maximumDepth)
+			{
+				recalculateMaximumDepth();
+			}
+			else
+			{
+				increaseMaximumDepth(node.getMaximumDepth() + 1);
+			}
+		}
 		if (state == State.UNTOUCHED && node.hasChanges())
 		{
-			state = State.CHANGED;
+			setState(State.CHANGED);
+		}
+	}
+
+	/**
+	 * The summary of changes is maintained bottom-up: every change to the state or children of a node gets applied
+	 * to all ancestors it is attached to right away. As the tree is usually built from the leaves up, this typically
+	 * only affects a single parent. The summary lives in the {@link DiffNodeChildren}, which every node that is
+	 * attached to a parent is guaranteed to have.
+	 */
+	private void addToDescendantCounts(final int added, final int removed, final int changed)
+	{
+		DiffNode node = this;
+		while (node != null)
+		{
+			node.children.addedDescendantCount += added;
+			node.children.removedDescendantCount += removed;
+			node.children.changedDescendantCount += changed;
+			node = node.attachedToParent ? node.parentNode : null;
+		}
+	}
+
+	private int getAddedCount()
+	{
+		return getAddedDescendantCount() + countOf(state, State.ADDED);
+	}
+
+	private int getRemovedCount()
+	{
+		return getRemovedDescendantCount() + countOf(state, State.REMOVED);
+	}
+
+	private int getChangedCount()
+	{
+		return getChangedDescendantCount() + countOf(state, State.CHANGED);
+	}
+
+	private void increaseMaximumDepth(final int depth)
+	{
+		DiffNode node = this;
+		int candidateDepth = depth;
+		while (node != null && candidateDepth > node.children.maximumDepth)
+		{
+			node.children.maximumDepth = candidateDepth;
+			candidateDepth++;
+			node = node.attachedToParent ? node.parentNode : null;
+		}
+	}
+
+	private void recalculateMaximumDepth()
+	{
+		DiffNode node = this;
+		while (node != null)
+		{
+			int depth = 0;
+			for (final DiffNode child : node.children.values())
+			{
+				depth = Math.max(depth, child.getMaximumDepth() + 1);
+			}
+			if (depth == node.children.maximumDepth)
+			{
+				return;
+			}
+			node.children.maximumDepth = depth;
+			node = node.attachedToParent ? node.parentNode : null;
 		}
 	}
 
@@ -409,15 +565,7 @@ public class DiffNode
 
 	protected final void visit(final Visitor visitor, final Visit visit)
 	{
-		try
-		{
-			visitor.node(this, visit);
-		}
-		catch (final StopVisitationException e)
-		{
-			visit.stop();
-		}
-		if (visit.isAllowedToGoDeeper() && hasChildren())
+		if (accept(visitor, this, visit))
 		{
 			visitChildren(visitor);
 		}
@@ -428,35 +576,65 @@ public class DiffNode
 	}
 
 	/**
-	 * Visit all child nodes but not this one.
+	 * Visit all child nodes but not this one. The descendants are visited depth-first in the order they have been
+	 * added, just like a recursive traversal would do it, but without using more stack the deeper the tree gets.
+	 * Every node gets its own {@link Visit}, so stopping the visit of a node only keeps the visitor from going
+	 * deeper into that node.
 	 *
 	 * @param visitor The visitor to use.
 	 */
 	public final void visitChildren(final Visitor visitor)
 	{
-		for (final DiffNode child : children.values())
+		if (children == null)
+		{
+			return;
+		}
+		final List<Iterator<DiffNode>> stack = new ArrayList<Iterator<DiffNode>>();
+		stack.add(children.values().iterator());
+		while (!stack.isEmpty())
 		{
-			try
+			final Iterator<DiffNode> iterator = stack.get(stack.size() - 1);
+			if (!iterator.hasNext())
 			{
-				child.visit(visitor);
+				stack.remove(stack.size() - 1);
+				continue;
 			}
-			catch (final StopVisitationException e)
+			final DiffNode child = iterator.next();
+			if (accept(visitor, child, new Visit()))
 			{
-				return;
+				stack.add(child.children.values().iterator());
 			}
 		}
 	}
 
+	/**
+	 * @return <code>true</code> if the visitor wants to go deeper into the given node and it has children to go to.
+	 */
+	private static boolean accept(final Visitor visitor, final DiffNode node, final Visit visit)
+	{
+		try
+		{
+			visitor.node(node, visit);
+		}
+		catch (final StopVisitationException e)
+		{
+			visit.stop();
+		}
+		return visit.isAllowedToGoDeeper() && node.hasChildren();
+	}
+
 	public final void visitParents(final Visitor visitor)
 	{
-		final Visit visit = new Visit();
-		if (parentNode != null)
+		DiffNode node = parentNode;
+		while (node != null)
 		{
-			visitor.node(parentNode, visit);
-			if (!visit.isStopped())
+			final Visit visit = new Visit();
+			visitor.node(node, visit);
+			if (visit.isStopped())
 			{
-				parentNode.visitParents(visitor);
+				return;
 			}
+			node = node.parentNode;
 		}
 	}
 
@@ -524,13 +702,14 @@ public class DiffNode
 	 */
 	public String getPropertyName()
 	{
-		if (isPropertyAware())
-		{
-			return ((PropertyAwareAccessor) accessor).getPropertyName();
-		}
-		else if (parentNode != null)
+		DiffNode node = this;
+		while (node != null)
 		{
-			return parentNode.getPropertyName();
+			if (node.isPropertyAware())
+			{
+				return ((PropertyAwareAccessor) node.accessor).getPropertyName();
+			}
+			node = node.parentNode;
 		}
 		return null;
 	}
@@ -583,19 +762,20 @@ public class DiffNode
 	public final Set<String> getCategories()
 	{
 		final Set<String> categories = new TreeSet<String>();
-		if (parentNode != null)
+		DiffNode node = this;
+		while (node != null)
 		{
-			categories.addAll(parentNode.getCategories());
-		}
-		if (accessor instanceof CategoryAware)
-		{
-			final Set<String> categoriesFromAccessor = ((CategoryAware) accessor).getCategoriesFromAnnotation();
-			if (categoriesFromAccessor != null)
+			if (node.accessor instanceof CategoryAware)
 			{
-				categories.addAll(categoriesFromAccessor);
+				final Set<String> categoriesFromAccessor = ((CategoryAware) node.accessor).getCategoriesFromAnnotation();
+				if (categoriesFromAccessor != null)
+				{
+					categories.addAll(categoriesFromAccessor);
+				}
 			}
+			categories.addAll(node.additionalCategories);
+			node = node.parentNode;
 		}
-		categories.addAll(additionalCategories);
 
 		return unmodifiableSet(categories);
 	}
@@ -620,6 +800,7 @@ public class DiffNode
 			throw new IllegalStateException("The parent of a node cannot be changed, once it's set.");
 		}
 		this.parentNode = parentNode;
+		this.path = null;
 	}
 
 	public Object get(final Object target)
@@ -637,32 +818,53 @@ public class DiffNode
 		accessor.unset(target);
 	}
 
-	public Object canonicalGet(Object target)
+	public Object canonicalGet(final Object target)
 	{
-		if (parentNode != null)
+		Object value = target;
+		for (final DiffNode node : pathFromRoot())
 		{
-			target = parentNode.canonicalGet(target);
+			value = node.get(value);
 		}
-		return get(target);
+		return value;
 	}
 
-	public void canonicalSet(Object target, final Object value)
+	public void canonicalSet(final Object target, final Object value)
 	{
-		if (parentNode != null)
+		final List<DiffNode> nodes = pathFromRoot();
+		Object parent = target;
+		for (int i = 0; i < nodes.size() - 1; i++)
 		{
-			Object parent = parentNode.canonicalGet(target);
-			if (parent == null)
+			final DiffNode node = nodes.get(i);
+			Object child = node.get(parent);
+			if (child == null)
 			{
-				parent = parentNode.newInstance();
-				parentNode.canonicalSet(target, parent);
+				child = node.newInstance();
+				node.set(parent, child);
 			}
-			target = parent;
+			parent = child;
 		}
-		set(target, value);
+		set(parent, value);
+	}
+
+	/**
+	 * @return All nodes from the topmost ancestor down to this one.
+	 */
+	private List<DiffNode> pathFromRoot()
+	{
+		final List<DiffNode> nodes = new ArrayList<DiffNode>();
+		DiffNode node = this;
+		while (node != null)
+		{
+			nodes.add(node);
+			node = node.parentNode;
+		}
+		Collections.reverse(nodes);
+		return nodes;
 	}
 
 	private Object newInstance()
 	{
+		final TypeInfo valueTypeInfo = getValueTypeInfo();
 		if (valueTypeInfo != null)
 		{
 			return valueTypeInfo.newInstance();
@@ -670,13 +872,9 @@ public class DiffNode
 		return null;
 	}
 
-	public void canonicalUnset(Object target)
+	public void canonicalUnset(final Object target)
 	{
-		if (parentNode != null)
-		{
-			target = parentNode.canonicalGet(target);
-		}
-		unset(target);
+		unset(parentNode != null ? parentNode.canonicalGet(target) : target);
 	}
 
 	@Override
@@ -743,6 +941,14 @@ public class DiffNode
 	public void addCategories(final Collection<String> additionalCategories)
 	{
 		Assert.notNull(additionalCategories, "additionalCategories");
+		if (additionalCategories.isEmpty())
+		{
+			return;
+		}
+		if (this.additionalCategories == NO_CATEGORIES)
+		{
+			this.additionalCategories = new TreeSet<String>();
+		}
 		this.additionalCategories.addAll(additionalCategories);
 	}
 
@@ -752,22 +958,39 @@ public class DiffNode
 	 */
 	public NodePath getCircleStartPath()
 	{
-		return circleStartPath;
+		return extras != null ? extras.circleStartPath : null;
 	}
 
 	public void setCircleStartPath(final NodePath circularStartPath)
 	{
-		this.circleStartPath = circularStartPath;
+		if (circularStartPath != null || extras != null)
+		{
+			extras().circleStartPath = circularStartPath;
+		}
 	}
 
 	public DiffNode getCircleStartNode()
 	{
-		return circleStartNode;
+		return extras != null ? extras.circleStartNode : null;
 	}
 
 	public void setCircleStartNode(final DiffNode circleStartNode)
 	{
-		this.circleStartNode = circleStartNode;
+		if (circleStartNode != null || extras != null)
+		{
+			extras().circleStartNode = circleStartNode;
+		}
+	}
+
+	/**
+	 * Properties only few nodes ever need, so they don't take up space in all the others.
+	 */
+	private static final class Extras
+	{
+		private NodePath circleStartPath;
+		private DiffNode circleStartNode;
+		private TypeInfo valueTypeInfo;
+		private IdentityStrategy childIdentityStrategy;
 	}
 
 	/**
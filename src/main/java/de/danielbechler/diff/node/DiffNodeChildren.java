@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.selector.CollectionItemElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The children of a {@link DiffNode}, along with the summary of the changes below it. Most nodes only have a handful
+ * of children, so up to {@link #ARRAY_THRESHOLD} of them are kept in plain arrays and found via linear search. Only
+ * nodes with more children switch to a {@link LinkedHashMap}. Either way the children are kept in insertion order and
+ * looked up with the same semantics as a hash map, so selectors are only compared via <code>equals</code> if their
+ * hash codes match.
+ * <p/>
+ * Since {@link CollectionItemElementSelector CollectionItemElementSelectors} share a constant hash code, the map
+ * hashes them via {@link CollectionItemElementSelector#identityHashCode()} instead, as long as all of them use the same
+ * identity strategy (which is the case for the children of any collection node). Lookups via selectors using another
+ * strategy fall back to a linear search and once such a selector gets added, all of them are hashed regularly.
+ * <p/>
+ * Only nodes that actually have children get an instance of this class, which saves leaf nodes from paying for
+ * things they never need.
+ *
+ * @author Daniel Bechler
+ */
+final class DiffNodeChildren
+{
+	static final int ARRAY_THRESHOLD = 8;
+	private static final int INITIAL_ARRAY_CAPACITY = 2;
+
+	private ElementSelector[] selectors = new ElementSelector[INITIAL_ARRAY_CAPACITY];
+	private DiffNode[] nodes = new DiffNode[INITIAL_ARRAY_CAPACITY];
+	private int[] hashCodes = new int[INITIAL_ARRAY_CAPACITY];
+	private int size;
+	private Map<ChildKey, DiffNode> map;
+	private CollectionItemElementSelector hashedItemSelector;
+	private boolean hashingItemsByIdentity = true;
+
+	int addedDescendantCount;
+	int removedDescendantCount;
+	int changedDescendantCount;
+	int maximumDepth;
+
+	DiffNode get(final ElementSelector selector)
+	{
+		if (map != null)
+		{
+			if (usesOtherIdentityStrategy(selector))
+			{
+				return find(selector);
+			}
+			return map.get(new ChildKey(selector, hashingItemsByIdentity));
+		}
+		final int index = indexOf(selector);
+		return index >= 0 ? nodes[index] : null;
+	}
+
+	/**
+	 * @return The child previously stored for an equal selector or <code>null</code>. Just like with a {@link
+	 * LinkedHashMap}, replacing a child keeps the original selector and position.
+	 */
+	DiffNode put(final ElementSelector selector, final DiffNode node)
+	{
+		if (map != null)
+		{
+			return putIntoMap(selector, node);
+		}
+		final int index = indexOf(selector);
+		if (index >= 0)
+		{
+			final DiffNode previousNode = nodes[index];
+			nodes[index] = node;
+			return previousNode;
+		}
+		if (size == ARRAY_THRESHOLD)
+		{
+			switchToMap();
+			return putIntoMap(selector, node);
+		}
+		if (size == nodes.length)
+		{
+			grow(Math.min(size * 2, ARRAY_THRESHOLD));
+		}
+		selectors[size] = selector;
+		nodes[size] = node;
+		hashCodes[size] = hashCodeOf(selector);
+		size++;
+		return null;
+	}
+
+	private void grow(final int capacity)
+	{
+		final ElementSelector[] newSelectors = new ElementSelector[capacity];
+		final DiffNode[] newNodes = new DiffNode[capacity];
+		final int[] newHashCodes = new int[capacity];
+		System.arraycopy(selectors, 0, newSelectors, 0, size);
+		System.arraycopy(nodes, 0, newNodes, 0, size);
+		System.arraycopy(hashCodes, 0, newHashCodes, 0, size);
+		selectors = newSelectors;
+		nodes = newNodes;
+		hashCodes = newHashCodes;
+	}
+
+	private int indexOf(final ElementSelector selector)
+	{
+		final int hashCode = hashCodeOf(selector);
+		for (int i = 0; i < size; i++)
+		{
+			final ElementSelector candidate = selectors[i];
+			if (candidate == selector || (hashCodes[i] == hashCode && selector != null && selector.equals(candidate)))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int hashCodeOf(final ElementSelector selector)
+	{
+		return selector != null ? selector.hashCode() : 0;
+	}
+
+	private void switchToMap()
+	{
+		map = new LinkedHashMap<ChildKey, DiffNode>(ARRAY_THRESHOLD * 4);
+		final ElementSelector[] arraySelectors = selectors;
+		final DiffNode[] arrayNodes = nodes;
+		final int arraySize = size;
+		selectors = null;
+		nodes = null;
+		hashCodes = null;
+		size = 0;
+		for (int i = 0; i < arraySize; i++)
+		{
+			putIntoMap(arraySelectors[i], arrayNodes[i]);
+		}
+	}
+
+	private DiffNode putIntoMap(final ElementSelector selector, final DiffNode node)
+	{
+		if (usesOtherIdentityStrategy(selector))
+		{
+			stopHashingItemsByIdentity();
+		}
+		else if (hashedItemSelector == null && selector instanceof CollectionItemElementSelector)
+		{
+			hashedItemSelector = (CollectionItemElementSelector) selector;
+		}
+		return map.put(new ChildKey(selector, hashingItemsByIdentity), node);
+	}
+
+	/**
+	 * @return <code>true</code> if the given selector can't be hashed like the collection item selectors in the map.
+	 */
+	private boolean usesOtherIdentityStrategy(final ElementSelector selector)
+	{
+		return hashingItemsByIdentity
+				&& hashedItemSelector != null
+				&& selector instanceof CollectionItemElementSelector
+				&& !((CollectionItemElementSelector) selector).hasSameIdentityStrategyAs(hashedItemSelector);
+	}
+
+	private void stopHashingItemsByIdentity()
+	{
+		hashingItemsByIdentity = false;
+		final Map<ChildKey, DiffNode> rehashedMap = new LinkedHashMap<ChildKey, DiffNode>(map.size() * 2);
+		for (final Map.Entry<ChildKey, DiffNode> entry : map.entrySet())
+		{
+			rehashedMap.put(new ChildKey(entry.getKey().selector, false), entry.getValue());
+		}
+		map = rehashedMap;
+	}
+
+	private DiffNode find(final ElementSelector selector)
+	{
+		for (final Map.Entry<ChildKey, DiffNode> entry : map.entrySet())
+		{
+			if (selector.equals(entry.getKey().selector))
+			{
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	int size()
+	{
+		return map != null ? map.size() : size;
+	}
+
+	/**
+	 * @return An unmodifiable view of the children in insertion order. The view always reflects the current storage,
+	 * even if the children have been moved to a map after it has been created.
+	 */
+	Collection<DiffNode> values()
+	{
+		return new AbstractCollection<DiffNode>()
+		{
+			@Override
+			public Iterator<DiffNode> iterator()
+			{
+				return DiffNodeChildren.this.iterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return DiffNodeChildren.this.size();
+			}
+		};
+	}
+
+	private Iterator<DiffNode> iterator()
+	{
+		if (map != null)
+		{
+			return Collections.unmodifiableCollection(map.values()).iterator();
+		}
+		return Collections.unmodifiableList(Arrays.asList(nodes).subList(0, size)).iterator();
+	}
+
+	/**
+	 * Wraps the selectors used as keys of the map, so collection item selectors can be hashed via their identity
+	 * strategy.
+	 */
+	private static final class ChildKey
+	{
+		private final ElementSelector selector;
+		private final int hashCode;
+
+		private ChildKey(final ElementSelector selector, final boolean hashingItemsByIdentity)
+		{
+			this.selector = selector;
+			if (hashingItemsByIdentity && selector instanceof CollectionItemElementSelector)
+			{
+				this.hashCode = ((CollectionItemElementSelector) selector).identityHashCode();
+			}
+			else
+			{
+				this.hashCode = hashCodeOf(selector);
+			}
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			final ChildKey that = (ChildKey) o;
+			return selector == that.selector || (selector != null && selector.equals(that.selector));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.parallel;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Allows to compare the properties of beans and the items of collections in parallel. This is disabled by default,
+ * so every comparison runs entirely on the calling thread.
+ * <p/>
+ * Once enabled, the children of every node with at least as many children as the configured threshold get compared
+ * via the given {@link Executor}. The resulting node graph is exactly the same as the one of a sequential comparison,
+ * including the order of the child nodes. Circular references are tracked separately for every parallel branch.
+ * <p/>
+ * The thread calling {@link de.danielbechler.diff.ObjectDiffer#compare(Object, Object)} always takes part in the
+ * comparison, by running every task the executor didn't start yet on its own. This way a comparison never gets stuck
+ * waiting for a busy executor, so it is perfectly fine to share a bounded thread pool between multiple differs.
+ * The lifecycle of the executor is up to the caller.
+ *
+ * @author Daniel Bechler
+ */
+public interface ParallelismConfigurer
+{
+	/**
+	 * Enables parallel comparison using the given executor.
+	 *
+	 * @param executor The executor used to run the comparison of child nodes
+	 * @throws java.lang.IllegalArgumentException when the executor is null
+	 */
+	ParallelismConfigurer enableUsing(Executor executor);
+
+	/**
+	 * Turns parallel comparison off again.
+	 */
+	ParallelismConfigurer disable();
+
+	/**
+	 * Defines the minimum number of children a node must have, before they get compared in parallel. Distributing
+	 * only a few cheap comparisons across threads is usually slower than simply doing them one after another. Defaults
+	 * to {@link ParallelismService#DEFAULT_THRESHOLD}.
+	 *
+	 * @param threshold The minimum number of children (at least 1)
+	 * @throws java.lang.IllegalArgumentException when the threshold is less than 1
+	 */
+	ParallelismConfigurer setThreshold(int threshold);
+
+	ObjectDifferBuilder and();
+}
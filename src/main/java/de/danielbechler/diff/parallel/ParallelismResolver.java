@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.parallel;
+
+import de.danielbechler.diff.node.DiffNode;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @author Daniel Bechler
+ */
+public interface ParallelismResolver
+{
+	/**
+	 * @param parentNode       The node whose children are about to be compared
+	 * @param numberOfChildren The number of children that need to be compared
+	 * @return <code>true</code> if the children should be compared in parallel
+	 */
+	boolean isParallel(DiffNode parentNode, int numberOfChildren);
+
+	/**
+	 * @return The executor used to compare child nodes in parallel or <code>null</code> if parallelism is disabled.
+	 */
+	Executor getExecutor();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.parallel;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @author Daniel Bechler
+ */
+public class ParallelismService implements ParallelismConfigurer, ParallelismResolver
+{
+	public static final int DEFAULT_THRESHOLD = 8;
+
+	private final ObjectDifferBuilder objectDifferBuilder;
+	private Executor executor;
+	private int threshold = DEFAULT_THRESHOLD;
+
+	public ParallelismService(final ObjectDifferBuilder objectDifferBuilder)
+	{
+		this.objectDifferBuilder = objectDifferBuilder;
+	}
+
+	public ParallelismConfigurer enableUsing(final Executor executor)
+	{
+		Assert.notNull(executor, "executor");
+		this.executor = executor;
+		return this;
+	}
+
+	public ParallelismConfigurer disable()
+	{
+		this.executor = null;
+		return this;
+	}
+
+	public ParallelismConfigurer setThreshold(final int threshold)
+	{
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("The threshold must be at least 1");
+		}
+		this.threshold = threshold;
+		return this;
+	}
+
+	public ObjectDifferBuilder and()
+	{
+		return objectDifferBuilder;
+	}
+
+	public boolean isParallel(final DiffNode parentNode, final int numberOfChildren)
+	{
+		return executor != null && numberOfChildren >= threshold;
+	}
+
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+}
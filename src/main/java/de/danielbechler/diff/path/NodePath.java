@@ -23,58 +23,117 @@ import de.danielbechler.diff.selector.MapKeyElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * An immutable path from the object root to a specific node. Paths are stored as linked list of element selectors,
+ * pointing from the last element to the root. This way paths can share their ancestry with their parent paths and
+ * appending an element is a constant time operation.
+ *
  * @author Daniel Bechler
  */
 public final class NodePath implements Comparable<NodePath>
 {
-	private final List<ElementSelector> elementSelectors;
+	private static final NodePath ROOT = new NodePath(null, RootElementSelector.getInstance());
+
+	private final NodePath parentPath;
+	private final ElementSelector elementSelector;
+	private final int size;
+	private final int hashCode;
 
-	private NodePath(final List<ElementSelector> elementSelectors)
+	private NodePath(final NodePath parentPath, final ElementSelector elementSelector)
 	{
-		this.elementSelectors = Collections.unmodifiableList(elementSelectors);
+		this.parentPath = parentPath;
+		this.elementSelector = elementSelector;
+		if (parentPath == null)
+		{
+			this.size = 1;
+			this.hashCode = 31 + elementSelector.hashCode();
+		}
+		else
+		{
+			this.size = parentPath.size + 1;
+			// same algorithm as java.util.List#hashCode()
+			this.hashCode = 31 * parentPath.hashCode + elementSelector.hashCode();
+		}
 	}
 
-	public boolean isParentOf(final NodePath nodePath)
+	/**
+	 * Creates a new path by appending the given element selector to this one. This path remains unchanged.
+	 *
+	 * @param elementSelector The selector of the element to append.
+	 * @return A new path pointing to the child element.
+	 */
+	public NodePath append(final ElementSelector elementSelector)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() < otherElementSelectors.size())
+		Assert.notNull(elementSelector, "elementSelector");
+		if (elementSelector instanceof RootElementSelector)
 		{
-			return otherElementSelectors.subList(0, elementSelectors.size()).equals(elementSelectors);
+			throw new IllegalStateException("A property path cannot contain multiple root elements");
 		}
-		return false;
+		return new NodePath(this, elementSelector);
+	}
+
+	/**
+	 * @return The path this one has been derived from or <code>null</code> if this is the root path.
+	 */
+	public NodePath getParentPath()
+	{
+		return parentPath;
+	}
+
+	public boolean isParentOf(final NodePath nodePath)
+	{
+		return nodePath.isChildOf(this);
 	}
 
+	/**
+	 * @return The element selectors from the root down to the last element. The list gets created on demand and
+	 * isn't retained by the path, since retaining it for every path of a deeply nested tree would take up memory
+	 * quadratic to its depth.
+	 */
 	public List<ElementSelector> getElementSelectors()
 	{
-		return elementSelectors;
+		final ElementSelector[] elements = new ElementSelector[size];
+		NodePath path = this;
+		for (int i = size - 1; i >= 0; i--)
+		{
+			elements[i] = path.elementSelector;
+			path = path.parentPath;
+		}
+		return Collections.unmodifiableList(Arrays.asList(elements));
 	}
 
 	public boolean isChildOf(final NodePath nodePath)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() > otherElementSelectors.size())
+		if (size > nodePath.size)
 		{
-			return elementSelectors.subList(0, otherElementSelectors.size()).equals(otherElementSelectors);
+			return ancestorOfSize(nodePath.size).equals(nodePath);
 		}
 		return false;
 	}
 
+	private NodePath ancestorOfSize(final int ancestorSize)
+	{
+		NodePath path = this;
+		while (path.size > ancestorSize)
+		{
+			path = path.parentPath;
+		}
+		return path;
+	}
+
 	public ElementSelector getLastElementSelector()
 	{
-		return elementSelectors.get(elementSelectors.size() - 1);
+		return elementSelector;
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return elementSelectors.hashCode();
+		return hashCode;
 	}
 
 	@Override
@@ -89,13 +148,21 @@ public final class NodePath implements Comparable<NodePath>
 			return false;
 		}
 
-		final NodePath that = (NodePath) o;
-
-		if (!elementSelectors.equals(that.elementSelectors))
+		NodePath path = this;
+		NodePath otherPath = (NodePath) o;
+		if (path.size != otherPath.size)
 		{
 			return false;
 		}
-
+		while (path != otherPath)
+		{
+			if (!path.elementSelector.equals(otherPath.elementSelector))
+			{
+				return false;
+			}
+			path = path.parentPath;
+			otherPath = otherPath.parentPath;
+		}
 		return true;
 	}
 
@@ -103,11 +170,9 @@ public final class NodePath implements Comparable<NodePath>
 	public String toString()
 	{
 		final StringBuilder sb = new StringBuilder();
-		final Iterator<ElementSelector> iterator = elementSelectors.iterator();
 		ElementSelector previousElementSelector = null;
-		while (iterator.hasNext())
+		for (final ElementSelector elementSelector : getElementSelectors())
 		{
-			final ElementSelector elementSelector = iterator.next();
 			if (elementSelector instanceof RootElementSelector)
 			{
 				sb.append("/");
@@ -132,7 +197,7 @@ public final class NodePath implements Comparable<NodePath>
 
 	public int compareTo(final NodePath that)
 	{
-		final int distance = getElementSelectors().size() - that.getElementSelectors().size();
+		final int distance = size - that.size;
 		if (distance == 0)
 		{
 			return matches(that) ? 0 : 1;
@@ -155,7 +220,7 @@ public final class NodePath implements Comparable<NodePath>
 	public static AppendableBuilder startBuildingFrom(final NodePath nodePath)
 	{
 		Assert.notNull(nodePath, "propertyPath");
-		return new AppendableBuilderImpl(new ArrayList<ElementSelector>(nodePath.getElementSelectors()));
+		return new AppendableBuilderImpl(nodePath);
 	}
 
 	public static NodePath with(final String propertyName, final String... additionalPropertyNames)
@@ -165,14 +230,12 @@ public final class NodePath implements Comparable<NodePath>
 
 	public static AppendableBuilder startBuilding()
 	{
-		final List<ElementSelector> elementSelectors1 = new LinkedList<ElementSelector>();
-		elementSelectors1.add(RootElementSelector.getInstance());
-		return new AppendableBuilderImpl(elementSelectors1);
+		return new AppendableBuilderImpl(ROOT);
 	}
 
 	public static NodePath withRoot()
 	{
-		return startBuilding().build();
+		return ROOT;
 	}
 
 	public static interface AppendableBuilder
@@ -190,73 +253,54 @@ public final class NodePath implements Comparable<NodePath>
 
 	private static final class AppendableBuilderImpl implements AppendableBuilder
 	{
-		private final List<ElementSelector> elementSelectors;
+		private NodePath nodePath;
+		private boolean containsMultipleRootElements;
 
-		public AppendableBuilderImpl(final List<ElementSelector> elementSelectors)
+		public AppendableBuilderImpl(final NodePath nodePath)
 		{
-			Assert.notEmpty(elementSelectors, "elementSelectors");
-			this.elementSelectors = new LinkedList<ElementSelector>(elementSelectors);
+			Assert.notNull(nodePath, "nodePath");
+			this.nodePath = nodePath;
 		}
 
 		public AppendableBuilder element(final ElementSelector elementSelector)
 		{
 			Assert.notNull(elementSelector, "elementSelector");
-			elementSelectors.add(elementSelector);
+			if (elementSelector instanceof RootElementSelector)
+			{
+				containsMultipleRootElements = true;
+			}
+			nodePath = new NodePath(nodePath, elementSelector);
 			return this;
 		}
 
 		public AppendableBuilder propertyName(final String name, final String... names)
 		{
-			elementSelectors.add(new BeanPropertyElementSelector(name));
+			element(new BeanPropertyElementSelector(name));
 			for (final String s : names)
 			{
-				elementSelectors.add(new BeanPropertyElementSelector(s));
+				element(new BeanPropertyElementSelector(s));
 			}
 			return this;
 		}
 
 		public <T> AppendableBuilder collectionItem(final T item)
 		{
-			elementSelectors.add(new CollectionItemElementSelector(item));
-			return this;
+			return element(new CollectionItemElementSelector(item));
 		}
 
 		public <K> AppendableBuilder mapKey(final K key)
 		{
 			Assert.notNull(key, "key");
-			elementSelectors.add(new MapKeyElementSelector(key));
-			return this;
+			return element(new MapKeyElementSelector(key));
 		}
 
 		public NodePath build()
 		{
-			if (elementSelectors.isEmpty())
-			{
-				throw new IllegalStateException("A property path cannot be empty");
-			}
-			else if (!(elementSelectors.get(0) instanceof RootElementSelector))
-			{
-				throw new IllegalStateException("A property path must start with a root element");
-			}
-			else if (elementCount(RootElementSelector.class) > 1)
+			if (containsMultipleRootElements)
 			{
 				throw new IllegalStateException("A property path cannot contain multiple root elements");
 			}
-			return new NodePath(elementSelectors);
-		}
-
-		private int elementCount(final Class<? extends ElementSelector> type)
-		{
-			assert type != null : "Type must not be null";
-			int count = 0;
-			for (final ElementSelector elementSelector : elementSelectors)
-			{
-				if (type.isAssignableFrom(elementSelector.getClass()))
-				{
-					count++;
-				}
-			}
-			return count;
+			return nodePath;
 		}
 	}
 }
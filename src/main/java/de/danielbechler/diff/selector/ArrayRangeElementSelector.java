@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector;
+
+/**
+ * Selects a contiguous range of elements of an array. The range starts at the <code>from</code> index (inclusive)
+ * and ends at the <code>to</code> index (exclusive).
+ * <p/>
+ * The human readable representation shows the indexes of the first and the last element of the range, e.g.
+ * <code>[3..7]</code>, or just the index of the only element of ranges with a single element, e.g. <code>[3]</code>.
+ *
+ * @author Daniel Bechler
+ */
+public final class ArrayRangeElementSelector extends ElementSelector
+{
+	private final int from;
+	private final int to;
+
+	/**
+	 * @param from The index of the first element of the range.
+	 * @param to   The index after the last element of the range.
+	 */
+	public ArrayRangeElementSelector(final int from, final int to)
+	{
+		if (from < 0 || to <= from)
+		{
+			throw new IllegalArgumentException("Invalid array range: from=" + from + ", to=" + to);
+		}
+		this.from = from;
+		this.to = to;
+	}
+
+	public int getFrom()
+	{
+		return from;
+	}
+
+	public int getTo()
+	{
+		return to;
+	}
+
+	@Override
+	public String toHumanReadableString()
+	{
+		if (to - from == 1)
+		{
+			return "[" + from + "]";
+		}
+		return "[" + from + ".." + (to - 1) + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		final ArrayRangeElementSelector that = (ArrayRangeElementSelector) o;
+		return from == that.from && to == that.to;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * from + to;
+	}
+}
@@ -17,6 +17,7 @@
 package de.danielbechler.diff.selector;
 
 import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.HashAwareIdentityStrategy;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.util.Assert;
 import de.danielbechler.util.Strings;
@@ -26,6 +27,8 @@ import de.danielbechler.util.Strings;
  */
 public final class CollectionItemElementSelector extends ElementSelector
 {
+	private static final int CONSTANT_HASH_CODE = 31;
+
 	private final Object item;
 	private final IdentityStrategy identityStrategy;
 
@@ -96,10 +99,35 @@ public final class CollectionItemElementSelector extends ElementSelector
 		return true;
 	}
 
+	/**
+	 * Selectors using different identity strategies may consider the same items equal, so the hash code can't be
+	 * derived from the item. It is therefore constant, which is always correct, but turns lookups in hash based
+	 * collections into linear searches. Collections that only contain selectors using the same identity strategy can
+	 * use {@link #identityHashCode()} instead.
+	 */
 	@Override
 	public int hashCode()
 	{
-		return 31;
+		return CONSTANT_HASH_CODE;
+	}
+
+	/**
+	 * @return A hash code that is consistent with {@link #equals(Object)} among selectors that {@linkplain
+	 * #hasSameIdentityStrategyAs(CollectionItemElementSelector) use the same identity strategy}. It is provided by
+	 * the {@link HashAwareIdentityStrategy} of the selector or constant, if the strategy can't compute hash codes.
+	 */
+	public int identityHashCode()
+	{
+		if (item != null && identityStrategy instanceof HashAwareIdentityStrategy)
+		{
+			return ((HashAwareIdentityStrategy) identityStrategy).hashCode(item);
+		}
+		return CONSTANT_HASH_CODE;
+	}
+
+	public boolean hasSameIdentityStrategyAs(final CollectionItemElementSelector other)
+	{
+		return other != null && identityStrategy == other.identityStrategy;
 	}
 
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector;
+
+/**
+ * Selects a changed region of a large value (like a <code>byte[]</code> or a <code>String</code>) by its offset and
+ * length in the working and in the base value. Regions that only exist in the working value have a base length of
+ * <code>0</code> and vice versa. The offset of such an empty range denotes the position at which the region has been
+ * inserted into or removed from the respective value.
+ * <p/>
+ * The human readable representation shows the indexes of the first and the last element of the base range first:
+ * <code>[0..99->0..119]</code> for a changed region, <code>[->100..149]</code> for an added and <code>[100..149->]</code>
+ * for a removed one.
+ *
+ * @author Daniel Bechler
+ */
+public final class ContentRangeElementSelector extends ElementSelector
+{
+	private final int workingOffset;
+	private final int workingLength;
+	private final int baseOffset;
+	private final int baseLength;
+
+	public ContentRangeElementSelector(final int workingOffset,
+									   final int workingLength,
+									   final int baseOffset,
+									   final int baseLength)
+	{
+		if (workingOffset < 0 || workingLength < 0 || baseOffset < 0 || baseLength < 0
+				|| workingLength == 0 && baseLength == 0)
+		{
+			throw new IllegalArgumentException("Invalid content ranges: working=" + workingOffset + "+" + workingLength
+					+ ", base=" + baseOffset + "+" + baseLength);
+		}
+		this.workingOffset = workingOffset;
+		this.workingLength = workingLength;
+		this.baseOffset = baseOffset;
+		this.baseLength = baseLength;
+	}
+
+	public int getWorkingOffset()
+	{
+		return workingOffset;
+	}
+
+	public int getWorkingLength()
+	{
+		return workingLength;
+	}
+
+	public int getBaseOffset()
+	{
+		return baseOffset;
+	}
+
+	public int getBaseLength()
+	{
+		return baseLength;
+	}
+
+	@Override
+	public String toHumanReadableString()
+	{
+		return "[" + rangeToString(baseOffset, baseLength) + "->" + rangeToString(workingOffset, workingLength) + "]";
+	}
+
+	private static String rangeToString(final int offset, final int length)
+	{
+		if (length == 0)
+		{
+			return "";
+		}
+		return offset + ".." + (offset + length - 1);
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		final ContentRangeElementSelector that = (ContentRangeElementSelector) o;
+		return workingOffset == that.workingOffset
+				&& workingLength == that.workingLength
+				&& baseOffset == that.baseOffset
+				&& baseLength == that.baseLength;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int result = workingOffset;
+		result = 31 * result + workingLength;
+		result = 31 * result + baseOffset;
+		result = 31 * result + baseLength;
+		return result;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector;
+
+/**
+ * Selects an item of a list by its position, as determined by an ordered comparison of two lists. Items that exist
+ * in both lists are selected by their positions in the working and the base list, added items only by their position
+ * in the working list and removed items only by their position in the base list.
+ * <p/>
+ * The human readable representation shows the base index first: <code>[3]</code> for an item that kept its position,
+ * <code>[3->5]</code> for an item that has been shifted or moved, <code>[->5]</code> for an added and <code>[3->]</code>
+ * for a removed item.
+ *
+ * @author Daniel Bechler
+ */
+public final class ListItemElementSelector extends ElementSelector
+{
+	/**
+	 * Marks the absence of an item in one of the lists.
+	 */
+	public static final int NO_INDEX = -1;
+
+	private final int workingIndex;
+	private final int baseIndex;
+
+	/**
+	 * @param workingIndex The position of the item in the working list or {@link #NO_INDEX} for removed items.
+	 * @param baseIndex    The position of the item in the base list or {@link #NO_INDEX} for added items.
+	 */
+	public ListItemElementSelector(final int workingIndex, final int baseIndex)
+	{
+		if (workingIndex < NO_INDEX || baseIndex < NO_INDEX || workingIndex == NO_INDEX && baseIndex == NO_INDEX)
+		{
+			throw new IllegalArgumentException("Invalid list item indexes: working=" + workingIndex + ", base=" + baseIndex);
+		}
+		this.workingIndex = workingIndex;
+		this.baseIndex = baseIndex;
+	}
+
+	public int getWorkingIndex()
+	{
+		return workingIndex;
+	}
+
+	public int getBaseIndex()
+	{
+		return baseIndex;
+	}
+
+	@Override
+	public String toHumanReadableString()
+	{
+		if (workingIndex == baseIndex)
+		{
+			return "[" + workingIndex + "]";
+		}
+		return "[" + (baseIndex != NO_INDEX ? baseIndex : "") + "->" + (workingIndex != NO_INDEX ? workingIndex : "") + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		final ListItemElementSelector that = (ListItemElementSelector) o;
+		return workingIndex == that.workingIndex && baseIndex == that.baseIndex;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * workingIndex + baseIndex;
+	}
+}
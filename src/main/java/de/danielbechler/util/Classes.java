@@ -200,6 +200,29 @@ public final class Classes
 		}
 	}
 
+	/**
+	 * @return <code>true</code> if the given type has been loaded by the given class loader or one of its parents, so
+	 * it can't be garbage collected before the class loader itself.
+	 */
+	public static boolean outlivesClassLoader(final Class<?> type, final ClassLoader classLoader)
+	{
+		final ClassLoader typeClassLoader = type.getClassLoader();
+		if (typeClassLoader == null)
+		{
+			return true;
+		}
+		ClassLoader ancestor = classLoader;
+		while (ancestor != null)
+		{
+			if (ancestor == typeClassLoader)
+			{
+				return true;
+			}
+			ancestor = ancestor.getParent();
+		}
+		return false;
+	}
+
 	public static Set<Class<?>> typesOf(final Object... values)
 	{
 		final Set<Class<?>> types = new HashSet<Class<?>>(values.length);
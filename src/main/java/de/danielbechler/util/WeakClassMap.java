@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A map from types to arbitrary values, that only holds weak references to its keys. It never prevents a class (and
+ * therefore its class loader) from being garbage collected, as long as the values don't reference the class
+ * themselves. Entries of collected classes are removed whenever a new entry gets added. It is safe to be used by
+ * multiple threads concurrently.
+ *
+ * @param <V> The type of the values.
+ * @author Daniel Bechler
+ */
+public final class WeakClassMap<V>
+{
+	private final ConcurrentMap<Key, V> entries = new ConcurrentHashMap<Key, V>();
+	private final ReferenceQueue<Class<?>> collectedTypes = new ReferenceQueue<Class<?>>();
+
+	/**
+	 * @return The value of the given type or <code>null</code> if there is none.
+	 */
+	public V get(final Class<?> type)
+	{
+		Assert.notNull(type, "type");
+		return entries.get(new Key(type, null));
+	}
+
+	public void put(final Class<?> type, final V value)
+	{
+		Assert.notNull(type, "type");
+		Assert.notNull(value, "value");
+		expungeCollectedTypes();
+		entries.put(new Key(type, collectedTypes), value);
+	}
+
+	/**
+	 * @return The value that has already been known for the given type or <code>null</code> if the given value has
+	 * been added.
+	 */
+	public V putIfAbsent(final Class<?> type, final V value)
+	{
+		Assert.notNull(type, "type");
+		Assert.notNull(value, "value");
+		expungeCollectedTypes();
+		return entries.putIfAbsent(new Key(type, collectedTypes), value);
+	}
+
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * @return The number of entries. May include entries whose type has already been garbage collected.
+	 */
+	public int size()
+	{
+		return entries.size();
+	}
+
+	private void expungeCollectedTypes()
+	{
+		Reference<? extends Class<?>> reference;
+		while ((reference = collectedTypes.poll()) != null)
+		{
+			entries.remove(reference);
+		}
+	}
+
+	private static final class Key extends WeakReference<Class<?>>
+	{
+		private final int hashCode;
+
+		private Key(final Class<?> type, final ReferenceQueue<Class<?>> queue)
+		{
+			super(type, queue);
+			this.hashCode = System.identityHashCode(type);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			final Class<?> type = get();
+			return type != null && type == ((Key) o).get();
+		}
+	}
+}
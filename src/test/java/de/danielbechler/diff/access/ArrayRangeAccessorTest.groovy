@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+
+class ArrayRangeAccessorTest extends Specification {
+
+	def 'get should return a copy of the elements within the range'() {
+		given:
+		  def array = [1, 2, 3, 4] as int[]
+		when:
+		  def range = new ArrayRangeAccessor(1, 3).get(array)
+		then:
+		  range == [2, 3] as int[]
+		  range instanceof int[]
+		  !range.is(array)
+	}
+
+	def 'get should truncate the range to the length of the array'() {
+		expect:
+		  new ArrayRangeAccessor(1, 5).get([1, 2, 3] as long[]) == [2, 3] as long[]
+		  new ArrayRangeAccessor(3, 5).get([1, 2, 3] as long[]) == null
+		  new ArrayRangeAccessor(0, 1).get(null) == null
+	}
+
+	def 'set should copy the given elements into the range'() {
+		given:
+		  def array = [1, 2, 3, 4] as double[]
+		when:
+		  new ArrayRangeAccessor(1, 3).set(array, [5, 6] as double[])
+		then:
+		  array == [1, 5, 6, 4] as double[]
+	}
+
+	def 'set should ignore elements beyond the end of the array'() {
+		given:
+		  def array = [1, 2] as byte[]
+		when:
+		  new ArrayRangeAccessor(1, 3).set(array, [5, 6] as byte[])
+		then:
+		  array == [1, 5] as byte[]
+	}
+
+	def 'unset should reset the elements within the range to their default values'() {
+		given:
+		  def array = [true, true, true] as boolean[]
+		when:
+		  new ArrayRangeAccessor(0, 2).unset(array)
+		then:
+		  array == [false, false, true] as boolean[]
+	}
+
+	def 'should fail for targets that aren\'t arrays'() {
+		when:
+		  new ArrayRangeAccessor(0, 1).get([1])
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'getElementSelector should select the range'() {
+		expect:
+		  new ArrayRangeAccessor(1, 3).elementSelector == new ArrayRangeElementSelector(1, 3)
+	}
+}
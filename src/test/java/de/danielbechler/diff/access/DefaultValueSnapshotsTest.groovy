@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.mock.IsolatingClassLoader
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import groovy.transform.CompileStatic
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.ref.WeakReference
+
+class DefaultValueSnapshotsTest extends Specification {
+
+	def snapshots = new DefaultValueSnapshots()
+
+	def 'getDefaultInstance: returns the same default instance for every call'() {
+		when:
+		  def instance = snapshots.getDefaultInstance(ArrayList)
+		then:
+		  instance == []
+		  snapshots.getDefaultInstance(ArrayList).is(instance)
+	}
+
+	def 'getDefaultInstance: returns null for types without default constructor'() {
+		expect:
+		  snapshots.getDefaultInstance(Integer) == null
+		  snapshots.getDefaultInstance(null) == null
+	}
+
+	def 'getDefaultValue: reads property values of the default instance only once'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('value')
+		  }
+		when:
+		  def first = snapshots.getDefaultValue(StringBuilder, accessor)
+		  def second = snapshots.getDefaultValue(StringBuilder, accessor)
+		then:
+		  1 * accessor.get({ it instanceof StringBuilder }) >> 'default'
+		and:
+		  first == 'default'
+		  second == 'default'
+	}
+
+	def 'getDefaultValue: remembers null values'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('value')
+		  }
+		when:
+		  snapshots.getDefaultValue(StringBuilder, accessor)
+		  snapshots.getDefaultValue(StringBuilder, accessor)
+		then:
+		  1 * accessor.get(_) >> null
+	}
+
+	def 'getDefaultValue: reads other accessors directly from the default instance'() {
+		given:
+		  def accessor = Mock(Accessor)
+		when:
+		  snapshots.getDefaultValue(StringBuilder, accessor)
+		  snapshots.getDefaultValue(StringBuilder, accessor)
+		then:
+		  2 * accessor.get({ it instanceof StringBuilder })
+	}
+
+	def 'getDefaultValue: returns null for types without default constructor'() {
+		given:
+		  def accessor = Mock(Accessor)
+		expect:
+		  snapshots.getDefaultValue(Integer, accessor) == null
+		  snapshots.getDefaultValue(null, accessor) == null
+	}
+
+	@Timeout(30)
+	def 'does not prevent types of discarded class loaders from being garbage collected'() {
+		given:
+		  def type = snapshotTypeOfDiscardedClassLoader(snapshots)
+		when:
+		  while (type.get() != null) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  type.get() == null
+	}
+
+	@CompileStatic
+	private static WeakReference<Class<?>> snapshotTypeOfDiscardedClassLoader(DefaultValueSnapshots snapshots) {
+		Class type = IsolatingClassLoader.isolatedCopyOf(ObjectWithString)
+		snapshots.getDefaultInstance(type)
+		return new WeakReference<Class<?>>((Class<?>) type)
+	}
+}
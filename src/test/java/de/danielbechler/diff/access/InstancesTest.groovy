@@ -16,6 +16,8 @@
 
 package de.danielbechler.diff.access
 
+import de.danielbechler.diff.circular.CircularReferenceDetector
+import de.danielbechler.diff.differ.DiffContext
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -96,6 +98,31 @@ class InstancesTest extends Specification {
 		  instances.getType() == CharSequence
 	}
 
+	def 'withContext: returns instances bound to the given context'() {
+		given:
+		  def context = new DiffContext(Stub(CircularReferenceDetector), Stub(CircularReferenceDetector))
+		  def instances = Instances.of('working', 'base')
+		when:
+		  def contextualInstances = instances.withContext(context)
+		then:
+		  contextualInstances.context.is(context)
+		  contextualInstances.working == 'working'
+		  contextualInstances.base == 'base'
+		and:
+		  instances.context == null
+		  contextualInstances.withContext(context).is(contextualInstances)
+	}
+
+	def 'access: passes context on to accessed instances'() {
+		given:
+		  def context = new DiffContext(Stub(CircularReferenceDetector), Stub(CircularReferenceDetector))
+		  def instances = Instances.of(['foo'], ['foo']).withContext(context)
+		  def accessor = new CollectionItemAccessor('foo')
+		expect:
+		  instances.access(accessor).context.is(context)
+		  instances.access(accessor, 'foo', 'foo').context.is(context)
+	}
+
 	def 'areNull: returns true when base and working are null'() {
 		given:
 		  Instances instances = new Instances(RootAccessor.instance, null, null, null);
@@ -281,4 +308,82 @@ class InstancesTest extends Specification {
 		  accessedInstances.fresh == 'fresh2'
 		  accessedInstances.sourceAccessor.is accessor
 	}
+
+	def 'getType: resolves the type only once'() {
+		given:
+		  def typeAwareAccessor = Mock(TypeAwareAccessor)
+		  def instances = new Instances(typeAwareAccessor, 'working', 'base', null)
+		when:
+		  instances.getType()
+		  instances.getType()
+		then:
+		  1 * typeAwareAccessor.getType() >> String
+	}
+
+	def 'access: reads the fresh value only when it is needed'() {
+		given:
+		  def instances = new Instances(Mock(Accessor), 'working', 'base', 'fresh')
+		  def accessor = Mock(Accessor)
+		when:
+		  def accessedInstances = instances.access(accessor, 'working2', 'base2')
+		then:
+		  0 * accessor.get(_)
+		when:
+		  accessedInstances.getFresh()
+		  accessedInstances.getFresh()
+		then:
+		  1 * accessor.get('fresh') >> 'fresh2'
+	}
+
+	def 'getType: reads the fresh value only when working and base are null'() {
+		given:
+		  def instances = new Instances(Mock(Accessor), 'working', 'base', 'fresh')
+		  def accessor = Mock(Accessor)
+		when:
+		  def type = instances.access(accessor, 'working2', null).getType()
+		then:
+		  0 * accessor.get(_)
+		  type == String
+		when:
+		  def freshType = instances.access(accessor, null, null).getType()
+		then:
+		  1 * accessor.get('fresh') >> 42
+		  freshType == Integer
+	}
+
+	def 'getFresh: resolves the fresh values of deeply nested instances without exhausting the stack'() {
+		given:
+		  def accessor = Stub(Accessor) {
+			  get(_) >> { args -> args[0] }
+		  }
+		  def instances = new Instances(Mock(Accessor), 'working', 'base', 'fresh')
+		  100000.times {
+			  instances = instances.access(accessor, null, null)
+		  }
+		expect:
+		  instances.getFresh() == 'fresh'
+	}
+
+	def 'withDefaultValueSnapshots: reads default values from the snapshot of the type holding the property'() {
+		given:
+		  def snapshots = Mock(DefaultValueSnapshots)
+		  def accessor = Mock(Accessor)
+		  def instances = Instances.of(new StringBuilder('working'), null).withDefaultValueSnapshots(snapshots)
+		when:
+		  def fresh = instances.access(accessor, 'working2', 'base2').getFresh()
+		then:
+		  1 * snapshots.getDefaultValue(StringBuilder, accessor) >> 'fresh2'
+		  0 * accessor.get(_)
+		and:
+		  fresh == 'fresh2'
+	}
+
+	def 'withDefaultValueSnapshots: passes the snapshots on to accessed instances'() {
+		given:
+		  def snapshots = new DefaultValueSnapshots()
+		  def instances = Instances.of('working', 'base').withDefaultValueSnapshots(snapshots)
+		expect:
+		  instances.withDefaultValueSnapshots(snapshots).is(instances)
+		  instances.access(Mock(Accessor)).withDefaultValueSnapshots(snapshots).is(instances) == false
+	}
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemAccessorTest extends Specification {
+
+	def "get should return the item at the working index"() {
+		expect:
+		  new ListItemAccessor(1, 0, false).get(['a', 'b']) == 'b'
+	}
+
+	def "get should return the item at the base index for removed items"() {
+		expect:
+		  new ListItemAccessor(NO_INDEX, 0, false).get(['a', 'b']) == 'a'
+	}
+
+	def "get should return null when the index is out of bounds or the target is null"() {
+		expect:
+		  new ListItemAccessor(2, NO_INDEX, false).get(['a', 'b']) == null
+		  new ListItemAccessor(0, 0, false).get(null) == null
+	}
+
+	def "set should replace the item at the index"() {
+		given:
+		  def list = ['a', 'b']
+
+		when:
+		  new ListItemAccessor(1, 1, false).set(list, 'c')
+
+		then:
+		  list == ['a', 'c']
+	}
+
+	def "set should append the item when the index is out of bounds"() {
+		given:
+		  def list = ['a']
+
+		when:
+		  new ListItemAccessor(1, NO_INDEX, false).set(list, 'b')
+
+		then:
+		  list == ['a', 'b']
+	}
+
+	def "unset should remove the item at the index"() {
+		given:
+		  def list = ['a', 'b', 'c']
+
+		when:
+		  new ListItemAccessor(NO_INDEX, 1, false).unset(list)
+
+		then:
+		  list == ['a', 'c']
+	}
+
+	def "should fail for targets that aren't lists"() {
+		when:
+		  new ListItemAccessor(0, 0, false).get(['a'] as Set)
+
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def "getElementSelector should select the item by both indexes"() {
+		expect:
+		  new ListItemAccessor(1, 2, true).elementSelector == new ListItemElementSelector(1, 2)
+	}
+}
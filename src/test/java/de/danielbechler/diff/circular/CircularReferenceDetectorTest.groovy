@@ -57,6 +57,20 @@ class CircularReferenceDetectorTest extends Specification {
 
 	}
 
+	def 'copy: knows the same instances but can be modified independently'() {
+		given:
+		  circularReferenceDetector.push('foo', NodePath.withRoot())
+		when:
+		  def copy = circularReferenceDetector.copy()
+		  copy.push('bar', NodePath.with('bar'))
+		then:
+		  copy.knows('foo')
+		  copy.size() == 2
+		and:
+		  !circularReferenceDetector.knows('bar')
+		  circularReferenceDetector.size() == 1
+	}
+
 	def 'remove: does nothing with null object'() {
 		expect:
 		  circularReferenceDetector.size() == 0
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular
+
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD
+
+class IndexedCircularReferenceDetectorTest extends Specification {
+
+	CircularReferenceDetector circularReferenceDetector = new IndexedCircularReferenceDetector(EQUALITY_OPERATOR)
+
+	def 'push: does nothing with null object'() {
+		when:
+		  circularReferenceDetector.push(null, null)
+		  circularReferenceDetector.push(null, DiffNode.ROOT, null)
+		then:
+		  circularReferenceDetector.size() == 0
+	}
+
+	def 'push: throws CircularReferenceException with the path of the known object'() {
+		given:
+		  def rootNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Object)
+		  circularReferenceDetector.push('root', DiffNode.ROOT, null)
+		  circularReferenceDetector.push('foo', rootNode, new BeanPropertyElementSelector('foo'))
+		when:
+		  circularReferenceDetector.push('foo', NodePath.with('bar'))
+		then:
+		  CircularReferenceException ex = thrown CircularReferenceException
+		  ex.nodePath == NodePath.with('foo')
+		and: 'the known object should not be added again'
+		  circularReferenceDetector.size() == 2
+	}
+
+	def 'push: builds the node path only when a circular reference is reported'() {
+		given:
+		  def parentNode = Mock(DiffNode)
+		when:
+		  circularReferenceDetector.push('foo', parentNode, new BeanPropertyElementSelector('foo'))
+		then:
+		  0 * parentNode.getPath()
+		when:
+		  circularReferenceDetector.push('foo', NodePath.withRoot())
+		then:
+		  1 * parentNode.getPath() >> NodePath.withRoot()
+		  thrown CircularReferenceException
+	}
+
+	def 'remove: throws IllegalArgumentException when instance is removed out of order'() {
+		given:
+		  circularReferenceDetector.push 'foo', null
+		  circularReferenceDetector.push 'bar', null
+		when:
+		  circularReferenceDetector.remove 'foo'
+		then:
+		  thrown IllegalArgumentException
+		and:
+		  circularReferenceDetector.knows('foo')
+		  circularReferenceDetector.knows('bar')
+	}
+
+	def 'remove: forgets instance when it is removed in order'() {
+		given:
+		  circularReferenceDetector.push 'foo', null
+		when:
+		  circularReferenceDetector.remove 'foo'
+		then:
+		  circularReferenceDetector.size() == 0
+		  !circularReferenceDetector.knows('foo')
+	}
+
+	def 'copy: knows the same instances but can be modified independently'() {
+		given:
+		  circularReferenceDetector.push('foo', NodePath.withRoot())
+		when:
+		  def copy = circularReferenceDetector.copy()
+		  copy.push('bar', NodePath.with('bar'))
+		then:
+		  copy instanceof IndexedCircularReferenceDetector
+		  copy.knows('foo')
+		  copy.size() == 2
+		and:
+		  !circularReferenceDetector.knows('bar')
+		  circularReferenceDetector.size() == 1
+	}
+
+	@Unroll
+	def 'matchingMode #matchingMode'() {
+		given:
+		  circularReferenceDetector = new IndexedCircularReferenceDetector(matchingMode)
+
+		when:
+		  circularReferenceDetector.push(internalInstance, NodePath.withRoot())
+		then:
+		  circularReferenceDetector.knows(externalInstance) == known
+
+		where:
+		  matchingMode      | internalInstance            | externalInstance            || known
+		  EQUALS_METHOD     | new ObjectWithString('foo') | new ObjectWithString('foo') || true
+		  EQUALITY_OPERATOR | new ObjectWithString('foo') | new ObjectWithString('foo') || false
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison
+
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.selector.ContentRangeElementSelector
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ContentDefinedChunkingComparisonStrategyTest extends Specification {
+
+	def strategy = new ContentDefinedChunkingComparisonStrategy(16, 64, 256)
+
+	def 'marks equal values as untouched'() {
+		given:
+		  def node = new DiffNode(null, RootAccessor.instance, byte[])
+		when:
+		  strategy.compare(node, byte[], bytes(1000, 1), bytes(1000, 1))
+		then:
+		  node.untouched
+		  !node.hasChildren()
+	}
+
+	@Unroll
+	def 'compares values of other types via equals: #working vs. #base'() {
+		given:
+		  def node = new DiffNode(null, RootAccessor.instance, Object)
+		when:
+		  strategy.compare(node, Object, working, base)
+		then:
+		  node.state == expectedState
+		  !node.hasChildren()
+		where:
+		  working | base   || expectedState
+		  1       | 1      || DiffNode.State.UNTOUCHED
+		  1       | 2      || DiffNode.State.CHANGED
+		  'foo'   | null   || DiffNode.State.CHANGED
+		  'foo'   | [1, 2] || DiffNode.State.CHANGED
+	}
+
+	def 'marks values without any common chunk as changed without reporting any regions'() {
+		given:
+		  def node = new DiffNode(null, RootAccessor.instance, byte[])
+		when:
+		  strategy.compare(node, byte[], bytes(10000, 1), bytes(10000, 2))
+		then:
+		  node.changed
+		  !node.hasChildren()
+	}
+
+	def 'reports only the region around a modification, even if it shifts the rest of the value'() {
+		given:
+		  def base = bytes(100000, 1)
+		  def working = new byte[base.length + 3]
+		  System.arraycopy(base, 0, working, 0, 50000)
+		  System.arraycopy(base, 50000, working, 50003, base.length - 50000)
+		  def node = new DiffNode(null, RootAccessor.instance, byte[])
+		when:
+		  strategy.compare(node, byte[], working, base)
+		then:
+		  node.changed
+		  node.childCount() == 1
+		  def selector = regionsOf(node)[0].elementSelector as ContentRangeElementSelector
+		  selector.baseOffset <= 50000
+		  selector.baseOffset + selector.baseLength >= 50000
+		  selector.baseLength <= 2 * 256
+		  selector.workingLength == selector.baseLength + 3
+	}
+
+	@Unroll
+	def 'the reported regions turn the base value into the working value (#valueType.simpleName, seed: #seed)'() {
+		given:
+		  def random = new Random(seed)
+		  def base = text(random, 5000)
+		  def working = edit(random, base)
+		  def node = new DiffNode(null, RootAccessor.instance, valueType)
+		when:
+		  strategy.compare(node, valueType, valueOf(valueType, working), valueOf(valueType, base))
+		then:
+		  !node.hasChildren() || applyRegions(node, base, working) == working
+		where:
+		  [valueType, seed] << [[String, StringBuilder], (1..20)].combinations()
+	}
+
+	def 'reading a region yields its content in the given value'() {
+		given:
+		  def base = text(new Random(1), 5000)
+		  def working = base.substring(0, 2000) + 'inserted' + base.substring(2000)
+		  def node = new DiffNode(null, RootAccessor.instance, String)
+		  strategy.compare(node, String, working, base)
+		  def regionNode = regionsOf(node)[0]
+		  def selector = regionNode.elementSelector as ContentRangeElementSelector
+		expect:
+		  regionNode.get(working) == working.substring(selector.workingOffset, selector.workingOffset + selector.workingLength)
+		  regionNode.get(base) == base.substring(selector.baseOffset, selector.baseOffset + selector.baseLength)
+		  regionNode.get('unrelated') == null
+		  regionNode.get(null) == null
+	}
+
+	def 'regions can not be written'() {
+		given:
+		  def base = bytes(10000, 1)
+		  def working = base.clone()
+		  working[5000]++
+		  def node = new DiffNode(null, RootAccessor.instance, byte[])
+		  strategy.compare(node, byte[], working, base)
+		when:
+		  regionsOf(node)[0].set(base, working)
+		then:
+		  thrown(UnsupportedOperationException)
+	}
+
+	@Unroll
+	def 'rejects the chunk sizes #minimum, #average and #maximum'() {
+		when:
+		  new ContentDefinedChunkingComparisonStrategy(minimum, average, maximum)
+		then:
+		  thrown(IllegalArgumentException)
+		where:
+		  minimum | average | maximum
+		  0       | 8       | 16
+		  8       | 4       | 16
+		  8       | 16      | 12
+	}
+
+	private static List<DiffNode> regionsOf(DiffNode node) {
+		def regions = []
+		node.visitChildren(new DiffNode.Visitor() {
+			void node(DiffNode regionNode, Visit visit) {
+				regions << regionNode
+			}
+		})
+		return regions
+	}
+
+	private static CharSequence valueOf(Class<?> valueType, String text) {
+		return valueType == StringBuilder ? new StringBuilder(text) : text
+	}
+
+	private static byte[] bytes(int length, long seed) {
+		def bytes = new byte[length]
+		new Random(seed).nextBytes(bytes)
+		return bytes
+	}
+
+	private static String text(Random random, int length) {
+		def text = new StringBuilder()
+		length.times { text.append((char) (97 + random.nextInt(26))) }
+		return text.toString()
+	}
+
+	/**
+	 * Inserts, removes and replaces some random parts of the given text.
+	 */
+	private static String edit(Random random, String original) {
+		def result = new StringBuilder(original)
+		random.nextInt(5).times {
+			def offset = random.nextInt(result.length())
+			def length = Math.min(random.nextInt(300), result.length() - offset)
+			switch (random.nextInt(3)) {
+				case 0: result.insert(offset, text(random, length)); break
+				case 1: result.delete(offset, offset + length); break
+				default: result.replace(offset, offset + length, text(random, length))
+			}
+		}
+		return result.toString()
+	}
+
+	private static String applyRegions(DiffNode node, String base, String working) {
+		def result = new StringBuilder()
+		def position = 0
+		regionsOf(node).collect { it.elementSelector as ContentRangeElementSelector }.sort { it.baseOffset }.each {
+			result.append(base, position, it.baseOffset)
+			result.append(working, it.workingOffset, it.workingOffset + it.workingLength)
+			position = it.baseOffset + it.baseLength
+		}
+		result.append(base, position, base.length())
+		return result.toString()
+	}
+}
@@ -25,7 +25,6 @@ import de.danielbechler.diff.instantiation.TypeInfo
 import de.danielbechler.diff.introspection.IsIntrospectableResolver
 import de.danielbechler.diff.introspection.TypeInfoResolver
 import de.danielbechler.diff.node.DiffNode
-import de.danielbechler.diff.selector.BeanPropertyElementSelector
 import spock.lang.FailsWith
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -122,39 +121,10 @@ class BeanDifferTest extends Specification {
 		  def typeInfo = new TypeInfo(Object)
 		  typeInfo.addPropertyAccessor(accessor)
 		  typeInfoResolver.typeInfoForNode(_ as DiffNode) >> typeInfo
-		and: 'the property node returned by the dispatcher is returnable'
-		  def propertyNode = Mock(DiffNode) {
-			  getElementSelector() >> new BeanPropertyElementSelector('example')
-		  }
-		  returnableResolver.isReturnable(propertyNode) >> true
 		when:
-		  def rootNode = beanDiffer.compare(DiffNode.ROOT, instances)
-		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
-		and:
-		  rootNode.childCount() == 1
-		  rootNode.getChild(propertyNode.elementSelector) == propertyNode
-	}
-
-	def 'add property nodes only if they are returnable'() {
-		given: 'the root object is introspectable'
-		  introspectableResolver.isIntrospectable({ DiffNode node -> node.isRootNode() }) >> true
-		and: 'the root object type info contains an accessor'
-		  def accessor = Mock(PropertyAwareAccessor)
-		  def typeInfo = new TypeInfo(Object)
-		  typeInfo.addPropertyAccessor(accessor)
-		  typeInfoResolver.typeInfoForNode(_ as DiffNode) >> typeInfo
-		and: 'the property node returned by the dispatcher is NOT returnable'
-		  def propertyNode = Mock(DiffNode) {
-			  getElementSelector() >> new BeanPropertyElementSelector('example')
-		  }
-		  returnableResolver.isReturnable(propertyNode) >> false
-		when:
-		  def node = beanDiffer.compare(DiffNode.ROOT, instances)
+		  beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
-		and:
-		  !node.hasChildren()
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, { DiffPlan.PropertyStep step -> step.accessor.is(accessor) })
 	}
 
 	def 'assigns type info resolved via type info resolver to bean node when comparing via introspection'() {
@@ -162,10 +132,6 @@ class BeanDifferTest extends Specification {
 		  def propertyAccessor = Mock(PropertyAwareAccessor)
 		  def typeInfo = new TypeInfo(Date)
 		  typeInfo.addPropertyAccessor(propertyAccessor)
-		and:
-		  def propertyNode = Mock(DiffNode) {
-			  getElementSelector() >> new BeanPropertyElementSelector('example')
-		  }
 		when:
 		  def rootNode = beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
@@ -173,9 +139,7 @@ class BeanDifferTest extends Specification {
 		and:
 		  1 * typeInfoResolver.typeInfoForNode({ DiffNode node -> node.isRootNode() }) >> typeInfo
 		and:
-		  1 * differDispatcher.dispatch({ DiffNode node -> node.isRootNode() }, instances, propertyAccessor) >> propertyNode
-		and:
-		  1 * returnableResolver.isReturnable(propertyNode) >> false
+		  1 * differDispatcher.schedule({ DiffNode node -> node.isRootNode() }, instances, { DiffPlan.PropertyStep step -> step.accessor.is(propertyAccessor) })
 		and:
 		  rootNode.valueTypeInfo == typeInfo
 	}
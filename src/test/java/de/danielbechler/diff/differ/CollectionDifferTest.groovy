@@ -22,6 +22,7 @@ import de.danielbechler.diff.access.RootAccessor
 import de.danielbechler.diff.comparison.ComparisonStrategy
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver
 import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
 import de.danielbechler.diff.identity.IdentityStrategyResolver
 import de.danielbechler.diff.mock.ObjectWithString
 import de.danielbechler.diff.node.DiffNode
@@ -116,12 +117,12 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.schedule(_, instances, _, _, _) >> { parentNode, instances, accessor, working, base ->
 			  assert parentNode != null
 			  assert accessor instanceof CollectionItemAccessor
 		  }
 		and:
-		  0 * differDispatcher.dispatch(*_)
+		  0 * differDispatcher.schedule(*_)
 	}
 
 	def 'delegate removed items to dispatcher when instance has been removed'() {
@@ -134,12 +135,12 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances);
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.schedule(_, instances, _, _, _) >> { parentNode, instances, accessor, working, base ->
 			  assert parentNode != null
 			  assert accessor instanceof CollectionItemAccessor
 		  }
 		and:
-		  0 * differDispatcher.dispatch(*_)
+		  0 * differDispatcher.schedule(*_)
 	}
 
 	def 'compare using comparison strategy if available'() {
@@ -168,16 +169,64 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances);
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.schedule(_, instances, _, _, _) >> { parentNode, instances, accessor, workingItem, baseItem ->
 			  assert parentNode.path.matches(NodePath.withRoot())
 			  assert accessor instanceof CollectionItemAccessor
+			  assert workingItem == working[0]
+			  assert baseItem == base[0]
 		  }
 		and:
-		  0 * differDispatcher.dispatch(*_)
+		  0 * differDispatcher.schedule(*_)
 		where:
 		  working   | base
 		  ['added'] | []
 		  ['known'] | ['known']
 		  []        | ['removed']
 	}
+
+	def 'dispatches duplicate items only once'() {
+		given:
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> ['foo', 'foo', 'bar']
+			  getBase(Collection) >> ['bar', 'bar']
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * differDispatcher.schedule(_, instances, _, 'foo', null)
+		then:
+		  1 * differDispatcher.schedule(_, instances, _, 'bar', 'bar')
+		and:
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'matches items via custom identity strategy even if it cannot compute hash codes'() {
+		given:
+		  def working = [new ObjectWithString('a'), new ObjectWithString('b')]
+		  def base = [new ObjectWithString('b'), new ObjectWithString('c')]
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> working
+			  getBase(Collection) >> base
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> new IdentityStrategy() {
+			  boolean equals(Object a, Object b) {
+				  return a.value == b.value
+			  }
+		  }
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * differDispatcher.schedule(_, instances, _, working[0], null)
+		then:
+		  1 * differDispatcher.schedule(_, instances, _, null, base[1])
+		then:
+		  1 * differDispatcher.schedule(_, instances, _, working[1], base[0])
+		and:
+		  0 * differDispatcher.schedule(*_)
+	}
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.mock.IsolatingClassLoader
+import de.danielbechler.diff.mock.ObjectWithString
+import groovy.transform.CompileStatic
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.ref.WeakReference
+
+import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT
+import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED
+
+class DiffPlanCompilerTest extends Specification {
+
+	def propertyInclusionResolver = Mock(PropertyInclusionResolver)
+	def diffPlanCompiler = new DiffPlanCompiler(propertyInclusionResolver)
+
+	def 'planFor: creates one step per property in the order of the type info'() {
+		given:
+		  def accessor1 = Stub(PropertyAwareAccessor)
+		  def accessor2 = Stub(PropertyAwareAccessor)
+		  def typeInfo = typeInfoWith(accessor1, accessor2)
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfo)
+		then:
+		  plan.typeInfo.is(typeInfo)
+		  plan.steps*.accessor == [accessor1, accessor2]
+	}
+
+	def 'planFor: resolves the inclusion of every property up front'() {
+		given:
+		  def excludedAccessor = Stub(PropertyAwareAccessor)
+		  def includedAccessor = Stub(PropertyAwareAccessor)
+		  def typeInfo = typeInfoWith(excludedAccessor, includedAccessor)
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfo)
+		then:
+		  1 * propertyInclusionResolver.resolvePropertyInclusion(typeInfo, excludedAccessor) >> EXCLUDED
+		  1 * propertyInclusionResolver.resolvePropertyInclusion(typeInfo, includedAccessor) >> DEFAULT
+		and:
+		  plan.steps*.excluded == [true, false]
+	}
+
+	def 'planFor: returns the same plan for the same type info'() {
+		given:
+		  def typeInfo = typeInfoWith(Stub(PropertyAwareAccessor))
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfo)
+		  def samePlan = diffPlanCompiler.planFor(typeInfo)
+		then:
+		  1 * propertyInclusionResolver.resolvePropertyInclusion(_, _) >> DEFAULT
+		and:
+		  samePlan.is(plan)
+	}
+
+	def 'planFor: compiles a new plan when the type gets introspected differently'() {
+		given:
+		  def typeInfo = typeInfoWith(Stub(PropertyAwareAccessor))
+		  def otherTypeInfo = typeInfoWith(Stub(PropertyAwareAccessor))
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfo)
+		  def otherPlan = diffPlanCompiler.planFor(otherTypeInfo)
+		then:
+		  otherPlan.typeInfo.is(otherTypeInfo)
+		  !otherPlan.is(plan)
+	}
+
+	def 'planFor: keeps the plan on the type info'() {
+		given:
+		  def typeInfo = typeInfoWith(Stub(PropertyAwareAccessor))
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfo)
+		then:
+		  typeInfo.diffPlan.is(plan)
+	}
+
+	def 'planFor: does not reuse plans compiled by other compilers'() {
+		given:
+		  def typeInfo = typeInfoWith(Stub(PropertyAwareAccessor))
+		  def plan = new DiffPlanCompiler(null).planFor(typeInfo)
+		expect:
+		  !diffPlanCompiler.planFor(typeInfo).is(plan)
+	}
+
+	@Timeout(30)
+	def 'planFor: does not prevent types of discarded class loaders from being garbage collected'() {
+		given:
+		  def type = compilePlanForTypeOfDiscardedClassLoader(diffPlanCompiler)
+		when:
+		  while (type.get() != null) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  type.get() == null
+	}
+
+	def 'planFor: leaves the inclusion up to the dispatcher when there is no property inclusion resolver'() {
+		given:
+		  def diffPlanCompiler = new DiffPlanCompiler(null)
+		when:
+		  def plan = diffPlanCompiler.planFor(typeInfoWith(Stub(PropertyAwareAccessor)))
+		then:
+		  plan.steps*.inclusion == [null]
+	}
+
+	@CompileStatic
+	private static WeakReference<Class<?>> compilePlanForTypeOfDiscardedClassLoader(DiffPlanCompiler diffPlanCompiler) {
+		Class type = IsolatingClassLoader.isolatedCopyOf(ObjectWithString)
+		diffPlanCompiler.planFor(new TypeInfo(type))
+		return new WeakReference<Class<?>>((Class<?>) type)
+	}
+
+	private static TypeInfo typeInfoWith(PropertyAwareAccessor... accessors) {
+		def typeInfo = new TypeInfo(Object)
+		accessors.each { typeInfo.addPropertyAccessor(it) }
+		return typeInfo
+	}
+}
@@ -16,6 +16,7 @@
 
 package de.danielbechler.diff.differ
 
+import de.danielbechler.diff.access.CollectionItemAccessor
 import de.danielbechler.diff.access.Instances
 import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.access.RootAccessor
@@ -24,14 +25,21 @@ import de.danielbechler.diff.circular.CircularReferenceDetector
 import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
 import de.danielbechler.diff.circular.CircularReferenceExceptionHandler
 import de.danielbechler.diff.filtering.IsReturnableResolver
+import de.danielbechler.diff.inclusion.Inclusion
 import de.danielbechler.diff.inclusion.IsIgnoredResolver
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver
 import de.danielbechler.diff.introspection.PropertyReadException
+import de.danielbechler.diff.node.DiffListener
 import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.parallel.ParallelismResolver
 import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
 
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+
 import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException
 
 public class DifferDispatcherTest extends Specification {
@@ -49,6 +57,7 @@ public class DifferDispatcherTest extends Specification {
 
 	def setup() {
 		circularReferenceDetectorFactory.createCircularReferenceDetector() >> circularReferenceDetector
+		circularReferenceDetector.copy() >> circularReferenceDetector
 		categoryResolver.resolveCategories(_) >> []
 		differDispatcher = new DifferDispatcher(differProvider,
 				circularReferenceDetectorFactory,
@@ -61,8 +70,8 @@ public class DifferDispatcherTest extends Specification {
 
 	def 'when circular reference is detected the node should be marked as circular'() throws Exception {
 		given:
-		  circularReferenceDetector.push(_, _) >> { instance, nodePath ->
-			  throw new CircularReferenceException(nodePath)
+		  circularReferenceDetector.push(_, _, _) >> { instance, parentNode, elementSelector ->
+			  throw new CircularReferenceException(NodePath.withRoot())
 		  }
 		when:
 		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
@@ -72,8 +81,8 @@ public class DifferDispatcherTest extends Specification {
 
 	def 'when circular reference is detected the node should hold the path to the node it circles back to'() throws Exception {
 		given:
-		  circularReferenceDetector.push(_, _) >> { instance, nodePath ->
-			  throw new CircularReferenceException(nodePath)
+		  circularReferenceDetector.push(_, _, _) >> { instance, parentNode, elementSelector ->
+			  throw new CircularReferenceException(NodePath.withRoot())
 		  }
 		when:
 		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
@@ -87,8 +96,8 @@ public class DifferDispatcherTest extends Specification {
 		def handledNode = null
 
 		given:
-		  circularReferenceDetector.push(_, _) >> { instance, nodePath ->
-			  throw new CircularReferenceException(nodePath)
+		  circularReferenceDetector.push(_, _, _) >> { instance, parentNode, elementSelector ->
+			  throw new CircularReferenceException(NodePath.withRoot())
 		  }
 		when:
 		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
@@ -137,4 +146,245 @@ public class DifferDispatcherTest extends Specification {
 		then:
 		  node.state == DiffNode.State.INACCESSIBLE
 	}
+
+	def 'dispatch: binds instances of new comparisons to a new context'() {
+		given:
+		  def differ = Mock(Differ)
+		  differProvider.retrieveDifferForType(String) >> differ
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('foo', 'bar'), RootAccessor.instance)
+		then:
+		  1 * differ.compare(_, { Instances it -> it.context != null }) >> DiffNode.newRootNode()
+	}
+
+	def 'dispatch: passes context of parent instances on to child instances'() {
+		given:
+		  def differ = Mock(Differ)
+		  def context = new DiffContext(circularReferenceDetector, circularReferenceDetector)
+		  def parentInstances = Instances.of(['foo'], ['bar']).withContext(context)
+		  def accessor = new CollectionItemAccessor('foo')
+		  differProvider.retrieveDifferForType(String) >> differ
+		when:
+		  differDispatcher.dispatch(DiffNode.newRootNode(), parentInstances, accessor, 'foo', 'bar')
+		then:
+		  1 * differ.compare(_, { Instances it -> it.context.is(context) }) >> new DiffNode(DiffNode.ROOT, accessor)
+	}
+
+	def 'isForkable: returns false without ParallelismResolver'() {
+		expect:
+		  !differDispatcher.isForkable(DiffNode.newRootNode(), Integer.MAX_VALUE)
+	}
+
+	def 'isForkable: delegates to ParallelismResolver'() {
+		given:
+		  def parentNode = DiffNode.newRootNode()
+		  def parallelismResolver = Mock(ParallelismResolver)
+		  differDispatcher = newDifferDispatcher(parallelismResolver)
+		when:
+		  def forkable = differDispatcher.isForkable(parentNode, 5)
+		then:
+		  1 * parallelismResolver.isParallel(parentNode, 5) >> true
+		and:
+		  forkable
+	}
+
+	def 'schedule: dispatches right away and attaches #description nodes to the parent when not comparing iteratively'() {
+		given:
+		  def parentNode = DiffNode.newRootNode()
+		  def accessor = new CollectionItemAccessor('foo')
+		  def childNode = new DiffNode(parentNode, accessor, String)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) { compare(_, _) >> childNode }
+		  returnableResolver.isReturnable(childNode) >> returnable
+		when:
+		  differDispatcher.schedule(parentNode, Instances.of(['foo'], ['bar']), accessor, 'foo', 'bar')
+		then:
+		  parentNode.hasChildren() == returnable
+		where:
+		  description      | returnable
+		  'returnable'     | true
+		  'non-returnable' | false
+	}
+
+	def 'fork: compares via executor and join attaches the resulting node to its parent'() {
+		given:
+		  def executor = Mock(Executor)
+		  differDispatcher = newDifferDispatcher(Stub(ParallelismResolver) { getExecutor() >> executor })
+		  def parentNode = DiffNode.newRootNode()
+		  def accessor = new CollectionItemAccessor('foo')
+		  def childNode = new DiffNode(parentNode, accessor, String)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) { compare(_, _) >> childNode }
+		  returnableResolver.isReturnable(childNode) >> true
+		when:
+		  def forkedComparison = differDispatcher.fork(parentNode, Instances.of(['foo'], ['bar']), accessor, 'foo', 'bar')
+		then:
+		  1 * executor.execute(_ as Runnable) >> { Runnable task -> task.run() }
+		and:
+		  !parentNode.hasChildren()
+		when:
+		  def node = forkedComparison.join()
+		then:
+		  node.is(childNode)
+		  parentNode.getChild(accessor.elementSelector).is(childNode)
+	}
+
+	def 'fork: comparison runs on joining thread if executor rejects it'() {
+		given:
+		  def executor = Stub(Executor) { execute(_) >> { throw new RejectedExecutionException() } }
+		  differDispatcher = newDifferDispatcher(Stub(ParallelismResolver) { getExecutor() >> executor })
+		  def parentNode = DiffNode.newRootNode()
+		  def accessor = new CollectionItemAccessor('foo')
+		  def childNode = new DiffNode(parentNode, accessor, String)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) { compare(_, _) >> childNode }
+		expect:
+		  differDispatcher.fork(parentNode, Instances.of(['foo'], ['bar']), accessor, 'foo', 'bar').join().is(childNode)
+	}
+
+	def 'fork: join rethrows exceptions thrown during comparison'() {
+		given:
+		  def exception = new IllegalStateException()
+		  def accessor = new CollectionItemAccessor('foo')
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) { compare(_, _) >> { throw exception } }
+		when:
+		  differDispatcher.fork(DiffNode.newRootNode(), Instances.of(['foo'], ['bar']), accessor, 'foo', 'bar').join()
+		then:
+		  def thrownException = thrown(IllegalStateException)
+		  thrownException.is(exception)
+	}
+
+	def 'dispatch: passes the inclusion of a planned property step on to the inclusion resolver'() {
+		given:
+		  def propertyInclusionResolver = Mock(PropertyInclusionResolver)
+		  def differDispatcher = new DifferDispatcher(differProvider,
+				  circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler,
+				  ignoredResolver,
+				  propertyInclusionResolver,
+				  returnableResolver,
+				  propertyAccessExceptionHandlerResolver,
+				  categoryResolver,
+				  null,
+				  false)
+		  def step = new DiffPlan.PropertyStep(Stub(PropertyAwareAccessor), Inclusion.EXCLUDED)
+		when:
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('foo', 'bar'), step)
+		then:
+		  1 * propertyInclusionResolver.isIgnored(_ as DiffNode, Inclusion.EXCLUDED) >> true
+		  0 * propertyInclusionResolver.isIgnored(_ as DiffNode)
+		  0 * ignoredResolver.isIgnored(_)
+		and:
+		  node.state == DiffNode.State.IGNORED
+	}
+
+	def 'dispatch: lets the ignored resolver decide about planned property steps without property inclusion resolver'() {
+		given:
+		  def propertyInclusionResolver = Mock(PropertyInclusionResolver)
+		  def differDispatcher = new DifferDispatcher(differProvider,
+				  circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler,
+				  propertyInclusionResolver,
+				  returnableResolver,
+				  propertyAccessExceptionHandlerResolver,
+				  categoryResolver)
+		  def step = new DiffPlan.PropertyStep(Stub(PropertyAwareAccessor), Inclusion.EXCLUDED)
+		when:
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('foo', 'bar'), step)
+		then:
+		  1 * propertyInclusionResolver.isIgnored(_ as DiffNode) >> true
+		  0 * propertyInclusionResolver.isIgnored(_ as DiffNode, _ as Inclusion)
+		and:
+		  node.state == DiffNode.State.IGNORED
+	}
+
+	def 'dispatch: reports changed nodes of streaming comparisons to the listener'() {
+		given:
+		  def listener = Mock(DiffListener)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) {
+			  compare(_, _) >> { DiffNode parentNode, Instances instances ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, String)
+				  node.state = DiffNode.State.CHANGED
+				  return node
+			  }
+		  }
+		  returnableResolver.isReturnable(_) >> true
+		when:
+		  differDispatcher.dispatch(Instances.of('foo', 'bar'), listener)
+		then:
+		  1 * listener.onChanged(NodePath.withRoot(), 'foo', 'bar')
+	}
+
+	def 'dispatch: does not attach nodes of streaming comparisons to their parents'() {
+		given:
+		  def parentNode = DiffNode.newRootNode()
+		  def context = new DiffContext(circularReferenceDetector, circularReferenceDetector, Mock(DiffListener))
+		  def parentInstances = Instances.of(['foo'], ['bar']).withContext(context)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) {
+			  compare(_, _) >> { DiffNode node, Instances instances ->
+				  def changedNode = new DiffNode(node, instances.sourceAccessor, String)
+				  changedNode.state = DiffNode.State.CHANGED
+				  return changedNode
+			  }
+		  }
+		  returnableResolver.isReturnable(_) >> true
+		when:
+		  def node = differDispatcher.dispatch(parentNode, parentInstances, new CollectionItemAccessor('foo'), 'foo', 'bar')
+		then:
+		  node.changed
+		  !parentNode.hasChildren()
+		  0 * categoryResolver.resolveCategories(_)
+	}
+
+	def 'dispatch: does not report nodes that are not returnable'() {
+		given:
+		  def listener = Mock(DiffListener)
+		  differProvider.retrieveDifferForType(String) >> Stub(Differ) {
+			  compare(_, _) >> { DiffNode parentNode, Instances instances ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, String)
+				  node.state = DiffNode.State.ADDED
+				  return node
+			  }
+		  }
+		  returnableResolver.isReturnable(_) >> false
+		when:
+		  differDispatcher.dispatch(Instances.of('foo', null), listener)
+		then:
+		  0 * listener._
+	}
+
+	private DifferDispatcher newDifferDispatcher(ParallelismResolver parallelismResolver) {
+		return new DifferDispatcher(differProvider,
+				circularReferenceDetectorFactory,
+				circularReferenceExceptionHandler,
+				ignoredResolver,
+				returnableResolver,
+				propertyAccessExceptionHandlerResolver,
+				categoryResolver,
+				parallelismResolver)
+	}
+
+	def 'deprecated rememberInstances and forgetInstances delegate to the context of the instances'() {
+		given:
+		  def workingDetector = Mock(CircularReferenceDetector)
+		  def baseDetector = Mock(CircularReferenceDetector)
+		  def instances = Instances.of('working', 'base').withContext(new DiffContext(workingDetector, baseDetector))
+		when:
+		  DifferDispatcher.rememberInstances(DiffNode.ROOT, instances)
+		then:
+		  1 * workingDetector.push('working', DiffNode.ROOT, _)
+		  1 * baseDetector.push('base', DiffNode.ROOT, _)
+		when:
+		  DifferDispatcher.forgetInstances(DiffNode.ROOT, instances)
+		then:
+		  1 * workingDetector.remove('working')
+		  1 * baseDetector.remove('base')
+	}
+
+	def 'deprecated rememberInstances ignores instances without context'() {
+		when:
+		  DifferDispatcher.rememberInstances(DiffNode.ROOT, Instances.of('working', 'base'))
+		  DifferDispatcher.forgetInstances(DiffNode.ROOT, Instances.of('working', 'base'))
+		  differDispatcher.resetInstanceMemory()
+		  differDispatcher.clearInstanceMemory()
+		then:
+		  noExceptionThrown()
+	}
 }
@@ -16,7 +16,15 @@
 
 package de.danielbechler.diff.differ
 
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.mock.IsolatingClassLoader
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.node.DiffNode
+import groovy.transform.CompileStatic
 import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.ref.WeakReference
 
 /**
  * @author Daniel Bechler
@@ -69,4 +77,84 @@ public class DifferProviderTest extends Specification {
 		  Exception ex = thrown(IllegalStateException)
 		  ex.message == "Couldn't find a differ for type: java.util.Date"
 	}
+
+	def 'remember the differ resolved for a type'() {
+		given:
+		  def differ = Mock(Differ)
+		  differProvider.push(differ)
+		when:
+		  differProvider.retrieveDifferForType(String)
+		  differProvider.retrieveDifferForType(String)
+		then:
+		  1 * differ.accepts(String) >> true
+	}
+
+	def 'forget the remembered differs when another differ is pushed'() {
+		given:
+		  def differ1 = Stub(Differ) {
+			  accepts(String) >> true
+		  }
+		  differProvider.push(differ1)
+		  differProvider.retrieveDifferForType(String)
+		and:
+		  def differ2 = Stub(Differ) {
+			  accepts(String) >> true
+		  }
+		when:
+		  differProvider.push(differ2)
+		then:
+		  differProvider.retrieveDifferForType(String).is(differ2)
+	}
+
+	def 'never remember the differ resolved via a type unstable differ'() {
+		given:
+		  def stableDiffer = Mock(Differ)
+		  differProvider.push(stableDiffer)
+		and:
+		  def unstableDiffer = Mock(TypeUnstableDiffer)
+		  differProvider.push(unstableDiffer)
+		when:
+		  def first = differProvider.retrieveDifferForType(String)
+		  def second = differProvider.retrieveDifferForType(String)
+		then:
+		  2 * unstableDiffer.accepts(String) >>> [false, true]
+		  1 * stableDiffer.accepts(String) >> true
+		and:
+		  first.is(stableDiffer)
+		  second.is(unstableDiffer)
+	}
+
+	@Timeout(30)
+	def 'does not prevent types of discarded class loaders from being garbage collected'() {
+		given:
+		  differProvider.push(new AcceptingDiffer())
+		  def type = retrieveDifferForTypeOfDiscardedClassLoader(differProvider)
+		when:
+		  while (type.get() != null) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  type.get() == null
+	}
+
+	@CompileStatic
+	private static WeakReference<Class<?>> retrieveDifferForTypeOfDiscardedClassLoader(DifferProvider differProvider) {
+		Class type = IsolatingClassLoader.isolatedCopyOf(ObjectWithString)
+		differProvider.retrieveDifferForType(type)
+		return new WeakReference<Class<?>>((Class<?>) type)
+	}
+
+	/**
+	 * Unlike mocks, it doesn't remember the types it has been asked for.
+	 */
+	private static class AcceptingDiffer implements Differ {
+		boolean accepts(Class<?> type) {
+			return true
+		}
+
+		DiffNode compare(DiffNode parentNode, Instances instances) {
+			throw new UnsupportedOperationException()
+		}
+	}
 }
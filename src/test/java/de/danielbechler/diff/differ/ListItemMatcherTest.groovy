@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemMatcherTest extends Specification {
+
+	@Unroll
+	def 'matches the items of #base and #working'() {
+		when:
+		  def matcher = new ListItemMatcher(working, base, EqualsIdentityStrategy.instance)
+
+		then:
+		  (0..<working.size()).collect { matcher.getBaseIndex(it) } == baseIndexes
+		  (0..<working.size()).findAll { matcher.isMoved(it) } == movedIndexes
+
+		where:
+		  base                 | working              || baseIndexes                 | movedIndexes
+		  []                   | []                   || []                          | []
+		  []                   | ['a', 'b']           || [NO_INDEX, NO_INDEX]        | []
+		  ['a', 'b']           | []                   || []                          | []
+		  ['a', 'b', 'c']      | ['a', 'b', 'c']      || [0, 1, 2]                   | []
+		  ['a', 'c']           | ['a', 'b', 'c']      || [0, NO_INDEX, 1]            | []
+		  ['a', 'b', 'c']      | ['a', 'c']           || [0, 2]                      | []
+		  ['a', 'b', 'c']      | ['a', 'x', 'c']      || [0, 1, 2]                   | []
+		  ['a', 'b', 'c', 'd'] | ['b', 'c', 'd', 'a'] || [1, 2, 3, 0]                | [3]
+		  ['a', 'a', 'b']      | ['a', 'b', 'a', 'a'] || [0, 2, 1, NO_INDEX]         | [2]
+		  [null, 'a']          | ['a', null]          || [1, 0]                      | [1]
+	}
+
+	def 'marks the remaining base items as removed'() {
+		when:
+		  def matcher = new ListItemMatcher(['x', 'b'], ['a', 'b', 'c'], EqualsIdentityStrategy.instance)
+
+		then:
+		  matcher.getWorkingIndex(0) == 0
+		  matcher.getWorkingIndex(1) == 1
+		  matcher.getWorkingIndex(2) == NO_INDEX
+	}
+
+	@Unroll
+	def 'finds a longest common subsequence (maximum traced edit distance: #maximumTracedEditDistance)'() {
+		given:
+		  def random = new Random(seed)
+
+		expect:
+		  200.times {
+			  def base = randomList(random)
+			  def working = randomList(random)
+			  def matcher = new ListItemMatcher(working, base, EqualsIdentityStrategy.instance, maximumTracedEditDistance)
+			  assertConsistent(matcher, working, base)
+			  assert commonSubsequenceLength(matcher, working, base) == longestCommonSubsequenceLength(working, base)
+		  }
+
+		where:
+		  maximumTracedEditDistance                     | seed
+		  ListItemMatcher.MAXIMUM_TRACED_EDIT_DISTANCE | 1
+		  2                                             | 2
+		  0                                             | 3
+	}
+
+	def 'finds the few differences between two very long lists'() {
+		given:
+		  def base = (0..<100000).collect { it }
+		  def working = new ArrayList(base)
+		  working.remove(50000)
+		  working.add(70000, -1)
+		  working.add(0, -2)
+
+		when:
+		  def matcher = new ListItemMatcher(working, base, EqualsIdentityStrategy.instance, maximumTracedEditDistance)
+
+		then:
+		  matcher.getBaseIndex(0) == NO_INDEX
+		  matcher.getBaseIndex(70001) == NO_INDEX
+		  matcher.getWorkingIndex(50000) == NO_INDEX
+		  (0..<working.size()).count { matcher.getBaseIndex(it) != NO_INDEX } == 99999
+
+		where:
+		  maximumTracedEditDistance << [ListItemMatcher.MAXIMUM_TRACED_EDIT_DISTANCE, 0]
+	}
+
+	private static List<String> randomList(Random random) {
+		return (0..<random.nextInt(30)).collect { ['a', 'b', 'c', 'd'][random.nextInt(4)] }
+	}
+
+	private static void assertConsistent(ListItemMatcher matcher, List working, List base) {
+		def previousBaseIndex = -1
+		working.indices.each { workingIndex ->
+			def baseIndex = matcher.getBaseIndex(workingIndex)
+			if (baseIndex != NO_INDEX) {
+				assert matcher.getWorkingIndex(baseIndex) == workingIndex
+				if (matcher.isMoved(workingIndex)) {
+					assert working[workingIndex] == base[baseIndex]
+				} else if (working[workingIndex] == base[baseIndex]) {
+					assert baseIndex > previousBaseIndex
+					previousBaseIndex = baseIndex
+				}
+			}
+		}
+	}
+
+	/**
+	 * Items that are matched, equal and not moved form the common subsequence. Items that have been changed in place
+	 * are never equal, otherwise they would have been part of it.
+	 */
+	private static int commonSubsequenceLength(ListItemMatcher matcher, List working, List base) {
+		return working.indices.count { workingIndex ->
+			def baseIndex = matcher.getBaseIndex(workingIndex)
+			baseIndex != NO_INDEX && !matcher.isMoved(workingIndex) && working[workingIndex] == base[baseIndex]
+		}
+	}
+
+	private static int longestCommonSubsequenceLength(List working, List base) {
+		def lengths = new int[base.size() + 1][working.size() + 1]
+		for (int x = 1; x <= base.size(); x++) {
+			for (int y = 1; y <= working.size(); y++) {
+				if (base[x - 1] == working[y - 1]) {
+					lengths[x][y] = lengths[x - 1][y - 1] + 1
+				} else {
+					lengths[x][y] = Math.max(lengths[x - 1][y], lengths[x][y - 1])
+				}
+			}
+		}
+		return lengths[base.size()][working.size()]
+	}
+}
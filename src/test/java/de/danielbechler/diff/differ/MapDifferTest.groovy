@@ -16,7 +16,6 @@
 
 package de.danielbechler.diff.differ
 
-import de.danielbechler.diff.access.Accessor
 import de.danielbechler.diff.access.Instances
 import de.danielbechler.diff.access.MapEntryAccessor
 import de.danielbechler.diff.access.RootAccessor
@@ -44,7 +43,6 @@ public class MapDifferTest extends Specification {
 	def comparisonStrategy = Mock(ComparisonStrategy)
 
 	def setup() {
-		differDispatcher.dispatch(_ as DiffNode, _ as Instances, _ as Accessor) >> childNode
 		mapDiffer = new MapDiffer(differDispatcher, comparisonStrategyResolver)
 		instances.sourceAccessor >> RootAccessor.instance
 		instances.getWorking(Map) >> working
@@ -70,8 +68,8 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'))
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'))
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'), 'one', null)
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'), 'two', null)
 	}
 
 	def "mark node as removed when map was an instance and has been changed to null"() {
@@ -112,7 +110,7 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo')) >> childNode
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('foo'), 'bar', null)
 	}
 
 	def "dispatch comparison of removed map entry"() {
@@ -123,7 +121,39 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo')) >> childNode
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('foo'), null, 'bar')
+	}
+
+	def "dispatch comparison of known map entry with the values of both maps"() {
+		given:
+		  working.put('foo', null)
+		  base.put('foo', 'bar')
+
+		when:
+		  node = mapDiffer.compare(DiffNode.ROOT, instances)
+
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('foo'), null, 'bar')
+	}
+
+	def "dispatch comparison of added entries first, followed by removed and known entries"() {
+		given:
+		  working.put('known', 'working')
+		  working.put('added', 'working')
+		  base.put('removed', 'base')
+		  base.put('known', 'base')
+
+		when:
+		  node = mapDiffer.compare(DiffNode.ROOT, instances)
+
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('added'), 'working', null)
+
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('removed'), null, 'base')
+
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, instances, new MapEntryAccessor('known'), 'working', 'base')
 	}
 
 	def "delegate to comparison strategy returned by ComparisonStrategyResolver"() {
@@ -160,8 +190,8 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'))
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'))
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'), null, 'one')
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'), null, 'two')
 	}
 
 	def "fail when constructed without delegator"() {
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.ArrayRangeAccessor
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PrimitiveArrayDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock()
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock()
+	PrimitiveArrayDiffer primitiveArrayDiffer = new PrimitiveArrayDiffer(differDispatcher, comparisonStrategyResolver)
+
+	@Unroll
+	def 'accepts #type: #accepted'() {
+		expect:
+		  primitiveArrayDiffer.accepts(type) == accepted
+		where:
+		  type       || accepted
+		  boolean[]  || true
+		  byte[]     || true
+		  char[]     || true
+		  short[]    || true
+		  int[]      || true
+		  long[]     || true
+		  float[]    || true
+		  double[]   || true
+		  int        || false
+		  Integer[]  || false
+		  Object[]   || false
+		  int[][]    || false
+		  List       || false
+	}
+
+	@Unroll
+	def 'dispatches one range per run of differing elements of #type arrays'() {
+		when:
+		  primitiveArrayDiffer.compare(DiffNode.ROOT, instances(working.asType(type), base.asType(type)))
+		then:
+		  1 * differDispatcher.schedule(_, _, { isRange(it, 1, 2) }, { it == [working[1]].asType(type) }, { it == [base[1]].asType(type) })
+		then:
+		  1 * differDispatcher.schedule(_, _, { isRange(it, 3, 5) }, { it == working[3..4].asType(type) }, { it == base[3..4].asType(type) })
+		  0 * differDispatcher.schedule(*_)
+		where:
+		  type      | working                            | base
+		  boolean[] | [true, true, true, true, true]     | [true, false, true, false, false]
+		  byte[]    | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+		  char[]    | ['a', 'b', 'c', 'd', 'e']          | ['a', 'x', 'c', 'x', 'x']
+		  short[]   | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+		  int[]     | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+		  long[]    | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+		  float[]   | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+		  double[]  | [1, 2, 3, 4, 5]                    | [1, 0, 3, 0, 0]
+	}
+
+	def 'dispatches the excess elements of the longer array as one range'() {
+		when:
+		  primitiveArrayDiffer.compare(DiffNode.ROOT, instances([1, 2] as int[], [1, 2, 3, 4] as int[]))
+		then:
+		  1 * differDispatcher.schedule(_, _, { isRange(it, 2, 4) }, null, { it == [3, 4] as int[] })
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'compares floating point numbers by their bit patterns'() {
+		when:
+		  primitiveArrayDiffer.compare(DiffNode.ROOT, instances([Double.NaN, 0.0d] as double[], [Double.NaN, Double.longBitsToDouble(Long.MIN_VALUE)] as double[]))
+		then:
+		  1 * differDispatcher.schedule(_, _, { isRange(it, 1, 2) }, _, _)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'does not dispatch anything for equal arrays'() {
+		when:
+		  def node = primitiveArrayDiffer.compare(DiffNode.ROOT, instances([1, 2] as int[], [1, 2] as int[]))
+		then:
+		  node.untouched
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	@Unroll
+	def 'marks the node as #expectedState without comparing the elements when the array has been #expectedState'() {
+		when:
+		  def node = primitiveArrayDiffer.compare(DiffNode.ROOT, instances(working as int[], base as int[]))
+		then:
+		  node.state == expectedState
+		  0 * differDispatcher.schedule(*_)
+		where:
+		  working | base   || expectedState
+		  [1, 2]  | null   || DiffNode.State.ADDED
+		  null    | [1, 2] || DiffNode.State.REMOVED
+	}
+
+	def 'marks range nodes as changed without scanning them again'() {
+		when:
+		  def node = primitiveArrayDiffer.compare(DiffNode.ROOT, Instances.of(new ArrayRangeAccessor(1, 2), [2] as int[], [3] as int[]))
+		then:
+		  node.changed
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'compares the arrays via comparison strategy if one applies'() {
+		given:
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  primitiveArrayDiffer.compare(DiffNode.ROOT, instances([1] as int[], [2] as int[]))
+		then:
+		  1 * comparisonStrategy.compare(_, int[], _, _)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	private static Instances instances(working, base) {
+		return Instances.of(RootAccessor.instance, working, base)
+	}
+
+	private static boolean isRange(ArrayRangeAccessor accessor, int from, int to) {
+		return accessor.elementSelector == new ArrayRangeElementSelector(from, to)
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.MapEntryAccessor
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.node.DiffNode
+import spock.lang.Specification
+
+class SortedMapDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock()
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock()
+	MapDiffer mapDiffer = new MapDiffer(differDispatcher, comparisonStrategyResolver)
+	SortedMapDiffer sortedMapDiffer = new SortedMapDiffer(mapDiffer, differDispatcher, comparisonStrategyResolver)
+
+	def 'accepts only sorted maps'() {
+		expect:
+		  sortedMapDiffer.accepts(type) == accepted
+		where:
+		  type      || accepted
+		  SortedMap || true
+		  TreeMap   || true
+		  Map       || false
+		  HashMap   || false
+	}
+
+	def 'dispatches added, removed and known entries in the order of the MapDiffer'() {
+		when:
+		  sortedMapDiffer.compare(DiffNode.ROOT, instances(new TreeMap([a: 1, c: 3, d: 4]), new TreeMap([b: 2, c: 5, e: 6])))
+		then:
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('a'), 1, null)
+		then:
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('d'), 4, null)
+		then:
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('b'), null, 2)
+		then:
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('e'), null, 6)
+		then:
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('c'), 3, 5)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the MapDiffer when a comparison strategy applies'() {
+		given:
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  sortedMapDiffer.compare(DiffNode.ROOT, instances(new TreeMap([a: 1]), new TreeMap([a: 2])))
+		then:
+		  1 * comparisonStrategy.compare(_, TreeMap, _, _)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the MapDiffer when one of the maps is null'() {
+		when:
+		  def node = sortedMapDiffer.compare(DiffNode.ROOT, instances(null, new TreeMap([a: 1])))
+		then:
+		  node.removed
+		  1 * differDispatcher.schedule(_, _, new MapEntryAccessor('a'), null, 1)
+	}
+
+	private static Instances instances(SortedMap working, SortedMap base) {
+		return Instances.of(RootAccessor.instance, working, base)
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategyResolver
+import de.danielbechler.diff.node.DiffNode
+import spock.lang.Specification
+
+class SortedSetDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock()
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock()
+	IdentityStrategyResolver identityStrategyResolver = Stub() {
+		resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+	}
+	CollectionDiffer collectionDiffer = new CollectionDiffer(differDispatcher, comparisonStrategyResolver, identityStrategyResolver)
+	SortedSetDiffer sortedSetDiffer = new SortedSetDiffer(collectionDiffer, differDispatcher, comparisonStrategyResolver, identityStrategyResolver)
+
+	def 'accepts only sorted sets'() {
+		expect:
+		  sortedSetDiffer.accepts(type) == accepted
+		where:
+		  type      || accepted
+		  SortedSet || true
+		  TreeSet   || true
+		  Set       || false
+		  HashSet   || false
+		  List      || false
+	}
+
+	def 'dispatches added, removed and known items in the order of the CollectionDiffer'() {
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(new TreeSet(['a', 'c', 'd']), new TreeSet(['b', 'c', 'e'])))
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'a', null)
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'd', null)
+		then:
+		  1 * differDispatcher.schedule(_, _, _, null, 'b')
+		then:
+		  1 * differDispatcher.schedule(_, _, _, null, 'e')
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'c', 'c')
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when the items have a custom identity strategy'() {
+		given:
+		  def identityStrategy = new IdentityStrategy() {
+			  boolean equals(Object working, Object base) {
+				  return true
+			  }
+		  }
+		  def identityStrategyResolver = Stub(IdentityStrategyResolver) {
+			  resolveIdentityStrategy(_) >> identityStrategy
+		  }
+		  def collectionDiffer = new CollectionDiffer(differDispatcher, comparisonStrategyResolver, identityStrategyResolver)
+		  def sortedSetDiffer = new SortedSetDiffer(collectionDiffer, differDispatcher, comparisonStrategyResolver, identityStrategyResolver)
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(new TreeSet(['a']), new TreeSet(['b'])))
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'a', 'b')
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when the sets are sorted differently'() {
+		given:
+		  def working = new TreeSet(Collections.reverseOrder())
+		  working.addAll(['a', 'b'])
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(working, new TreeSet(['a', 'c'])))
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'b', null)
+		then:
+		  1 * differDispatcher.schedule(_, _, _, null, 'c')
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'a', 'a')
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when the order is not known to be consistent with equals'() {
+		given:
+		  def working = new TreeSet(String.CASE_INSENSITIVE_ORDER)
+		  working.add('A')
+		  def base = new TreeSet(String.CASE_INSENSITIVE_ORDER)
+		  base.add('a')
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(working, base))
+		then:
+		  1 * differDispatcher.schedule(_, _, _, 'A', null)
+		then:
+		  1 * differDispatcher.schedule(_, _, _, null, 'a')
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when the natural order of the items is not consistent with equals'() {
+		given:
+		  def workingItem = new BigDecimal('1.00')
+		  def baseItem = new BigDecimal('1.0')
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(new TreeSet([workingItem]), new TreeSet([baseItem])))
+		then:
+		  1 * differDispatcher.schedule(_, _, _, workingItem, null)
+		then:
+		  1 * differDispatcher.schedule(_, _, _, null, baseItem)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when a comparison strategy applies'() {
+		given:
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  sortedSetDiffer.compare(DiffNode.ROOT, instances(new TreeSet(['a']), new TreeSet(['b'])))
+		then:
+		  1 * comparisonStrategy.compare(_, TreeSet, _, _)
+		  0 * differDispatcher.schedule(*_)
+	}
+
+	def 'hands the comparison over to the CollectionDiffer when one of the sets is null'() {
+		when:
+		  def node = sortedSetDiffer.compare(DiffNode.ROOT, instances(new TreeSet(['a']), null))
+		then:
+		  node.added
+	}
+
+	private static Instances instances(SortedSet working, SortedSet base) {
+		return Instances.of(RootAccessor.instance, working, base)
+	}
+}
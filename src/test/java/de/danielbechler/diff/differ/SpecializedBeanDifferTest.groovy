@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.comparison.PrimitiveDefaultValueModeResolver
+import de.danielbechler.diff.filtering.IsReturnableResolver
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.introspection.IsIntrospectableResolver
+import de.danielbechler.diff.introspection.TypeInfoResolver
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import spock.lang.Specification
+
+class SpecializedBeanDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock(DifferDispatcher)
+	DifferProvider differProvider = Mock(DifferProvider)
+	IsIntrospectableResolver introspectableResolver = Stub(IsIntrospectableResolver) {
+		isIntrospectable(_) >> true
+	}
+	IsReturnableResolver returnableResolver = Stub(IsReturnableResolver) {
+		isReturnable(_) >> { DiffNode node -> !node.untouched }
+	}
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock(ComparisonStrategyResolver)
+	TypeInfoResolver typeInfoResolver = Stub(TypeInfoResolver)
+	DiffPlanCompiler diffPlanCompiler = new DiffPlanCompiler(null)
+	BeanDiffer beanDiffer = new BeanDiffer(differDispatcher, introspectableResolver, returnableResolver,
+			comparisonStrategyResolver, typeInfoResolver, diffPlanCompiler)
+
+	SpecializedBeanDiffer specializedBeanDiffer = new SpecializedBeanDiffer(beanDiffer, differDispatcher,
+			differProvider, introspectableResolver, returnableResolver, comparisonStrategyResolver, typeInfoResolver,
+			diffPlanCompiler, [StringBuilder], [])
+
+	def 'accepts only the specialized types'() {
+		expect:
+		  specializedBeanDiffer.accepts(StringBuilder)
+		  !specializedBeanDiffer.accepts(StringBuffer)
+		  !specializedBeanDiffer.accepts(Object)
+	}
+
+	def 'skips properties with equal primitive values'() {
+		given:
+		  def accessor = propertyAccessor('count', int, 1, 1)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		when:
+		  def node = specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		then:
+		  0 * differDispatcher.schedule(*_)
+		and:
+		  node.untouched
+		  !node.hasChildren()
+	}
+
+	def 'dispatches properties with different values using the values that have already been read'() {
+		given:
+		  def accessor = propertyAccessor('count', int, 1, 2)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		when:
+		  def node = specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, accessor, 1, 2) >> { DiffNode parentNode, Instances i, PropertyAwareAccessor a, w, b ->
+			  def propertyNode = new DiffNode(parentNode, a, int)
+			  propertyNode.state = DiffNode.State.CHANGED
+			  parentNode.addChild(propertyNode)
+		  }
+		and:
+		  node.getChild('count').changed
+	}
+
+	def 'dispatches equal primitive values when the primitive differ has been replaced'() {
+		given:
+		  def accessor = propertyAccessor('count', int, 1, 1)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> Stub(Differ)
+		when:
+		  specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, accessor, 1, 1)
+	}
+
+	def 'keeps its per-type state on the diff plan'() {
+		given:
+		  def typeInfo = typeInfoWith(propertyAccessor('count', int, 1, 1))
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfo
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		when:
+		  specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		then:
+		  diffPlanCompiler.planFor(typeInfo).specialization != null
+	}
+
+	def 'does not reuse the per-type state of other differs'() {
+		given:
+		  def typeInfo = typeInfoWith(propertyAccessor('count', int, 1, 1))
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfo
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		  specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		  def specialization = diffPlanCompiler.planFor(typeInfo).specialization
+		when:
+		  specializedBeanDifferWith(new LengthComparator({ a, b -> true })).compare(DiffNode.ROOT, instances())
+		then:
+		  !diffPlanCompiler.planFor(typeInfo).specialization.is(specialization)
+	}
+
+	def 'falls back to the BeanDiffer when there is a comparison strategy'() {
+		given:
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  specializedBeanDiffer.compare(DiffNode.ROOT, instances())
+		then:
+		  1 * comparisonStrategy.compare(_ as DiffNode, StringBuilder, _, _)
+	}
+
+	def 'falls back to the BeanDiffer when the bean has been added'() {
+		given:
+		  typeInfoResolver.typeInfoForNode(_) >> new TypeInfo(StringBuilder)
+		when:
+		  def node = specializedBeanDiffer.compare(DiffNode.ROOT, Instances.of(new StringBuilder(), null))
+		then:
+		  node.added
+	}
+
+	def 'skips primitive properties the compiled comparator reports as equal without reading them'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor) {
+			  getPropertyName() >> 'length'
+			  getType() >> int
+			  getElementSelector() >> new BeanPropertyElementSelector('length')
+		  }
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		and:
+		  def differ = specializedBeanDifferWith(new LengthComparator({ StringBuilder working, StringBuilder base ->
+			  working.length() == base.length()
+		  }))
+		when:
+		  def node = differ.compare(DiffNode.ROOT, Instances.of(new StringBuilder('foo'), new StringBuilder('bar')))
+		then:
+		  0 * accessor.get(_)
+		  0 * differDispatcher.schedule(*_)
+		and:
+		  node.untouched
+	}
+
+	def 'reads properties the compiled comparator reports as changed via their accessor'() {
+		given:
+		  def accessor = propertyAccessor('length', int, 7, 4)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		and:
+		  def differ = specializedBeanDifferWith(new LengthComparator({ StringBuilder working, StringBuilder base ->
+			  working.length() == base.length()
+		  }))
+		when:
+		  differ.compare(DiffNode.ROOT, instances())
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, accessor, 7, 4)
+	}
+
+	def 'reads properties via their accessor when the compiled comparator fails'() {
+		given:
+		  def accessor = propertyAccessor('length', int, 7, 4)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfoWith(accessor)
+		  differProvider.retrieveDifferForType(int) >> new PrimitiveDiffer(Stub(PrimitiveDefaultValueModeResolver))
+		and:
+		  def differ = specializedBeanDifferWith(new LengthComparator({ StringBuilder working, StringBuilder base ->
+			  throw new IllegalStateException()
+		  }))
+		when:
+		  differ.compare(DiffNode.ROOT, instances())
+		then:
+		  1 * differDispatcher.schedule(_ as DiffNode, _ as Instances, accessor, 7, 4)
+	}
+
+	def 'specializes the bean types of compiled comparators'() {
+		expect:
+		  specializedBeanDifferWith(new LengthComparator({ a, b -> true })).accepts(StringBuilder)
+	}
+
+	private SpecializedBeanDiffer specializedBeanDifferWith(CompiledBeanComparator<?> comparator) {
+		return new SpecializedBeanDiffer(beanDiffer, differDispatcher, differProvider, introspectableResolver,
+				returnableResolver, comparisonStrategyResolver, typeInfoResolver, diffPlanCompiler, [], [comparator])
+	}
+
+	private static Instances instances() {
+		return Instances.of(new StringBuilder('working'), new StringBuilder('base'))
+	}
+
+	private PropertyAwareAccessor propertyAccessor(String propertyName, Class<?> type, working, base) {
+		return Stub(PropertyAwareAccessor) {
+			getPropertyName() >> propertyName
+			getType() >> type
+			getElementSelector() >> new BeanPropertyElementSelector(propertyName)
+			get({ it.toString() == 'working' }) >> working
+			get({ it.toString() == 'base' }) >> base
+		}
+	}
+
+	private static TypeInfo typeInfoWith(PropertyAwareAccessor accessor) {
+		def typeInfo = new TypeInfo(StringBuilder)
+		typeInfo.addPropertyAccessor(accessor)
+		return typeInfo
+	}
+
+	static class LengthComparator extends CompiledBeanComparator<StringBuilder> {
+		final Closure<Boolean> isEqual
+
+		LengthComparator(Closure<Boolean> isEqual) {
+			super(StringBuilder)
+			this.isEqual = isEqual
+		}
+
+		protected int indexOf(String propertyName, Class<?> propertyType) {
+			return propertyName == 'length' && propertyType == int ? 0 : -1
+		}
+
+		protected boolean isEqual(int index, StringBuilder working, StringBuilder base) {
+			return isEqual.call(working, base)
+		}
+	}
+}
@@ -36,6 +36,17 @@ class EqualsIdentityStrategyTest extends Specification {
 		  'foo' | 'foo' || true
 	}
 
+	@Unroll
+	def "hashCode(#item) should be #hashCode"() {
+		expect:
+		  identityStrategy.hashCode(item) == hashCode
+
+		where:
+		  item  || hashCode
+		  null  || 0
+		  'foo' || 'foo'.hashCode()
+	}
+
 	def "getInstance"() {
 		expect:
 		  EqualsIdentityStrategy.instance.is(identityStrategy)
@@ -17,7 +17,10 @@
 package de.danielbechler.diff.inclusion
 
 import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.category.CategoryResolver
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.introspection.ObjectDiffProperty
 import de.danielbechler.diff.node.DiffNode
 import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
@@ -112,6 +115,40 @@ class InclusionServiceTest extends Specification {
 		  ignoreState = expectIgnored ? 'ignore' : 'not ignore'
 	}
 
+	@Unroll
+	def 'isIgnored: should return #expectIgnored for nodes with #propertyInclusion property inclusion if strict include mode is #strictIncludeModeState'() {
+		given:
+		  inclusionService.resolveUsing(Stub(InclusionResolver, {
+			  getInclusion(_) >> DEFAULT
+			  enablesStrictIncludeMode() >> strictMode
+		  }))
+		expect:
+		  inclusionService.isIgnored(Mock(DiffNode), propertyInclusion) == expectIgnored
+		where:
+		  propertyInclusion | strictMode || expectIgnored
+		  DEFAULT           | true       || true
+		  INCLUDED          | true       || false
+		  EXCLUDED          | true       || true
+		  DEFAULT           | false      || false
+		  INCLUDED          | false      || false
+		  EXCLUDED          | false      || true
+
+		  strictIncludeModeState = strictMode ? 'enabled' : 'disabled'
+	}
+
+	def 'resolvePropertyInclusion: should resolve the inclusion from the property annotations'() {
+		given:
+		  def excludedAccessor = Stub(PropertyAwareAccessor, {
+			  getReadMethodAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty, {
+				  inclusion() >> EXCLUDED
+			  })
+		  })
+		  def typeInfo = new TypeInfo(Object)
+		  typeInfo.addPropertyAccessor(excludedAccessor)
+		expect:
+		  inclusionService.resolvePropertyInclusion(typeInfo, excludedAccessor) == EXCLUDED
+	}
+
 	@Unroll
 	def '#name: #inclusionText creates and activates (exactly one) #resolverType'() {
 		expect:
@@ -16,8 +16,10 @@
 
 package de.danielbechler.diff.inclusion
 
+import de.danielbechler.diff.identity.IdentityStrategy
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import de.danielbechler.diff.selector.CollectionItemElementSelector
 import de.danielbechler.diff.selector.RootElementSelector
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -66,6 +68,20 @@ class ValueNodeTest extends Specification {
 		  node.getChild(childElementSelector).elementSelector == childElementSelector
 	}
 
+	def 'GetChild: finds existing collection item child even if selectors use different identity strategies'() {
+		given:
+		  def identityStrategy = new IdentityStrategy() {
+			  boolean equals(Object working, Object base) {
+				  return working.toUpperCase() == base.toUpperCase()
+			  }
+		  }
+		  def configuredSelector = new CollectionItemElementSelector('foo')
+		  def childNode = node.getChild(configuredSelector)
+
+		expect:
+		  node.getChild(new CollectionItemElementSelector('FOO').copyWithIdentityStrategy(identityStrategy)) is childNode
+	}
+
 	def 'GetChild: sets reference to parent when creating new child nodes'() {
 		when:
 		  def childNode = node.getChild(new BeanPropertyElementSelector('foo'))
@@ -114,6 +130,29 @@ class ValueNodeTest extends Specification {
 		  childNode.getNodeForPath(NodePath.with('foo', 'bar')) is childNode
 	}
 
+	def 'FindNodeForPath: returns existing node'() {
+		given:
+		  def childNode = node.getNodeForPath(NodePath.with('foo', 'bar'))
+
+		expect:
+		  node.findNodeForPath(NodePath.with('foo', 'bar')) is childNode
+	}
+
+	def 'FindNodeForPath: returns detached node for unknown path without modifying the tree'() {
+		given:
+		  def parentNode = node.getNodeForPath(NodePath.with('foo'))
+		  parentNode.value = INCLUDED
+
+		when:
+		  def childNode = node.findNodeForPath(NodePath.with('foo', 'bar', 'baz'))
+
+		then:
+		  childNode.elementSelector == new BeanPropertyElementSelector('baz')
+		  childNode.closestParentWithValue.is(parentNode)
+		and:
+		  !parentNode.hasChild(new BeanPropertyElementSelector('bar'))
+	}
+
 	def 'ContainsValue: is true when the node has the requested value'() {
 		when:
 		  node.setValue(INCLUDED)
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.inclusion.Inclusion
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import spock.lang.Specification
+
+class CompiledPropertyAccessorTest extends Specification {
+
+	def 'get returns null when target is null'() {
+		expect:
+		  accessorFor('value').get(null) == null
+	}
+
+	def 'get reads the property via read method'() {
+		expect:
+		  accessorFor('value').get(new ObjectWithProperties(value: 'foo')) == 'foo'
+	}
+
+	def 'get wraps exceptions in PropertyReadException'() {
+		given:
+		  def accessor = new CompiledPropertyAccessor(ObjectWithProperties, 'value', 'getValue', String, false, null) {
+			  protected Object read(Object target) {
+				  throw new IllegalStateException()
+			  }
+		  }
+		when:
+		  accessor.get(new ObjectWithProperties())
+		then:
+		  PropertyReadException ex = thrown()
+		  ex.propertyName == 'value'
+		  ex.cause instanceof IllegalStateException
+	}
+
+	def 'set writes the property via write method'() {
+		given:
+		  def target = new ObjectWithProperties()
+		when:
+		  accessorFor('value').set(target, 'foo')
+		then:
+		  target.value == 'foo'
+	}
+
+	def 'set wraps exceptions in PropertyWriteException'() {
+		given:
+		  def accessor = new CompiledPropertyAccessor(ObjectWithProperties, 'value', 'getValue', String, true, null) {
+			  protected Object read(Object target) {
+				  return null
+			  }
+
+			  protected void write(Object target, Object value) {
+				  throw new IllegalStateException()
+			  }
+		  }
+		when:
+		  accessor.set(new ObjectWithProperties(), 'foo')
+		then:
+		  PropertyWriteException ex = thrown()
+		  ex.propertyName == 'value'
+		  ex.newValue == 'foo'
+	}
+
+	def 'set replaces the content of read-only collection properties'() {
+		given:
+		  def bean = new ObjectWithProperties(items: ['foo'])
+		  def accessor = new CompiledPropertyAccessor(ObjectWithProperties, 'items', 'getItems', List, false, null) {
+			  protected Object read(Object target) {
+				  return target.items
+			  }
+		  }
+		when:
+		  accessor.set(bean, ['bar'])
+		then:
+		  bean.items == ['bar']
+	}
+
+	def 'getReadMethodAnnotation returns the given ObjectDiffProperty annotation'() {
+		given:
+		  def annotation = CompiledPropertyAccessor.objectDiffProperty(false, Inclusion.EXCLUDED, false, ['foo'] as String[], '')
+		  def accessor = new CompiledPropertyAccessor(ObjectWithProperties, 'value', 'getValue', String, false, annotation) {
+			  protected Object read(Object target) {
+				  return null
+			  }
+		  }
+		expect:
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty).is(annotation)
+		  accessor.categoriesFromAnnotation == ['foo'] as Set
+	}
+
+	def 'getReadMethodAnnotations returns the annotations of the read method'() {
+		expect:
+		  accessorFor('value').readMethodAnnotations*.annotationType() == [ObjectDiffProperty]
+	}
+
+	def 'getFieldAnnotations returns the annotations of the field'() {
+		expect:
+		  accessorFor('value').fieldAnnotations*.annotationType() == [Deprecated]
+	}
+
+	def 'objectDiffProperty creates annotations equal to the ones found via reflection'() {
+		given:
+		  def reflectedAnnotation = ObjectWithProperties.getMethod('getValue').getAnnotation(ObjectDiffProperty)
+		  def compiledAnnotation = CompiledPropertyAccessor.objectDiffProperty(false, Inclusion.INCLUDED, true, ['foo', 'bar'] as String[], 'toString')
+		expect:
+		  compiledAnnotation == reflectedAnnotation
+		  reflectedAnnotation == compiledAnnotation
+		  compiledAnnotation.hashCode() == reflectedAnnotation.hashCode()
+		  compiledAnnotation.annotationType() == ObjectDiffProperty
+	}
+
+	def 'getElementSelector returns selector for property name'() {
+		expect:
+		  accessorFor('value').elementSelector == new BeanPropertyElementSelector('value')
+	}
+
+	private static CompiledPropertyAccessor accessorFor(String propertyName) {
+		return new CompiledPropertyAccessor(ObjectWithProperties, propertyName, 'get' + propertyName.capitalize(), String, true, null) {
+			protected Object read(Object target) {
+				return target[propertyName]
+			}
+
+			protected void write(Object target, Object value) {
+				target[propertyName] = value
+			}
+		}
+	}
+
+	static class ObjectWithProperties {
+		@Deprecated
+		private String value
+		private List<String> items
+
+		@ObjectDiffProperty(inclusion = Inclusion.INCLUDED, equalsOnly = true, categories = ['foo', 'bar'], equalsOnlyValueProviderMethod = 'toString')
+		String getValue() {
+			return value
+		}
+
+		void setValue(String value) {
+			this.value = value
+		}
+
+		List<String> getItems() {
+			return items
+		}
+	}
+}
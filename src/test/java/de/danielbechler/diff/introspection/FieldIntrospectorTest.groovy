@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import spock.lang.Specification
+
+class FieldIntrospectorTest extends Specification {
+
+	def introspector = new FieldIntrospector()
+
+	private Map<String, PropertyAwareAccessor> introspect(Class<?> type) {
+		introspector.introspect(type).accessors.collectEntries {
+			accessor -> [accessor.propertyName, accessor]
+		}
+	}
+
+	def 'returns accessors for declared fields including the ones of superclasses'() {
+		when:
+		  def accessors = introspector.introspect(SubType).accessors
+		then:
+		  accessors.collect { it.propertyName } == ['id', 'name', 'count']
+	}
+
+	def 'ignores static, transient and synthetic fields'() {
+		expect:
+		  introspect(TypeWithIgnoredFields).keySet() == ['value'] as Set
+	}
+
+	def 'prefers fields of subclasses over fields of superclasses with the same name'() {
+		when:
+		  def accessor = introspect(SubType).get('name')
+		then:
+		  accessor.type == Integer
+		  accessor.get(new SubType(name: 42)) == 42
+	}
+
+	def 'reads and writes private fields without getters or setters'() {
+		given:
+		  def accessor = introspect(SubType).get('count')
+		  def target = new SubType()
+		when:
+		  accessor.set(target, 5)
+		then:
+		  accessor.get(target) == 5
+		and:
+		  accessor.elementSelector == new BeanPropertyElementSelector('count')
+	}
+
+	def 'does not assign values to final fields'() {
+		given:
+		  def accessor = introspect(TypeWithFinalField).get('value')
+		  def target = new TypeWithFinalField()
+		when:
+		  accessor.set(target, 'bar')
+		then:
+		  accessor.get(target) == 'foo'
+	}
+
+	def 'fails on read if target is not of the expected type'() {
+		when:
+		  introspect(SubType).get('count').get(new Object())
+		then:
+		  thrown(PropertyReadException)
+	}
+
+	def 'fails on write if value is not of the expected type'() {
+		when:
+		  introspect(SubType).get('count').set(new SubType(), 'foo')
+		then:
+		  thrown(PropertyWriteException)
+	}
+
+	def 'exposes ObjectDiffProperty annotation of fields'() {
+		when:
+		  def accessor = introspect(AnnotatedType).get('value')
+		then:
+		  accessor.excludedByAnnotation
+		  accessor.categoriesFromAnnotation == ['A', 'B'] as Set
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty) != null
+		  accessor.getFieldAnnotation(ObjectDiffProperty) != null
+		  accessor.fieldAnnotations == accessor.readMethodAnnotations
+	}
+
+	def 'introspect with null type should throw IllegalArgumentException'() {
+		when:
+		  introspector.introspect(null)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	@SuppressWarnings("GroovyUnusedDeclaration")
+	static class BaseType {
+		private String id
+		private String name
+	}
+
+	@SuppressWarnings("GroovyUnusedDeclaration")
+	static class SubType extends BaseType {
+		private Integer name
+		private int count
+	}
+
+	@SuppressWarnings("GroovyUnusedDeclaration")
+	static class TypeWithIgnoredFields {
+		private static String constant
+		private transient String cached
+		private String value
+	}
+
+	static class TypeWithFinalField {
+		private final String value = new String('foo')
+	}
+
+	static class AnnotatedType {
+		@ObjectDiffProperty(excluded = true, categories = ['A', 'B'])
+		private String value
+	}
+}
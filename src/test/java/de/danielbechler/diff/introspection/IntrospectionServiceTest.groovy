@@ -191,6 +191,56 @@ class IntrospectionServiceTest extends Specification {
 		  introspectionService.introspectorForNode(rootNode) == nodeIntrospector
 	}
 
+	def 'introspectorForNode returns standard introspector using the configured property access backend'() {
+		given:
+		  def backend = Mock(PropertyAccessBackend)
+		  introspectionService = new IntrospectionService(objectDifferBuilder)
+		  introspectionService.setPropertyAccessBackend(backend)
+		when:
+		  def introspector = introspectionService.introspectorForNode(rootNode)
+		  introspector.introspect(ObjectWithString)
+		then:
+		  introspector instanceof StandardIntrospector
+		  1 * backend.createReader(ObjectWithString.getMethod('getValue')) >> Stub(PropertyAccessBackend.PropertyReader)
+	}
+
+	def 'typeInfoForNode introspects every type only once'() {
+		given:
+		  def typeInfo = new TypeInfo(ObjectWithString)
+		when:
+		  def firstResult = introspectionService.typeInfoForNode(rootNode)
+		  def secondResult = introspectionService.typeInfoForNode(rootNode)
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> typeInfo
+		and:
+		  firstResult.is(typeInfo)
+		  secondResult.is(typeInfo)
+		  introspectionService.typeInfoCache.hitCount == 1
+	}
+
+	def 'typeInfoForNode introspects every time when caching is disabled'() {
+		given:
+		  introspectionService.setTypeInfoCache(new TypeInfoCache(0))
+		when:
+		  introspectionService.typeInfoForNode(rootNode)
+		  introspectionService.typeInfoForNode(rootNode)
+		then:
+		  2 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+	}
+
+	def 'typeInfoForNode uses the configured instance factory'() {
+		given:
+		  def instanceFactory = Mock(de.danielbechler.diff.instantiation.InstanceFactory)
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		and:
+		  introspectionService.setInstanceFactory(instanceFactory)
+		when:
+		  introspectionService.typeInfoForNode(rootNode).newInstance()
+		then:
+		  1 * instanceFactory.newInstanceOfType(ObjectWithString) >> new ObjectWithString()
+	}
+
 	def 'and() returns original ObjectDifferBuilder'() {
 		given:
 		  objectDifferBuilder = Mock(ObjectDifferBuilder)
@@ -224,4 +224,57 @@ public class PropertyAccessorTest extends Specification {
 		expect:
 		  propertyAccessor.excludedByAnnotation == false
 	}
+
+	def 'reads and writes via readers and writers of the given backend'() {
+		given:
+		  def backend = Mock(PropertyAccessBackend)
+		  def reader = Mock(PropertyAccessBackend.PropertyReader)
+		  def writer = Mock(PropertyAccessBackend.PropertyWriter)
+		  def readMethod = ObjectWithHashCodeAndEquals.getMethod('getValue')
+		  def writeMethod = ObjectWithHashCodeAndEquals.getMethod('setValue', String)
+		when:
+		  propertyAccessor = new PropertyAccessor('value', readMethod, writeMethod, backend)
+		then:
+		  1 * backend.createReader(readMethod) >> reader
+		  1 * backend.createWriter(writeMethod) >> writer
+		when:
+		  def value = propertyAccessor.get(item)
+		  propertyAccessor.set(item, 'bar')
+		then:
+		  1 * reader.read(item) >> 'baz'
+		  1 * writer.write(item, 'bar')
+		and:
+		  value == 'baz'
+	}
+
+	def 'falls back to reflection if backend can not handle a method'() {
+		given:
+		  def backend = Stub(PropertyAccessBackend) {
+			  createReader(_) >> null
+			  createWriter(_) >> { throw new UnsupportedOperationException() }
+		  }
+		  propertyAccessor = new PropertyAccessor('value',
+				  ObjectWithHashCodeAndEquals.getMethod('getValue'),
+				  ObjectWithHashCodeAndEquals.getMethod('setValue', String),
+				  backend)
+		when:
+		  propertyAccessor.set(item, 'bar')
+		then:
+		  propertyAccessor.get(item) == 'bar'
+	}
+
+	def 'wraps exceptions thrown by the reader of the backend'() {
+		given:
+		  def backend = Stub(PropertyAccessBackend) {
+			  createReader(_) >> Stub(PropertyAccessBackend.PropertyReader) {
+				  read(_) >> { throw new IllegalStateException() }
+			  }
+		  }
+		  propertyAccessor = new PropertyAccessor('value', ObjectWithHashCodeAndEquals.getMethod('getValue'), null, backend)
+		when:
+		  propertyAccessor.get(item)
+		then:
+		  def exception = thrown(PropertyReadException)
+		  exception.cause instanceof IllegalStateException
+	}
 }
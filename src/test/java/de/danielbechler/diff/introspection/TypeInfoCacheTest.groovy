@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.mock.IsolatingClassLoader
+import de.danielbechler.diff.mock.ObjectWithString
+import groovy.transform.CompileStatic
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.ref.WeakReference
+import java.util.concurrent.Executors
+
+class TypeInfoCacheTest extends Specification {
+
+	def introspector = Stub(Introspector)
+	def cache = new TypeInfoCache()
+
+	def 'get: returns null and counts miss for unknown type'() {
+		expect:
+		  cache.get(introspector, String) == null
+		  cache.missCount == 1
+		  cache.hitCount == 0
+	}
+
+	def 'get: returns cached type info and counts hit'() {
+		given:
+		  def typeInfo = new TypeInfo(String)
+		  cache.put(introspector, String, typeInfo)
+		expect:
+		  cache.get(introspector, String).is(typeInfo)
+		  cache.hitCount == 1
+		  cache.missCount == 0
+	}
+
+	def 'get: distinguishes between introspectors'() {
+		given:
+		  cache.put(introspector, String, new TypeInfo(String))
+		expect:
+		  cache.get(Stub(Introspector), String) == null
+	}
+
+	def 'put: evicts eldest entries when maximum size is exceeded'() {
+		given:
+		  cache = new TypeInfoCache(2)
+		when:
+		  [String, Integer, Long].each { cache.put(introspector, it, new TypeInfo(it)) }
+		then:
+		  cache.size() == 2
+		  cache.evictionCount == 1
+		  cache.get(introspector, String) == null
+		  cache.get(introspector, Integer) != null
+		  cache.get(introspector, Long) != null
+	}
+
+	def 'put: does nothing when maximum size is 0'() {
+		given:
+		  cache = new TypeInfoCache(0)
+		when:
+		  cache.put(introspector, String, new TypeInfo(String))
+		then:
+		  cache.size() == 0
+		  cache.get(introspector, String) == null
+	}
+
+	def 'put: replaces existing entries without changing the size'() {
+		given:
+		  def typeInfo = new TypeInfo(String)
+		when:
+		  cache.put(introspector, String, new TypeInfo(String))
+		  cache.put(introspector, String, typeInfo)
+		then:
+		  cache.size() == 1
+		  cache.get(introspector, String).is(typeInfo)
+	}
+
+	def 'clear: removes all entries'() {
+		given:
+		  cache.put(introspector, String, new TypeInfo(String))
+		when:
+		  cache.clear()
+		then:
+		  cache.size() == 0
+	}
+
+	def 'construction: fails with negative maximum size'() {
+		when:
+		  new TypeInfoCache(-1)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	@Timeout(30)
+	def 'put: does not prevent types of discarded class loaders from being garbage collected'() {
+		given:
+		  def type = cacheTypeOfDiscardedClassLoader(cache, introspector)
+		expect:
+		  cache.size() == 1
+		when:
+		  while (type.get() != null) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  type.get() == null
+	}
+
+	@Timeout(30)
+	def 'put: drops the keys of garbage collected types from the insertion order'() {
+		given:
+		  3.times { cacheTypeOfDiscardedClassLoader(cache, introspector) }
+		when:
+		  while (cache.@insertionOrder.size() > 1) {
+			  System.gc()
+			  Thread.sleep(10)
+			  cache.put(introspector, String, new TypeInfo(String))
+		  }
+		then:
+		  cache.size() == 1
+		  cache.get(introspector, String) != null
+	}
+
+	def 'put: stays within the maximum size when called concurrently'() {
+		given:
+		  cache = new TypeInfoCache(10)
+		  def introspectors = (1..4000).collect { Stub(Introspector) }
+		  def pool = Executors.newFixedThreadPool(8)
+		when:
+		  introspectors.collate(500).collect { batch ->
+			  pool.submit({ batch.each { cache.put(it, String, new TypeInfo(String)) } } as Runnable)
+		  }*.get()
+		then:
+		  cache.size() <= 10
+		  cache.@entries.size() == cache.size()
+		  cache.evictionCount == 4000 - cache.size()
+		cleanup:
+		  pool.shutdown()
+	}
+
+	@CompileStatic
+	private static WeakReference<Class<?>> cacheTypeOfDiscardedClassLoader(TypeInfoCache cache, Introspector introspector) {
+		Class type = IsolatingClassLoader.isolatedCopyOf(ObjectWithString)
+		cache.put(introspector, type, new TypeInfo(type))
+		return new WeakReference<Class<?>>((Class<?>) type)
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.mock
+
+import groovy.transform.CompileStatic
+
+/**
+ * Defines the class with the given name itself, instead of delegating to its parent. Used to get hold of types, that
+ * can be garbage collected along with their class loader.
+ */
+@CompileStatic
+class IsolatingClassLoader extends ClassLoader {
+	private final String isolatedClassName
+
+	IsolatingClassLoader(String isolatedClassName) {
+		super(IsolatingClassLoader.classLoader)
+		this.isolatedClassName = isolatedClassName
+	}
+
+	/**
+	 * @return A copy of the given type, defined by a new class loader.
+	 */
+	static Class isolatedCopyOf(Class type) {
+		return new IsolatingClassLoader(type.name).loadClass(type.name)
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if (name != isolatedClassName) {
+			return super.loadClass(name, resolve)
+		}
+		byte[] bytes = getResourceAsStream(name.replace('.', '/') + '.class').bytes
+		return defineClass(name, bytes, 0, bytes.length)
+	}
+}
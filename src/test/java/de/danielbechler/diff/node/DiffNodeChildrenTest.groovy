@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node
+
+import de.danielbechler.diff.access.CollectionItemAccessor
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import de.danielbechler.diff.selector.CollectionItemElementSelector
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+class DiffNodeChildrenTest extends Specification {
+
+	def children = new DiffNodeChildren()
+
+	@Unroll
+	def 'keeps #count children in insertion order'() {
+		given:
+		  def nodes = (1..count).collect { newNode("item-$it") }
+		when:
+		  nodes.each { children.put(it.elementSelector, it) }
+		then:
+		  children.size() == count
+		  children.values() as List == nodes
+		and:
+		  nodes.every { children.get(it.elementSelector).is(it) }
+		where:
+		  count << [1, DiffNodeChildren.ARRAY_THRESHOLD, DiffNodeChildren.ARRAY_THRESHOLD + 1, 100]
+	}
+
+	@Unroll
+	def 'put: replaces the child with an equal selector and keeps its position (#count children)'() {
+		given:
+		  def nodes = (1..count).collect { newNode("item-$it") }
+		  nodes.each { children.put(it.elementSelector, it) }
+		  def replacement = newNode('item-1')
+		when:
+		  def previousNode = children.put(new CollectionItemElementSelector('item-1'), replacement)
+		then:
+		  previousNode.is(nodes[0])
+		  children.size() == count
+		  (children.values() as List)[0].is(replacement)
+		where:
+		  count << [2, DiffNodeChildren.ARRAY_THRESHOLD + 1]
+	}
+
+	def 'values: reflects children added after the view has been created'() {
+		given:
+		  def nodes = (1..DiffNodeChildren.ARRAY_THRESHOLD + 1).collect { newNode("item-$it") }
+		  children.put(nodes[0].elementSelector, nodes[0])
+		  def values = children.values()
+		when:
+		  nodes.tail().each { children.put(it.elementSelector, it) }
+		then:
+		  values.size() == nodes.size()
+		  values as List == nodes
+	}
+
+	def 'values: reflects children once selectors with different identity strategies have been added'() {
+		given:
+		  def nodes = (1..100).collect { newNode("item-$it") }
+		  nodes.each { children.put(it.elementSelector, it) }
+		  def values = children.values()
+		  def otherNode = new DiffNode(null, new CollectionItemAccessor('other', IGNORE_CASE), String)
+		when:
+		  children.put(otherNode.elementSelector, otherNode)
+		then:
+		  values as List == nodes + otherNode
+	}
+
+	def 'values: cannot be modified'() {
+		given:
+		  def node = newNode('foo')
+		  children.put(node.elementSelector, node)
+		when:
+		  def iterator = children.values().iterator()
+		  iterator.next()
+		  iterator.remove()
+		then:
+		  thrown(UnsupportedOperationException)
+	}
+
+	def 'get: returns null for unknown selectors'() {
+		given:
+		  children.put(new BeanPropertyElementSelector('foo'), newNode('foo'))
+		expect:
+		  children.get(new BeanPropertyElementSelector('bar')) == null
+		  children.get(null) == null
+	}
+
+	def 'supports null selectors'() {
+		given:
+		  def node = newNode('foo')
+		when:
+		  children.put(null, node)
+		then:
+		  children.get(null).is(node)
+	}
+
+	def 'finds collection items via selectors using another identity strategy'() {
+		given:
+		  def nodes = (1..100).collect { newNode("item-$it") }
+		  nodes.each { children.put(it.elementSelector, it) }
+		expect:
+		  children.get(new CollectionItemElementSelector('ITEM-42').copyWithIdentityStrategy(IGNORE_CASE)).is(nodes[41])
+	}
+
+	def 'keeps finding all children once selectors with different identity strategies have been added'() {
+		given:
+		  def nodes = (1..100).collect { newNode("item-$it") }
+		  nodes.each { children.put(it.elementSelector, it) }
+		  def otherNode = new DiffNode(null, new CollectionItemAccessor('other', IGNORE_CASE), String)
+		when:
+		  children.put(otherNode.elementSelector, otherNode)
+		then:
+		  children.size() == 101
+		  children.get(new CollectionItemElementSelector('other')).is(otherNode)
+		  nodes.every { children.get(it.elementSelector).is(it) }
+		  children.values() as List == nodes + otherNode
+	}
+
+	@Timeout(10)
+	def 'hashes collection items via their identity strategy'() {
+		given:
+		  def nodes = (1..100000).collect { newNode("item-$it") }
+		when:
+		  nodes.each { children.put(it.elementSelector, it) }
+		then:
+		  nodes.every { children.get(it.elementSelector).is(it) }
+	}
+
+	private static final IdentityStrategy IGNORE_CASE = new IdentityStrategy() {
+		boolean equals(Object working, Object base) {
+			return working.toUpperCase() == base.toUpperCase()
+		}
+	}
+
+	private static DiffNode newNode(String item) {
+		return new DiffNode(null, new CollectionItemAccessor(item), String)
+	}
+}
@@ -106,6 +106,37 @@ class DiffNodeTest extends Specification {
 		  diffNode.path == NodePath.with('a', 'b', 'c')
 	}
 
+	def 'getPropertyPath: builds path only once'() {
+		given:
+		  def parentNode = DiffNode.newRootNode()
+		  def accessor = Mock(Accessor)
+		  def diffNode = new DiffNode(parentNode, accessor, Object)
+
+		when:
+		  def path = diffNode.path
+
+		then:
+		  1 * accessor.getElementSelector() >> new BeanPropertyElementSelector('a')
+
+		and:
+		  diffNode.path.is(path)
+		  path.parentPath.is(parentNode.path)
+	}
+
+	def 'getPropertyPath: reflects parent node assigned after creation'() {
+		given:
+		  def childNode = new DiffNode(null, new CollectionItemAccessor('A'), null)
+		  def pathBeforeAddingToParent = childNode.path
+		  def parentNode = new DiffNode(DiffNode.newRootNode(), new CollectionItemAccessor('B'), null)
+
+		when:
+		  parentNode.addChild(childNode)
+
+		then:
+		  pathBeforeAddingToParent == NodePath.startBuilding().collectionItem('A').build()
+		  childNode.path == NodePath.startBuilding().collectionItem('B').collectionItem('A').build()
+	}
+
 	def 'addChild: fails with exception when attempting to add root node'() {
 		given:
 		  def rootNode = DiffNode.newRootNode()
@@ -166,6 +197,135 @@ class DiffNodeTest extends Specification {
 		  parentNode.state == CHANGED
 	}
 
+	def 'addChild: adds the changes of the child and its descendants to the summary of all ancestors'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def parentNode = new DiffNode(rootNode, new CollectionItemAccessor('parent'), Object)
+		  rootNode.addChild(parentNode)
+		and:
+		  def childNode = new DiffNode(parentNode, new CollectionItemAccessor('child'), Object)
+		  childNode.addChild(newNode(childNode, 'added', ADDED))
+		  childNode.addChild(newNode(childNode, 'removed', REMOVED))
+		  childNode.addChild(newNode(childNode, 'untouched', UNTOUCHED))
+		when:
+		  parentNode.addChild(childNode)
+		then:
+		  rootNode.addedDescendantCount == 1
+		  rootNode.removedDescendantCount == 1
+		  rootNode.changedDescendantCount == 2
+		  rootNode.maximumDepth == 3
+		  rootNode.hasChanges()
+		and:
+		  parentNode.changedDescendantCount == 1
+		  parentNode.maximumDepth == 2
+		  childNode.maximumDepth == 1
+	}
+
+	def 'addChild: does not count children twice when they are added again'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def childNode = newNode(rootNode, 'child', ADDED)
+		when:
+		  rootNode.addChild(childNode)
+		  rootNode.addChild(childNode)
+		then:
+		  rootNode.addedDescendantCount == 1
+	}
+
+	def 'addChild: replaces the summary of children with the same element selector'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def deepChildNode = newNode(rootNode, 'child', ADDED)
+		  deepChildNode.addChild(newNode(deepChildNode, 'grandchild', ADDED))
+		  rootNode.addChild(deepChildNode)
+		when:
+		  rootNode.addChild(newNode(rootNode, 'child', REMOVED))
+		then:
+		  rootNode.addedDescendantCount == 0
+		  rootNode.removedDescendantCount == 1
+		  rootNode.maximumDepth == 1
+	}
+
+	def 'setState: updates the summary of all ancestors'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def parentNode = new DiffNode(rootNode, new CollectionItemAccessor('parent'), Object)
+		  rootNode.addChild(parentNode)
+		  def childNode = newNode(parentNode, 'child', UNTOUCHED)
+		  parentNode.addChild(childNode)
+		expect:
+		  !rootNode.hasChanges()
+		when:
+		  childNode.state = REMOVED
+		then:
+		  rootNode.removedDescendantCount == 1
+		  rootNode.hasChanges()
+		when:
+		  childNode.state = UNTOUCHED
+		then:
+		  rootNode.removedDescendantCount == 0
+		  !rootNode.hasChanges()
+	}
+
+	def 'setState: does not affect the summary of parents the node has not been added to'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def childNode = new DiffNode(rootNode, new CollectionItemAccessor('child'), Object)
+		when:
+		  childNode.state = ADDED
+		then:
+		  rootNode.addedDescendantCount == 0
+		  !rootNode.hasChanges()
+	}
+
+	def 'visit: visits all nodes depth-first in the order they have been added'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def a = newNode(rootNode, 'a', CHANGED)
+		  def aa = newNode(a, 'aa', ADDED)
+		  def b = newNode(rootNode, 'b', REMOVED)
+		  a.addChild(aa)
+		  rootNode.addChild(a)
+		  rootNode.addChild(b)
+		when:
+		  def visitedNodes = []
+		  rootNode.visit({ DiffNode node, Visit visit -> visitedNodes << node } as DiffNode.Visitor)
+		then:
+		  visitedNodes == [rootNode, a, aa, b]
+	}
+
+	@Unroll
+	def 'visit: skips the children of nodes whose visit has been #action, but continues with their siblings'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def a = newNode(rootNode, 'a', CHANGED)
+		  def aa = newNode(a, 'aa', ADDED)
+		  def b = newNode(rootNode, 'b', CHANGED)
+		  def bb = newNode(b, 'bb', ADDED)
+		  a.addChild(aa)
+		  b.addChild(bb)
+		  rootNode.addChild(a)
+		  rootNode.addChild(b)
+		when:
+		  def visitedNodes = []
+		  rootNode.visit({ DiffNode node, Visit visit ->
+			  visitedNodes << node
+			  if (node.is(a)) {
+				  visit."$action"()
+			  }
+		  } as DiffNode.Visitor)
+		then:
+		  visitedNodes == [rootNode, a, b, bb]
+		where:
+		  action << ['stop', 'dontGoDeeper']
+	}
+
+	private static DiffNode newNode(DiffNode parentNode, String item, DiffNode.State state) {
+		def node = new DiffNode(parentNode, new CollectionItemAccessor(item), String)
+		node.state = state
+		return node
+	}
+
 	def 'getPropertyAnnotations: delegates to accessor if it is property aware'() {
 		given:
 		  ObjectDiffTest annotation = Stub(ObjectDiffTest)
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.parallel
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+
+class ParallelismServiceTest extends Specification {
+
+	def objectDifferBuilder = Mock(ObjectDifferBuilder)
+	def parallelismService = new ParallelismService(objectDifferBuilder)
+	def executor = Mock(Executor)
+	def node = DiffNode.newRootNode()
+
+	def 'is disabled by default'() {
+		expect:
+		  !parallelismService.isParallel(node, Integer.MAX_VALUE)
+		  parallelismService.executor == null
+	}
+
+	def 'is parallel once enabled and threshold is reached'() {
+		given:
+		  parallelismService.enableUsing(executor).setThreshold(3)
+		expect:
+		  parallelismService.isParallel(node, numberOfChildren) == expected
+		  parallelismService.executor.is(executor)
+		where:
+		  numberOfChildren || expected
+		  2                || false
+		  3                || true
+		  4                || true
+	}
+
+	def 'uses default threshold'() {
+		given:
+		  parallelismService.enableUsing(executor)
+		expect:
+		  !parallelismService.isParallel(node, ParallelismService.DEFAULT_THRESHOLD - 1)
+		  parallelismService.isParallel(node, ParallelismService.DEFAULT_THRESHOLD)
+	}
+
+	def 'can be disabled again'() {
+		given:
+		  parallelismService.enableUsing(executor).setThreshold(1)
+		when:
+		  parallelismService.disable()
+		then:
+		  !parallelismService.isParallel(node, 10)
+		  parallelismService.executor == null
+	}
+
+	def 'enableUsing: fails if executor is null'() {
+		when:
+		  parallelismService.enableUsing(null)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'setThreshold: fails if threshold is less than 1'() {
+		when:
+		  parallelismService.setThreshold(0)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'and: returns ObjectDifferBuilder'() {
+		expect:
+		  parallelismService.and().is(objectDifferBuilder)
+	}
+}
@@ -16,6 +16,7 @@
 
 package de.danielbechler.diff.path
 
+import de.danielbechler.diff.identity.IdentityStrategy
 import de.danielbechler.diff.selector.BeanPropertyElementSelector
 import de.danielbechler.diff.selector.CollectionItemElementSelector
 import de.danielbechler.diff.selector.MapKeyElementSelector
@@ -162,4 +163,76 @@ class NodePathTest extends Specification {
 				  RootElementSelector.instance
 		  ]
 	}
-}
\ No newline at end of file
+
+	def 'append: creates child path without modifying the original one'() {
+		given:
+		  def path = NodePath.with('a')
+		when:
+		  def childPath = path.append(new BeanPropertyElementSelector('b'))
+		then:
+		  childPath == NodePath.with('a', 'b')
+		  childPath.parentPath.is(path)
+		  path == NodePath.with('a')
+	}
+
+	def 'append: throws IllegalStateException when called with root element'() {
+		when:
+		  NodePath.withRoot().append(RootElementSelector.instance)
+		then:
+		  thrown IllegalStateException
+	}
+
+	def 'append: throws IllegalArgumentException when called with null'() {
+		when:
+		  NodePath.withRoot().append(null)
+		then:
+		  thrown IllegalArgumentException
+	}
+
+	def 'build: throws IllegalStateException when path contains multiple root elements'() {
+		when:
+		  NodePath.startBuilding().element(RootElementSelector.instance).build()
+		then:
+		  thrown IllegalStateException
+	}
+
+	def 'hashCode is equal to the hashCode of its element selectors'() {
+		expect:
+		  path.hashCode() == path.elementSelectors.hashCode()
+		where:
+		  path << [
+				  NodePath.withRoot(),
+				  NodePath.with('a', 'b'),
+				  NodePath.startBuilding().propertyName('a').collectionItem('b').mapKey('c').build()
+		  ]
+	}
+
+	def 'equals: is true for paths with equal elements but different ancestry instances'() {
+		given:
+		  def path = NodePath.startBuildingFrom(NodePath.with('a')).propertyName('b').build()
+		expect:
+		  path == NodePath.with('a', 'b')
+		  path.hashCode() == NodePath.with('a', 'b').hashCode()
+	}
+
+	def 'equals: is true for collection items whose selectors use different identity strategies'() {
+		given:
+		  def identityStrategy = Mock(IdentityStrategy) {
+			  equals(_, _) >> { a, b -> a == b }
+		  }
+		  def selector = new CollectionItemElementSelector('a').copyWithIdentityStrategy(identityStrategy)
+		  def path = NodePath.withRoot().append(selector)
+		  def otherPath = NodePath.startBuilding().collectionItem('a').build()
+		expect:
+		  path == otherPath
+		  path.matches(otherPath)
+		  path.compareTo(otherPath) == 0
+		  path.hashCode() == otherPath.hashCode()
+		  path.append(new BeanPropertyElementSelector('b')).isChildOf(otherPath)
+	}
+
+	def 'toString'() {
+		expect:
+		  NodePath.startBuilding().propertyName('a').collectionItem('b').mapKey('c').propertyName('d').build().toString() == '/a[b]{c}/d'
+	}
+}
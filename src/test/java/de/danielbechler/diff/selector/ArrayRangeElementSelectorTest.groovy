@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ArrayRangeElementSelectorTest extends Specification {
+
+	@Unroll
+	def 'toHumanReadableString should be #expected for the range from #from to #to'() {
+		expect:
+		  new ArrayRangeElementSelector(from, to).toHumanReadableString() == expected
+		where:
+		  from | to || expected
+		  0    | 1  || '[0]'
+		  3    | 8  || '[3..7]'
+	}
+
+	def 'should be equal to selectors of the same range'() {
+		expect:
+		  new ArrayRangeElementSelector(1, 3) == new ArrayRangeElementSelector(1, 3)
+		  new ArrayRangeElementSelector(1, 3).hashCode() == new ArrayRangeElementSelector(1, 3).hashCode()
+		  new ArrayRangeElementSelector(1, 3) != new ArrayRangeElementSelector(1, 4)
+		  new ArrayRangeElementSelector(1, 3) != new ArrayRangeElementSelector(0, 3)
+		  !new ArrayRangeElementSelector(1, 3).equals(null)
+	}
+
+	@Unroll
+	def 'should not be constructable with the invalid range from #from to #to'() {
+		when:
+		  new ArrayRangeElementSelector(from, to)
+		then:
+		  thrown(IllegalArgumentException)
+		where:
+		  from | to
+		  -1   | 1
+		  2    | 2
+		  3    | 2
+	}
+}
@@ -1,6 +1,9 @@
 package de.danielbechler.diff.selector
 
+import de.danielbechler.diff.identity.HashAwareIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
 import spock.lang.Specification
+
 /**
  * @author Daniel Bechler
  */
@@ -48,6 +51,47 @@ class CollectionItemElementSelectorTest extends Specification {
 		  new CollectionItemElementSelector('foo').hashCode() == 31
 	}
 
+	def 'hashCode should not depend on the identity strategy'() {
+		given:
+		  def identityStrategy = Stub(HashAwareIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
+		expect:
+		  new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy).hashCode() == 31
+	}
+
+	def 'identityHashCode should be derived from the item when using the default identity strategy'() {
+		expect:
+		  new CollectionItemElementSelector('foo').identityHashCode() == 'foo'.hashCode()
+	}
+
+	def 'identityHashCode should be provided by hash aware identity strategy'() {
+		given:
+		  def identityStrategy = Stub(HashAwareIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
+		expect:
+		  new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy).identityHashCode() == 42
+	}
+
+	def 'identityHashCode should fall back to constant when identity strategy cannot compute hash codes'() {
+		given:
+		  def identityStrategy = Stub(IdentityStrategy)
+		expect:
+		  new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy).identityHashCode() == 31
+		  new CollectionItemElementSelector(null).identityHashCode() == 31
+	}
+
+	def 'hasSameIdentityStrategyAs should compare the identity strategies by identity'() {
+		given:
+		  def identityStrategy = Stub(IdentityStrategy)
+		  def selector = new CollectionItemElementSelector('foo')
+		expect:
+		  selector.hasSameIdentityStrategyAs(new CollectionItemElementSelector('bar'))
+		  !selector.hasSameIdentityStrategyAs(selector.copyWithIdentityStrategy(identityStrategy))
+		  !selector.hasSameIdentityStrategyAs(null)
+	}
+
 	def 'should provide accessor for item'() {
 		setup:
 		  def item = "foo"
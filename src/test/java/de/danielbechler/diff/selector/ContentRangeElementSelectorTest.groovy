@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ContentRangeElementSelectorTest extends Specification {
+
+	@Unroll
+	def 'toHumanReadableString should be #expected'() {
+		expect:
+		  new ContentRangeElementSelector(workingOffset, workingLength, baseOffset, baseLength).toHumanReadableString() == expected
+		where:
+		  workingOffset | workingLength | baseOffset | baseLength || expected
+		  0             | 120           | 0          | 100        || '[0..99->0..119]'
+		  100           | 50            | 80         | 0          || '[->100..149]'
+		  80            | 0             | 100        | 50         || '[100..149->]'
+	}
+
+	def 'should be equal to selectors of the same ranges'() {
+		expect:
+		  new ContentRangeElementSelector(1, 2, 3, 4) == new ContentRangeElementSelector(1, 2, 3, 4)
+		  new ContentRangeElementSelector(1, 2, 3, 4).hashCode() == new ContentRangeElementSelector(1, 2, 3, 4).hashCode()
+		  new ContentRangeElementSelector(1, 2, 3, 4) != new ContentRangeElementSelector(1, 2, 3, 5)
+		  new ContentRangeElementSelector(1, 2, 3, 4) != new ContentRangeElementSelector(0, 2, 3, 4)
+		  !new ContentRangeElementSelector(1, 2, 3, 4).equals(null)
+	}
+
+	@Unroll
+	def 'should not be constructable with invalid ranges (#workingOffset+#workingLength, #baseOffset+#baseLength)'() {
+		when:
+		  new ContentRangeElementSelector(workingOffset, workingLength, baseOffset, baseLength)
+		then:
+		  thrown(IllegalArgumentException)
+		where:
+		  workingOffset | workingLength | baseOffset | baseLength
+		  -1            | 1             | 0          | 1
+		  0             | -1            | 0          | 1
+		  0             | 0             | 0          | 0
+	}
+}
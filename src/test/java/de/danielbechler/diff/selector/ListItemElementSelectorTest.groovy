@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemElementSelectorTest extends Specification {
+
+	@Unroll
+	def "toHumanReadableString should be #expected for working index #workingIndex and base index #baseIndex"() {
+		expect:
+		  new ListItemElementSelector(workingIndex, baseIndex).toHumanReadableString() == expected
+
+		where:
+		  workingIndex | baseIndex || expected
+		  3            | 3         || '[3]'
+		  5            | 3         || '[3->5]'
+		  5            | NO_INDEX  || '[->5]'
+		  NO_INDEX     | 3         || '[3->]'
+	}
+
+	@Unroll
+	def "equals should be #expected when comparing [#workingIndex, #baseIndex] with [#otherWorkingIndex, #otherBaseIndex]"() {
+		given:
+		  def selector = new ListItemElementSelector(workingIndex, baseIndex)
+		  def otherSelector = new ListItemElementSelector(otherWorkingIndex, otherBaseIndex)
+
+		expect:
+		  selector.equals(otherSelector) == expected
+		  !expected || selector.hashCode() == otherSelector.hashCode()
+
+		where:
+		  workingIndex | baseIndex | otherWorkingIndex | otherBaseIndex || expected
+		  1            | 2         | 1                 | 2              || true
+		  1            | 2         | 1                 | 3              || false
+		  1            | NO_INDEX  | NO_INDEX          | 1              || false
+	}
+
+	def "should not be equal to 'null' or different types"() {
+		expect:
+		  !new ListItemElementSelector(1, 1).equals(null)
+		  !new ListItemElementSelector(1, 1).equals(new CollectionItemElementSelector(1))
+	}
+
+	def "should not be constructable without any index"() {
+		when:
+		  new ListItemElementSelector(NO_INDEX, NO_INDEX)
+
+		then:
+		  thrown(IllegalArgumentException)
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.util
+
+import de.danielbechler.diff.mock.IsolatingClassLoader
+import de.danielbechler.diff.mock.ObjectWithString
+import groovy.transform.CompileStatic
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.lang.ref.WeakReference
+
+class WeakClassMapTest extends Specification {
+
+	def map = new WeakClassMap<String>()
+
+	def 'get: returns the value of the given type'() {
+		given:
+		  map.put(String, 'foo')
+		expect:
+		  map.get(String) == 'foo'
+		  map.get(Integer) == null
+	}
+
+	def 'put: replaces the value of the given type'() {
+		given:
+		  map.put(String, 'foo')
+		when:
+		  map.put(String, 'bar')
+		then:
+		  map.get(String) == 'bar'
+		  map.size() == 1
+	}
+
+	def 'putIfAbsent: keeps the known value'() {
+		expect:
+		  map.putIfAbsent(String, 'foo') == null
+		  map.putIfAbsent(String, 'bar') == 'foo'
+		  map.get(String) == 'foo'
+	}
+
+	def 'clear: removes all entries'() {
+		given:
+		  map.put(String, 'foo')
+		when:
+		  map.clear()
+		then:
+		  map.size() == 0
+		  map.get(String) == null
+	}
+
+	@Timeout(30)
+	def 'removes the entries of garbage collected types'() {
+		given:
+		  def type = putTypeOfDiscardedClassLoader(map)
+		when:
+		  // collected keys get enqueued asynchronously, so they may still be around right after the type is gone
+		  while (type.get() != null || map.size() > 1) {
+			  System.gc()
+			  Thread.sleep(10)
+			  map.put(String, 'foo')
+		  }
+		then:
+		  map.size() == 1
+		  map.get(String) == 'foo'
+	}
+
+	@CompileStatic
+	private static WeakReference<Class<?>> putTypeOfDiscardedClassLoader(WeakClassMap<String> map) {
+		Class type = IsolatingClassLoader.isolatedCopyOf(ObjectWithString)
+		map.put(type, 'foo')
+		return new WeakReference<Class<?>>((Class<?>) type)
+	}
+}